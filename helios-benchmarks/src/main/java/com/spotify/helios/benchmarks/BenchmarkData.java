@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks;
+
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.HostStatus;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.PortMapping;
+import com.spotify.helios.common.descriptors.ServiceEndpoint;
+import com.spotify.helios.common.descriptors.ServicePorts;
+import com.spotify.helios.common.descriptors.TaskStatus;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+
+/**
+ * Fixtures shared by the benchmarks, shaped like what a production master and agent handle.
+ */
+public final class BenchmarkData {
+
+  /**
+   * The number of distinct values of the {@code pool} label of the hosts.
+   */
+  public static final int POOLS = 16;
+
+  private static final String[] ROLES = {"web", "api", "search", "storage", "batch"};
+  private static final String[] SITES = {"ash", "lon", "sjc", "gew"};
+
+  private BenchmarkData() {
+  }
+
+  public static Job.Builder jobBuilder() {
+    return Job.newBuilder()
+        .setName("benchmark-service")
+        .setVersion("1.0.0-2a3b4c5d")
+        .setImage("registry.example.com:5000/benchmark-service:1.0.0-2a3b4c5d")
+        .setCommand(ImmutableList.of("java", "-Xmx2g", "-jar", "/opt/service.jar", "server"))
+        .setEnv(ImmutableMap.of("SERVICE_ENV", "production",
+                                "JAVA_OPTS", "-XX:+UseG1GC -XX:MaxGCPauseMillis=100",
+                                "LOG_LEVEL", "INFO"))
+        .setPorts(ImmutableMap.of("http", PortMapping.of(8080),
+                                  "admin", PortMapping.of(8081),
+                                  "hermes", PortMapping.of(5700, 5700)))
+        .setRegistration(ImmutableMap.of(
+            ServiceEndpoint.of("benchmark-service", ServiceEndpoint.HTTP),
+            ServicePorts.of("http"),
+            ServiceEndpoint.of("benchmark-service", "hm"),
+            ServicePorts.of("hermes")))
+        .setVolumes(ImmutableMap.of("/etc/ssl", "/etc/ssl:ro"))
+        .setMetadata(ImmutableMap.of("owner", "benchmarks", "commit", "2a3b4c5d"))
+        .setGracePeriod(10)
+        .setCreatingUser("benchmarks");
+  }
+
+  public static Job job() {
+    return jobBuilder().build();
+  }
+
+  public static TaskStatus taskStatus(final Job job) {
+    return TaskStatus.newBuilder()
+        .setJob(job)
+        .setGoal(Goal.START)
+        .setState(TaskStatus.State.RUNNING)
+        .setContainerId("4a2b5b1d2d6e9c0f7e8c3a1b9d0e2f4a6c8b0d1e3f5a7c9b1d3e5f7a9c1b3d5e")
+        .setPorts(ImmutableMap.of("http", PortMapping.of(8080, 20000),
+                                  "admin", PortMapping.of(8081, 20001),
+                                  "hermes", PortMapping.of(5700, 5700)))
+        .setEnv(job.getEnv())
+        .build();
+  }
+
+  /**
+   * Returns the status of an agent running {@code jobs} distinct versions of the benchmark job.
+   */
+  public static HostStatus hostStatus(final int jobs) {
+    final Map<JobId, Deployment> deployments = Maps.newHashMap();
+    final Map<JobId, TaskStatus> statuses = Maps.newHashMap();
+    for (int i = 0; i < jobs; i++) {
+      final Job job = jobBuilder().setName("benchmark-service-" + i).build();
+      deployments.put(job.getId(), Deployment.of(job.getId(), Goal.START));
+      statuses.put(job.getId(), taskStatus(job));
+    }
+    return HostStatus.newBuilder()
+        .setStatus(HostStatus.Status.UP)
+        .setJobs(deployments)
+        .setStatuses(statuses)
+        .setEnvironment(ImmutableMap.of("HELIOS_SITE", "ash"))
+        .setLabels(labels(0))
+        .build();
+  }
+
+  /**
+   * Returns a name for the {@code i}th host, numbered the way hosts usually are so that the
+   * alphanumeric comparator has digits to compare.
+   */
+  public static String hostName(final int i) {
+    return String.format("%s%d.%s.example.com", ROLES[i % ROLES.length], i,
+                         SITES[i % SITES.length]);
+  }
+
+  public static Map<String, String> labels(final int i) {
+    return ImmutableMap.of("role", ROLES[i % ROLES.length],
+                           "site", SITES[i % SITES.length],
+                           "pool", String.valueOf(i % POOLS),
+                           "generation", String.valueOf(i % 3));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks;
+
+import com.spotify.helios.common.descriptors.HostSelector;
+import com.spotify.helios.master.HostMatcher;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Host selector parsing, and matching deployment group selectors against a large fleet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HostMatcherBenchmark {
+
+  @Param({"10000"})
+  public int hosts;
+
+  private HostMatcher matcher;
+  private List<HostSelector> selectors;
+
+  @Setup
+  public void setup() {
+    final Map<String, Map<String, String>> hostsAndLabels = Maps.newHashMap();
+    for (int i = 0; i < hosts; i++) {
+      hostsAndLabels.put(BenchmarkData.hostName(i), BenchmarkData.labels(i));
+    }
+    matcher = new HostMatcher(hostsAndLabels);
+    selectors = ImmutableList.of(HostSelector.parse("role=web"),
+                                 HostSelector.parse("site in (ash, lon)"),
+                                 HostSelector.parse("generation!=2"));
+  }
+
+  @Benchmark
+  public List<String> getMatchingHosts() {
+    return matcher.getMatchingHosts(selectors);
+  }
+
+  @Benchmark
+  public HostSelector parseEquals() {
+    return HostSelector.parse("role=web");
+  }
+
+  @Benchmark
+  public HostSelector parseIn() {
+    return HostSelector.parse("site in (ash, lon, sjc)");
+  }
+}
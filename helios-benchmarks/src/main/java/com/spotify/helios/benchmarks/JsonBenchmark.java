@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks;
+
+import com.spotify.helios.common.Json;
+import com.spotify.helios.common.descriptors.HostStatus;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.TaskStatus;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the descriptors that are written to and read from ZooKeeper most often, in
+ * each of the {@link PayloadEncoding}s. The encoded size of each descriptor is printed during
+ * setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+  @Param({"json", "smile"})
+  public String encoding;
+
+  private PayloadEncoding payloadEncoding;
+
+  private Job job;
+  private TaskStatus taskStatus;
+  private HostStatus hostStatus;
+
+  private byte[] jobBytes;
+  private byte[] taskStatusBytes;
+  private byte[] hostStatusBytes;
+
+  @Setup
+  public void setup() {
+    job = BenchmarkData.job();
+    taskStatus = BenchmarkData.taskStatus(job);
+    hostStatus = BenchmarkData.hostStatus(20);
+
+    payloadEncoding = PayloadEncoding.parse(encoding);
+    jobBytes = payloadEncoding.encode(job);
+    taskStatusBytes = payloadEncoding.encode(taskStatus);
+    hostStatusBytes = payloadEncoding.encode(hostStatus);
+
+    System.out.printf("%s sizes: job=%d taskStatus=%d hostStatus=%d bytes%n", encoding,
+                      jobBytes.length, taskStatusBytes.length, hostStatusBytes.length);
+  }
+
+  @Benchmark
+  public byte[] writeJob() {
+    return payloadEncoding.encode(job);
+  }
+
+  @Benchmark
+  public Job readJob() throws IOException {
+    return Json.read(jobBytes, Job.class);
+  }
+
+  @Benchmark
+  public byte[] writeTaskStatus() {
+    return payloadEncoding.encode(taskStatus);
+  }
+
+  @Benchmark
+  public TaskStatus readTaskStatus() throws IOException {
+    return Json.read(taskStatusBytes, TaskStatus.class);
+  }
+
+  @Benchmark
+  public byte[] writeHostStatus() {
+    return payloadEncoding.encode(hostStatus);
+  }
+
+  @Benchmark
+  public HostStatus readHostStatus() throws IOException {
+    return Json.read(hostStatusBytes, HostStatus.class);
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks;
+
+import com.spotify.helios.agent.PortAllocator;
+import com.spotify.helios.common.descriptors.PortMapping;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Port allocation on an agent whose dynamic port range is partly in use.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PortAllocatorBenchmark {
+
+  private static final int START = 20000;
+  private static final int END = 32768;
+
+  @Param({"0", "1000", "10000"})
+  public int used;
+
+  private PortAllocator allocator;
+  private Map<String, PortMapping> ports;
+  private Set<Integer> usedPorts;
+
+  @Setup
+  public void setup() {
+    allocator = new PortAllocator(START, END);
+    ports = ImmutableMap.of("http", PortMapping.of(8080),
+                            "admin", PortMapping.of(8081),
+                            "hermes", PortMapping.of(5700, 5700));
+    final ImmutableSet.Builder<Integer> builder = ImmutableSet.builder();
+    for (int i = 0; i < used; i++) {
+      builder.add(START + i);
+    }
+    usedPorts = builder.build();
+  }
+
+  @Benchmark
+  public Map<String, Integer> allocate() {
+    return allocator.allocate(ports, usedPorts);
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks;
+
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.DeploymentGroup;
+import com.spotify.helios.common.descriptors.HostStatus;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.RolloutOptions;
+import com.spotify.helios.common.descriptors.RolloutTask;
+import com.spotify.helios.common.descriptors.TaskStatus;
+import com.spotify.helios.rollingupdate.AlphaNumericComparator;
+import com.spotify.helios.rollingupdate.RollingUpdatePlanner;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Planning a rolling update: ordering the hosts of a deployment group and generating the tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RollingUpdateBenchmark {
+
+  @Param({"100", "10000"})
+  public int hosts;
+
+  @Param({"1", "10"})
+  public int parallelism;
+
+  private final AlphaNumericComparator comparator = new AlphaNumericComparator(Locale.ENGLISH);
+
+  private List<String> hostNames;
+  private Map<String, HostStatus> hostStatuses;
+  private RollingUpdatePlanner planner;
+
+  @Setup
+  public void setup() {
+    hostNames = Lists.newArrayList();
+    hostStatuses = Maps.newLinkedHashMap();
+    final HostStatus up = HostStatus.newBuilder()
+        .setStatus(HostStatus.Status.UP)
+        .setJobs(Collections.<JobId, Deployment>emptyMap())
+        .setStatuses(Collections.<JobId, TaskStatus>emptyMap())
+        .build();
+    for (int i = 0; i < hosts; i++) {
+      final String host = BenchmarkData.hostName(i);
+      hostNames.add(host);
+      hostStatuses.put(host, up);
+    }
+    // The planner is given the hosts in the order they'd be rolled out
+    Collections.sort(hostNames, comparator);
+
+    final DeploymentGroup deploymentGroup = DeploymentGroup.newBuilder()
+        .setName("benchmark")
+        .setJobId(BenchmarkData.job().getId())
+        .setRolloutOptions(RolloutOptions.newBuilder().setParallelism(parallelism).build())
+        .build();
+    planner = RollingUpdatePlanner.of(deploymentGroup);
+  }
+
+  @Benchmark
+  public List<String> sortHosts() {
+    final List<String> sorted = Lists.newArrayList(hostNames);
+    Collections.reverse(sorted);
+    Collections.sort(sorted, comparator);
+    return sorted;
+  }
+
+  @Benchmark
+  public int compare() {
+    return comparator.compare("web1234.ash.example.com", "web1243.ash.example.com");
+  }
+
+  @Benchmark
+  public List<RolloutTask> plan() {
+    return planner.plan(hostStatuses);
+  }
+}
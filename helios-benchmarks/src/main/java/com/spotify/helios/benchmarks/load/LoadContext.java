@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks.load;
+
+import com.spotify.helios.benchmarks.BenchmarkData;
+import com.spotify.helios.client.HeliosClient;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.PortMapping;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * What the workloads operate on: the client talking to the master, and the hosts and jobs that
+ * the harness set up.
+ */
+class LoadContext {
+
+  private final HeliosClient client;
+  private final List<String> hosts;
+  private final List<JobId> jobs;
+  private final int rolloutParallelism;
+  private final AtomicLong versions = new AtomicLong();
+
+  LoadContext(final HeliosClient client, final List<String> hosts, final List<JobId> jobs,
+              final int rolloutParallelism) {
+    this.client = client;
+    this.hosts = ImmutableList.copyOf(hosts);
+    this.jobs = ImmutableList.copyOf(jobs);
+    this.rolloutParallelism = rolloutParallelism;
+  }
+
+  HeliosClient client() {
+    return client;
+  }
+
+  String randomHost() {
+    return hosts.get(ThreadLocalRandom.current().nextInt(hosts.size()));
+  }
+
+  JobId randomJob() {
+    return jobs.get(ThreadLocalRandom.current().nextInt(jobs.size()));
+  }
+
+  /**
+   * The number of distinct values of the {@code pool} label the agents are spread over.
+   */
+  int pools() {
+    return BenchmarkData.POOLS;
+  }
+
+  int rolloutParallelism() {
+    return rolloutParallelism;
+  }
+
+  long nextVersion() {
+    return versions.incrementAndGet();
+  }
+
+  /**
+   * Returns a realistic job that only uses dynamic ports, so that any number of them can be
+   * deployed to the same host.
+   */
+  static Job.Builder jobBuilder() {
+    return BenchmarkData.jobBuilder()
+        .setPorts(ImmutableMap.of("http", PortMapping.of(8080),
+                                  "admin", PortMapping.of(8081),
+                                  "hermes", PortMapping.of(5700)));
+  }
+}
@@ -0,0 +1,546 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks.load;
+
+import com.spotify.helios.ZooKeeperTestingServerManager;
+import com.spotify.helios.benchmarks.BenchmarkData;
+import com.spotify.helios.client.HeliosClient;
+import com.spotify.helios.common.Json;
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
+import com.spotify.helios.common.protocol.CreateJobResponse;
+import com.spotify.helios.master.MasterMain;
+import com.spotify.helios.servicescommon.coordination.DefaultZooKeeperClient;
+import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
+
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.UniformReservoir;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Measures how a master copes with a large fleet. Starts a local ZooKeeper and a master, then
+ * thousands of {@link SimulatedAgent}s that write the same host status, task status, label and
+ * history data as real agents but fake the containers. It then runs each selected
+ * {@link Workload} against the master's API for a fixed time from a number of threads, and reports
+ * throughput, latency percentiles and the ZooKeeper request rate.
+ *
+ * <p>Nothing but the local machine is needed:
+ * <pre>
+ * mvn -P benchmarks -pl helios-benchmarks -am install -DskipTests -Djmh.skip=true
+ * mvn -P benchmarks -pl helios-benchmarks compile exec:java \
+ *     -Dexec.mainClass=com.spotify.helios.benchmarks.load.LoadHarness \
+ *     -Dexec.args="--agents 2000 --workload list-jobs --workload deploy --report load.json"
+ * </pre>
+ *
+ * <p>Each simulated agent costs a handful of threads, so raise the process and memory limits
+ * before simulating more than a few thousand agents.
+ */
+public class LoadHarness {
+
+  private static final String MASTER_NAME = "load-master";
+  private static final int MAX_REPORTED_ERRORS = 5;
+
+  private final Namespace options;
+  private final Path stateDirectory;
+  private final List<CuratorFramework> curators = Lists.newArrayList();
+  private final List<SimulatedAgent> agents = Lists.newArrayList();
+
+  private ZooKeeperTestingServerManager zk;
+  private MasterMain master;
+  private HeliosClient client;
+  private ScheduledExecutorService agentExecutor;
+  private LoadContext context;
+
+  private LoadHarness(final Namespace options) throws IOException {
+    this.options = options;
+    this.stateDirectory = Files.createTempDirectory("helios-load");
+  }
+
+  public static void main(final String... args) throws Exception {
+    // The logging configuration on the classpath defaults to DEBUG, which would drown the report
+    setPropertyIfAbsent("heliosLoggingLevel", "WARN");
+    setPropertyIfAbsent("rootLoggingLevel", "WARN");
+
+    final ArgumentParser parser = parser();
+    final Namespace options;
+    try {
+      options = parser.parseArgs(args);
+    } catch (ArgumentParserException e) {
+      parser.handleError(e);
+      System.exit(2);
+      return;
+    }
+
+    final LoadHarness harness = new LoadHarness(options);
+    final List<WorkloadResult> results;
+    try {
+      harness.start();
+      results = harness.runWorkloads();
+    } finally {
+      harness.stop();
+    }
+
+    printReport(results);
+    final String report = options.getString("report");
+    if (report != null) {
+      Files.write(java.nio.file.Paths.get(report),
+                  Json.asPrettyString(ImmutableMap.of("options", options.getAttrs(),
+                                                      "results", results)).getBytes(UTF_8));
+    }
+    System.exit(0);
+  }
+
+  private static ArgumentParser parser() {
+    final ArgumentParser parser = ArgumentParsers.newArgumentParser("helios-load")
+        .defaultHelp(true)
+        .description("Simulates a fleet of agents and measures the master under load.");
+    parser.addArgument("--agents")
+        .type(Integer.class)
+        .setDefault(1000)
+        .help("Number of simulated agents.");
+    parser.addArgument("--agents-per-session")
+        .type(Integer.class)
+        .setDefault(50)
+        .help("Number of agents sharing a ZooKeeper session.");
+    parser.addArgument("--jobs")
+        .type(Integer.class)
+        .setDefault(200)
+        .help("Number of jobs to create.");
+    parser.addArgument("--jobs-per-agent")
+        .type(Integer.class)
+        .setDefault(5)
+        .help("Number of jobs deployed to each agent before the workloads run.");
+    parser.addArgument("--workload")
+        .action(Arguments.append())
+        .choices(Workload.names())
+        .help("Workload to run, can be given several times. Defaults to all of them.");
+    parser.addArgument("--concurrency")
+        .type(Integer.class)
+        .setDefault(8)
+        .help("Number of threads issuing requests.");
+    parser.addArgument("--duration")
+        .type(Integer.class)
+        .setDefault(30)
+        .help("Seconds to run each workload for.");
+    parser.addArgument("--transition-delay")
+        .type(Long.class)
+        .setDefault(100L)
+        .help("Milliseconds a simulated task spends in each container state.");
+    parser.addArgument("--rollout-parallelism")
+        .type(Integer.class)
+        .setDefault(10)
+        .help("Parallelism of the rolling updates.");
+    parser.addArgument("--no-history")
+        .action(Arguments.storeTrue())
+        .help("Don't write task history from the agents.");
+    parser.addArgument("--zk-payload-encoding")
+        .choices("json", "smile")
+        .setDefault("json")
+        .help("How the master and agents encode data written to ZooKeeper.");
+    parser.addArgument("--report")
+        .help("File to write the results to as JSON.");
+    return parser;
+  }
+
+  private void start() throws Exception {
+    progress("starting zookeeper");
+    zk = new ZooKeeperTestingServerManager();
+    for (final String path : ImmutableList.of(Paths.configHosts(), Paths.configJobs(),
+                                              Paths.configJobRefs(), Paths.statusHosts(),
+                                              Paths.statusMasters(), Paths.historyJobs())) {
+      zk.ensure(path);
+    }
+
+    progress("starting master");
+    final int port = zk.temporaryPorts.localPort("master");
+    final int adminPort = zk.temporaryPorts.localPort("master-admin");
+    master = new MasterMain(new String[]{
+        "--no-log-setup",
+        "--name", MASTER_NAME,
+        "--domain", "",
+        "--http", "http://127.0.0.1:" + port,
+        "--admin", "http://127.0.0.1:" + adminPort,
+        "--zk", zk.connectString(),
+        "--state-dir", stateDirectory.resolve(MASTER_NAME).toString(),
+        "--zk-payload-encoding", options.getString("zk_payload_encoding")
+    });
+    master.startAsync().awaitRunning();
+
+    final int concurrency = options.getInt("concurrency");
+    client = HeliosClient.newBuilder()
+        .setUser("helios-load")
+        .setEndpoints("http://127.0.0.1:" + port)
+        .setExecutorService(Executors.newScheduledThreadPool(concurrency))
+        .setShutDownExecutorOnClose(true)
+        .build();
+    client.listMasters().get(1, MINUTES);
+
+    startAgents();
+    createJobs();
+  }
+
+  private void startAgents() throws Exception {
+    final int count = options.getInt("agents");
+    final int perSession = options.getInt("agents_per_session");
+    final boolean history = !options.getBoolean("no_history");
+    final long transitionDelay = options.getLong("transition_delay");
+
+    progress("starting %d agents", count);
+    agentExecutor = Executors.newScheduledThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        new ThreadFactoryBuilder().setNameFormat("simulated-agent-%d").setDaemon(true).build());
+
+    ZooKeeperClient session = null;
+    for (int i = 0; i < count; i++) {
+      if (i % perSession == 0) {
+        final CuratorFramework curator = CuratorFrameworkFactory.builder()
+            .connectString(zk.connectString())
+            .retryPolicy(new ExponentialBackoffRetry(1000, 3))
+            .build();
+        curators.add(curator);
+        session = new DefaultZooKeeperClient(curator);
+        session.start();
+      }
+      final String host = BenchmarkData.hostName(i);
+      agents.add(new SimulatedAgent(host, session, agentExecutor, stateDirectory.resolve(host),
+                                    BenchmarkData.labels(i), history, transitionDelay));
+    }
+
+    // Starting an agent blocks on a few round trips to ZooKeeper, so start them concurrently
+    final ExecutorService starter = Executors.newFixedThreadPool(32);
+    try {
+      final List<Future<Boolean>> started = Lists.newArrayList();
+      for (final SimulatedAgent agent : agents) {
+        started.add(starter.submit(() -> {
+          agent.startAsync().awaitRunning();
+          return agent.awaitRegistered(5, MINUTES);
+        }));
+      }
+      for (int i = 0; i < started.size(); i++) {
+        if (!started.get(i).get()) {
+          throw new IllegalStateException(agents.get(i).getHost() + " didn't register");
+        }
+        if ((i + 1) % 500 == 0) {
+          progress("%d agents up", i + 1);
+        }
+      }
+    } finally {
+      starter.shutdownNow();
+    }
+  }
+
+  private void createJobs() throws Exception {
+    final int count = options.getInt("jobs");
+    final int perAgent = Math.min(options.getInt("jobs_per_agent"), count);
+    progress("creating %d jobs and deploying %d to each agent", count, perAgent);
+
+    final List<JobId> jobs = Lists.newArrayList();
+    for (int i = 0; i < count; i++) {
+      final Job job = LoadContext.jobBuilder().setName("load-job-" + i).setVersion("1").build();
+      final CreateJobResponse response = client.createJob(job).get();
+      if (response.getStatus() != CreateJobResponse.Status.OK) {
+        throw new IllegalStateException("creating " + job.getId() + " failed: " + response);
+      }
+      jobs.add(job.getId());
+    }
+
+    final Map<JobId, List<String>> hostsByJob = Maps.newLinkedHashMap();
+    for (int i = 0; i < agents.size(); i++) {
+      for (int j = 0; j < perAgent; j++) {
+        final JobId job = jobs.get((i * perAgent + j) % count);
+        if (!hostsByJob.containsKey(job)) {
+          hostsByJob.put(job, Lists.<String>newArrayList());
+        }
+        hostsByJob.get(job).add(agents.get(i).getHost());
+      }
+    }
+    for (final Map.Entry<JobId, List<String>> entry : hostsByJob.entrySet()) {
+      final BulkDeployResponse response =
+          client.deploy(Deployment.of(entry.getKey(), Goal.START), entry.getValue()).get();
+      if (response == null) {
+        throw new IllegalStateException("master doesn't support bulk deploys");
+      }
+    }
+
+    context = new LoadContext(client, hosts(), jobs, options.getInt("rollout_parallelism"));
+  }
+
+  private List<String> hosts() {
+    final List<String> hosts = Lists.newArrayList();
+    for (final SimulatedAgent agent : agents) {
+      hosts.add(agent.getHost());
+    }
+    return hosts;
+  }
+
+  private List<WorkloadResult> runWorkloads() throws Exception {
+    final List<String> names = options.getList("workload");
+    final List<Workload> workloads = Lists.newArrayList();
+    for (final String name : names == null ? Workload.names() : names) {
+      workloads.add(Workload.fromName(name));
+    }
+
+    final List<WorkloadResult> results = Lists.newArrayList();
+    for (final Workload workload : workloads) {
+      results.add(run(workload));
+    }
+    return results;
+  }
+
+  private WorkloadResult run(final Workload workload) throws Exception {
+    final int concurrency = options.getInt("concurrency");
+    final long durationNanos = SECONDS.toNanos(options.getInt("duration"));
+
+    progress("running %s", workload);
+    workload.prepare(context, concurrency);
+
+    final Timer timer = new Timer(new UniformReservoir(100_000));
+    final AtomicLong errors = new AtomicLong();
+    final AtomicBoolean done = new AtomicBoolean();
+
+    final ZooKeeperStats zkBefore = zkStats();
+    final long start = System.nanoTime();
+    final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+    try {
+      final List<Future<?>> futures = Lists.newArrayList();
+      for (int i = 0; i < concurrency; i++) {
+        final int worker = i;
+        futures.add(workers.submit(() -> {
+          while (!done.get()) {
+            final long begin = System.nanoTime();
+            try {
+              workload.run(context, worker);
+              timer.update(System.nanoTime() - begin, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+              return null;
+            } catch (Exception e) {
+              if (errors.incrementAndGet() <= MAX_REPORTED_ERRORS) {
+                progress("%s failed: %s", workload, e);
+              }
+            }
+          }
+          return null;
+        }));
+      }
+      MILLISECONDS.sleep(TimeUnit.NANOSECONDS.toMillis(durationNanos));
+      done.set(true);
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      workers.shutdownNow();
+    }
+    final double seconds = (System.nanoTime() - start) / 1e9;
+    final ZooKeeperStats zkAfter = zkStats();
+
+    return new WorkloadResult(workload.toString(), timer.getCount(), errors.get(), seconds,
+                              timer.getSnapshot(), zkAfter.receivedRate(zkBefore),
+                              zkAfter.sentRate(zkBefore), zkAfter.getNodes());
+  }
+
+  private ZooKeeperStats zkStats() throws IOException {
+    final String[] hostAndPort = zk.connectString().split(":");
+    return ZooKeeperStats.read(hostAndPort[0], Integer.parseInt(hostAndPort[1]));
+  }
+
+  private void stop() {
+    progress("shutting down");
+    for (final SimulatedAgent agent : agents) {
+      agent.stopAsync();
+    }
+    for (final SimulatedAgent agent : agents) {
+      try {
+        agent.awaitTerminated(1, MINUTES);
+      } catch (Exception e) {
+        progress("stopping %s failed: %s", agent.getHost(), e);
+      }
+    }
+    if (agentExecutor != null) {
+      agentExecutor.shutdownNow();
+    }
+    for (final CuratorFramework curator : curators) {
+      curator.close();
+    }
+    if (client != null) {
+      try {
+        client.close();
+      } catch (IOException e) {
+        progress("closing client failed: %s", e);
+      }
+    }
+    if (master != null) {
+      master.stopAsync().awaitTerminated();
+    }
+    if (zk != null) {
+      try {
+        zk.close();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    FileUtils.deleteQuietly(stateDirectory.toFile());
+  }
+
+  private static void printReport(final List<WorkloadResult> results) {
+    System.out.printf("%-16s %10s %8s %10s %9s %9s %9s %9s %12s %12s%n",
+                      "WORKLOAD", "OPS", "ERRORS", "OPS/S", "P50 MS", "P95 MS", "P99 MS",
+                      "MAX MS", "ZK RECV/S", "ZK SENT/S");
+    for (final WorkloadResult result : results) {
+      System.out.printf("%-16s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %12.1f %12.1f%n",
+                        result.getWorkload(), result.getOperations(), result.getErrors(),
+                        result.getThroughput(), result.getLatencyMillis().get("p50"),
+                        result.getLatencyMillis().get("p95"), result.getLatencyMillis().get("p99"),
+                        result.getLatencyMillis().get("max"), result.getZooKeeperReceivedRate(),
+                        result.getZooKeeperSentRate());
+    }
+  }
+
+  private static void progress(final String format, final Object... args) {
+    System.err.println("helios-load: " + String.format(format, args));
+  }
+
+  private static void setPropertyIfAbsent(final String key, final String value) {
+    if (System.getProperty(key) == null) {
+      System.setProperty(key, value);
+    }
+  }
+
+  /**
+   * The outcome of running one workload.
+   */
+  public static class WorkloadResult {
+
+    private final String workload;
+    private final long operations;
+    private final long errors;
+    private final double seconds;
+    private final Map<String, Double> latencyMillis;
+    private final double zooKeeperReceivedRate;
+    private final double zooKeeperSentRate;
+    private final long zooKeeperNodes;
+
+    WorkloadResult(final String workload, final long operations, final long errors,
+                   final double seconds, final Snapshot latency,
+                   final double zooKeeperReceivedRate, final double zooKeeperSentRate,
+                   final long zooKeeperNodes) {
+      this.workload = workload;
+      this.operations = operations;
+      this.errors = errors;
+      this.seconds = seconds;
+      this.latencyMillis = ImmutableMap.<String, Double>builder()
+          .put("mean", millis(latency.getMean()))
+          .put("p50", millis(latency.getMedian()))
+          .put("p95", millis(latency.get95thPercentile()))
+          .put("p99", millis(latency.get99thPercentile()))
+          .put("p999", millis(latency.get999thPercentile()))
+          .put("max", millis(latency.getMax()))
+          .build();
+      this.zooKeeperReceivedRate = zooKeeperReceivedRate;
+      this.zooKeeperSentRate = zooKeeperSentRate;
+      this.zooKeeperNodes = zooKeeperNodes;
+    }
+
+    private static double millis(final double nanos) {
+      return nanos / 1e6;
+    }
+
+    @JsonProperty
+    public String getWorkload() {
+      return workload;
+    }
+
+    @JsonProperty
+    public long getOperations() {
+      return operations;
+    }
+
+    @JsonProperty
+    public long getErrors() {
+      return errors;
+    }
+
+    @JsonProperty
+    public double getSeconds() {
+      return seconds;
+    }
+
+    @JsonProperty
+    public double getThroughput() {
+      return seconds > 0 ? operations / seconds : 0;
+    }
+
+    @JsonProperty
+    public Map<String, Double> getLatencyMillis() {
+      return latencyMillis;
+    }
+
+    @JsonProperty
+    public double getZooKeeperReceivedRate() {
+      return zooKeeperReceivedRate;
+    }
+
+    @JsonProperty
+    public double getZooKeeperSentRate() {
+      return zooKeeperSentRate;
+    }
+
+    @JsonProperty
+    public long getZooKeeperNodes() {
+      return zooKeeperNodes;
+    }
+  }
+}
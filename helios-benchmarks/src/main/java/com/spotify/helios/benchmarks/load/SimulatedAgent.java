@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks.load;
+
+import com.spotify.helios.agent.AgentModel;
+import com.spotify.helios.agent.AgentZooKeeperRegistrar;
+import com.spotify.helios.agent.EnvironmentVariableReporter;
+import com.spotify.helios.agent.LabelReporter;
+import com.spotify.helios.agent.TaskHistoryWriter;
+import com.spotify.helios.agent.ZooKeeperAgentModel;
+import com.spotify.helios.common.SystemClock;
+import com.spotify.helios.common.Version;
+import com.spotify.helios.common.descriptors.AgentInfo;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.HostInfo;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.Task;
+import com.spotify.helios.common.descriptors.TaskStatus;
+import com.spotify.helios.servicescommon.KafkaClientProvider;
+import com.spotify.helios.servicescommon.ZooKeeperRegistrarService;
+import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperModelReporter;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperNodeUpdaterFactory;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.AbstractIdleService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.spotify.helios.common.descriptors.TaskStatus.State.CREATING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.PULLING_IMAGE;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.RUNNING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.STARTING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.STOPPED;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.STOPPING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * A lightweight stand-in for a Helios agent. It registers, reports its host info, labels and
+ * environment, and keeps task statuses and history through the same ZooKeeper paths as a real
+ * agent, but instead of talking to Docker it walks each task through the container states with a
+ * fixed delay between them.
+ */
+class SimulatedAgent extends AbstractIdleService {
+
+  private static final Logger log = LoggerFactory.getLogger(SimulatedAgent.class);
+
+  private static final int REGISTRATION_TTL_MINUTES = 10;
+
+  private final String host;
+  private final ZooKeeperClient client;
+  private final ScheduledExecutorService executor;
+  private final long transitionDelayMillis;
+  private final ZooKeeperRegistrarService registrar;
+  private final CountDownLatch registered = new CountDownLatch(1);
+  private final ZooKeeperAgentModel model;
+  private final ZooKeeperNodeUpdaterFactory nodeUpdaterFactory;
+  private final LabelReporter labelReporter;
+  private final EnvironmentVariableReporter environmentVariableReporter;
+  private final AtomicBoolean reconcilePending = new AtomicBoolean();
+
+  private volatile boolean stopped;
+
+  private final AgentModel.Listener listener = new AgentModel.Listener() {
+    @Override
+    public void tasksChanged(final AgentModel model) {
+      scheduleReconcile(0);
+    }
+  };
+
+  /**
+   * @param host                  The name the agent registers as.
+   * @param client                The ZooKeeper client, which may be shared between agents.
+   * @param executor              Runs the simulated container state transitions.
+   * @param stateDirectory        Where the agent model persists its state.
+   * @param labels                The labels the agent reports.
+   * @param history               Whether to write task history like a real agent.
+   * @param transitionDelayMillis The time a task spends in each container state.
+   */
+  SimulatedAgent(final String host, final ZooKeeperClient client,
+                 final ScheduledExecutorService executor, final Path stateDirectory,
+                 final Map<String, String> labels, final boolean history,
+                 final long transitionDelayMillis) throws Exception {
+    this.host = host;
+    this.client = client;
+    this.executor = executor;
+    this.transitionDelayMillis = transitionDelayMillis;
+
+    Files.createDirectories(stateDirectory);
+
+    this.registrar = ZooKeeperRegistrarService.newBuilder()
+        .setZooKeeperClient(client)
+        .setZooKeeperRegistrar(new AgentZooKeeperRegistrar(
+            host, UUID.randomUUID().toString(), REGISTRATION_TTL_MINUTES, new SystemClock()))
+        .setZKRegistrationSignal(registered)
+        .build();
+
+    final TaskHistoryWriter historyWriter = history
+        ? new TaskHistoryWriter(host, client, stateDirectory.resolve("task-history.json"))
+        : null;
+    this.model = new ZooKeeperAgentModel(
+        new ZooKeeperClientProvider(client, ZooKeeperModelReporter.noop()),
+        new KafkaClientProvider(null), host, stateDirectory, historyWriter);
+
+    this.nodeUpdaterFactory = new ZooKeeperNodeUpdaterFactory(client);
+    this.labelReporter = new LabelReporter(host, labels, nodeUpdaterFactory, registered);
+    this.environmentVariableReporter = new EnvironmentVariableReporter(
+        host, ImmutableMap.of("HELIOS_SIMULATED", "true"), nodeUpdaterFactory, registered);
+  }
+
+  String getHost() {
+    return host;
+  }
+
+  /**
+   * Waits until the agent has registered with ZooKeeper.
+   */
+  boolean awaitRegistered(final long timeout, final TimeUnit unit) throws InterruptedException {
+    return registered.await(timeout, unit);
+  }
+
+  @Override
+  protected void startUp() throws Exception {
+    registrar.startAsync().awaitRunning();
+    model.startAsync().awaitRunning();
+    labelReporter.startAsync();
+    environmentVariableReporter.startAsync();
+    // Host and agent info are written once rather than every minute, real agents only refresh
+    // them to update the load average and uptime.
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        reportInfo();
+      }
+    });
+    model.addListener(listener);
+  }
+
+  @Override
+  protected void shutDown() throws Exception {
+    stopped = true;
+    model.removeListener(listener);
+    labelReporter.stopAsync();
+    environmentVariableReporter.stopAsync();
+    model.stopAsync().awaitTerminated();
+    registrar.stopAsync().awaitTerminated();
+  }
+
+  private void reportInfo() {
+    try {
+      if (!registered.await(1, MILLISECONDS)) {
+        executor.schedule(new Runnable() {
+          @Override
+          public void run() {
+            reportInfo();
+          }
+        }, 100, MILLISECONDS);
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    }
+
+    final HostInfo hostInfo = HostInfo.newBuilder()
+        .setHostname(host)
+        .setUname("Linux " + host + " 4.4.0-simulated x86_64 GNU/Linux")
+        .setArchitecture("amd64")
+        .setOsName("Linux")
+        .setOsVersion("4.4.0-simulated")
+        .setCpus(32)
+        .setLoadAvg(ThreadLocalRandom.current().nextDouble(8))
+        .setMemoryTotalBytes(128L << 30)
+        .setMemoryFreeBytes(64L << 30)
+        .setSwapTotalBytes(0)
+        .setSwapFreeBytes(0)
+        .setDockerHost("unix:///var/run/docker.sock")
+        .build();
+    nodeUpdaterFactory.create(Paths.statusHostInfo(host))
+        .update(PayloadEncoding.current().encode(hostInfo));
+
+    final AgentInfo agentInfo = AgentInfo.newBuilder()
+        .setName(host)
+        .setVmName("simulated")
+        .setVmVendor("simulated")
+        .setVmVersion("simulated")
+        .setSpecName("simulated")
+        .setSpecVendor("simulated")
+        .setSpecVersion("simulated")
+        .setInputArguments(ImmutableList.<String>of())
+        .setUptime(0)
+        .setStartTime(System.currentTimeMillis())
+        .setVersion(Version.POM_VERSION)
+        .build();
+    nodeUpdaterFactory.create(Paths.statusHostAgentInfo(host))
+        .update(PayloadEncoding.current().encode(agentInfo));
+  }
+
+  private void scheduleReconcile(final long delayMillis) {
+    if (reconcilePending.compareAndSet(false, true)) {
+      executor.schedule(new Runnable() {
+        @Override
+        public void run() {
+          reconcilePending.set(false);
+          reconcile();
+        }
+      }, delayMillis, MILLISECONDS);
+    }
+  }
+
+  /**
+   * Moves every task one step closer to its goal, and schedules another step if any task hasn't
+   * reached it.
+   */
+  private synchronized void reconcile() {
+    if (stopped) {
+      return;
+    }
+    boolean settled = true;
+    try {
+      final Map<JobId, Task> tasks = model.getTasks();
+      for (final Map.Entry<JobId, Task> entry : tasks.entrySet()) {
+        final Task task = entry.getValue();
+        settled &= step(entry.getKey(), task.getJob(), task.getGoal());
+      }
+      // Like a real agent, stop the tasks that were removed before dropping their status
+      for (final Map.Entry<JobId, TaskStatus> entry : model.getTaskStatuses().entrySet()) {
+        if (!tasks.containsKey(entry.getKey())) {
+          settled &= step(entry.getKey(), entry.getValue().getJob(), Goal.UNDEPLOY);
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (Exception e) {
+      log.warn("{}: reconciling tasks failed", host, e);
+      settled = false;
+    }
+    if (!settled) {
+      scheduleReconcile(transitionDelayMillis);
+    }
+  }
+
+  /**
+   * Moves a task one state closer to its goal. Returns true if it had already reached it.
+   */
+  private boolean step(final JobId jobId, final Job job, final Goal goal)
+      throws InterruptedException {
+    final TaskStatus current = model.getTaskStatus(jobId);
+    final TaskStatus.State next = next(current == null ? null : current.getState(), goal);
+    if (next != null) {
+      model.setTaskStatus(jobId, status(job, goal, next, current));
+      return false;
+    }
+    if (goal == Goal.UNDEPLOY && current != null) {
+      model.removeTaskStatus(jobId);
+    }
+    return true;
+  }
+
+  /**
+   * Returns the state after {@code state} on the way to {@code goal}, or null if the task has
+   * reached it.
+   */
+  private static TaskStatus.State next(final TaskStatus.State state, final Goal goal) {
+    if (goal == Goal.START) {
+      if (state == null || state == STOPPING || state == STOPPED) {
+        return PULLING_IMAGE;
+      }
+      switch (state) {
+        case PULLING_IMAGE:
+          return CREATING;
+        case CREATING:
+          return STARTING;
+        case RUNNING:
+          return null;
+        default:
+          return RUNNING;
+      }
+    }
+    if (state == null || state == STOPPED) {
+      return null;
+    }
+    return state == STOPPING ? STOPPED : STOPPING;
+  }
+
+  private static TaskStatus status(final Job job, final Goal goal, final TaskStatus.State state,
+                                   final TaskStatus current) {
+    final String containerId = current != null && current.getContainerId() != null
+                               ? current.getContainerId()
+                               : state == PULLING_IMAGE ? null : containerId();
+    return TaskStatus.newBuilder()
+        .setJob(job)
+        .setGoal(goal)
+        .setState(state)
+        .setContainerId(containerId)
+        .setPorts(job.getPorts())
+        .setEnv(job.getEnv())
+        .build();
+  }
+
+  private static String containerId() {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks.load;
+
+import com.spotify.helios.common.HeliosException;
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.DeploymentGroup;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.HostSelector;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.RolloutOptions;
+import com.spotify.helios.common.protocol.CreateDeploymentGroupResponse;
+import com.spotify.helios.common.protocol.CreateJobResponse;
+import com.spotify.helios.common.protocol.DeploymentGroupStatusResponse;
+import com.spotify.helios.common.protocol.JobDeployResponse;
+import com.spotify.helios.common.protocol.JobUndeployResponse;
+import com.spotify.helios.common.protocol.RollingUpdateResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * The API operations the load harness can drive. Each call to {@link #run(LoadContext, int)} is
+ * one operation, timed as a whole.
+ */
+enum Workload {
+
+  /**
+   * Lists all jobs.
+   */
+  LIST_JOBS("list-jobs") {
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      context.client().jobs().get();
+    }
+  },
+
+  /**
+   * Lists all hosts.
+   */
+  LIST_HOSTS("list-hosts") {
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      context.client().listHosts().get();
+    }
+  },
+
+  /**
+   * Gets the status of a job, which reads its deployment on every host.
+   */
+  JOB_STATUS("job-status") {
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      context.client().jobStatus(context.randomJob()).get();
+    }
+  },
+
+  /**
+   * Gets the status of a batch of hosts, like {@code helios hosts} does.
+   */
+  HOST_STATUS("host-status") {
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      final List<String> hosts = Lists.newArrayList();
+      for (int i = 0; i < HOST_STATUS_BATCH; i++) {
+        hosts.add(context.randomHost());
+      }
+      context.client().hostStatuses(hosts).get();
+    }
+  },
+
+  /**
+   * Deploys a job to a host, or undeploys it if it was already deployed there.
+   */
+  DEPLOY("deploy") {
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      final JobId job = context.randomJob();
+      final String host = context.randomHost();
+      final JobDeployResponse deployed =
+          context.client().deploy(Deployment.of(job, Goal.START), host).get();
+      if (deployed.getStatus() == JobDeployResponse.Status.JOB_ALREADY_DEPLOYED) {
+        final JobUndeployResponse undeployed = context.client().undeploy(job, host).get();
+        check(undeployed.getStatus() == JobUndeployResponse.Status.OK, undeployed);
+      } else {
+        check(deployed.getStatus() == JobDeployResponse.Status.OK, deployed);
+      }
+    }
+  },
+
+  /**
+   * Creates a new version of a job and rolls it out to a deployment group, waiting until the
+   * rollout is done. Each worker has its own deployment group, selecting one pool of hosts.
+   */
+  ROLLING_UPDATE("rolling-update") {
+    @Override
+    void prepare(final LoadContext context, final int workers) throws Exception {
+      for (int worker = 0; worker < workers; worker++) {
+        final DeploymentGroup group = DeploymentGroup.newBuilder()
+            .setName(groupName(worker))
+            .setHostSelectors(ImmutableList.of(
+                HostSelector.parse("pool=" + worker % context.pools())))
+            .build();
+        final CreateDeploymentGroupResponse response =
+            context.client().createDeploymentGroup(group).get();
+        check(response.getStatus() != CreateDeploymentGroupResponse.Status.CONFLICT, response);
+      }
+    }
+
+    @Override
+    void run(final LoadContext context, final int worker) throws Exception {
+      final String group = groupName(worker);
+      final Job job = LoadContext.jobBuilder()
+          .setName(group)
+          .setVersion(Long.toString(context.nextVersion()))
+          .build();
+      final CreateJobResponse created = context.client().createJob(job).get();
+      check(created.getStatus() == CreateJobResponse.Status.OK, created);
+
+      final RolloutOptions options = RolloutOptions.newBuilder()
+          .setParallelism(context.rolloutParallelism())
+          .build();
+      final RollingUpdateResponse response =
+          context.client().rollingUpdate(group, job.getId(), options).get();
+      check(response.getStatus() == RollingUpdateResponse.Status.OK, response);
+
+      final long deadline = System.nanoTime() + MINUTES.toNanos(ROLLOUT_TIMEOUT_MINUTES);
+      while (System.nanoTime() < deadline) {
+        final DeploymentGroupStatusResponse status =
+            context.client().deploymentGroupStatus(group).get();
+        if (status.getStatus() == DeploymentGroupStatusResponse.Status.ACTIVE) {
+          return;
+        }
+        check(status.getStatus() != DeploymentGroupStatusResponse.Status.FAILED, status);
+        MILLISECONDS.sleep(ROLLOUT_POLL_MILLIS);
+      }
+      throw new HeliosException("timed out waiting for rollout of " + job.getId());
+    }
+
+    private String groupName(final int worker) {
+      return "load-rolling-" + worker;
+    }
+  };
+
+  private static final int HOST_STATUS_BATCH = 100;
+  private static final int ROLLOUT_TIMEOUT_MINUTES = 10;
+  private static final int ROLLOUT_POLL_MILLIS = 100;
+
+  private final String name;
+
+  Workload(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Sets up what the operations need, before any of them run.
+   *
+   * @param context The harness.
+   * @param workers The number of threads that will run operations.
+   */
+  void prepare(final LoadContext context, final int workers) throws Exception {
+  }
+
+  /**
+   * Runs one operation.
+   *
+   * @param context The harness.
+   * @param worker  The index of the calling thread, between 0 and the number of workers.
+   */
+  abstract void run(LoadContext context, int worker) throws Exception;
+
+  static Workload fromName(final String name) {
+    for (final Workload workload : values()) {
+      if (workload.name.equals(name)) {
+        return workload;
+      }
+    }
+    throw new IllegalArgumentException("unknown workload: " + name);
+  }
+
+  static List<String> names() {
+    final List<String> names = Lists.newArrayList();
+    for (final Workload workload : values()) {
+      names.add(workload.name);
+    }
+    return names;
+  }
+
+  private static void check(final boolean ok, final Object response) throws HeliosException {
+    if (!ok) {
+      throw new HeliosException("unexpected response: " + response);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.benchmarks.load;
+
+import com.google.common.io.CharStreams;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.google.common.base.Charsets.US_ASCII;
+
+/**
+ * Packet counters of a ZooKeeper server, read with the {@code srvr} four letter word. The
+ * difference between two snapshots gives the request rate the server saw in between.
+ */
+class ZooKeeperStats {
+
+  private static final Pattern RECEIVED = Pattern.compile("^Received: (\\d+)$", Pattern.MULTILINE);
+  private static final Pattern SENT = Pattern.compile("^Sent: (\\d+)$", Pattern.MULTILINE);
+  private static final Pattern NODES = Pattern.compile("^Node count: (\\d+)$", Pattern.MULTILINE);
+
+  private static final int TIMEOUT_MILLIS = 5000;
+
+  private final long timestamp;
+  private final long received;
+  private final long sent;
+  private final long nodes;
+
+  private ZooKeeperStats(final long timestamp, final long received, final long sent,
+                         final long nodes) {
+    this.timestamp = timestamp;
+    this.received = received;
+    this.sent = sent;
+    this.nodes = nodes;
+  }
+
+  static ZooKeeperStats read(final String host, final int port) throws IOException {
+    final String output;
+    try (final Socket socket = new Socket()) {
+      socket.connect(new InetSocketAddress(host, port), TIMEOUT_MILLIS);
+      socket.setSoTimeout(TIMEOUT_MILLIS);
+      final OutputStream out = socket.getOutputStream();
+      out.write("srvr".getBytes(US_ASCII));
+      out.flush();
+      output = CharStreams.toString(new InputStreamReader(socket.getInputStream(), US_ASCII));
+    }
+    return new ZooKeeperStats(System.nanoTime(), value(RECEIVED, output), value(SENT, output),
+                              value(NODES, output));
+  }
+
+  private static long value(final Pattern pattern, final String output) throws IOException {
+    final Matcher matcher = pattern.matcher(output);
+    if (!matcher.find()) {
+      throw new IOException("unexpected srvr output: " + output);
+    }
+    return Long.parseLong(matcher.group(1));
+  }
+
+  long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * Returns the packets per second the server received since {@code before}.
+   */
+  double receivedRate(final ZooKeeperStats before) {
+    return rate(received - before.received, before);
+  }
+
+  /**
+   * Returns the packets per second the server sent since {@code before}.
+   */
+  double sentRate(final ZooKeeperStats before) {
+    return rate(sent - before.sent, before);
+  }
+
+  private double rate(final long delta, final ZooKeeperStats before) {
+    final double seconds = (timestamp - before.timestamp) / 1e9;
+    return seconds > 0 ? delta / seconds : 0;
+  }
+}
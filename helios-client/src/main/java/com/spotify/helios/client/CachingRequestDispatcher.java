@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.client;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.Futures.transform;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.util.Collections.singletonList;
+
+/**
+ * A {@link RequestDispatcher} that remembers the bodies of GET responses that carry an ETag and
+ * revalidates them with conditional requests. A 304 Not Modified reply from the master is turned
+ * back into the remembered 200 response, so callers never see it.
+ *
+ * <p>When given a {@link DiskResponseCache} the responses are also kept on disk, and those stored
+ * less than the TTL ago are served without a round trip to the master. Any non-GET request drops
+ * everything remembered, as it may have changed what the master would return.
+ */
+class CachingRequestDispatcher implements RequestDispatcher {
+
+  private static final Logger log = LoggerFactory.getLogger(CachingRequestDispatcher.class);
+
+  static final String ETAG = "ETag";
+  static final String IF_NONE_MATCH = "If-None-Match";
+
+  private static final int DEFAULT_MAXIMUM_SIZE = 100;
+
+  private final RequestDispatcher delegate;
+  private final Cache<URI, Response> cache;
+  private final DiskResponseCache diskCache;
+
+  CachingRequestDispatcher(final RequestDispatcher delegate) {
+    this(delegate, null);
+  }
+
+  CachingRequestDispatcher(final RequestDispatcher delegate, final DiskResponseCache diskCache) {
+    this(delegate, DEFAULT_MAXIMUM_SIZE, diskCache);
+  }
+
+  CachingRequestDispatcher(final RequestDispatcher delegate, final int maximumSize,
+                           final DiskResponseCache diskCache) {
+    this.delegate = delegate;
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.diskCache = diskCache;
+  }
+
+  @Override
+  public ListenableFuture<Response> request(final URI uri, final String method,
+                                            final byte[] entityBytes,
+                                            final Map<String, List<String>> headers) {
+    if (!"GET".equals(method)) {
+      invalidateAll();
+      return delegate.request(uri, method, entityBytes, headers);
+    }
+
+    Response cached = cache.getIfPresent(uri);
+    if (cached == null && diskCache != null) {
+      final DiskResponseCache.Entry entry = diskCache.get(uri);
+      if (entry != null) {
+        cached = entry.toResponse();
+        if (diskCache.isFresh(entry)) {
+          log.debug("{} cached on disk, not contacting master", uri);
+          return immediateFuture(cached);
+        }
+      }
+    }
+
+    final Map<String, List<String>> requestHeaders;
+    if (cached == null) {
+      requestHeaders = headers;
+    } else {
+      requestHeaders = Maps.newHashMap(headers);
+      requestHeaders.put(IF_NONE_MATCH, singletonList(etag(cached)));
+    }
+
+    final Response base = cached;
+    return transform(delegate.request(uri, method, entityBytes, requestHeaders),
+                     new Function<Response, Response>() {
+                       @Override
+                       public Response apply(final Response response) {
+                         return handle(uri, base, response);
+                       }
+                     });
+  }
+
+  private Response handle(final URI uri, final Response cached, final Response response) {
+    if (response.status() == HTTP_NOT_MODIFIED && cached != null) {
+      log.debug("{} not modified, using cached response", uri);
+      // Keep the headers of the fresh response, e.g. the version compatibility status
+      final Response revalidated = new Response(cached.method(), cached.uri(), cached.status(),
+                                                cached.payload(), response.headers());
+      store(uri, revalidated, etag(cached));
+      return revalidated;
+    }
+
+    final String etag = etag(response);
+    if (response.status() == HTTP_OK && etag != null) {
+      store(uri, response, etag);
+    } else {
+      cache.invalidate(uri);
+      if (diskCache != null) {
+        diskCache.invalidate(uri);
+      }
+    }
+    return response;
+  }
+
+  private void store(final URI uri, final Response response, final String etag) {
+    cache.put(uri, response);
+    if (diskCache != null) {
+      diskCache.put(uri, response, etag);
+    }
+  }
+
+  private void invalidateAll() {
+    cache.invalidateAll();
+    if (diskCache != null) {
+      diskCache.invalidateAll();
+    }
+  }
+
+  /**
+   * Returns the ETag of a response. Header names are matched case-insensitively, as they may have
+   * been normalized by a proxy.
+   */
+  private static String etag(final Response response) {
+    for (final Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+      if (ETAG.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+        return header.getValue().get(0);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() throws IOException {
+    cache.invalidateAll();
+    delegate.close();
+  }
+}
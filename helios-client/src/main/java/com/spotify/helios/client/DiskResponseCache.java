@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.client;
+
+import com.spotify.helios.common.Clock;
+import com.spotify.helios.common.Hash;
+import com.spotify.helios.common.Json;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.io.BaseEncoding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Keeps ETag-tagged GET responses in a directory so that they survive between short-lived
+ * processes like the CLI. Entries younger than the TTL can be served without asking the master;
+ * older ones are only used as the base of a conditional request.
+ *
+ * <p>The cache is best effort: any I/O or parse failure is logged and treated as a miss.
+ */
+class DiskResponseCache {
+
+  private static final Logger log = LoggerFactory.getLogger(DiskResponseCache.class);
+
+  private static final String SUFFIX = ".json";
+
+  private final Path directory;
+  private final long ttlMillis;
+  private final Clock clock;
+
+  DiskResponseCache(final Path directory, final long ttl, final TimeUnit unit,
+                    final Clock clock) {
+    this.directory = directory;
+    this.ttlMillis = unit.toMillis(ttl);
+    this.clock = clock;
+  }
+
+  /**
+   * Returns the stored entry for {@code uri}, or null if there is none.
+   */
+  Entry get(final URI uri) {
+    final Path file = file(uri);
+    try {
+      final Entry entry = Json.read(Files.readAllBytes(file), Entry.class);
+      return uri.toString().equals(entry.uri) ? entry : null;
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      log.debug("failed to read cached response from {}", file, e);
+      return null;
+    }
+  }
+
+  boolean isFresh(final Entry entry) {
+    final long age = clock.now().getMillis() - entry.storedAt;
+    return age >= 0 && age < ttlMillis;
+  }
+
+  void put(final URI uri, final Response response, final String etag) {
+    final Path file = file(uri);
+    try {
+      Files.createDirectories(directory);
+      final Entry entry = new Entry(uri.toString(), etag, clock.now().getMillis(),
+                                    response.status(), response.payload(),
+                                    headers(response.headers()));
+      final Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+      try {
+        Files.write(tmp, Json.asBytes(entry));
+        Files.move(tmp, file, REPLACE_EXISTING, ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("failed to write cached response to {}", file, e);
+    }
+  }
+
+  void invalidate(final URI uri) {
+    delete(file(uri));
+  }
+
+  void invalidateAll() {
+    if (!Files.isDirectory(directory)) {
+      return;
+    }
+    try (final DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+      for (final Path file : files) {
+        delete(file);
+      }
+    } catch (IOException e) {
+      log.debug("failed to list cached responses in {}", directory, e);
+    }
+  }
+
+  private void delete(final Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.debug("failed to delete cached response {}", file, e);
+    }
+  }
+
+  private Path file(final URI uri) {
+    final byte[] digest = Hash.sha1digest(uri.toString().getBytes(UTF_8));
+    return directory.resolve(BaseEncoding.base16().lowerCase().encode(digest) + SUFFIX);
+  }
+
+  /**
+   * HttpURLConnection reports the status line under a null key, which JSON can't represent.
+   */
+  private static Map<String, List<String>> headers(final Map<String, List<String>> headers) {
+    final Map<String, List<String>> copy = new TreeMap<>();
+    for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+      if (header.getKey() != null) {
+        copy.put(header.getKey(), header.getValue());
+      }
+    }
+    return copy;
+  }
+
+  static class Entry {
+
+    private final String uri;
+    private final String etag;
+    private final long storedAt;
+    private final int status;
+    private final byte[] payload;
+    private final Map<String, List<String>> headers;
+
+    @JsonCreator
+    Entry(@JsonProperty("uri") final String uri,
+          @JsonProperty("etag") final String etag,
+          @JsonProperty("storedAt") final long storedAt,
+          @JsonProperty("status") final int status,
+          @JsonProperty("payload") final byte[] payload,
+          @JsonProperty("headers") final Map<String, List<String>> headers) {
+      this.uri = uri;
+      this.etag = etag;
+      this.storedAt = storedAt;
+      this.status = status;
+      this.payload = payload;
+      this.headers = headers;
+    }
+
+    @JsonProperty
+    String getUri() {
+      return uri;
+    }
+
+    @JsonProperty
+    String getEtag() {
+      return etag;
+    }
+
+    @JsonProperty
+    long getStoredAt() {
+      return storedAt;
+    }
+
+    @JsonProperty
+    int getStatus() {
+      return status;
+    }
+
+    @JsonProperty
+    byte[] getPayload() {
+      return payload;
+    }
+
+    @JsonProperty
+    Map<String, List<String>> getHeaders() {
+      return headers;
+    }
+
+    Response toResponse() {
+      return new Response("GET", URI.create(uri), status, payload, headers);
+    }
+  }
+}
@@ -39,6 +39,7 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 import com.spotify.helios.common.HeliosException;
 import com.spotify.helios.common.Json;
 import com.spotify.helios.common.Resolver;
+import com.spotify.helios.common.SystemClock;
 import com.spotify.helios.common.Version;
 import com.spotify.helios.common.VersionCompatibility;
 import com.spotify.helios.common.descriptors.Deployment;
@@ -48,12 +49,17 @@ import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.JobStatus;
 import com.spotify.helios.common.descriptors.RolloutOptions;
+import com.spotify.helios.common.protocol.BulkDeployRequest;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
+import com.spotify.helios.common.protocol.BulkUndeployResponse;
 import com.spotify.helios.common.protocol.CreateDeploymentGroupResponse;
 import com.spotify.helios.common.protocol.CreateJobResponse;
 import com.spotify.helios.common.protocol.DeploymentGroupStatusResponse;
 import com.spotify.helios.common.protocol.HostDeregisterResponse;
 import com.spotify.helios.common.protocol.JobDeleteResponse;
 import com.spotify.helios.common.protocol.JobDeployResponse;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
+import com.spotify.helios.common.protocol.JobListQuery;
 import com.spotify.helios.common.protocol.JobUndeployResponse;
 import com.spotify.helios.common.protocol.RemoveDeploymentGroupResponse;
 import com.spotify.helios.common.protocol.RollingUpdateRequest;
@@ -66,6 +72,7 @@ import com.spotify.sshagentproxy.AgentProxy;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
@@ -80,6 +87,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Ordering;
 import com.google.common.escape.Escaper;
 import com.google.common.net.UrlEscapers;
 import com.google.common.util.concurrent.AsyncFunction;
@@ -98,7 +106,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -252,6 +262,26 @@ public class HeliosClient implements Closeable {
                      ConvertResponseToPojo.create(JobDeployResponse.class, deserializeReturnCodes));
   }
 
+  /**
+   * Deploys a job to many hosts with a single request. The response has the outcome for each host.
+   * Masters that don't support this answer with 404, which makes the returned future hold null.
+   */
+  public ListenableFuture<BulkDeployResponse> deploy(final Deployment job,
+                                                     final List<String> hosts) {
+    return deploy(job, hosts, "");
+  }
+
+  public ListenableFuture<BulkDeployResponse> deploy(final Deployment job,
+                                                     final List<String> hosts,
+                                                     final String token) {
+    return transform(request(uri(path("/jobs/%s/hosts", job.getJobId()),
+                                 ImmutableMap.of("token", token)),
+                             "PUT", new BulkDeployRequest(job, hosts)),
+                     ConvertResponseToPojo.create(BulkDeployResponse.class,
+                                                  ImmutableSet.of(HTTP_OK, HTTP_BAD_REQUEST,
+                                                                  HTTP_FORBIDDEN)));
+  }
+
   public ListenableFuture<SetGoalResponse> setGoal(final Deployment job, final String host) {
     return setGoal(job, host, "");
   }
@@ -335,6 +365,27 @@ public class HeliosClient implements Closeable {
                                                                   HTTP_FORBIDDEN)));
   }
 
+  /**
+   * Undeploys a job from many hosts with a single request. The response has the outcome for each
+   * host. Masters that don't support this answer with 404, which makes the returned future hold
+   * null.
+   */
+  public ListenableFuture<BulkUndeployResponse> undeploy(final JobId jobId,
+                                                         final List<String> hosts) {
+    return undeploy(jobId, hosts, "");
+  }
+
+  public ListenableFuture<BulkUndeployResponse> undeploy(final JobId jobId,
+                                                         final List<String> hosts,
+                                                         final String token) {
+    return transform(request(uri(path("/jobs/%s/hosts/undeploy", jobId),
+                                 ImmutableMap.of("token", token)),
+                             "POST", hosts),
+                     ConvertResponseToPojo.create(BulkUndeployResponse.class,
+                                                  ImmutableSet.of(HTTP_OK, HTTP_BAD_REQUEST,
+                                                                  HTTP_FORBIDDEN)));
+  }
+
   public ListenableFuture<HostDeregisterResponse> deregisterHost(final String host) {
     return transform(request(uri(path("/hosts/%s", host)), "DELETE"),
                      ConvertResponseToPojo.create(HostDeregisterResponse.class,
@@ -440,9 +491,123 @@ public class HeliosClient implements Closeable {
     return get(uri("/jobs"), new TypeReference<Map<JobId, Job>>() {});
   }
 
+  /**
+   * Returns the jobs matching the query, in {@link JobId} order. If the query has a limit and
+   * that many jobs were returned, the last job id can be passed to
+   * {@link JobListQuery#cursor(JobId)} to fetch the next page.
+   */
+  public ListenableFuture<Map<JobId, Job>> jobs(final JobListQuery query) {
+    return transform(get(uri("/jobs", jobListParams(query)),
+                         new TypeReference<Map<JobId, Job>>() {}),
+                     new Function<Map<JobId, Job>, Map<JobId, Job>>() {
+                       @Override
+                       public Map<JobId, Job> apply(final Map<JobId, Job> jobs) {
+                         // Masters that don't know about the query only filter by q
+                         final Map<JobId, Job> matching = Maps.newLinkedHashMap();
+                         for (final JobId id : selectJobIds(jobs.keySet(), query)) {
+                           matching.put(id, jobs.get(id));
+                         }
+                         return matching;
+                       }
+                     });
+  }
+
+  /**
+   * Returns the ids of the jobs matching the query, in order, without fetching the job
+   * definitions.
+   */
+  public ListenableFuture<List<JobId>> jobIds(final JobListQuery query) {
+    final Map<String, String> params = jobListParams(query);
+    params.put("idsOnly", "true");
+    return transform(get(uri("/jobs", params), JsonNode.class),
+                     new Function<JsonNode, List<JobId>>() {
+                       @Override
+                       public List<JobId> apply(final JsonNode node) {
+                         // Masters that don't support idsOnly return the full job map
+                         final List<JobId> ids = Lists.newArrayList();
+                         if (node.isArray()) {
+                           for (final JsonNode id : node) {
+                             ids.add(JobId.fromString(id.asText()));
+                           }
+                         } else {
+                           final Iterator<String> names = node.fieldNames();
+                           while (names.hasNext()) {
+                             ids.add(JobId.fromString(names.next()));
+                           }
+                         }
+                         return selectJobIds(ids, query);
+                       }
+                     });
+  }
+
+  private static Map<String, String> jobListParams(final JobListQuery query) {
+    final Map<String, String> params = Maps.newHashMap();
+    if (!isNullOrEmpty(query.getQ())) {
+      params.put("q", query.getQ());
+    }
+    if (!isNullOrEmpty(query.getName())) {
+      params.put("name", query.getName());
+    }
+    if (!isNullOrEmpty(query.getNamePrefix())) {
+      params.put("namePrefix", query.getNamePrefix());
+    }
+    if (query.getLimit() != null) {
+      params.put("limit", query.getLimit().toString());
+    }
+    if (!isNullOrEmpty(query.getCursor())) {
+      params.put("cursor", query.getCursor());
+    }
+    return params;
+  }
+
+  private static List<JobId> selectJobIds(final Collection<JobId> ids, final JobListQuery query) {
+    final List<JobId> sorted = Ordering.natural().sortedCopy(ids);
+    final int limit = query.getLimit() == null ? Integer.MAX_VALUE : query.getLimit();
+    final List<JobId> selected = Lists.newArrayList();
+    for (final JobId id : sorted) {
+      if (selected.size() >= limit) {
+        break;
+      }
+      if (query.matches(id)) {
+        selected.add(id);
+      }
+    }
+    return selected;
+  }
+
   public ListenableFuture<TaskStatusEvents> jobHistory(final JobId jobId) {
+    return jobHistory(jobId, JobHistoryQuery.all());
+  }
+
+  public ListenableFuture<TaskStatusEvents> jobHistory(final JobId jobId, final String host) {
+    return jobHistory(jobId, JobHistoryQuery.newBuilder().setHost(host).build());
+  }
+
+  /**
+   * Returns the events in the history of a job that match the query. If the query has a limit and
+   * more events are available, {@link TaskStatusEvents#getNextCursor()} can be set as the cursor
+   * of the query to fetch the next page.
+   */
+  public ListenableFuture<TaskStatusEvents> jobHistory(final JobId jobId,
+                                                       final JobHistoryQuery query) {
+    final Map<String, String> params = Maps.newHashMap();
+    if (query.getHost() != null) {
+      params.put("host", query.getHost());
+    }
+    if (query.getSince() != null) {
+      params.put("since", query.getSince().toString());
+    }
+    if (query.getUntil() != null) {
+      params.put("until", query.getUntil().toString());
+    }
+    if (query.getLimit() != null) {
+      params.put("limit", query.getLimit().toString());
+    }
+    if (query.getCursor() != null) {
+      params.put("cursor", query.getCursor());
+    }
     return transform(
-        request(uri(path("/history/jobs/%s", jobId.toString())), "GET"),
+        request(uri(path("/history/jobs/%s", jobId.toString()), params), "GET"),
         ConvertResponseToPojo.create(TaskStatusEvents.class,
                                      ImmutableSet.of(HTTP_OK, HTTP_NOT_FOUND)));
   }
@@ -567,6 +732,8 @@ public class HeliosClient implements Closeable {
     private boolean shutDownExecutorOnClose = true;
     private int httpTimeout = 10000;
     private long requestRetryTimeout = 60000;
+    private Path cacheDirectory;
+    private long cacheTtl;
 
     private Builder() {
     }
@@ -647,6 +814,17 @@ public class HeliosClient implements Closeable {
       return this;
     }
 
+    /**
+     * Keep responses to listing requests in a directory, so they can be reused by later clients.
+     * Responses stored less than {@code ttl} ago are returned without contacting the master, older
+     * ones are revalidated with a conditional request. Use a separate directory per cluster.
+     */
+    public Builder setCacheDirectory(final Path directory, final long ttl, final TimeUnit unit) {
+      this.cacheDirectory = directory;
+      this.cacheTtl = unit.toMillis(ttl);
+      return this;
+    }
+
     public HeliosClient build() {
       return new HeliosClient(user, createDispatcher());
     }
@@ -665,10 +843,15 @@ public class HeliosClient implements Closeable {
       final RequestDispatcher dispatcher = new DefaultRequestDispatcher(
           createHttpConnector(sslHostnameVerification), executorService, shutDownExecutorOnClose);
 
-      return RetryingRequestDispatcher.forDispatcher(dispatcher)
-          .setExecutor(executorService)
-          .setRetryTimeout(requestRetryTimeout, TimeUnit.MILLISECONDS)
-          .build();
+      final DiskResponseCache diskCache = cacheDirectory == null ? null :
+          new DiskResponseCache(cacheDirectory, cacheTtl, TimeUnit.MILLISECONDS, new SystemClock());
+
+      return new CachingRequestDispatcher(
+          RetryingRequestDispatcher.forDispatcher(dispatcher)
+              .setExecutor(executorService)
+              .setRetryTimeout(requestRetryTimeout, TimeUnit.MILLISECONDS)
+              .build(),
+          diskCache);
     }
 
     private HttpConnector createHttpConnector(final boolean sslHostnameVerification) {
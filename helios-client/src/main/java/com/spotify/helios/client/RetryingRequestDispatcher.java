@@ -43,12 +43,16 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
- * A {@link RequestDispatcher} that retries.
+ * A {@link RequestDispatcher} that retries failed requests, and requests the master rejected with
+ * 429 Too Many Requests after the delay it asked for in the Retry-After header.
  */
 class RetryingRequestDispatcher implements RequestDispatcher {
 
   private static final Logger log = LoggerFactory.getLogger(RetryingRequestDispatcher.class);
 
+  private static final int TOO_MANY_REQUESTS = 429;
+  private static final String RETRY_AFTER_HEADER = "Retry-After";
+
   private final ListeningScheduledExecutorService executorService;
   private final RequestDispatcher delegate;
   private final Clock clock;
@@ -109,6 +113,15 @@ class RetryingRequestDispatcher implements RequestDispatcher {
     Futures.addCallback(codeFuture, new FutureCallback<Response>() {
       @Override
       public void onSuccess(Response result) {
+        if (result != null && result.status() == TOO_MANY_REQUESTS) {
+          final long retryAfterMillis = retryAfterMillis(result, delayMillis);
+          if (clock.now().getMillis() + retryAfterMillis < deadline) {
+            log.info("{} is busy, retrying in {} seconds.",
+                     uri.toString(), TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis));
+            retry(future, code, deadline, delayMillis, retryAfterMillis, uri);
+            return;
+          }
+        }
         future.set(result);
       }
 
@@ -141,21 +154,46 @@ class RetryingRequestDispatcher implements RequestDispatcher {
                              final Throwable t,
                              final URI uri) {
     if (clock.now().getMillis() < deadline) {
-      if (delayMillis > 0) {
-        executorService.schedule(new Runnable() {
-          @Override
-          public void run() {
-            startRetry(future, code, deadline - 1, delayMillis, uri);
-          }
-        }, delayMillis, TimeUnit.MILLISECONDS);
-      } else {
-        startRetry(future, code, deadline - 1, delayMillis, uri);
-      }
+      retry(future, code, deadline - 1, delayMillis, delayMillis, uri);
     } else {
       future.setException(t);
     }
   }
 
+  private void retry(final SettableFuture<Response> future,
+                     final Supplier<ListenableFuture<Response>> code,
+                     final long deadline,
+                     final long delayMillis,
+                     final long retryInMillis,
+                     final URI uri) {
+    if (retryInMillis > 0) {
+      executorService.schedule(new Runnable() {
+        @Override
+        public void run() {
+          startRetry(future, code, deadline, delayMillis, uri);
+        }
+      }, retryInMillis, TimeUnit.MILLISECONDS);
+    } else {
+      startRetry(future, code, deadline, delayMillis, uri);
+    }
+  }
+
+  /**
+   * Returns how long the server asked us to wait in the Retry-After header of a response. Only
+   * the delay-seconds form of the header is understood, the default is returned otherwise.
+   */
+  private static long retryAfterMillis(final Response response, final long defaultMillis) {
+    final String retryAfter = response.header(RETRY_AFTER_HEADER);
+    if (retryAfter == null) {
+      return defaultMillis;
+    }
+    try {
+      return TimeUnit.SECONDS.toMillis(Math.max(Long.parseLong(retryAfter.trim()), 0));
+    } catch (NumberFormatException e) {
+      return defaultMillis;
+    }
+  }
+
   static Builder forDispatcher(RequestDispatcher delegate) {
     return new Builder(delegate);
   }
@@ -23,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.util.JsonParserDelegate;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MappingIterator;
@@ -30,6 +31,8 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 
 import java.io.File;
 import java.io.IOException;
@@ -41,6 +44,9 @@ import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKN
 import static com.fasterxml.jackson.databind.MapperFeature.SORT_PROPERTIES_ALPHABETICALLY;
 import static com.fasterxml.jackson.databind.SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS;
 import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS;
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_1;
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_2;
+import static com.fasterxml.jackson.dataformat.smile.SmileConstants.HEADER_BYTE_3;
 
 public class Json {
 
@@ -50,6 +56,18 @@ public class Json {
       .configure(WRITE_DATES_AS_TIMESTAMPS, false)
       .configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
 
+  /**
+   * Reads and writes Smile, the binary encoding of the Jackson data model. Every document starts
+   * with the Smile header, which is what lets the byte array readers below tell it apart from
+   * JSON.
+   */
+  private static final ObjectMapper SMILE_OBJECT_MAPPER = new ObjectMapper(
+      new SmileFactory().enable(SmileGenerator.Feature.WRITE_HEADER))
+      .configure(SORT_PROPERTIES_ALPHABETICALLY, true)
+      .configure(ORDER_MAP_ENTRIES_BY_KEYS, true)
+      .configure(WRITE_DATES_AS_TIMESTAMPS, false)
+      .configure(FAIL_ON_UNKNOWN_PROPERTIES, false);
+
   private static final ObjectWriter NORMALIZING_OBJECT_WRITER = new ObjectMapper()
       .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
       .configure(SORT_PROPERTIES_ALPHABETICALLY, true)
@@ -76,7 +94,9 @@ public class Json {
    * @see #asBytesUnchecked(Object)
    */
   public static byte[] asBytes(final Object value) throws JsonProcessingException {
-    return OBJECT_MAPPER.writeValueAsBytes(value);
+    final byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(value);
+    JsonStatistics.serialized(value, bytes.length);
+    return bytes;
   }
 
   /**
@@ -88,12 +108,56 @@ public class Json {
    */
   public static byte[] asBytesUnchecked(final Object value) {
     try {
-      return OBJECT_MAPPER.writeValueAsBytes(value);
+      return asBytes(value);
     } catch (JsonProcessingException e) {
       throw Throwables.propagate(e);
     }
   }
 
+  /**
+   * Serialize an object to Smile, a more compact binary equivalent of json that is faster to
+   * parse. The byte array readers in this class accept both Smile and json.
+   *
+   * @param value The object to serialize.
+   * @return The byte array for the given object.
+   * @throws JsonProcessingException If the Smile cannot be generated.
+   * @see #asSmileBytesUnchecked(Object)
+   */
+  public static byte[] asSmileBytes(final Object value) throws JsonProcessingException {
+    final byte[] bytes = SMILE_OBJECT_MAPPER.writeValueAsBytes(value);
+    JsonStatistics.serialized(value, bytes.length);
+    return bytes;
+  }
+
+  /**
+   * Serialize an object to Smile. Use when object is expected to be json serializable.
+   *
+   * @param value The object to serialize.
+   * @return The byte array for the given object.
+   * @see #asSmileBytes(Object)
+   */
+  public static byte[] asSmileBytesUnchecked(final Object value) {
+    try {
+      return asSmileBytes(value);
+    } catch (JsonProcessingException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Check whether serialized bytes are Smile rather than json. The Smile header starts with a
+   * colon, which can never start a json document.
+   *
+   * @param bytes The serialized bytes.
+   * @return True if the bytes start with the Smile header.
+   */
+  public static boolean isSmile(final byte[] bytes) {
+    return bytes != null && bytes.length >= 3
+           && bytes[0] == HEADER_BYTE_1
+           && bytes[1] == HEADER_BYTE_2
+           && bytes[2] == HEADER_BYTE_3;
+  }
+
   /**
    * Serialize an object to a json string. Use when it is not know whether an object can be json
    * serializable.
@@ -104,7 +168,9 @@ public class Json {
    * @see #asStringUnchecked(Object)
    */
   public static String asString(final Object value) throws JsonProcessingException {
-    return OBJECT_MAPPER.writeValueAsString(value);
+    final String json = OBJECT_MAPPER.writeValueAsString(value);
+    JsonStatistics.serialized(value, json.length());
+    return json;
   }
 
   /**
@@ -132,7 +198,9 @@ public class Json {
    * @see #asPrettyStringUnchecked(Object)
    */
   public static String asPrettyString(final Object value) throws JsonProcessingException {
-    return PRETTY_OBJECT_WRITER.writeValueAsString(value);
+    final String json = PRETTY_OBJECT_WRITER.writeValueAsString(value);
+    JsonStatistics.serialized(value, json.length());
+    return json;
   }
 
   /**
@@ -160,7 +228,9 @@ public class Json {
    * @see #asPrettyStringUnchecked(Object)
    */
   public static String asNormalizedString(final Object value) throws JsonProcessingException {
-    return NORMALIZING_OBJECT_WRITER.writeValueAsString(value);
+    final String json = NORMALIZING_OBJECT_WRITER.writeValueAsString(value);
+    JsonStatistics.serialized(value, json.length());
+    return json;
   }
 
   /**
@@ -180,36 +250,54 @@ public class Json {
   }
 
   public static <T> T read(final String content, final Class<T> clazz) throws IOException {
-    return OBJECT_MAPPER.readValue(content, clazz);
+    final T value = OBJECT_MAPPER.readValue(content, clazz);
+    JsonStatistics.parsed(clazz, content.length());
+    return value;
   }
 
   public static <T> T read(final String content, final TypeReference<?> typeReference)
       throws IOException {
-    return OBJECT_MAPPER.readValue(content, typeReference);
+    final T value = OBJECT_MAPPER.readValue(content, typeReference);
+    JsonStatistics.parsed(typeReference.getType(), content.length());
+    return value;
   }
 
   public static <T> T read(final String content, final JavaType javaType)
       throws IOException {
-    return OBJECT_MAPPER.readValue(content, javaType);
+    final T value = OBJECT_MAPPER.readValue(content, javaType);
+    JsonStatistics.parsed(javaType, content.length());
+    return value;
   }
 
   public static <T> T read(final byte[] bytes, final Class<T> clazz) throws IOException {
-    return OBJECT_MAPPER.readValue(bytes, clazz);
+    final T value = isSmile(bytes)
+                    ? Json.<T>readSmile(bytes, type(clazz))
+                    : OBJECT_MAPPER.readValue(bytes, clazz);
+    JsonStatistics.parsed(clazz, bytes.length);
+    return value;
   }
 
   public static <T> T read(final byte[] bytes, final TypeReference<?> typeReference)
       throws IOException {
-    return OBJECT_MAPPER.readValue(bytes, typeReference);
+    final T value = isSmile(bytes)
+                    ? Json.<T>readSmile(bytes, type(typeReference))
+                    : OBJECT_MAPPER.<T>readValue(bytes, typeReference);
+    JsonStatistics.parsed(typeReference.getType(), bytes.length);
+    return value;
   }
 
   public static <T> T read(final byte[] bytes, final JavaType javaType)
       throws IOException {
-    return OBJECT_MAPPER.readValue(bytes, javaType);
+    final T value = isSmile(bytes)
+                    ? Json.<T>readSmile(bytes, javaType)
+                    : OBJECT_MAPPER.<T>readValue(bytes, javaType);
+    JsonStatistics.parsed(javaType, bytes.length);
+    return value;
   }
 
   public static <T> T readUnchecked(final String content, final Class<T> clazz) {
     try {
-      return OBJECT_MAPPER.readValue(content, clazz);
+      return read(content, clazz);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -217,7 +305,7 @@ public class Json {
 
   public static <T> T readUnchecked(final String content, final TypeReference<?> typeReference) {
     try {
-      return OBJECT_MAPPER.readValue(content, typeReference);
+      return read(content, typeReference);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -225,7 +313,7 @@ public class Json {
 
   public static <T> T readUnchecked(final String content, final JavaType javaType) {
     try {
-      return OBJECT_MAPPER.readValue(content, javaType);
+      return read(content, javaType);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -233,7 +321,7 @@ public class Json {
 
   public static <T> T readUnchecked(final byte[] bytes, final Class<T> clazz) {
     try {
-      return OBJECT_MAPPER.readValue(bytes, clazz);
+      return read(bytes, clazz);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -241,7 +329,7 @@ public class Json {
 
   public static <T> T readUnchecked(final byte[] bytes, final TypeReference<?> typeReference) {
     try {
-      return OBJECT_MAPPER.readValue(bytes, typeReference);
+      return read(bytes, typeReference);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -249,7 +337,7 @@ public class Json {
 
   public static <T> T readUnchecked(final byte[] bytes, final JavaType javaType) {
     try {
-      return OBJECT_MAPPER.readValue(bytes, javaType);
+      return read(bytes, javaType);
     } catch (IOException e) {
       throw Throwables.propagate(e);
     }
@@ -270,7 +358,11 @@ public class Json {
   }
 
   public static JsonNode readTree(final byte[] bytes) throws IOException {
-    return OBJECT_MAPPER.readTree(bytes);
+    final JsonNode tree = isSmile(bytes)
+                          ? Json.<JsonNode>readSmile(bytes, type(JsonNode.class))
+                          : OBJECT_MAPPER.readTree(bytes);
+    JsonStatistics.parsed(JsonNode.class, bytes.length);
+    return tree;
   }
 
   public static JsonNode readTreeUnchecked(final byte[] bytes) {
@@ -282,7 +374,9 @@ public class Json {
   }
 
   public static JsonNode readTree(final String content) throws IOException {
-    return OBJECT_MAPPER.readTree(content);
+    final JsonNode tree = OBJECT_MAPPER.readTree(content);
+    JsonStatistics.parsed(JsonNode.class, content.length());
+    return tree;
   }
 
   public static JsonNode readTreeUnchecked(final String content) {
@@ -305,6 +399,18 @@ public class Json {
     }
   }
 
+  /**
+   * Reads Smile through a plain {@link JsonParserDelegate}, so that deserializers read field names
+   * with nextToken(). SmileParser's own nextFieldName() in jackson-dataformat-smile 2.6 misreads
+   * names longer than 56 bytes, such as the job ids that key the maps in {@code HostStatus}.
+   */
+  private static <T> T readSmile(final byte[] bytes, final JavaType javaType) throws IOException {
+    try (final JsonParser parser =
+             new JsonParserDelegate(SMILE_OBJECT_MAPPER.getFactory().createParser(bytes))) {
+      return SMILE_OBJECT_MAPPER.readValue(parser, javaType);
+    }
+  }
+
   public static JavaType type(Type t) {
     return OBJECT_MAPPER.constructType(t);
   }
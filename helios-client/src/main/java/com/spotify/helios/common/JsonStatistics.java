@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common;
+
+import com.google.common.collect.ImmutableSortedMap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the documents and bytes that {@link Json} parses and serializes, per type. Strings are
+ * counted in characters. Recording a document costs a map lookup and two atomic increments, so
+ * this is always on. At most {@link #MAX_TYPES} types are tracked; documents of any further type
+ * are counted under {@link #OTHER}.
+ */
+public class JsonStatistics {
+
+  public static final int MAX_TYPES = 256;
+  public static final String OTHER = "other";
+
+  private static final ConcurrentMap<Object, Counters> COUNTERS = new ConcurrentHashMap<>();
+  private static final Counters OTHER_COUNTERS = new Counters(OTHER);
+
+  private JsonStatistics() {
+  }
+
+  static void parsed(final Object type, final int bytes) {
+    final Counters counters = countersFor(type);
+    counters.parsed.incrementAndGet();
+    counters.parsedBytes.addAndGet(bytes);
+  }
+
+  static void serialized(final Object value, final int bytes) {
+    final Counters counters = countersFor(value == null ? null : value.getClass());
+    counters.serialized.incrementAndGet();
+    counters.serializedBytes.addAndGet(bytes);
+  }
+
+  /**
+   * @return The counts so far, by type name.
+   */
+  public static Map<String, Counts> snapshot() {
+    final ImmutableSortedMap.Builder<String, Counts> snapshot = ImmutableSortedMap.naturalOrder();
+    for (final Counters counters : COUNTERS.values()) {
+      snapshot.put(counters.name, counters.counts());
+    }
+    final Counts other = OTHER_COUNTERS.counts();
+    if (!other.isEmpty()) {
+      snapshot.put(OTHER, other);
+    }
+    return snapshot.build();
+  }
+
+  private static Counters countersFor(final Object type) {
+    if (type == null) {
+      return OTHER_COUNTERS;
+    }
+    final Counters counters = COUNTERS.get(type);
+    if (counters != null) {
+      return counters;
+    }
+    if (COUNTERS.size() >= MAX_TYPES) {
+      return OTHER_COUNTERS;
+    }
+    final Counters created = new Counters(name(type));
+    final Counters existing = COUNTERS.putIfAbsent(type, created);
+    return existing == null ? created : existing;
+  }
+
+  private static String name(final Object type) {
+    return type instanceof Class ? ((Class<?>) type).getName() : type.toString();
+  }
+
+  private static class Counters {
+
+    private final String name;
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong parsedBytes = new AtomicLong();
+    private final AtomicLong serialized = new AtomicLong();
+    private final AtomicLong serializedBytes = new AtomicLong();
+
+    private Counters(final String name) {
+      this.name = name;
+    }
+
+    private Counts counts() {
+      return new Counts(parsed.get(), parsedBytes.get(), serialized.get(), serializedBytes.get());
+    }
+  }
+
+  /**
+   * Documents and bytes parsed and serialized for one type.
+   */
+  public static class Counts {
+
+    private final long parsed;
+    private final long parsedBytes;
+    private final long serialized;
+    private final long serializedBytes;
+
+    public Counts(final long parsed, final long parsedBytes,
+                  final long serialized, final long serializedBytes) {
+      this.parsed = parsed;
+      this.parsedBytes = parsedBytes;
+      this.serialized = serialized;
+      this.serializedBytes = serializedBytes;
+    }
+
+    public long getParsed() {
+      return parsed;
+    }
+
+    public long getParsedBytes() {
+      return parsedBytes;
+    }
+
+    public long getSerialized() {
+      return serialized;
+    }
+
+    public long getSerializedBytes() {
+      return serializedBytes;
+    }
+
+    /**
+     * @param earlier Counts taken earlier for the same type.
+     * @return What was parsed and serialized since {@code earlier}.
+     */
+    public Counts minus(final Counts earlier) {
+      return new Counts(parsed - earlier.parsed, parsedBytes - earlier.parsedBytes,
+                        serialized - earlier.serialized,
+                        serializedBytes - earlier.serializedBytes);
+    }
+
+    boolean isEmpty() {
+      return parsed == 0 && serialized == 0;
+    }
+
+    @Override
+    public String toString() {
+      return "Counts{"
+             + "parsed=" + parsed
+             + ", parsedBytes=" + parsedBytes
+             + ", serialized=" + serialized
+             + ", serializedBytes=" + serializedBytes
+             + '}';
+    }
+  }
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common.descriptors;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * A capped ring of the most recent task status events of a job on a single host, stored in a
+ * single ZooKeeper node. Unlike {@link TaskStatusEvent}, the events do not embed the {@link Job},
+ * which is instead referenced by id and joined back in by the reader.
+ *
+ * A typical JSON representation might be:
+ * <pre>
+ * {
+ *   "jobId" : "foo:0.1.0:2a5c7d39b3e0b4f1a5d8a0c6b1e4c7d2f9e8a1b3",
+ *   "events" : [ {
+ *     "containerError" : "",
+ *     "containerId" : "e890d827e802934a29c97d7e9e3c96a55ca049e519ab0c28be8020621a0a3750",
+ *     "env" : { },
+ *     "goal" : "START",
+ *     "ports" : { },
+ *     "state" : "RUNNING",
+ *     "throttled" : "NO",
+ *     "timestamp" : 1410308461448
+ *   } ]
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CompactTaskHistory extends Descriptor {
+
+  private static final Comparator<Event> TIMESTAMP_ORDER = new Comparator<Event>() {
+    @Override
+    public int compare(final Event a, final Event b) {
+      return Long.compare(a.getTimestamp(), b.getTimestamp());
+    }
+  };
+
+  private final JobId jobId;
+  private final List<Event> events;
+
+  /**
+   * @param jobId The id of the job the events belong to.
+   * @param events The events, oldest first.
+   */
+  public CompactTaskHistory(@JsonProperty("jobId") final JobId jobId,
+                            @Nullable @JsonProperty("events") final List<Event> events) {
+    this.jobId = checkNotNull(jobId, "jobId");
+    this.events = ImmutableList.copyOf(Optional.fromNullable(events).or(
+        Collections.<Event>emptyList()));
+  }
+
+  public static CompactTaskHistory empty(final JobId jobId) {
+    return new CompactTaskHistory(jobId, null);
+  }
+
+  public JobId getJobId() {
+    return jobId;
+  }
+
+  public List<Event> getEvents() {
+    return events;
+  }
+
+  /**
+   * Returns a copy of this history with the given event added, keeping at most {@code capacity} of
+   * the most recent events. Adding an event whose timestamp is already present is a no-op, which
+   * makes retried writes idempotent.
+   */
+  public CompactTaskHistory append(final TaskStatusEvent event, final int capacity) {
+    checkArgument(capacity > 0, "capacity must be positive");
+    checkArgument(jobId.equals(event.getStatus().getJob().getId()),
+                  "event is for job %s, not %s", event.getStatus().getJob().getId(), jobId);
+
+    for (final Event existing : events) {
+      if (existing.getTimestamp() == event.getTimestamp()) {
+        return this;
+      }
+    }
+
+    final List<Event> appended = Lists.newArrayList(events);
+    appended.add(Event.of(event));
+    Collections.sort(appended, TIMESTAMP_ORDER);
+    final int from = Math.max(0, appended.size() - capacity);
+    return new CompactTaskHistory(jobId, appended.subList(from, appended.size()));
+  }
+
+  /**
+   * Expands this history into full {@link TaskStatusEvent}s, oldest first.
+   *
+   * @param job The job descriptor referenced by {@link #getJobId()}.
+   * @param host The host the events occurred on.
+   */
+  public List<TaskStatusEvent> toTaskStatusEvents(final Job job, final String host) {
+    checkArgument(jobId.equals(job.getId()), "job %s does not match %s", job.getId(), jobId);
+    final ImmutableList.Builder<TaskStatusEvent> builder = ImmutableList.builder();
+    for (final Event event : events) {
+      builder.add(new TaskStatusEvent(event.toTaskStatus(job), event.getTimestamp(), host));
+    }
+    return builder.build();
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    final CompactTaskHistory that = (CompactTaskHistory) o;
+
+    if (jobId != null ? !jobId.equals(that.jobId) : that.jobId != null) {
+      return false;
+    }
+    if (events != null ? !events.equals(that.events) : that.events != null) {
+      return false;
+    }
+
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = jobId != null ? jobId.hashCode() : 0;
+    result = 31 * result + (events != null ? events.hashCode() : 0);
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return "CompactTaskHistory{" +
+           "jobId=" + jobId +
+           ", events=" + events +
+           '}';
+  }
+
+  /**
+   * A {@link TaskStatus} without its {@link Job}, together with the time it was recorded.
+   */
+  @JsonIgnoreProperties(ignoreUnknown = true)
+  public static class Event {
+
+    private final long timestamp;
+    private final Goal goal;
+    private final TaskStatus.State state;
+    private final String containerId;
+    private final ThrottleState throttled;
+    private final Map<String, PortMapping> ports;
+    private final Map<String, String> env;
+    private final String containerError;
+
+    public Event(@JsonProperty("timestamp") final long timestamp,
+                 @Nullable @JsonProperty("goal") final Goal goal,
+                 @JsonProperty("state") final TaskStatus.State state,
+                 @Nullable @JsonProperty("containerId") final String containerId,
+                 @Nullable @JsonProperty("throttled") final ThrottleState throttled,
+                 @Nullable @JsonProperty("ports") final Map<String, PortMapping> ports,
+                 @Nullable @JsonProperty("env") final Map<String, String> env,
+                 @Nullable @JsonProperty("containerError") final String containerError) {
+      this.timestamp = timestamp;
+      this.goal = goal;
+      this.state = checkNotNull(state, "state");
+      this.containerId = containerId;
+      this.throttled = throttled;
+      this.ports = ports;
+      this.env = env;
+      this.containerError = containerError;
+    }
+
+    public static Event of(final TaskStatusEvent event) {
+      final TaskStatus status = event.getStatus();
+      return new Event(event.getTimestamp(), status.getGoal(), status.getState(),
+                       status.getContainerId(), status.getThrottled(), status.getPorts(),
+                       status.getEnv(), status.getContainerError());
+    }
+
+    public TaskStatus toTaskStatus(final Job job) {
+      return new TaskStatus(job, goal, state, containerId, throttled, ports, env, containerError);
+    }
+
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    public Goal getGoal() {
+      return goal;
+    }
+
+    public TaskStatus.State getState() {
+      return state;
+    }
+
+    public String getContainerId() {
+      return containerId;
+    }
+
+    public ThrottleState getThrottled() {
+      return throttled;
+    }
+
+    public Map<String, PortMapping> getPorts() {
+      return ports;
+    }
+
+    public Map<String, String> getEnv() {
+      return env;
+    }
+
+    public String getContainerError() {
+      return containerError;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      final Event that = (Event) o;
+
+      if (timestamp != that.timestamp) {
+        return false;
+      }
+      if (goal != that.goal) {
+        return false;
+      }
+      if (state != that.state) {
+        return false;
+      }
+      if (containerId != null ? !containerId.equals(that.containerId)
+                              : that.containerId != null) {
+        return false;
+      }
+      if (throttled != that.throttled) {
+        return false;
+      }
+      if (ports != null ? !ports.equals(that.ports) : that.ports != null) {
+        return false;
+      }
+      if (env != null ? !env.equals(that.env) : that.env != null) {
+        return false;
+      }
+      if (containerError != null ? !containerError.equals(that.containerError)
+                                 : that.containerError != null) {
+        return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = (int) (timestamp ^ (timestamp >>> 32));
+      result = 31 * result + (goal != null ? goal.hashCode() : 0);
+      result = 31 * result + (state != null ? state.hashCode() : 0);
+      result = 31 * result + (containerId != null ? containerId.hashCode() : 0);
+      result = 31 * result + (throttled != null ? throttled.hashCode() : 0);
+      result = 31 * result + (ports != null ? ports.hashCode() : 0);
+      result = 31 * result + (env != null ? env.hashCode() : 0);
+      result = 31 * result + (containerError != null ? containerError.hashCode() : 0);
+      return result;
+    }
+
+    @Override
+    public String toString() {
+      return "Event{" +
+             "timestamp=" + timestamp +
+             ", goal=" + goal +
+             ", state=" + state +
+             ", containerId='" + containerId + '\'' +
+             ", throttled=" + throttled +
+             ", ports=" + ports +
+             ", env=" + env +
+             ", containerError='" + containerError + '\'' +
+             '}';
+    }
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common.protocol;
+
+import com.spotify.helios.common.Json;
+import com.spotify.helios.common.descriptors.Deployment;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Asks the master to deploy a job to many hosts at once.
+ */
+public class BulkDeployRequest {
+
+  private final Deployment deployment;
+  private final List<String> hosts;
+
+  public BulkDeployRequest(@JsonProperty("deployment") final Deployment deployment,
+                           @JsonProperty("hosts") final List<String> hosts) {
+    this.deployment = deployment;
+    this.hosts = hosts;
+  }
+
+  public Deployment getDeployment() {
+    return deployment;
+  }
+
+  public List<String> getHosts() {
+    return hosts;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkDeployRequest{" +
+           "deployment=" + deployment +
+           ", hosts=" + hosts +
+           '}';
+  }
+
+  public String toJsonString() {
+    return Json.asStringUnchecked(this);
+  }
+}
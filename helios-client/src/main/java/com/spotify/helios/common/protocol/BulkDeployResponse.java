@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common.protocol;
+
+import com.spotify.helios.common.Json;
+import com.spotify.helios.common.descriptors.JobId;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * The result of deploying a job to many hosts. {@code status} is about the request as a whole,
+ * and {@code hosts} holds the outcome for each of the hosts if the request could be processed.
+ */
+public class BulkDeployResponse {
+
+  private final JobDeployResponse.Status status;
+  private final JobId job;
+  private final Map<String, JobDeployResponse.Status> hosts;
+
+  public BulkDeployResponse(
+      @JsonProperty("status") final JobDeployResponse.Status status,
+      @JsonProperty("job") final JobId job,
+      @JsonProperty("hosts") final Map<String, JobDeployResponse.Status> hosts) {
+    this.status = status;
+    this.job = job;
+    this.hosts = hosts;
+  }
+
+  public JobDeployResponse.Status getStatus() {
+    return status;
+  }
+
+  public JobId getJob() {
+    return job;
+  }
+
+  public Map<String, JobDeployResponse.Status> getHosts() {
+    return hosts;
+  }
+
+  @Override
+  public String toString() {
+    return "BulkDeployResponse{" +
+           "status=" + status +
+           ", job=" + job +
+           ", hosts=" + hosts +
+           '}';
+  }
+
+  public String toJsonString() {
+    return Json.asStringUnchecked(this);
+  }
+}
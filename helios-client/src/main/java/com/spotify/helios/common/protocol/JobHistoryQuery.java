@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common.protocol;
+
+import com.spotify.helios.common.descriptors.TaskStatusEvent;
+
+import org.jetbrains.annotations.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Selects a page of the history of a job. Events are ordered by timestamp and then host, oldest
+ * first. All parameters are optional.
+ *
+ * <ul>
+ *   <li>{@code host}: only return events that occurred on this host.</li>
+ *   <li>{@code since}: only return events at or after this time, in milliseconds since the
+ *   epoch.</li>
+ *   <li>{@code until}: only return events before this time, in milliseconds since the epoch.</li>
+ *   <li>{@code limit}: return at most this many events.</li>
+ *   <li>{@code cursor}: only return events after the event the cursor was created from, as
+ *   returned in {@link TaskStatusEvents#getNextCursor()}.</li>
+ * </ul>
+ */
+public class JobHistoryQuery {
+
+  private static final JobHistoryQuery ALL = newBuilder().build();
+
+  private final String host;
+  private final Long since;
+  private final Long until;
+  private final Integer limit;
+  private final String cursor;
+  private final long cursorTimestamp;
+  private final String cursorHost;
+
+  private JobHistoryQuery(final Builder builder) {
+    checkArgument(builder.limit == null || builder.limit > 0, "limit must be positive");
+    this.host = builder.host;
+    this.since = builder.since;
+    this.until = builder.until;
+    this.limit = builder.limit;
+    this.cursor = builder.cursor;
+
+    if (isNullOrEmpty(cursor)) {
+      this.cursorTimestamp = Long.MIN_VALUE;
+      this.cursorHost = "";
+    } else {
+      final int separator = cursor.indexOf(':');
+      checkArgument(separator > 0, "invalid cursor: %s", cursor);
+      try {
+        this.cursorTimestamp = Long.parseLong(cursor.substring(0, separator));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("invalid cursor: " + cursor, e);
+      }
+      this.cursorHost = cursor.substring(separator + 1);
+    }
+  }
+
+  /**
+   * Returns a query matching the full history of a job.
+   */
+  public static JobHistoryQuery all() {
+    return ALL;
+  }
+
+  /**
+   * Returns a cursor that continues a listing after the given event.
+   */
+  public static String cursor(final TaskStatusEvent event) {
+    return event.getTimestamp() + ":" + event.getHost();
+  }
+
+  @Nullable
+  public String getHost() {
+    return host;
+  }
+
+  @Nullable
+  public Long getSince() {
+    return since;
+  }
+
+  @Nullable
+  public Long getUntil() {
+    return until;
+  }
+
+  @Nullable
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @Nullable
+  public String getCursor() {
+    return cursor;
+  }
+
+  /**
+   * Returns true if an event at the given time and host falls within the time bounds and after
+   * the cursor of this query. The host filter and limit are not considered.
+   */
+  public boolean matches(final long timestamp, final String eventHost) {
+    if (since != null && timestamp < since) {
+      return false;
+    }
+    if (until != null && timestamp >= until) {
+      return false;
+    }
+    if (timestamp != cursorTimestamp) {
+      return timestamp > cursorTimestamp;
+    }
+    return eventHost.compareTo(cursorHost) > 0;
+  }
+
+  public Builder toBuilder() {
+    return newBuilder()
+        .setHost(host)
+        .setSince(since)
+        .setUntil(until)
+        .setLimit(limit)
+        .setCursor(cursor);
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  @Override
+  public String toString() {
+    return "JobHistoryQuery{" +
+           "host='" + host + '\'' +
+           ", since=" + since +
+           ", until=" + until +
+           ", limit=" + limit +
+           ", cursor='" + cursor + '\'' +
+           '}';
+  }
+
+  public static class Builder {
+    private String host;
+    private Long since;
+    private Long until;
+    private Integer limit;
+    private String cursor;
+
+    public Builder setHost(final String host) {
+      this.host = host;
+      return this;
+    }
+
+    public Builder setSince(final Long since) {
+      this.since = since;
+      return this;
+    }
+
+    public Builder setUntil(final Long until) {
+      this.until = until;
+      return this;
+    }
+
+    public Builder setLimit(final Integer limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    public Builder setCursor(final String cursor) {
+      this.cursor = cursor;
+      return this;
+    }
+
+    public JobHistoryQuery build() {
+      return new JobHistoryQuery(this);
+    }
+  }
+}
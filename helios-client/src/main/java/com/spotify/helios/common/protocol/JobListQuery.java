@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common.protocol;
+
+import com.spotify.helios.common.descriptors.JobId;
+
+import org.jetbrains.annotations.Nullable;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Strings.isNullOrEmpty;
+
+/**
+ * Selects a page of the jobs known to the master. Jobs are ordered by id, i.e. by name, version
+ * and hash. All parameters are optional.
+ *
+ * <ul>
+ *   <li>{@code q}: only return jobs whose id contains this string.</li>
+ *   <li>{@code name}: only return jobs with exactly this name.</li>
+ *   <li>{@code namePrefix}: only return jobs whose name starts with this string.</li>
+ *   <li>{@code limit}: return at most this many jobs.</li>
+ *   <li>{@code cursor}: only return jobs ordered after the job the cursor was created from. Pass
+ *   {@link #cursor(JobId)} of the last job of a page to fetch the next one.</li>
+ * </ul>
+ */
+public class JobListQuery {
+
+  private static final JobListQuery ALL = newBuilder().build();
+
+  private final String q;
+  private final String name;
+  private final String namePrefix;
+  private final Integer limit;
+  private final String cursor;
+  private final JobId cursorId;
+
+  private JobListQuery(final Builder builder) {
+    checkArgument(builder.limit == null || builder.limit > 0, "limit must be positive");
+    this.q = builder.q;
+    this.name = builder.name;
+    this.namePrefix = builder.namePrefix;
+    this.limit = builder.limit;
+    this.cursor = builder.cursor;
+    this.cursorId = isNullOrEmpty(cursor) ? null : JobId.fromString(cursor);
+    checkArgument(cursorId == null || cursorId.getVersion() != null, "invalid cursor: %s", cursor);
+  }
+
+  /**
+   * Returns a query matching all jobs.
+   */
+  public static JobListQuery all() {
+    return ALL;
+  }
+
+  /**
+   * Returns a cursor that continues a listing after the given job.
+   */
+  public static String cursor(final JobId jobId) {
+    return jobId.toString();
+  }
+
+  @Nullable
+  public String getQ() {
+    return q;
+  }
+
+  @Nullable
+  public String getName() {
+    return name;
+  }
+
+  @Nullable
+  public String getNamePrefix() {
+    return namePrefix;
+  }
+
+  @Nullable
+  public Integer getLimit() {
+    return limit;
+  }
+
+  @Nullable
+  public String getCursor() {
+    return cursor;
+  }
+
+  /**
+   * Returns the smallest job id that can match this query, so that a sorted set of ids can be
+   * searched from there rather than from the start. Returns null if all ids must be considered.
+   */
+  @Nullable
+  public JobId getFirstCandidate() {
+    final JobId first;
+    if (!isNullOrEmpty(name)) {
+      first = new JobId(name, "");
+    } else if (!isNullOrEmpty(namePrefix)) {
+      first = new JobId(namePrefix, "");
+    } else {
+      first = null;
+    }
+    if (cursorId != null && (first == null || cursorId.compareTo(first) > 0)) {
+      return cursorId;
+    }
+    return first;
+  }
+
+  /**
+   * Returns true if no id ordered after {@code jobId} can match this query.
+   */
+  public boolean isPast(final JobId jobId) {
+    if (!isNullOrEmpty(name)) {
+      return jobId.getName().compareTo(name) > 0;
+    }
+    if (!isNullOrEmpty(namePrefix)) {
+      return !jobId.getName().startsWith(namePrefix) && jobId.getName().compareTo(namePrefix) > 0;
+    }
+    return false;
+  }
+
+  /**
+   * Returns true if the job id matches the filters and comes after the cursor of this query. The
+   * limit is not considered.
+   */
+  public boolean matches(final JobId jobId) {
+    if (!isNullOrEmpty(q) && !jobId.toString().contains(q)) {
+      return false;
+    }
+    if (!isNullOrEmpty(name) && !jobId.getName().equals(name)) {
+      return false;
+    }
+    if (!isNullOrEmpty(namePrefix) && !jobId.getName().startsWith(namePrefix)) {
+      return false;
+    }
+    return cursorId == null || jobId.compareTo(cursorId) > 0;
+  }
+
+  public Builder toBuilder() {
+    return newBuilder()
+        .setQ(q)
+        .setName(name)
+        .setNamePrefix(namePrefix)
+        .setLimit(limit)
+        .setCursor(cursor);
+  }
+
+  public static Builder newBuilder() {
+    return new Builder();
+  }
+
+  @Override
+  public String toString() {
+    return "JobListQuery{" +
+           "q='" + q + '\'' +
+           ", name='" + name + '\'' +
+           ", namePrefix='" + namePrefix + '\'' +
+           ", limit=" + limit +
+           ", cursor='" + cursor + '\'' +
+           '}';
+  }
+
+  public static class Builder {
+    private String q;
+    private String name;
+    private String namePrefix;
+    private Integer limit;
+    private String cursor;
+
+    public Builder setQ(final String q) {
+      this.q = q;
+      return this;
+    }
+
+    public Builder setName(final String name) {
+      this.name = name;
+      return this;
+    }
+
+    public Builder setNamePrefix(final String namePrefix) {
+      this.namePrefix = namePrefix;
+      return this;
+    }
+
+    public Builder setLimit(final Integer limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    public Builder setCursor(final String cursor) {
+      this.cursor = cursor;
+      return this;
+    }
+
+    public JobListQuery build() {
+      return new JobListQuery(this);
+    }
+  }
+}
@@ -29,7 +29,8 @@ public class JobUndeployResponse {
     JOB_NOT_FOUND,
     HOST_NOT_FOUND,
     INVALID_ID,
-    FORBIDDEN
+    FORBIDDEN,
+    FAILED
   }
 
   private final Status status;
@@ -22,6 +22,8 @@ import com.spotify.helios.common.descriptors.TaskStatusEvent;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import org.jetbrains.annotations.Nullable;
+
 import java.util.List;
 
 public class TaskStatusEvents {
@@ -29,11 +31,24 @@ public class TaskStatusEvents {
 
   private final List<TaskStatusEvent> events;
   private final Status status;
+  private final String nextCursor;
+
+  public TaskStatusEvents(final List<TaskStatusEvent> events, final Status status) {
+    this(events, status, null);
+  }
 
+  /**
+   * @param events The events, oldest first.
+   * @param status The status of the request.
+   * @param nextCursor A {@link JobHistoryQuery} cursor for fetching the events following these, if
+   *                   the request was limited and more events are available.
+   */
   public TaskStatusEvents(@JsonProperty("events") List<TaskStatusEvent> events,
-                          @JsonProperty("status") Status status) {
+                          @JsonProperty("status") Status status,
+                          @JsonProperty("nextCursor") @Nullable String nextCursor) {
     this.events = events;
     this.status = status;
+    this.nextCursor = nextCursor;
   }
 
   public Status getStatus() {
@@ -44,11 +59,17 @@ public class TaskStatusEvents {
     return events;
   }
 
+  @Nullable
+  public String getNextCursor() {
+    return nextCursor;
+  }
+
   @Override
   public String toString() {
     return "TaskStatusEvents{" +
            "events=" + events +
            ", status=" + status +
+           ", nextCursor='" + nextCursor + '\'' +
            '}';
   }
 
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.client;
+
+import com.spotify.helios.common.Clock;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+
+import org.joda.time.Instant;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingRequestDispatcherTest {
+
+  private static final URI ENDPOINT = URI.create("http://example.com/jobs");
+  private static final byte[] BODY = "{}".getBytes(UTF_8);
+  private static final Map<String, List<String>> NO_HEADERS =
+      Collections.<String, List<String>>emptyMap();
+
+  private static final long NOW = 1000000L;
+
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final RequestDispatcher delegate = mock(RequestDispatcher.class);
+  private final Clock clock = mock(Clock.class);
+  private final CachingRequestDispatcher dispatcher = new CachingRequestDispatcher(delegate);
+
+  @SuppressWarnings("unchecked")
+  private final ArgumentCaptor<Map<String, List<String>>> headers =
+      (ArgumentCaptor) ArgumentCaptor.forClass(Map.class);
+
+  @Before
+  public void setUp() {
+    when(clock.now()).thenReturn(new Instant(NOW));
+  }
+
+  @Test
+  public void testRevalidatesAndServesCachedBody() throws Exception {
+    when(delegate.request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, "\"1a2b\"")))
+        .thenReturn(Futures.immediateFuture(response(304, new byte[0], "\"1a2b\"")));
+
+    final Response first = dispatcher.request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+    final Response second = dispatcher.request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    assertEquals(200, first.status());
+    assertEquals(200, second.status());
+    assertArrayEquals(BODY, second.payload());
+
+    verify(delegate, times(2)).request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                                       headers.capture());
+    assertFalse(headers.getAllValues().get(0).containsKey("If-None-Match"));
+    assertEquals(singletonList("\"1a2b\""), headers.getAllValues().get(1).get("If-None-Match"));
+  }
+
+  @Test
+  public void testDoesNotCacheUntaggedResponses() throws Exception {
+    when(delegate.request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, null)));
+
+    dispatcher.request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+    dispatcher.request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    verify(delegate, times(2)).request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                                       headers.capture());
+    assertFalse(headers.getAllValues().get(1).containsKey("If-None-Match"));
+  }
+
+  @Test
+  public void testPassesThroughOtherMethods() throws Exception {
+    when(delegate.request(any(URI.class), anyString(), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, "\"1a2b\"")));
+
+    dispatcher.request(ENDPOINT, "POST", BODY, NO_HEADERS).get();
+    dispatcher.request(ENDPOINT, "POST", BODY, NO_HEADERS).get();
+
+    verify(delegate, times(2)).request(eq(ENDPOINT), eq("POST"), any(byte[].class),
+                                       headers.capture());
+    assertFalse(headers.getAllValues().get(1).containsKey("If-None-Match"));
+  }
+
+  @Test
+  public void testServesFreshResponsesFromDisk() throws Exception {
+    when(delegate.request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, "\"1a2b\"")));
+
+    new CachingRequestDispatcher(delegate, diskCache())
+        .request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    // A second process finds the response on disk and doesn't need to ask the master
+    final Response cached = new CachingRequestDispatcher(delegate, diskCache())
+        .request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    assertEquals(200, cached.status());
+    assertArrayEquals(BODY, cached.payload());
+    verify(delegate, times(1)).request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                                       Matchers.<Map<String, List<String>>>any());
+  }
+
+  @Test
+  public void testRevalidatesStaleResponsesFromDisk() throws Exception {
+    when(delegate.request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, "\"1a2b\"")))
+        .thenReturn(Futures.immediateFuture(response(304, new byte[0], "\"1a2b\"")));
+
+    new CachingRequestDispatcher(delegate, diskCache())
+        .request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    when(clock.now()).thenReturn(new Instant(NOW + 6000));
+    final Response revalidated = new CachingRequestDispatcher(delegate, diskCache())
+        .request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    assertEquals(200, revalidated.status());
+    assertArrayEquals(BODY, revalidated.payload());
+    verify(delegate, times(2)).request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                                       headers.capture());
+    assertEquals(singletonList("\"1a2b\""), headers.getAllValues().get(1).get("If-None-Match"));
+  }
+
+  @Test
+  public void testOtherMethodsInvalidateDisk() throws Exception {
+    when(delegate.request(any(URI.class), anyString(), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(response(200, BODY, "\"1a2b\"")));
+
+    final CachingRequestDispatcher caching = new CachingRequestDispatcher(delegate, diskCache());
+    caching.request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+    caching.request(ENDPOINT, "DELETE", new byte[0], NO_HEADERS).get();
+
+    new CachingRequestDispatcher(delegate, diskCache())
+        .request(ENDPOINT, "GET", new byte[0], NO_HEADERS).get();
+
+    verify(delegate, times(2)).request(eq(ENDPOINT), eq("GET"), any(byte[].class),
+                                       headers.capture());
+    assertFalse(headers.getAllValues().get(1).containsKey("If-None-Match"));
+  }
+
+  private DiskResponseCache diskCache() {
+    return new DiskResponseCache(temporaryFolder.getRoot().toPath(), 5, SECONDS, clock);
+  }
+
+  private static Response response(final int status, final byte[] payload, final String etag) {
+    final Map<String, List<String>> headers = etag == null
+                                              ? NO_HEADERS
+                                              : ImmutableMap.of("ETag", singletonList(etag));
+    return new Response("GET", ENDPOINT, status, payload, headers);
+  }
+}
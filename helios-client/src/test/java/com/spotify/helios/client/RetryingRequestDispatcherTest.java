@@ -17,6 +17,7 @@
 
 package com.spotify.helios.client;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -39,6 +40,7 @@ import java.util.concurrent.ExecutionException;
 
 import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
 import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -120,4 +122,51 @@ public class RetryingRequestDispatcherTest {
     future.get();
   }
 
+  @Test
+  public void testRetryOnTooManyRequests() throws Exception {
+    when(delegate.request(any(URI.class), anyString(), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(tooManyRequests("0")))
+        .thenReturn(Futures.immediateFuture(response(200)));
+
+    when(clock.now()).thenReturn(new Instant(0));
+
+    final ListenableFuture<Response> future = dispatcher.request(
+        new URI("http://example.com"), "GET", null, Collections.<String, List<String>>emptyMap());
+
+    // Verify a request rejected by the master is retried after the delay it asked for
+    verify(delegate, times(2)).request(any(URI.class), anyString(), any(byte[].class),
+                                       Matchers.<Map<String, List<String>>>any());
+    assertEquals(200, future.get().status());
+  }
+
+  @Test
+  public void testTooManyRequestsAfterDeadline() throws Exception {
+    when(delegate.request(any(URI.class), anyString(), any(byte[].class),
+                          Matchers.<Map<String, List<String>>>any()))
+        .thenReturn(Futures.immediateFuture(tooManyRequests("120")))
+        .thenReturn(Futures.immediateFuture(response(200)));
+
+    when(clock.now()).thenReturn(new Instant(0));
+
+    final ListenableFuture<Response> future = dispatcher.request(
+        new URI("http://example.com"), "GET", null, Collections.<String, List<String>>emptyMap());
+
+    // Verify the rejection is returned if the master asks us to retry after the deadline
+    verify(delegate, times(1)).request(any(URI.class), anyString(), any(byte[].class),
+                                       Matchers.<Map<String, List<String>>>any());
+    assertEquals(429, future.get().status());
+  }
+
+  private static Response tooManyRequests(final String retryAfter) throws Exception {
+    return new Response("GET", new URI("http://example.com"), 429, new byte[0],
+                        ImmutableMap.<String, List<String>>of(
+                            "Retry-After", Collections.singletonList(retryAfter)));
+  }
+
+  private static Response response(final int status) throws Exception {
+    return new Response("GET", new URI("http://example.com"), status, new byte[0],
+                        Collections.<String, List<String>>emptyMap());
+  }
+
 }
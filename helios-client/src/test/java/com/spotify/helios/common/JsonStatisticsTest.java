@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.common;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JsonStatisticsTest {
+
+  public static class Counted {
+
+    public String a;
+  }
+
+  @Test
+  public void testCountsParsedAndSerializedBytesPerType() throws Exception {
+    final Counted value = new Counted();
+    value.a = "hello";
+
+    final byte[] bytes = Json.asBytes(value);
+    Json.read(bytes, Counted.class);
+    Json.read(new String(bytes, "UTF-8"), Counted.class);
+
+    final JsonStatistics.Counts counts = JsonStatistics.snapshot().get(Counted.class.getName());
+    assertEquals(2, counts.getParsed());
+    assertEquals(2 * bytes.length, counts.getParsedBytes());
+    assertEquals(1, counts.getSerialized());
+    assertEquals(bytes.length, counts.getSerializedBytes());
+  }
+
+  @Test
+  public void testCountsGenericTypesByTypeName() throws Exception {
+    final String json = "[{\"a\":\"hello\"}]";
+    Json.read(json, new TypeReference<List<Counted>>() {});
+
+    final String name = "java.util.List<" + Counted.class.getName() + ">";
+    assertTrue(JsonStatistics.snapshot().containsKey(name));
+    assertEquals(json.length(), JsonStatistics.snapshot().get(name).getParsedBytes());
+  }
+
+  @Test
+  public void testCountsSince() throws Exception {
+    final JsonStatistics.Counts earlier = new JsonStatistics.Counts(1, 10, 2, 20);
+    final JsonStatistics.Counts later = new JsonStatistics.Counts(3, 40, 2, 20);
+
+    final JsonStatistics.Counts delta = later.minus(earlier);
+    assertEquals(2, delta.getParsed());
+    assertEquals(30, delta.getParsedBytes());
+    assertEquals(0, delta.getSerialized());
+    assertFalse(delta.isEmpty());
+  }
+}
@@ -17,6 +17,8 @@
 
 package com.spotify.helios.common;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -28,6 +30,8 @@ import java.util.Map;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class JsonTest {
 
@@ -104,4 +108,32 @@ public class JsonTest {
                  "  \"foo\" : \"bar\"\n" +
                  "}", json);
   }
+
+  @Test
+  public void verifyReadsSmileAndJson() throws Exception {
+    final SomePojo pojo = new SomePojo();
+    pojo.foo = "bar";
+
+    final byte[] smile = Json.asSmileBytes(pojo);
+    final byte[] json = Json.asBytes(pojo);
+    assertTrue(Json.isSmile(smile));
+    assertFalse(Json.isSmile(json));
+
+    assertEquals("bar", Json.read(smile, SomePojo.class).foo);
+    assertEquals("bar", Json.read(json, SomePojo.class).foo);
+    assertEquals("bar", Json.readTree(smile).get("foo").asText());
+  }
+
+  @Test
+  public void verifyReadsSmileWithLongNames() throws Exception {
+    final String name = "benchmark-service:1.0.0:21dbe6af86d2d0e8292ad72c3e4f30f5cda58949";
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put(name, Collections.singletonMap("foo", "bar"));
+    map.put("other", 17);
+
+    final byte[] smile = Json.asSmileBytes(map);
+    final Map<String, Object> read = Json.read(smile, new TypeReference<Map<String, Object>>() {});
+    assertEquals(map, read);
+    assertEquals(17, Json.readTree(smile).get("other").asInt());
+  }
 }
@@ -25,6 +25,7 @@ import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.AbstractIdleService;
 
+import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.helios.common.descriptors.Goal;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
@@ -33,6 +34,7 @@ import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.servicescommon.PersistentAtomicReference;
 import com.spotify.helios.servicescommon.Reactor;
 import com.spotify.helios.servicescommon.ReactorFactory;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,6 +50,7 @@ import static com.google.common.base.Predicates.not;
 import static com.spotify.helios.common.descriptors.Goal.START;
 import static com.spotify.helios.common.descriptors.Goal.UNDEPLOY;
 import static com.spotify.helios.servicescommon.Reactor.Callback;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -81,11 +84,12 @@ public class Agent extends AbstractIdleService {
   private final SupervisorFactory supervisorFactory;
   private final ModelListener modelListener = new ModelListener();
   private final Supervisor.Listener supervisorListener = new SupervisorListener();
-  private final Map<JobId, Supervisor> supervisors = Maps.newHashMap();
+  private final Map<JobId, Supervisor> supervisors = Maps.newConcurrentMap();
   private final Reactor reactor;
   private final PersistentAtomicReference<Map<JobId, Execution>> executions;
   private final PortAllocator portAllocator;
   private final Reaper reaper;
+  private final SupervisorMetrics metrics;
 
   /**
    * Create a new agent.
@@ -96,12 +100,14 @@ public class Agent extends AbstractIdleService {
    * @param executions        A persistent map of executions.
    * @param portAllocator     Allocator for job ports.
    * @param reaper            The reaper.
+   * @param metrics           The supervisor metrics, used to report recovery on startup.
    */
   public Agent(final AgentModel model, final SupervisorFactory supervisorFactory,
                final ReactorFactory reactorFactory,
                final PersistentAtomicReference<Map<JobId, Execution>> executions,
                final PortAllocator portAllocator,
-               final Reaper reaper) {
+               final Reaper reaper,
+               final SupervisorMetrics metrics) {
     this.model = checkNotNull(model, "model");
     this.supervisorFactory = checkNotNull(supervisorFactory, "supervisorFactory");
     this.executions = checkNotNull(executions, "executions");
@@ -109,29 +115,62 @@ public class Agent extends AbstractIdleService {
     this.reactor = checkNotNull(reactorFactory.create("agent", new Update(), UPDATE_INTERVAL),
                                 "reactor");
     this.reaper = checkNotNull(reaper, "reaper");
+    this.metrics = checkNotNull(metrics, "metrics");
   }
 
   @Override
   protected void startUp() throws Exception {
+    // Recover supervisors for the executions we had before restarting. A single listing of the
+    // running containers in our namespace lets the supervisors reattach to them without
+    // inspecting each container, and each supervisor reattaches on its own thread.
+    final long start = System.nanoTime();
+    final Set<String> running = runningContainers();
+    int recovered = 0;
     for (final Entry<JobId, Execution> entry : executions.get().entrySet()) {
       final Execution execution = entry.getValue();
       final Job job = execution.getJob();
       if (execution.getPorts() != null) {
-        createSupervisor(job, execution.getPorts());
+        final Supervisor supervisor = createSupervisor(job, execution.getPorts(), running);
+        if (supervisor.containerId() != null && running.contains(supervisor.containerId())) {
+          recovered++;
+        }
       }
     }
+    final long duration = System.nanoTime() - start;
+    log.info("recovered {} running containers of {} executions in {} ms", recovered,
+             executions.get().size(), NANOSECONDS.toMillis(duration));
+    metrics.agentRecovery(duration, recovered);
     model.addListener(modelListener);
     reactor.startAsync().awaitRunning();
     reactor.signal();
+
+    // Reap unwanted containers on the reaper's own schedule
+    reaper.start(new ActiveContainers());
   }
 
   @Override
   protected void shutDown() throws Exception {
+    reaper.stop();
     reactor.stopAsync().awaitTerminated();
     for (final Supervisor supervisor : supervisors.values()) {
       supervisor.close();
       supervisor.join();
     }
+    // Publish the statuses the supervisors left held back while the model is still running
+    supervisorFactory.close();
+  }
+
+  /**
+   * List the running containers in our namespace. If docker fails us here the supervisors will
+   * fall back to inspecting their containers one by one.
+   */
+  private Set<String> runningContainers() throws InterruptedException {
+    try {
+      return reaper.runningContainers();
+    } catch (DockerException e) {
+      log.warn("failed to list running containers, will inspect them individually", e);
+      return Collections.emptySet();
+    }
   }
 
   /**
@@ -140,15 +179,47 @@ public class Agent extends AbstractIdleService {
    * @param job The job .
    */
   private Supervisor createSupervisor(final Job job, final Map<String, Integer> portAllocation) {
+    return createSupervisor(job, portAllocation, Collections.<String>emptySet());
+  }
+
+  /**
+   * Create a job supervisor.
+   *
+   * @param job               The job.
+   * @param portAllocation    The ports allocated to the job.
+   * @param runningContainers Containers known to be running, which need not be inspected.
+   */
+  private Supervisor createSupervisor(final Job job, final Map<String, Integer> portAllocation,
+                                      final Set<String> runningContainers) {
     log.debug("creating job supervisor: {}", job);
     final TaskStatus taskStatus = model.getTaskStatus(job.getId());
     final String containerId = (taskStatus == null) ? null : taskStatus.getContainerId();
-    final Supervisor supervisor = supervisorFactory.create(job, containerId, portAllocation,
-                                                           supervisorListener);
+    final boolean containerRunning = containerId != null && runningContainers.contains(containerId);
+    final Supervisor supervisor = supervisorFactory.create(job, containerId, containerRunning,
+                                                           portAllocation, supervisorListener);
     supervisors.put(job.getId(), supervisor);
     return supervisor;
   }
 
+  /**
+   * Supplies the IDs of the containers of our supervisors. Called from the reaper's thread, which
+   * is why the supervisors map is concurrent.
+   */
+  private class ActiveContainers implements Supplier<Set<String>> {
+
+    @Override
+    public Set<String> get() {
+      final Set<String> active = Sets.newHashSet();
+      for (final Supervisor supervisor : supervisors.values()) {
+        final String containerId = supervisor.containerId();
+        if (containerId != null) {
+          active.add(containerId);
+        }
+      }
+      return active;
+    }
+  }
+
   /**
    * Listens to model state updates and signals the reactor.
    */
@@ -186,21 +257,6 @@ public class Agent extends AbstractIdleService {
       //   to die before spawning a new one.
       // * Book-keeping a supervisor of one job should not block processing of other jobs
 
-      // Reap unwanted containers
-      reaper.reap(new Supplier<Set<String>>() {
-        @Override
-        public Set<String> get() {
-          final Set<String> active = Sets.newHashSet();
-          for (final Supervisor supervisor : supervisors.values()) {
-            final String containerId = supervisor.containerId();
-            if (containerId != null) {
-              active.add(containerId);
-            }
-          }
-          return active;
-        }
-      });
-
       final Map<JobId, Task> tasks = model.getTasks();
 
       log.debug("tasks: {}", tasks);
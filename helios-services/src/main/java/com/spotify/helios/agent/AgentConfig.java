@@ -67,6 +67,9 @@ public class AgentConfig extends Configuration {
   private FastForwardConfig fastForwardConfig;
   private List<String> extraHosts;
   private boolean jobHistoryDisabled;
+  private boolean compactJobHistory;
+  private long dockerSlowCallThresholdMillis;
+  private int healthCheckConcurrency;
 
   public boolean isInhibitMetrics() {
     return inhibitMetrics;
@@ -369,6 +372,33 @@ public class AgentConfig extends Configuration {
     return this;
   }
 
+  public boolean isCompactJobHistory() {
+    return compactJobHistory;
+  }
+
+  public AgentConfig setCompactJobHistory(final boolean compactJobHistory) {
+    this.compactJobHistory = compactJobHistory;
+    return this;
+  }
+
+  public long getDockerSlowCallThresholdMillis() {
+    return dockerSlowCallThresholdMillis;
+  }
+
+  public AgentConfig setDockerSlowCallThresholdMillis(final long dockerSlowCallThresholdMillis) {
+    this.dockerSlowCallThresholdMillis = dockerSlowCallThresholdMillis;
+    return this;
+  }
+
+  public int getHealthCheckConcurrency() {
+    return healthCheckConcurrency;
+  }
+
+  public AgentConfig setHealthCheckConcurrency(final int healthCheckConcurrency) {
+    this.healthCheckConcurrency = healthCheckConcurrency;
+    return this;
+  }
+
   public List<String> getExtraHosts() {
     return extraHosts;
   }
@@ -21,6 +21,7 @@ import com.spotify.helios.common.Version;
 import com.spotify.helios.common.descriptors.AgentInfo;
 import com.spotify.helios.servicescommon.coordination.NodeUpdaterFactory;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperNodeUpdater;
 
 import java.lang.management.RuntimeMXBean;
@@ -67,7 +68,7 @@ public class AgentInfoReporter extends SignalAwaitingService {
         .setVersion(Version.POM_VERSION)
         .build();
 
-    nodeUpdater.update(agentInfo.toJsonBytes());
+    nodeUpdater.update(PayloadEncoding.current().encode(agentInfo));
   }
 
   @Override
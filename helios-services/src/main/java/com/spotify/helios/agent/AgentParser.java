@@ -69,6 +69,9 @@ public class AgentParser extends ServiceParser {
   private Argument zkAclMasterDigest;
   private Argument zkAclAgentPassword;
   private Argument disableJobHistory;
+  private Argument compactJobHistory;
+  private Argument dockerSlowCallThresholdArg;
+  private Argument healthCheckConcurrencyArg;
 
   public AgentParser(final String... args) throws ArgumentParserException {
     super("helios-agent", "Spotify Helios Agent", args);
@@ -144,7 +147,10 @@ public class AgentParser extends ServiceParser {
         .setKafkaBrokers(getKafkaBrokers())
         .setLabels(labels)
         .setFfwdConfig(ffwdConfig(options))
-        .setJobHistoryDisabled(options.getBoolean(disableJobHistory.getDest()));
+        .setJobHistoryDisabled(options.getBoolean(disableJobHistory.getDest()))
+        .setCompactJobHistory(options.getBoolean(compactJobHistory.getDest()))
+        .setDockerSlowCallThresholdMillis(options.getLong(dockerSlowCallThresholdArg.getDest()))
+        .setHealthCheckConcurrency(options.getInt(healthCheckConcurrencyArg.getDest()));
 
     final String explicitId = options.getString(agentIdArg.getDest());
     if (explicitId != null) {
@@ -272,6 +278,24 @@ public class AgentParser extends ServiceParser {
         .action(storeTrue())
         .setDefault(false)
         .help("If specified, the agent won't write job histories to ZooKeeper.");
+
+    compactJobHistory = parser.addArgument("--compact-job-history")
+        .action(storeTrue())
+        .setDefault(false)
+        .help("If specified, the agent keeps the job history of each job in a single capped "
+              + "ZooKeeper node instead of one node per event, and converts existing history "
+              + "to that layout as it writes new events.");
+
+    dockerSlowCallThresholdArg = parser.addArgument("--docker-slow-call-threshold")
+        .type(Long.class)
+        .setDefault(10000L)
+        .help("Log calls to the docker daemon that take at least this many milliseconds. "
+              + "Set to 0 to disable.");
+
+    healthCheckConcurrencyArg = parser.addArgument("--health-check-concurrency")
+        .type(Integer.class)
+        .setDefault(HealthCheckScheduler.DEFAULT_CONCURRENCY)
+        .help("The maximum number of job health checks to probe concurrently.");
   }
 
   public AgentConfig getAgentConfig() {
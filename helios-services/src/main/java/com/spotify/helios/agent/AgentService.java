@@ -49,6 +49,7 @@ import com.spotify.helios.servicescommon.ZooKeeperRegistrarService;
 import com.spotify.helios.servicescommon.coordination.CuratorClientFactoryImpl;
 import com.spotify.helios.servicescommon.coordination.DefaultZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncodingWatcher;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperHealthChecker;
@@ -179,14 +180,17 @@ public class AgentService extends AbstractIdleService implements Managed {
         metricsRegistry, config.getRiemannHostPort(), config.getName(), "helios-agent");
     final RiemannFacade riemannFacade = riemannSupport.getFacade();
 
-    final DockerClient dockerClient = createDockerClient(config, riemannFacade);
-
     if (config.isInhibitMetrics()) {
       log.info("Not starting metrics");
       metrics = new NoopMetrics();
     } else {
       log.info("Starting metrics");
       metrics = new MetricsImpl(metricsRegistry, MetricsImpl.Type.AGENT);
+    }
+
+    final DockerClient dockerClient = createDockerClient(config, riemannFacade, metrics);
+
+    if (!config.isInhibitMetrics()) {
       environment.lifecycle().manage(riemannSupport);
       if (!Strings.isNullOrEmpty(config.getStatsdHostPort())) {
         environment.lifecycle().manage(new ManagedStatsdReporter(config.getStatsdHostPort(),
@@ -232,13 +236,16 @@ public class AgentService extends AbstractIdleService implements Managed {
         zooKeeperClient, modelReporter);
     final KafkaClientProvider kafkaClientProvider = new KafkaClientProvider(
         config.getKafkaBrokers());
+    environment.lifecycle().manage(
+        new PayloadEncodingWatcher(zkClientProvider.get("payloadEncoding")));
 
     final TaskHistoryWriter historyWriter;
     if (config.isJobHistoryDisabled()) {
       historyWriter = null;
     } else {
       historyWriter = new TaskHistoryWriter(
-          config.getName(), zooKeeperClient, stateDirectory.resolve(TASK_HISTORY_FILENAME));
+          config.getName(), zooKeeperClient, stateDirectory.resolve(TASK_HISTORY_FILENAME),
+          config.isCompactJobHistory());
     }
 
     try {
@@ -287,8 +294,17 @@ public class AgentService extends AbstractIdleService implements Managed {
       decorators.add(new AddExtraHostContainerDecorator(config.getExtraHosts()));
     }
 
+    final ImageManager imageManager = new ImageManager(dockerClient,
+                                                       metrics.getSupervisorMetrics());
+    environment.lifecycle().manage(imageManager);
+    model.addListener(imageManager);
+
+    final HealthCheckScheduler healthCheckScheduler = new HealthCheckScheduler(
+        config.getHealthCheckConcurrency(), metrics.getHealthCheckMetrics());
+    environment.lifecycle().manage(healthCheckScheduler);
+
     final SupervisorFactory supervisorFactory = new SupervisorFactory(
-        model, dockerClient,
+        model, dockerClient, imageManager, healthCheckScheduler,
         config.getEnvVars(), serviceRegistrar,
         decorators,
         config.getDockerHost(),
@@ -312,9 +328,9 @@ public class AgentService extends AbstractIdleService implements Managed {
       throw Throwables.propagate(e);
     }
 
-    final Reaper reaper = new Reaper(dockerClient, namespace);
+    final Reaper reaper = new Reaper(dockerClient, namespace, metrics.getSupervisorMetrics());
     this.agent = new Agent(model, supervisorFactory, reactorFactory, executions, portAllocator,
-                           reaper);
+                           reaper, metrics.getSupervisorMetrics());
 
     final ZooKeeperHealthChecker zkHealthChecker = new ZooKeeperHealthChecker(zooKeeperClient,
                                                                               Paths.statusHosts(),
@@ -334,6 +350,7 @@ public class AgentService extends AbstractIdleService implements Managed {
 
       environment.jersey().register(new AgentModelTaskResource(model));
       environment.jersey().register(new AgentModelTaskStatusResource(model));
+      ServiceUtil.addProfilingServlets(environment);
       environment.lifecycle().manage(this);
 
       this.server = ServiceUtil.createServerFactory(config.getHttpEndpoint(),
@@ -347,7 +364,8 @@ public class AgentService extends AbstractIdleService implements Managed {
   }
 
   private DockerClient createDockerClient(final AgentConfig config,
-                                          final RiemannFacade riemannFacade) {
+                                          final RiemannFacade riemannFacade,
+                                          final Metrics metrics) {
     final DockerClient dockerClient;
     if (isNullOrEmpty(config.getDockerHost().dockerCertPath())) {
       dockerClient = new PollingDockerClient(config.getDockerHost().uri());
@@ -363,7 +381,8 @@ public class AgentService extends AbstractIdleService implements Managed {
       dockerClient = new PollingDockerClient(config.getDockerHost().uri(), dockerCertificates);
     }
 
-    return MonitoredDockerClient.wrap(riemannFacade, dockerClient);
+    return MonitoredDockerClient.wrap(riemannFacade, metrics.getDockerMetrics(),
+                                      config.getDockerSlowCallThresholdMillis(), dockerClient);
   }
 
   /**
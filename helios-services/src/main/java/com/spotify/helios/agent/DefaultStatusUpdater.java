@@ -20,13 +20,43 @@ package com.spotify.helios.agent;
 import com.spotify.helios.common.descriptors.Goal;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.descriptors.ThrottleState;
+import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.CREATING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.HEALTHCHECKING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.PULLING_IMAGE;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.STARTING;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Plain boring status updater for tasks to report their status to the {@link AgentModel}.
+ *
+ * <p>If given a scheduler, updates in the short-lived states a container passes through while
+ * starting are held back for a short window and replaced by any later update, so that a container
+ * start results in a few status writes instead of one per state. The latest state is always
+ * published once the window has passed, and any other state is published immediately.
  */
 public class DefaultStatusUpdater implements StatusUpdater {
 
+  private static final Logger log = LoggerFactory.getLogger(DefaultStatusUpdater.class);
+
+  private static final Set<TaskStatus.State> COALESCED_STATES =
+      EnumSet.of(PULLING_IMAGE, CREATING, STARTING, HEALTHCHECKING);
+
   private final TaskStatus.Builder builder;
+  private final ScheduledExecutorService scheduler;
+  private final long coalesceMillis;
+  private final SupervisorMetrics metrics;
 
   private Goal goal;
   private String containerId;
@@ -35,10 +65,32 @@ public class DefaultStatusUpdater implements StatusUpdater {
   private TaskStatus.State state;
   private String containerError;
 
+  private TaskStatus pending;
+  private ScheduledFuture<?> flush;
+
   public DefaultStatusUpdater(final AgentModel model,
                               final TaskStatus.Builder builder) {
+    this(model, builder, null, 0, new NoopSupervisorMetrics());
+  }
+
+  /**
+   * @param model          The model to publish statuses to.
+   * @param builder        The builder used for statuses.
+   * @param scheduler      The scheduler used to publish held back statuses, or null to publish
+   *                       every status immediately.
+   * @param coalesceMillis How long to hold back statuses in short-lived states.
+   * @param metrics        Metrics for published and coalesced statuses.
+   */
+  public DefaultStatusUpdater(final AgentModel model,
+                              final TaskStatus.Builder builder,
+                              final ScheduledExecutorService scheduler,
+                              final long coalesceMillis,
+                              final SupervisorMetrics metrics) {
     this.model = model;
     this.builder = builder;
+    this.scheduler = scheduler;
+    this.coalesceMillis = coalesceMillis;
+    this.metrics = checkNotNull(metrics, "metrics");
   }
 
   @Override
@@ -62,7 +114,7 @@ public class DefaultStatusUpdater implements StatusUpdater {
   }
 
   @Override
-  public void update() throws InterruptedException {
+  public synchronized void update() throws InterruptedException {
     final TaskStatus status = builder
             .setGoal(goal)
             .setState(state)
@@ -70,11 +122,53 @@ public class DefaultStatusUpdater implements StatusUpdater {
             .setThrottled(throttleState)
             .setContainerError(containerError)
             .build();
-    model.setTaskStatus(status.getJob().getId(), status);
+
+    if (scheduler != null && coalesceMillis > 0 && COALESCED_STATES.contains(state)) {
+      if (pending != null) {
+        metrics.taskStatusCoalesced();
+      }
+      pending = status;
+      if (flush == null) {
+        flush = scheduler.schedule(this::flush, coalesceMillis, MILLISECONDS);
+      }
+      return;
+    }
+
+    // This status supersedes any held back one
+    if (pending != null) {
+      metrics.taskStatusCoalesced();
+      pending = null;
+    }
+    if (flush != null) {
+      flush.cancel(false);
+      flush = null;
+    }
+    publish(status);
   }
 
   @Override
   public void setState(final TaskStatus.State state) {
     this.state = state;
   }
+
+  private synchronized void flush() {
+    flush = null;
+    if (pending == null) {
+      return;
+    }
+    final TaskStatus status = pending;
+    pending = null;
+    try {
+      publish(status);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.error("failed to publish task status: {}", status, e);
+    }
+  }
+
+  private void publish(final TaskStatus status) throws InterruptedException {
+    metrics.taskStatusPublished();
+    model.setTaskStatus(status.getJob().getId(), status);
+  }
 }
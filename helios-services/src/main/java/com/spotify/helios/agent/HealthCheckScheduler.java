@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.spotify.helios.servicescommon.statistics.HealthCheckMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Runs the health checks of all jobs on the agent on a shared, bounded pool of threads.
+ *
+ * <p>A health check is probed until it passes, backing off exponentially between failed probes.
+ * Supervisors wait on the returned future instead of probing from their own threads, so the number
+ * of concurrent probes is bounded regardless of the number of jobs starting at once.
+ */
+public class HealthCheckScheduler implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(HealthCheckScheduler.class);
+
+  public static final int DEFAULT_CONCURRENCY = 16;
+
+  private static final long MIN_RETRY_INTERVAL_MILLIS = SECONDS.toMillis(1);
+  private static final long MAX_RETRY_INTERVAL_MILLIS = SECONDS.toMillis(30);
+
+  private final ScheduledThreadPoolExecutor executor;
+  private final HealthCheckMetrics metrics;
+
+  public HealthCheckScheduler(final int concurrency, final HealthCheckMetrics metrics) {
+    checkArgument(concurrency > 0, "concurrency must be positive");
+    this.metrics = checkNotNull(metrics, "metrics");
+    this.executor = new ScheduledThreadPoolExecutor(
+        concurrency,
+        new ThreadFactoryBuilder().setNameFormat("health-check-%d").setDaemon(true).build());
+    this.executor.setKeepAliveTime(1, SECONDS);
+    this.executor.allowCoreThreadTimeOut(true);
+    this.executor.setRemoveOnCancelPolicy(true);
+  }
+
+  @Override
+  public void start() throws Exception {
+  }
+
+  @Override
+  public void stop() throws Exception {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Probe a container until its health check passes.
+   *
+   * @param job The name of the job, used for logging.
+   * @param containerId The id of the container to probe.
+   * @param checker The health checker of the job.
+   * @param onFailure Called after each failed probe. Throwing from it aborts health checking.
+   * @return A future that completes when the health check passes, or fails with the exception
+   *         thrown by the health checker or {@code onFailure}. Cancelling the future stops probing.
+   */
+  public ListenableFuture<Void> healthCheck(final String job, final String containerId,
+                                            final HealthChecker checker,
+                                            final FailureHandler onFailure) {
+    final Probe probe = new Probe(job, containerId, checker, onFailure);
+    probe.schedule(0);
+    return probe.future;
+  }
+
+  /**
+   * Called when a probe fails.
+   */
+  public interface FailureHandler {
+
+    void failed(String containerId) throws Exception;
+  }
+
+  private class Probe implements Runnable {
+
+    private final SettableFuture<Void> future = SettableFuture.create();
+    private final RetryScheduler retryScheduler = BoundedRandomExponentialBackoff.newBuilder()
+        .setMinIntervalMillis(MIN_RETRY_INTERVAL_MILLIS)
+        .setMaxIntervalMillis(MAX_RETRY_INTERVAL_MILLIS)
+        .build().newScheduler();
+
+    private final String job;
+    private final String containerId;
+    private final HealthChecker checker;
+    private final FailureHandler onFailure;
+
+    private Probe(final String job, final String containerId, final HealthChecker checker,
+                  final FailureHandler onFailure) {
+      this.job = job;
+      this.containerId = containerId;
+      this.checker = checker;
+      this.onFailure = onFailure;
+    }
+
+    @Override
+    public void run() {
+      if (future.isDone()) {
+        return;
+      }
+
+      try {
+        final long start = System.nanoTime();
+        final boolean healthy = checker.check(containerId);
+        metrics.probeFinished(System.nanoTime() - start, NANOSECONDS, healthy);
+        if (healthy) {
+          future.set(null);
+          return;
+        }
+        onFailure.failed(containerId);
+      } catch (Throwable t) {
+        future.setException(t);
+        return;
+      }
+
+      final long retryMillis = retryScheduler.nextMillis();
+      log.warn("container failed healthcheck, will retry in {}ms: {}: {}",
+               retryMillis, job, containerId);
+      schedule(retryMillis);
+    }
+
+    private void schedule(final long delayMillis) {
+      try {
+        executor.schedule(this, delayMillis, MILLISECONDS);
+      } catch (RejectedExecutionException e) {
+        future.setException(e);
+      }
+    }
+  }
+}
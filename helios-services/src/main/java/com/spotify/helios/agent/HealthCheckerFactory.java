@@ -21,6 +21,7 @@ import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
 import com.google.common.collect.Iterables;
+import com.google.common.io.ByteStreams;
 
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.DockerHost;
@@ -34,6 +35,8 @@ import com.spotify.helios.common.descriptors.TcpHealthCheck;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
@@ -73,6 +76,9 @@ public final class HealthCheckerFactory {
     private final ExecHealthCheck healthCheck;
     private final DockerClient docker;
 
+    // The docker version doesn't change under a running agent, so check it only once
+    private volatile Boolean compatibleDockerVersion;
+
     ExecHealthChecker(final ExecHealthCheck healthCheck, final DockerClient docker) {
       this.healthCheck = healthCheck;
       this.docker = docker;
@@ -81,7 +87,7 @@ public final class HealthCheckerFactory {
     @Override
     public boolean check(final String containerId) {
       // Make sure we are on a docker version that supports exec health checks
-      if (!compatibleDockerVersion(docker)) {
+      if (!compatibleDockerVersion()) {
         throw new UnsupportedOperationException(
             "docker exec healthcheck is not supported on your docker version");
       }
@@ -112,7 +118,11 @@ public final class HealthCheckerFactory {
       }
     }
 
-    private static boolean compatibleDockerVersion(final DockerClient docker) {
+    private boolean compatibleDockerVersion() {
+      if (compatibleDockerVersion != null) {
+        return compatibleDockerVersion;
+      }
+
       final String apiVersion;
       try {
         apiVersion = docker.version().apiVersion();
@@ -130,20 +140,41 @@ public final class HealthCheckerFactory {
       final Iterable<String> split = Splitter.on(".").split(apiVersion);
       final int major = Integer.parseInt(Iterables.get(split, 0, "0"));
       final int minor = Integer.parseInt(Iterables.get(split, 1, "0"));
-      return major == 1 && minor >= 18;
+      compatibleDockerVersion = major == 1 && minor >= 18;
+      return compatibleDockerVersion;
     }
   }
 
   private abstract static class NetworkHealthchecker implements HealthChecker {
     private final DockerClient dockerClient;
 
+    // The bridge address of the container being probed. A checker is only used for the
+    // containers of a single job, one at a time, so remembering the last one is enough.
+    private volatile BridgeAddress bridgeAddress;
+
     protected NetworkHealthchecker(final DockerClient dockerClient) {
       this.dockerClient = dockerClient;
     }
 
     protected String getBridgeAddress(String containerId)
         throws DockerException, InterruptedException {
-      return dockerClient.inspectContainer(containerId).networkSettings().gateway();
+      final BridgeAddress cached = bridgeAddress;
+      if (cached != null && cached.containerId.equals(containerId)) {
+        return cached.address;
+      }
+      final String address = dockerClient.inspectContainer(containerId).networkSettings().gateway();
+      bridgeAddress = new BridgeAddress(containerId, address);
+      return address;
+    }
+
+    private static class BridgeAddress {
+      private final String containerId;
+      private final String address;
+
+      private BridgeAddress(final String containerId, final String address) {
+        this.containerId = containerId;
+        this.address = address;
+      }
     }
   }
 
@@ -205,6 +236,7 @@ public final class HealthCheckerFactory {
         final int response = conn.getResponseCode();
         log.warn("healthcheck for containerId={} with url={} returned status={}",
                  containerId, url, response);
+        consume(conn);
         return response >= 200 && response <= 399;
       } catch (Exception e) {
         log.warn("exception in healthchecking containerId={} with url={}", containerId, url, e);
@@ -212,6 +244,27 @@ public final class HealthCheckerFactory {
       }
     }
 
+    /**
+     * Read and close the response body, which allows the underlying connection to be kept alive
+     * and reused by the next probe. Failing to do so only costs the reuse, so it does not affect
+     * the outcome of the health check.
+     */
+    private static void consume(final HttpURLConnection conn) {
+      try {
+        final InputStream body = conn.getErrorStream() != null ? conn.getErrorStream()
+                                                               : conn.getInputStream();
+        if (body == null) {
+          return;
+        }
+        try {
+          ByteStreams.copy(body, ByteStreams.nullOutputStream());
+        } finally {
+          body.close();
+        }
+      } catch (IOException e) {
+        log.debug("failed to read healthcheck response body from {}", conn.getURL(), e);
+      }
+    }
   }
 
   private static class TcpHealthChecker extends NetworkHealthchecker {
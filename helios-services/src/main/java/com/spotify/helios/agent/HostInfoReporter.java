@@ -26,6 +26,7 @@ import com.spotify.helios.common.descriptors.DockerVersion;
 import com.spotify.helios.common.descriptors.HostInfo;
 import com.spotify.helios.servicescommon.coordination.NodeUpdaterFactory;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperNodeUpdater;
 import com.sun.management.OperatingSystemMXBean;
 
@@ -89,7 +90,7 @@ public class HostInfoReporter extends SignalAwaitingService {
         .setDockerCertPath(dockerHost.dockerCertPath())
         .build();
 
-    nodeUpdater.update(hostInfo.toJsonBytes());
+    nodeUpdater.update(PayloadEncoding.current().encode(hostInfo));
   }
 
   private DockerVersion dockerVersion() throws InterruptedException {
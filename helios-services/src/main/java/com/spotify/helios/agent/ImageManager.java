@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.exceptions.DockerException;
+import com.spotify.docker.client.exceptions.ImageNotFoundException;
+import com.spotify.helios.common.descriptors.Task;
+import com.spotify.helios.servicescommon.statistics.MetricsContext;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.spotify.helios.common.descriptors.Goal.UNDEPLOY;
+
+/**
+ * Makes sure images are available on the docker host before containers are created from them.
+ *
+ * <p>Images that are already present are not pulled again, unless they are referenced by a
+ * mutable tag (no tag or {@code latest}). Concurrent requests for the same image share a single
+ * pull. As a listener of the {@link AgentModel}, images of newly assigned tasks are pulled in the
+ * background, so that they are usually present by the time the task is started.
+ */
+public class ImageManager implements AgentModel.Listener, Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageManager.class);
+
+  private static final int PREFETCH_THREADS = 2;
+
+  private final DockerClient docker;
+  private final SupervisorMetrics metrics;
+  private final ExecutorService prefetchExecutor;
+  private final ConcurrentMap<String, SettableFuture<Void>> pulls = new ConcurrentHashMap<>();
+  private final Set<String> prefetching = Sets.newConcurrentHashSet();
+  // Images known to be present, so that model changes don't inspect them over and over
+  private final Set<String> prefetched = Sets.newConcurrentHashSet();
+
+  public ImageManager(final DockerClient docker, final SupervisorMetrics metrics) {
+    this.docker = checkNotNull(docker, "docker");
+    this.metrics = checkNotNull(metrics, "metrics");
+    this.prefetchExecutor = Executors.newFixedThreadPool(
+        PREFETCH_THREADS,
+        new ThreadFactoryBuilder().setNameFormat("image-prefetch-%d").setDaemon(true).build());
+  }
+
+  @Override
+  public void start() throws Exception {
+  }
+
+  @Override
+  public void stop() throws Exception {
+    prefetchExecutor.shutdownNow();
+  }
+
+  /**
+   * Ensure that an image is present, pulling it if necessary. If the image is already being pulled,
+   * wait for that pull to finish instead of issuing another one.
+   *
+   * @param image The image.
+   * @throws DockerException If the pull failed.
+   * @throws InterruptedException If the thread is interrupted.
+   */
+  public void pull(final String image) throws DockerException, InterruptedException {
+    if (!isMutable(image) && isPresent(image)) {
+      metrics.imageCacheHit();
+      return;
+    }
+    metrics.imageCacheMiss();
+    await(image, pullOnce(image));
+  }
+
+  /**
+   * Start pulling an image in the background, unless a prefetch of it is already pending.
+   *
+   * @param image The image.
+   */
+  public void prefetch(final String image) {
+    if (!prefetching.add(image)) {
+      return;
+    }
+    try {
+      prefetchExecutor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            if (!isPresent(image)) {
+              log.info("prefetching image {}", image);
+              await(image, pullOnce(image));
+            }
+            prefetched.add(image);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          } catch (Exception e) {
+            log.warn("prefetching image {} failed", image, e);
+          } finally {
+            prefetching.remove(image);
+          }
+        }
+      });
+    } catch (RuntimeException e) {
+      // Rejected after shutdown
+      prefetching.remove(image);
+    }
+  }
+
+  /**
+   * Prefetch the images of tasks that are not being undeployed, skipping the ones that were
+   * already prefetched or found to be present.
+   */
+  @Override
+  public void tasksChanged(final AgentModel model) {
+    final Set<String> images = Sets.newHashSet();
+    for (final Task task : model.getTasks().values()) {
+      if (task.getGoal() != UNDEPLOY) {
+        images.add(task.getJob().getImage());
+      }
+    }
+
+    // Forget images that are no longer deployed, so they are checked again if they come back
+    prefetched.retainAll(images);
+
+    for (final String image : images) {
+      if (!prefetched.contains(image)) {
+        prefetch(image);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  boolean isPrefetched(final String image) {
+    return prefetched.contains(image);
+  }
+
+  /**
+   * Pull an image in the calling thread, or join a pull of the same image already in progress.
+   */
+  private ListenableFuture<Void> pullOnce(final String image) {
+    final SettableFuture<Void> future = SettableFuture.create();
+    final SettableFuture<Void> existing = pulls.putIfAbsent(image, future);
+    if (existing != null) {
+      log.info("waiting for pull of image {} already in progress", image);
+      return existing;
+    }
+
+    Throwable failure = null;
+    final MetricsContext context = metrics.containerPull();
+    try {
+      if (serializePulls()) {
+        // Docker versions 1.6 through 1.8 have issues with concurrent pulls
+        synchronized (docker) {
+          docker.pull(image);
+        }
+      } else {
+        docker.pull(image);
+      }
+      context.success();
+    } catch (Throwable t) {
+      context.failure();
+      failure = t;
+    } finally {
+      pulls.remove(image, future);
+    }
+
+    if (failure == null) {
+      future.set(null);
+    } else {
+      future.setException(failure);
+      if (failure instanceof InterruptedException) {
+        // Restore the interrupt so that waiting on the future throws InterruptedException in this
+        // thread, while other waiters see a failed pull.
+        Thread.currentThread().interrupt();
+      }
+    }
+    return future;
+  }
+
+  private static void await(final String image, final ListenableFuture<Void> future)
+      throws DockerException, InterruptedException {
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof DockerException) {
+        throw (DockerException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      // The thread performing the pull was interrupted, not us.
+      throw new DockerException("Pulling image " + image + " was interrupted", cause);
+    }
+  }
+
+  private boolean isPresent(final String image) throws InterruptedException {
+    try {
+      return docker.inspectImage(image) != null;
+    } catch (ImageNotFoundException e) {
+      return false;
+    } catch (DockerException e) {
+      log.warn("failed to inspect image {}, will pull it", image, e);
+      return false;
+    }
+  }
+
+  private boolean serializePulls() {
+    final String version;
+    try {
+      version = docker.version().version();
+    } catch (Exception e) {
+      log.error("couldn't fetch Docker version: {}", e);
+      return false;
+    }
+    return version != null &&
+           (version.startsWith("1.6.") || version.startsWith("1.7.") || version.startsWith("1.8."));
+  }
+
+  /**
+   * Returns true if the image is referenced by a tag that may be moved to a different image, in
+   * which case the local copy can be stale.
+   */
+  @VisibleForTesting
+  static boolean isMutable(final String image) {
+    if (image.contains("@")) {
+      return false;
+    }
+    final int tagSeparator = image.lastIndexOf(':');
+    if (tagSeparator < 0 || tagSeparator < image.lastIndexOf('/')) {
+      return true;
+    }
+    return "latest".equals(image.substring(tagSeparator + 1));
+  }
+}
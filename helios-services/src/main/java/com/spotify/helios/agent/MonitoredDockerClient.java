@@ -21,43 +21,101 @@ import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.exceptions.DockerTimeoutException;
 import com.spotify.helios.servicescommon.RiemannFacade;
+import com.spotify.helios.servicescommon.statistics.DockerMetrics;
+import com.spotify.helios.servicescommon.statistics.NoopDockerMetrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 /**
  * A docker client proxy used to monitor docker operations.  It's abstract and doesn't implement
  * {@link DockerClient}, but don't let it fool you.  You call {@link #wrap} with the
  * {@link RiemannFacade} and the real {@link DockerClient} and you then use that.
+ *
+ * <p>Every call is timed and reported to {@link DockerMetrics} by method name, failures are sent
+ * as Riemann events, and calls that take longer than the slow call threshold are logged. Note that
+ * for calls returning a stream, such as logs or events, only the time to open the stream is
+ * measured.
  */
 public abstract class MonitoredDockerClient {
 
+  private static final Logger log = LoggerFactory.getLogger(MonitoredDockerClient.class);
+
   private MonitoredDockerClient() {
   }
 
   public static DockerClient wrap(RiemannFacade riemann, final DockerClient client) {
+    return wrap(riemann, new NoopDockerMetrics(), 0, client);
+  }
+
+  /**
+   * @param riemann The {@link RiemannFacade} to send failures to.
+   * @param metrics The {@link DockerMetrics} to record call latencies and outcomes in.
+   * @param slowCallThresholdMillis Calls taking at least this long are logged. Zero disables the
+   *                                slow call log.
+   * @param client The client to monitor.
+   */
+  public static DockerClient wrap(final RiemannFacade riemann, final DockerMetrics metrics,
+                                  final long slowCallThresholdMillis,
+                                  final DockerClient client) {
     return (DockerClient) Proxy.newProxyInstance(
         MonitoredDockerClient.class.getClassLoader(),
         new Class[]{DockerClient.class},
-        new MonitoringInvocationHandler(riemann, client));
+        new MonitoringInvocationHandler(riemann, metrics, slowCallThresholdMillis, client));
   }
 
   private static class MonitoringInvocationHandler implements InvocationHandler {
 
     private final RiemannFacade riemann;
+    private final DockerMetrics metrics;
+    private final long slowCallThresholdNanos;
     private final DockerClient client;
 
-    public MonitoringInvocationHandler(final RiemannFacade riemann, final DockerClient client) {
+    public MonitoringInvocationHandler(final RiemannFacade riemann, final DockerMetrics metrics,
+                                       final long slowCallThresholdMillis,
+                                       final DockerClient client) {
       this.riemann = riemann;
-
+      this.metrics = metrics;
+      this.slowCallThresholdNanos = MILLISECONDS.toNanos(slowCallThresholdMillis);
       this.client = client;
     }
 
     @Override
     public Object invoke(final Object proxy, final Method method, final Object[] args)
         throws Throwable {
+      // Don't report toString, equals and friends as docker calls
+      if (method.getDeclaringClass() == Object.class) {
+        return invoke(method, args);
+      }
+
+      final String name = method.getName();
+      final long start = System.nanoTime();
+      boolean failed = false;
+      metrics.callStarted(name);
+      try {
+        return invoke(method, args);
+      } catch (Throwable t) {
+        failed = true;
+        throw t;
+      } finally {
+        final long duration = System.nanoTime() - start;
+        metrics.callFinished(name, duration, NANOSECONDS, failed);
+        if (slowCallThresholdNanos > 0 && duration >= slowCallThresholdNanos) {
+          log.warn("slow docker call: {} took {} ms{}", name, NANOSECONDS.toMillis(duration),
+                   failed ? " and failed" : "");
+        }
+      }
+    }
+
+    private Object invoke(final Method method, final Object[] args) throws Throwable {
       try {
         return method.invoke(client, args);
       } catch (InvocationTargetException e) {
@@ -76,5 +134,5 @@ public abstract class MonitoredDockerClient {
         throw e.getCause();
       }
     }
-}
+  }
 }
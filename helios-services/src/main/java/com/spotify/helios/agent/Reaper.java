@@ -18,32 +18,116 @@
 package com.spotify.helios.agent;
 
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.EventStream;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.messages.Container;
+import com.spotify.docker.client.messages.Event;
+import com.spotify.helios.servicescommon.DefaultReactor;
+import com.spotify.helios.servicescommon.InterruptingExecutionThreadService;
+import com.spotify.helios.servicescommon.Reactor;
+import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.spotify.docker.client.DockerClient.ListContainersParam.filter;
+import static com.spotify.helios.agent.TaskConfig.NAMESPACE_LABEL;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
  * Find containers running in our namespace for which we don't have a record that we started, and
  * kill them.
+ *
+ * <p>Once started, the reaper runs on its own schedule and whenever docker reports a container in
+ * our namespace being started. Candidates are killed concurrently.
  */
 public class Reaper {
 
+  private static final long REAP_INTERVAL_MILLIS = SECONDS.toMillis(30);
+  private static final long EVENT_RETRY_MILLIS = SECONDS.toMillis(5);
+  private static final int REAP_PARALLELISM = 8;
+
   private final Logger log = LoggerFactory.getLogger(Reaper.class);
 
   private final DockerClient docker;
+  private final String namespace;
   private final String prefix;
+  private final SupervisorMetrics metrics;
+  private final ExecutorService killExecutor;
+
+  private volatile Reactor reactor;
+  private volatile EventListener eventListener;
 
   public Reaper(final DockerClient docker, final String namespace) {
+    this(docker, namespace, new NoopSupervisorMetrics());
+  }
+
+  public Reaper(final DockerClient docker, final String namespace,
+                final SupervisorMetrics metrics) {
     this.docker = docker;
+    this.namespace = namespace;
     this.prefix = "/" + namespace;
+    this.metrics = checkNotNull(metrics, "metrics");
+    this.killExecutor = Executors.newFixedThreadPool(
+        REAP_PARALLELISM,
+        new ThreadFactoryBuilder().setNameFormat("reaper-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Start reaping periodically and on docker container start events in our namespace.
+   *
+   * @param active Supplies the IDs of the containers we know about.
+   */
+  public void start(final Supplier<Set<String>> active) {
+    checkState(reactor == null, "reaper already started");
+    reactor = new DefaultReactor("reaper", new Reactor.Callback() {
+      @Override
+      public void run(final boolean timeout) throws InterruptedException {
+        reap(active);
+      }
+    }, REAP_INTERVAL_MILLIS);
+    reactor.startAsync().awaitRunning();
+    reactor.signal();
+    eventListener = new EventListener(reactor);
+    eventListener.startAsync().awaitRunning();
+  }
+
+  /**
+   * Stop reaping.
+   */
+  public void stop() {
+    if (eventListener != null) {
+      eventListener.stopAsync().awaitTerminated();
+    }
+    if (reactor != null) {
+      reactor.stopAsync().awaitTerminated();
+    }
+    killExecutor.shutdownNow();
+  }
+
+  /**
+   * Lists the running containers in our namespace with a single docker call. Used by the agent on
+   * startup to reattach to containers without inspecting each of them.
+   *
+   * @return The IDs of running containers in our namespace.
+   */
+  public Set<String> runningContainers() throws DockerException, InterruptedException {
+    return ImmutableSet.copyOf(namespaceContainers());
   }
 
   public void reap(final Supplier<Set<String>> active) throws InterruptedException {
@@ -56,29 +140,116 @@ public class Reaper {
 
   private void reap0(final Supplier<Set<String>> activeSupplier)
       throws DockerException, InterruptedException {
-    final List<String> candidates = Lists.newArrayList();
-    final List<Container> containers = docker.listContainers();
-    for (final Container container : containers) {
-      for (final String name : container.names()) {
-        if (name.startsWith(prefix)) {
-          candidates.add(container.id());
-        }
-      }
-    }
+    final List<String> containers = namespaceContainers();
 
     // Get the active set after we've enumerated candidates to ensure that active set is fresh.
     // If the active set is fetched before enumerating candidates it might be stale and we might
     // mistakenly classify a container as not being in the active set.
     final Set<String> active = activeSupplier.get();
-    for (final String candidate : candidates) {
+    final List<Future<?>> kills = Lists.newArrayList();
+    for (final String candidate : containers) {
       if (!active.contains(candidate)) {
-        reap(candidate);
+        kills.add(killExecutor.submit(() -> {
+          reap(candidate);
+          return null;
+        }));
+      }
+    }
+
+    int reaped = 0;
+    for (final Future<?> kill : kills) {
+      try {
+        kill.get();
+        reaped++;
+      } catch (ExecutionException e) {
+        log.error("reaping failed", e.getCause());
       }
     }
+    metrics.containersReaped(kills.size(), reaped);
+  }
+
+  private List<String> namespaceContainers() throws DockerException, InterruptedException {
+    final List<String> ids = Lists.newArrayList();
+    // The name filter is a substring match done by docker, so we still check the prefix here.
+    // Containers created before we started labelling them have no namespace label, so we can't
+    // use the label filter for listing.
+    final List<Container> containers = docker.listContainers(filter("name", namespace));
+    for (final Container container : containers) {
+      for (final String name : container.names()) {
+        if (name.startsWith(prefix)) {
+          ids.add(container.id());
+          break;
+        }
+      }
+    }
+    return ids;
   }
 
   private void reap(final String containerId) throws InterruptedException, DockerException {
     log.info("reaping {}", containerId);
     docker.killContainer(containerId);
   }
+
+  /**
+   * Signals the reaper whenever a container in our namespace is started.
+   */
+  private class EventListener extends InterruptingExecutionThreadService {
+
+    private final Reactor reactor;
+
+    private volatile EventStream stream;
+
+    private EventListener(final Reactor reactor) {
+      super("reaper-events");
+      this.reactor = reactor;
+    }
+
+    @Override
+    protected void run() throws Exception {
+      while (isRunning()) {
+        try {
+          stream = docker.events(
+              DockerClient.EventsParam.filter("label", NAMESPACE_LABEL + "=" + namespace),
+              DockerClient.EventsParam.filter("type", "container"));
+          while (stream.hasNext()) {
+            final Event event = stream.next();
+            if ("start".equals(event.status())) {
+              reactor.signal();
+            }
+          }
+        } catch (InterruptedException e) {
+          return;
+        } catch (Exception e) {
+          if (!isRunning()) {
+            return;
+          }
+          log.warn("listening for docker events failed, retrying", e);
+          try {
+            Thread.sleep(EVENT_RETRY_MILLIS);
+          } catch (InterruptedException ignored) {
+            return;
+          }
+        } finally {
+          closeStream();
+        }
+      }
+    }
+
+    @Override
+    protected void triggerShutdown() {
+      closeStream();
+      super.triggerShutdown();
+    }
+
+    private void closeStream() {
+      final EventStream stream = this.stream;
+      if (stream != null) {
+        try {
+          stream.close();
+        } catch (Exception e) {
+          log.debug("failed to close docker event stream", e);
+        }
+      }
+    }
+  }
 }
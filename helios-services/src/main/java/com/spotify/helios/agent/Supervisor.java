@@ -31,7 +31,6 @@ import com.spotify.helios.common.descriptors.Goal;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.servicescommon.DefaultReactor;
 import com.spotify.helios.servicescommon.Reactor;
-import com.spotify.helios.servicescommon.statistics.MetricsContext;
 import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
 
 import com.google.common.annotations.VisibleForTesting;
@@ -71,6 +70,7 @@ public class Supervisor {
 
   private volatile Goal goal;
   private volatile String containerId;
+  private volatile boolean containerKnownRunning;
   private volatile TaskRunner runner;
   private volatile Command currentCommand;
   private volatile Command performedCommand;
@@ -83,6 +83,7 @@ public class Supervisor {
     this.listener = checkNotNull(builder.listener, "listener");
     this.currentCommand = new Nop();
     this.containerId = builder.existingContainerId;
+    this.containerKnownRunning = builder.existingContainerRunning;
     this.runnerFactory = checkNotNull(builder.runnerFactory, "runnerFactory");
     this.statusUpdater = checkNotNull(builder.statusUpdater, "statusUpdater");
     this.monitor = checkNotNull(builder.monitor, "monitor");
@@ -207,6 +208,7 @@ public class Supervisor {
 
     private Job job;
     private String existingContainerId;
+    private boolean existingContainerRunning;
     private DockerClient dockerClient;
     private RestartPolicy restartPolicy;
     private SupervisorMetrics metrics;
@@ -227,6 +229,11 @@ public class Supervisor {
       return this;
     }
 
+    public Builder setExistingContainerRunning(final boolean existingContainerRunning) {
+      this.existingContainerRunning = existingContainerRunning;
+      return this;
+    }
+
     public Builder setRestartPolicy(final RestartPolicy restartPolicy) {
       this.restartPolicy = restartPolicy;
       return this;
@@ -336,7 +343,11 @@ public class Supervisor {
       log.debug("starting job (delay={}): {}", delay, job);
       final int waitBeforeKill = Optional.ofNullable(job.getSecondsToWaitBeforeKill())
           .orElse(DEFAULT_SECONDS_TO_WAIT_BEFORE_KILL);
-      runner = runnerFactory.create(delay, containerId, new TaskListener(), waitBeforeKill);
+      // Only the first runner may trust that the existing container is running
+      final boolean running = containerKnownRunning;
+      containerKnownRunning = false;
+      runner = runnerFactory.create(delay, containerId, running, new TaskListener(),
+                                    waitBeforeKill);
       runner.startAsync();
       runner.resultFuture().addListener(reactor.signalRunnable(), directExecutor());
     }
@@ -466,32 +477,11 @@ public class Supervisor {
 
   private class TaskListener extends TaskRunner.NopListener {
 
-    private MetricsContext pullContext;
-
     @Override
     public void failed(final Throwable t, final String containerError) {
       metrics.containersThrewException();
     }
 
-    @Override
-    public void pulling() {
-      pullContext = metrics.containerPull();
-    }
-
-    @Override
-    public void pullFailed() {
-      if (pullContext != null) {
-        pullContext.failure();
-      }
-    }
-
-    @Override
-    public void pulled() {
-      if (pullContext != null) {
-        pullContext.success();
-      }
-    }
-
     @Override
     public void created(final String createdContainerId) {
       containerId = createdContainerId;
@@ -17,6 +17,8 @@
 
 package com.spotify.helios.agent;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.DockerHost;
 import com.spotify.helios.common.descriptors.Job;
@@ -24,21 +26,41 @@ import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.serviceregistration.ServiceRegistrar;
 import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
- * Creates job supervisors.
+ * Creates job supervisors. Closing it publishes the task statuses that are still held back and
+ * stops the thread that publishes them, so it should be closed once its supervisors are done.
  *
  * @see Supervisor
  */
-public class SupervisorFactory {
+public class SupervisorFactory implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(SupervisorFactory.class);
+
+  /**
+   * How long to hold back task status updates in the states a container passes through while
+   * starting, so that quick transitions result in a single write.
+   */
+  private static final long STATUS_COALESCE_MILLIS = 200;
+
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
 
   private final AgentModel model;
   private final DockerClient dockerClient;
+  private final ImageManager imageManager;
+  private final HealthCheckScheduler healthCheckScheduler;
   private final String namespace;
   private final Map<String, String> envVars;
   private final ServiceRegistrar registrar;
@@ -49,8 +71,11 @@ public class SupervisorFactory {
   private final String defaultRegistrationDomain;
   private final List<String> dns;
   private final boolean agentRunningInContainer;
+  private final ScheduledExecutorService statusScheduler;
 
   public SupervisorFactory(final AgentModel model, final DockerClient dockerClient,
+                           final ImageManager imageManager,
+                           final HealthCheckScheduler healthCheckScheduler,
                            final Map<String, String> envVars,
                            final ServiceRegistrar registrar,
                            final List<ContainerDecorator> containerDecorators,
@@ -61,6 +86,8 @@ public class SupervisorFactory {
                            final String defaultRegistrationDomain,
                            final List<String> dns) {
     this.dockerClient = dockerClient;
+    this.imageManager = checkNotNull(imageManager, "imageManager");
+    this.healthCheckScheduler = checkNotNull(healthCheckScheduler, "healthCheckScheduler");
     this.namespace = namespace;
     this.model = checkNotNull(model, "model");
     this.envVars = checkNotNull(envVars, "envVars");
@@ -73,6 +100,26 @@ public class SupervisorFactory {
                                                   "defaultRegistrationDomain");
     this.dns = checkNotNull(dns, "dns");
     this.agentRunningInContainer = checkIfAgentRunningInContainer();
+    this.statusScheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder().setNameFormat("task-status-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Publish the held back task statuses and stop the scheduler publishing them. Held back statuses
+   * are still published after shutdown, once their coalescing window has passed.
+   */
+  @Override
+  public void close() {
+    statusScheduler.shutdown();
+    try {
+      if (!statusScheduler.awaitTermination(CLOSE_TIMEOUT_SECONDS, SECONDS)) {
+        log.warn("timed out publishing held back task statuses");
+        statusScheduler.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      statusScheduler.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
   }
 
   private static boolean checkIfAgentRunningInContainer() {
@@ -90,6 +137,23 @@ public class SupervisorFactory {
   public Supervisor create(final Job job, final String existingContainerId,
                            final Map<String, Integer> ports,
                            final Supervisor.Listener listener) {
+    return create(job, existingContainerId, false, ports, listener);
+  }
+
+  /**
+   * Create a new application container.
+   * @param job The job definition.
+   * @param existingContainerId ID of existing container.
+   * @param existingContainerRunning Whether the existing container is known to be running, in
+   *                                 which case the supervisor reattaches without inspecting it.
+   * @param ports The ports.
+   * @param listener The listener.
+   * @return A new container.
+   */
+  public Supervisor create(final Job job, final String existingContainerId,
+                           final boolean existingContainerRunning,
+                           final Map<String, Integer> ports,
+                           final Supervisor.Listener listener) {
     final RestartPolicy policy = RestartPolicy.newBuilder().build();
     final TaskConfig taskConfig = TaskConfig.builder()
         .host(host)
@@ -106,7 +170,8 @@ public class SupervisorFactory {
         .setJob(job)
         .setEnv(taskConfig.containerEnv())
         .setPorts(taskConfig.ports());
-    final StatusUpdater statusUpdater = new DefaultStatusUpdater(model, taskStatus);
+    final StatusUpdater statusUpdater = new DefaultStatusUpdater(
+        model, taskStatus, statusScheduler, STATUS_COALESCE_MILLIS, metrics);
     final FlapController flapController = FlapController.create();
     final TaskMonitor taskMonitor = new TaskMonitor(job.getId(), flapController, statusUpdater);
 
@@ -117,6 +182,8 @@ public class SupervisorFactory {
         .config(taskConfig)
         .registrar(registrar)
         .dockerClient(dockerClient)
+        .imageManager(imageManager)
+        .healthCheckScheduler(healthCheckScheduler)
         .healthChecker(healthChecker)
         .listener(taskMonitor)
         .build();
@@ -124,6 +191,7 @@ public class SupervisorFactory {
     return Supervisor.newBuilder()
         .setJob(job)
         .setExistingContainerId(existingContainerId)
+        .setExistingContainerRunning(existingContainerRunning)
         .setDockerClient(dockerClient)
         .setRestartPolicy(policy)
         .setMetrics(metrics)
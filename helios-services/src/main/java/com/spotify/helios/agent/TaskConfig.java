@@ -63,6 +63,16 @@ public class TaskConfig {
 
   private static final Pattern CONTAINER_NAME_FORBIDDEN = Pattern.compile("[^a-zA-Z0-9_-]");
 
+  /**
+   * Label set on every container we create, holding the namespace of the agent that created it.
+   */
+  public static final String NAMESPACE_LABEL = "com.spotify.helios.namespace";
+
+  /**
+   * Label set on every container we create, holding the ID of the job it runs.
+   */
+  public static final String JOB_ID_LABEL = "com.spotify.helios.job";
+
   private final String host;
   private final Map<String, Integer> ports;
   private final Job job;
@@ -110,6 +120,7 @@ public class TaskConfig {
     builder.env(containerEnvStrings());
     builder.exposedPorts(containerExposedPorts());
     builder.volumes(volumes());
+    builder.labels(containerLabels());
 
     for (final ContainerDecorator decorator : containerDecorators) {
       decorator.decorateContainerConfig(job, imageInfo, dockerVersion, builder);
@@ -118,6 +129,15 @@ public class TaskConfig {
     return builder.build();
   }
 
+  /**
+   * Get the labels identifying the container as ours.
+   * @return The labels.
+   */
+  public Map<String, String> containerLabels() {
+    return ImmutableMap.of(NAMESPACE_LABEL, namespace,
+                           JOB_ID_LABEL, job.getId().toString());
+  }
+
   /**
    * Get final port mappings using allocated ports.
    * @return The port mapping.
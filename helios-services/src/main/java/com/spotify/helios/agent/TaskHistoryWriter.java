@@ -28,15 +28,21 @@ import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.common.util.concurrent.MoreExecutors;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.spotify.helios.common.descriptors.CompactTaskHistory;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.descriptors.TaskStatusEvent;
 import com.spotify.helios.servicescommon.PersistentAtomicReference;
+import com.spotify.helios.servicescommon.coordination.Node;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperOperation;
 
 import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.BadVersionException;
 import org.apache.zookeeper.KeeperException.ConnectionLossException;
+import org.apache.zookeeper.KeeperException.NoNodeException;
 import org.apache.zookeeper.KeeperException.NodeExistsException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -56,6 +62,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.spotify.helios.common.descriptors.Descriptor.parse;
+import static com.spotify.helios.servicescommon.coordination.ZooKeeperOperations.check;
+import static com.spotify.helios.servicescommon.coordination.ZooKeeperOperations.create;
+import static com.spotify.helios.servicescommon.coordination.ZooKeeperOperations.delete;
+import static com.spotify.helios.servicescommon.coordination.ZooKeeperOperations.set;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 /**
@@ -71,6 +82,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  *    occurring, as the file may get large if ZK has been away for a long time.
  * 2. We limit each job to max 30 events in memory (and in ZK for that matter)
  * 3. Maximum of 600 total events, so as not to consume all available memory.
+ * 4. In compact mode, each job's events on this host are kept in a single
+ *    {@link CompactTaskHistory} node instead of one node per event. The first compact write for a
+ *    job folds any events previously written one node per event into the new node, and deletes
+ *    them in the same transaction.
  */
 public class TaskHistoryWriter extends AbstractIdleService implements Runnable {
   private static final Logger log = LoggerFactory.getLogger(TaskHistoryWriter.class);
@@ -88,13 +103,21 @@ public class TaskHistoryWriter extends AbstractIdleService implements Runnable {
   private final String hostname;
   private final AtomicInteger count;
   private final ZooKeeperClient client;
+  private final boolean compact;
   private final PersistentAtomicReference<ConcurrentMap<JobId, Deque<TaskStatusEvent>>>
       backingStore;
 
   public TaskHistoryWriter(final String hostname, final ZooKeeperClient client,
                                final Path backingFile) throws IOException, InterruptedException {
+    this(hostname, client, backingFile, false);
+  }
+
+  public TaskHistoryWriter(final String hostname, final ZooKeeperClient client,
+                           final Path backingFile, final boolean compact)
+      throws IOException, InterruptedException {
     this.hostname = hostname;
     this.client = client;
+    this.compact = compact;
     this.backingStore = PersistentAtomicReference.create(backingFile,
         new TypeReference<ConcurrentMap<JobId, Deque<TaskStatusEvent>>>() {
         },
@@ -279,8 +302,18 @@ public class TaskHistoryWriter extends AbstractIdleService implements Runnable {
         log.debug("writing queued item to zookeeper {} {}", item.getStatus().getJob().getId(),
                   item.getTimestamp());
 
+        if (compact) {
+          if (!writeCompact(jobId, item)) {
+            log.debug("compact history of {} was concurrently modified, will retry", jobId);
+            putBack(item);
+            break;
+          }
+          continue;
+        }
+
         client.ensurePath(historyPath, true);
-        client.createAndSetData(historyPath, item.getStatus().toJsonBytes());
+        client.createAndSetData(historyPath,
+                                PayloadEncoding.current().encode(item.getStatus()));
 
         // See if too many
         final List<String> events = client.getChildren(Paths.historyJobHostEvents(jobId, hostname));
@@ -303,6 +336,67 @@ public class TaskHistoryWriter extends AbstractIdleService implements Runnable {
     }
   }
 
+  /**
+   * Adds an item to the compact history node of its job on this host.
+   *
+   * @return false if the node was modified concurrently and the write should be retried.
+   */
+  private boolean writeCompact(final JobId jobId, final TaskStatusEvent item)
+      throws KeeperException {
+    final String ringPath = Paths.historyJobHostRing(jobId, hostname);
+    client.ensurePath(ringPath, true);
+
+    Node node = null;
+    try {
+      node = client.getNode(ringPath);
+    } catch (NoNodeException ignored) {
+      // First compact write for this job
+    }
+
+    try {
+      if (node != null) {
+        final CompactTaskHistory current = parse(node.getBytes(), CompactTaskHistory.class);
+        final CompactTaskHistory updated = current.append(item, MAX_NUMBER_STATUS_EVENTS_TO_RETAIN);
+        if (updated != current) {
+          client.transaction(check(node), set(ringPath, updated));
+        }
+        return true;
+      }
+
+      final List<ZooKeeperOperation> operations = Lists.newArrayList();
+      CompactTaskHistory history = CompactTaskHistory.empty(jobId);
+      final String eventsPath = Paths.historyJobHostEvents(jobId, hostname);
+      if (client.exists(eventsPath) != null) {
+        for (final String event : client.getChildren(eventsPath)) {
+          final long timestamp = Long.valueOf(event);
+          final String eventPath = Paths.historyJobHostEventsTimestamp(jobId, hostname, timestamp);
+          try {
+            final TaskStatus status = parse(client.getData(eventPath), TaskStatus.class);
+            history = history.append(new TaskStatusEvent(status, timestamp, hostname),
+                                      MAX_NUMBER_STATUS_EVENTS_TO_RETAIN);
+          } catch (NoNodeException e) {
+            continue;
+          } catch (IOException e) {
+            log.warn("dropping unparseable history event {}", eventPath, e);
+          }
+          operations.add(delete(eventPath));
+        }
+        operations.add(delete(eventsPath));
+      }
+      history = history.append(item, MAX_NUMBER_STATUS_EVENTS_TO_RETAIN);
+      operations.add(0, create(ringPath, history));
+      client.transaction(operations);
+      return true;
+    } catch (NodeExistsException | BadVersionException | NoNodeException e) {
+      return false;
+    } catch (IOException e) {
+      log.warn("replacing unparseable compact history {}", ringPath, e);
+      client.transaction(check(node), set(ringPath, CompactTaskHistory.empty(jobId).append(
+          item, MAX_NUMBER_STATUS_EVENTS_TO_RETAIN)));
+      return true;
+    }
+  }
+
   private void trimStatusEvents(List<String> events, JobId jobId) {
     // CleanupExecutor only has one thread so can assume no others are fiddling as we do this.
     // All this to sort numerically instead of lexically....
@@ -41,12 +41,15 @@ import com.spotify.helios.servicescommon.InterruptingExecutionThreadService;
 
 import com.google.common.base.Optional;
 import com.google.common.base.Stopwatch;
+import com.google.common.base.Throwables;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.ExecutionException;
+
 /**
  * A runner service that starts a container once.
  */
@@ -58,7 +61,10 @@ class TaskRunner extends InterruptingExecutionThreadService {
   private final SettableFuture<Integer> result = SettableFuture.create();
   private final TaskConfig config;
   private final DockerClient docker;
+  private final ImageManager imageManager;
+  private final HealthCheckScheduler healthCheckScheduler;
   private final String existingContainerId;
+  private final boolean existingContainerRunning;
   private final Listener listener;
   private final ServiceRegistrar registrar;
   private final Optional<HealthChecker> healthChecker;
@@ -73,8 +79,11 @@ class TaskRunner extends InterruptingExecutionThreadService {
     this.config = checkNotNull(builder.taskConfig, "config");
     this.containerName = config.containerName();
     this.docker = checkNotNull(builder.docker, "docker");
+    this.imageManager = checkNotNull(builder.imageManager, "imageManager");
+    this.healthCheckScheduler = checkNotNull(builder.healthCheckScheduler, "healthCheckScheduler");
     this.listener = checkNotNull(builder.listener, "listener");
     this.existingContainerId = builder.existingContainerId;
+    this.existingContainerRunning = builder.existingContainerRunning;
     this.registrar = checkNotNull(builder.registrar, "registrar");
     this.secondsToWaitBeforeKill = checkNotNull(builder.secondsToWaitBeforeKill, "waitBeforeKill");
     this.healthChecker = Optional.fromNullable(builder.healthChecker);
@@ -156,11 +165,19 @@ class TaskRunner extends InterruptingExecutionThreadService {
     // Delay
     Thread.sleep(delayMillis);
 
-    // Check if the container is already running
-    final ContainerInfo info = getContainerInfo(existingContainerId);
+    // Check if the container is already running. Skip the inspect if the caller already knows,
+    // e.g. from a bulk container listing done when the agent starts up.
     final String containerId;
+    final boolean running;
+    if (existingContainerRunning && existingContainerId != null) {
+      log.info("reattaching to running container: {}: {}", config, existingContainerId);
+      running = true;
+    } else {
+      final ContainerInfo info = getContainerInfo(existingContainerId);
+      running = info != null && info.state().running();
+    }
 
-    if (info != null && info.state().running()) {
+    if (running) {
       containerId = existingContainerId;
       this.containerId = Optional.of(existingContainerId);
     } else {
@@ -171,30 +188,17 @@ class TaskRunner extends InterruptingExecutionThreadService {
       if (healthChecker.isPresent()) {
         listener.healthChecking();
 
-        final RetryScheduler retryScheduler = BoundedRandomExponentialBackoff.newBuilder()
-            .setMinIntervalMillis(SECONDS.toMillis(1))
-            .setMaxIntervalMillis(SECONDS.toMillis(30))
-            .build().newScheduler();
-
-        while (!healthChecker.get().check(containerId)) {
-          final ContainerState state = getContainerState(containerId);
-          if (state == null) {
-            final String err = "container " + containerId + " was not found during health "
-                + "checking, or has no State object";
-            log.warn(err);
-            throw new RuntimeException(err);
-          }
-          if (!state.running()) {
-            final String err = "container " + containerId + " exited during health checking. "
-                + "Exit code: " + state.exitCode() + ", Config: " + config;
-            log.warn(err);
-            throw new RuntimeException(err);
-          }
-
-          final long retryMillis = retryScheduler.nextMillis();
-          log.warn("container failed healthcheck, will retry in {}ms: {}: {}",
-                   retryMillis, config, containerId);
-          Thread.sleep(retryMillis);
+        final ListenableFuture<Void> healthy = healthCheckScheduler.healthCheck(
+            config.name(), containerId, healthChecker.get(), this::checkContainerRunning);
+        try {
+          healthy.get();
+        } catch (ExecutionException e) {
+          final Throwable cause = e.getCause();
+          Throwables.propagateIfInstanceOf(cause, InterruptedException.class);
+          Throwables.propagateIfInstanceOf(cause, DockerException.class);
+          throw Throwables.propagate(cause);
+        } finally {
+          healthy.cancel(false);
         }
 
         log.info("healthchecking complete of containerId={} taskConfig={}", containerId, config);
@@ -222,30 +226,31 @@ class TaskRunner extends InterruptingExecutionThreadService {
     return exit.statusCode();
   }
 
+  private void checkContainerRunning(final String containerId)
+      throws DockerException, InterruptedException {
+    final ContainerState state = getContainerState(containerId);
+    if (state == null) {
+      final String err = "container " + containerId + " was not found during health "
+          + "checking, or has no State object";
+      log.warn(err);
+      throw new RuntimeException(err);
+    }
+    if (!state.running()) {
+      final String err = "container " + containerId + " exited during health checking. "
+          + "Exit code: " + state.exitCode() + ", Config: " + config;
+      log.warn(err);
+      throw new RuntimeException(err);
+    }
+  }
+
   private String createAndStartContainer()
       throws DockerException, InterruptedException {
 
     // Ensure we have the image
-    boolean serializePulls = false;
-    final Optional<String> dockerVersion = tryGetDockerVersion();
-    if (dockerVersion.isPresent()) {
-      final String version = dockerVersion.get();
-      if (version.startsWith("1.6.") || version.startsWith("1.7.") || version.startsWith("1.8.")) {
-        // Docker versions 1.6 through 1.8 have issues with concurrent pulls
-        serializePulls = true;
-      }
-    }
-
     final String image = config.containerImage();
-    if (serializePulls) {
-      synchronized (docker) {
-        pullImage(image);
-      }
-    } else {
-      pullImage(image);
-    }
+    pullImage(image);
 
-    return startContainer(image, dockerVersion);
+    return startContainer(image, tryGetDockerVersion());
   }
 
   private String startContainer(final String image, final Optional<String> dockerVersion)
@@ -317,7 +322,7 @@ class TaskRunner extends InterruptingExecutionThreadService {
 
     // Attempt to pull.  Failure, while less than ideal, is ok.
     try {
-      docker.pull(image);
+      imageManager.pull(image);
       listener.pulled();
       log.info("Pulled image {} in {}s", image, pullTime.elapsed(SECONDS));
     } catch (DockerTimeoutException e) {
@@ -381,7 +386,10 @@ class TaskRunner extends InterruptingExecutionThreadService {
     private long delayMillis;
     private TaskConfig taskConfig;
     private DockerClient docker;
+    private ImageManager imageManager;
+    private HealthCheckScheduler healthCheckScheduler;
     private String existingContainerId;
+    private boolean existingContainerRunning;
     private Listener listener;
     private HealthChecker healthChecker;
     private int secondsToWaitBeforeKill;
@@ -402,11 +410,31 @@ class TaskRunner extends InterruptingExecutionThreadService {
       return this;
     }
 
+    public Builder imageManager(final ImageManager imageManager) {
+      this.imageManager = imageManager;
+      return this;
+    }
+
+    public Builder healthCheckScheduler(final HealthCheckScheduler healthCheckScheduler) {
+      this.healthCheckScheduler = healthCheckScheduler;
+      return this;
+    }
+
     public Builder existingContainerId(final String existingContainerId) {
       this.existingContainerId = existingContainerId;
       return this;
     }
 
+    /**
+     * Mark the existing container as known to be running, so the runner can reattach to it
+     * without inspecting it first. If it has exited in the meantime, waiting on it returns
+     * immediately and the supervisor restarts the task as usual.
+     */
+    public Builder existingContainerRunning(final boolean existingContainerRunning) {
+      this.existingContainerRunning = existingContainerRunning;
+      return this;
+    }
+
     public Builder listener(final Listener listener) {
       this.listener = listener;
       return this;
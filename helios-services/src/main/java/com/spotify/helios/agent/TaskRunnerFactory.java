@@ -36,6 +36,8 @@ public class TaskRunnerFactory {
 
   private final TaskConfig taskConfig;
   private final DockerClient docker;
+  private final ImageManager imageManager;
+  private final HealthCheckScheduler healthCheckScheduler;
   private final Optional<HealthChecker> healthChecker;
   private final ServiceRegistrar registrar;
   private final List<TaskRunner.Listener> listeners;
@@ -44,6 +46,8 @@ public class TaskRunnerFactory {
     this.taskConfig = checkNotNull(builder.config, "config");
     this.registrar = checkNotNull(builder.registrar, "registrar");
     this.docker = checkNotNull(builder.docker, "docker");
+    this.imageManager = builder.imageManager;
+    this.healthCheckScheduler = builder.healthCheckScheduler;
     this.listeners = checkNotNull(builder.listeners, "listeners");
     this.healthChecker = Optional.fromNullable(builder.healthChecker);
   }
@@ -52,12 +56,23 @@ public class TaskRunnerFactory {
                            final String containerId,
                            final TaskRunner.Listener listener,
                            final int secondsToWaitBeforeKill) {
+    return create(delay, containerId, false, listener, secondsToWaitBeforeKill);
+  }
+
+  public TaskRunner create(final long delay,
+                           final String containerId,
+                           final boolean containerRunning,
+                           final TaskRunner.Listener listener,
+                           final int secondsToWaitBeforeKill) {
     return TaskRunner.builder()
         .delayMillis(delay)
         .config(taskConfig)
         .docker(docker)
+        .imageManager(imageManager)
+        .healthCheckScheduler(healthCheckScheduler)
         .healthChecker(healthChecker.orNull())
         .existingContainerId(containerId)
+        .existingContainerRunning(containerRunning)
         .listener(new BroadcastingListener(concat(this.listeners, singletonList(listener))))
         .registrar(registrar)
         .secondsToWaitBeforeKill(secondsToWaitBeforeKill)
@@ -75,6 +90,8 @@ public class TaskRunnerFactory {
 
     private TaskConfig config;
     private DockerClient docker;
+    private ImageManager imageManager;
+    private HealthCheckScheduler healthCheckScheduler;
     private HealthChecker healthChecker;
     private ServiceRegistrar registrar;
     private List<TaskRunner.Listener> listeners = Lists.newArrayList();
@@ -94,6 +111,16 @@ public class TaskRunnerFactory {
       return this;
     }
 
+    public Builder imageManager(final ImageManager imageManager) {
+      this.imageManager = imageManager;
+      return this;
+    }
+
+    public Builder healthCheckScheduler(final HealthCheckScheduler healthCheckScheduler) {
+      this.healthCheckScheduler = healthCheckScheduler;
+      return this;
+    }
+
     public Builder healthChecker(final HealthChecker healthChecker) {
       this.healthChecker = healthChecker;
       return this;
@@ -30,6 +30,7 @@ import com.spotify.helios.servicescommon.KafkaClientProvider;
 import com.spotify.helios.servicescommon.KafkaRecord;
 import com.spotify.helios.servicescommon.KafkaSender;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 import com.spotify.helios.servicescommon.coordination.PersistentPathChildrenCache;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
@@ -155,7 +156,7 @@ public class ZooKeeperAgentModel extends AbstractIdleService implements AgentMod
   public void setTaskStatus(final JobId jobId, final TaskStatus status)
       throws InterruptedException {
     log.debug("setting task status: {}", status);
-    taskStatuses.put(jobId.toString(), status.toJsonBytes());
+    taskStatuses.put(jobId.toString(), PayloadEncoding.current().encode(status));
     if (historyWriter != null) {
       try {
         historyWriter.saveHistoryItem(status);
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master;
+
+import com.google.common.collect.ImmutableList;
+
+import com.spotify.helios.common.HeliosException;
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.DeploymentGroup;
+import com.spotify.helios.common.descriptors.DeploymentGroupStatus;
+import com.spotify.helios.common.descriptors.HostStatus;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.JobStatus;
+import com.spotify.helios.common.descriptors.RolloutOptions;
+import com.spotify.helios.common.descriptors.TaskStatusEvent;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
+import com.spotify.helios.common.protocol.JobListQuery;
+import com.spotify.helios.servicescommon.SingleFlight;
+import com.spotify.helios.servicescommon.statistics.MasterMetrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link MasterModel} that lets concurrent identical calls to its most expensive read methods
+ * share a single call to the underlying model, so that many clients polling the same job or host
+ * status cause one set of ZooKeeper reads rather than one each. Optionally, results are also
+ * reused for a short window after they were read.
+ *
+ * <p>Writes made through this model forget all shared results once they return, so a client
+ * always observes its own writes. Writes made elsewhere, such as by agents, become visible once
+ * the window has passed.
+ *
+ * <p>Whether each call was served by another call is reported per method as a hit or a miss.
+ */
+public class CoalescingMasterModel implements MasterModel {
+
+  private static final String ALL = "";
+
+  private final MasterModel model;
+  private final List<SingleFlight<?, ?>> flights;
+
+  private final SingleFlight<String, List<String>> listHosts;
+  private final SingleFlight<String, HostStatus> hostStatus;
+  private final SingleFlight<JobId, Job> job;
+  private final SingleFlight<String, Map<JobId, Job>> jobs;
+  private final SingleFlight<JobId, JobStatus> jobStatus;
+  private final SingleFlight<JobId, List<TaskStatusEvent>> jobHistory;
+  private final SingleFlight<String, Map<String, DeploymentGroup>> deploymentGroups;
+  private final SingleFlight<String, DeploymentGroupStatus> deploymentGroupStatus;
+
+  /**
+   * @param model        The model to read from and write to.
+   * @param metrics      Where to report hits and misses.
+   * @param windowMillis How long after it was read a result may be reused. Zero only shares
+   *                     results among calls that overlap.
+   */
+  public CoalescingMasterModel(final MasterModel model, final MasterMetrics metrics,
+                               final long windowMillis) {
+    this.model = model;
+    this.listHosts = flight("listHosts", metrics, windowMillis);
+    this.hostStatus = flight("getHostStatus", metrics, windowMillis);
+    this.job = flight("getJob", metrics, windowMillis);
+    this.jobs = flight("getJobs", metrics, windowMillis);
+    this.jobStatus = flight("getJobStatus", metrics, windowMillis);
+    this.jobHistory = flight("getJobHistory", metrics, windowMillis);
+    this.deploymentGroups = flight("getDeploymentGroups", metrics, windowMillis);
+    this.deploymentGroupStatus = flight("getDeploymentGroupStatus", metrics, windowMillis);
+    this.flights = ImmutableList.<SingleFlight<?, ?>>of(
+        listHosts, hostStatus, job, jobs, jobStatus, jobHistory, deploymentGroups,
+        deploymentGroupStatus);
+  }
+
+  private static <K, V> SingleFlight<K, V> flight(final String name, final MasterMetrics metrics,
+                                                  final long windowMillis) {
+    return new SingleFlight<>(windowMillis, TimeUnit.MILLISECONDS, new SingleFlight.Listener() {
+      @Override
+      public void hit() {
+        metrics.coalescedReadHit(name);
+      }
+
+      @Override
+      public void miss() {
+        metrics.coalescedReadMiss(name);
+      }
+    });
+  }
+
+  private void invalidate() {
+    for (final SingleFlight<?, ?> flight : flights) {
+      flight.invalidate();
+    }
+  }
+
+  @Override
+  public List<String> listHosts() {
+    return listHosts.get(ALL, () -> Collections.unmodifiableList(model.listHosts()));
+  }
+
+  @Override
+  public HostStatus getHostStatus(final String host) {
+    return hostStatus.get(host, () -> model.getHostStatus(host));
+  }
+
+  @Override
+  public Job getJob(final JobId jobId) {
+    return job.get(jobId, () -> model.getJob(jobId));
+  }
+
+  @Override
+  public Map<JobId, Job> getJobs() {
+    return jobs.get(ALL, () -> Collections.unmodifiableMap(model.getJobs()));
+  }
+
+  @Override
+  public JobStatus getJobStatus(final JobId jobId) {
+    return jobStatus.get(jobId, () -> model.getJobStatus(jobId));
+  }
+
+  @Override
+  public List<TaskStatusEvent> getJobHistory(final JobId jobId) throws JobDoesNotExistException {
+    return jobHistory.get(
+        jobId, () -> Collections.unmodifiableList(model.getJobHistory(jobId)));
+  }
+
+  @Override
+  public Map<String, DeploymentGroup> getDeploymentGroups() {
+    return deploymentGroups.get(
+        ALL, () -> Collections.unmodifiableMap(model.getDeploymentGroups()));
+  }
+
+  @Override
+  public DeploymentGroupStatus getDeploymentGroupStatus(final String name)
+      throws DeploymentGroupDoesNotExistException {
+    return deploymentGroupStatus.get(name, () -> model.getDeploymentGroupStatus(name));
+  }
+
+  // Reads that are either cheap or too varied to benefit from sharing
+
+  @Override
+  public String getHostsRevision() {
+    return model.getHostsRevision();
+  }
+
+  @Override
+  public List<JobId> getJobIds(final JobListQuery query, final String revision) {
+    return model.getJobIds(query, revision);
+  }
+
+  @Override
+  public Map<JobId, Job> getJobs(final JobListQuery query, final String revision) {
+    return model.getJobs(query, revision);
+  }
+
+  @Override
+  public String getJobsRevision() {
+    return model.getJobsRevision();
+  }
+
+  @Override
+  public Deployment getDeployment(final String host, final JobId jobId) {
+    return model.getDeployment(host, jobId);
+  }
+
+  @Override
+  public List<String> getRunningMasters() {
+    return model.getRunningMasters();
+  }
+
+  @Override
+  public List<TaskStatusEvent> getJobHistory(final JobId jobId, final String host)
+      throws JobDoesNotExistException {
+    return model.getJobHistory(jobId, host);
+  }
+
+  @Override
+  public List<TaskStatusEvent> getJobHistory(final JobId jobId, final JobHistoryQuery query)
+      throws JobDoesNotExistException {
+    return model.getJobHistory(jobId, query);
+  }
+
+  @Override
+  public DeploymentGroup getDeploymentGroup(final String name)
+      throws DeploymentGroupDoesNotExistException {
+    return model.getDeploymentGroup(name);
+  }
+
+  @Override
+  public String getDeploymentGroupsRevision() {
+    return model.getDeploymentGroupsRevision();
+  }
+
+  @Override
+  public List<String> getDeploymentGroupHosts(final String name)
+      throws DeploymentGroupDoesNotExistException {
+    return model.getDeploymentGroupHosts(name);
+  }
+
+  // Writes
+
+  @Override
+  public void registerHost(final String host, final String id) {
+    try {
+      model.registerHost(host, id);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void deregisterHost(final String host)
+      throws HostNotFoundException, HostStillInUseException {
+    try {
+      model.deregisterHost(host);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void addJob(final Job job) throws JobExistsException {
+    try {
+      model.addJob(job);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Job removeJob(final JobId jobId)
+      throws JobDoesNotExistException, JobStillDeployedException {
+    try {
+      return model.removeJob(jobId);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Job removeJob(final JobId jobId, final String token)
+      throws JobDoesNotExistException, JobStillDeployedException, TokenVerificationException {
+    try {
+      return model.removeJob(jobId, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void deployJob(final String host, final Deployment job)
+      throws HostNotFoundException, JobAlreadyDeployedException, JobDoesNotExistException,
+             JobPortAllocationConflictException {
+    try {
+      model.deployJob(host, job);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void deployJob(final String host, final Deployment job, final String token)
+      throws HostNotFoundException, JobAlreadyDeployedException, JobDoesNotExistException,
+             JobPortAllocationConflictException, TokenVerificationException {
+    try {
+      model.deployJob(host, job, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Map<String, HeliosException> deployJob(final List<String> hosts, final Deployment job,
+                                                final String token)
+      throws JobDoesNotExistException, TokenVerificationException {
+    try {
+      return model.deployJob(hosts, job, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Deployment undeployJob(final String host, final JobId jobId)
+      throws HostNotFoundException, JobNotDeployedException {
+    try {
+      return model.undeployJob(host, jobId);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Deployment undeployJob(final String host, final JobId jobId, final String token)
+      throws HostNotFoundException, JobNotDeployedException, TokenVerificationException {
+    try {
+      return model.undeployJob(host, jobId, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public Map<String, HeliosException> undeployJob(final List<String> hosts, final JobId jobId,
+                                                  final String token)
+      throws JobDoesNotExistException, TokenVerificationException {
+    try {
+      return model.undeployJob(hosts, jobId, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void updateDeployment(final String host, final Deployment deployment)
+      throws HostNotFoundException, JobNotDeployedException {
+    try {
+      model.updateDeployment(host, deployment);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void updateDeployment(final String host, final Deployment deployment, final String token)
+      throws HostNotFoundException, JobNotDeployedException, TokenVerificationException {
+    try {
+      model.updateDeployment(host, deployment, token);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void addDeploymentGroup(final DeploymentGroup deploymentGroup)
+      throws DeploymentGroupExistsException {
+    try {
+      model.addDeploymentGroup(deploymentGroup);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void updateDeploymentGroupHosts(final String groupName, final List<String> hosts)
+      throws DeploymentGroupDoesNotExistException {
+    try {
+      model.updateDeploymentGroupHosts(groupName, hosts);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void removeDeploymentGroup(final String name)
+      throws DeploymentGroupDoesNotExistException {
+    try {
+      model.removeDeploymentGroup(name);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void rollingUpdate(final DeploymentGroup deploymentGroup, final JobId jobId,
+                            final RolloutOptions options)
+      throws DeploymentGroupDoesNotExistException, JobDoesNotExistException {
+    try {
+      model.rollingUpdate(deploymentGroup, jobId, options);
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void rollingUpdateStep() {
+    try {
+      model.rollingUpdateStep();
+    } finally {
+      invalidate();
+    }
+  }
+
+  @Override
+  public void stopDeploymentGroup(final String deploymentGroupName)
+      throws DeploymentGroupDoesNotExistException {
+    try {
+      model.stopDeploymentGroup(deploymentGroupName);
+    } finally {
+      invalidate();
+    }
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master;
+
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.JobListQuery;
+import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorWatcher;
+import org.apache.curator.framework.state.ConnectionState;
+import org.apache.curator.framework.state.ConnectionStateListener;
+import org.apache.zookeeper.KeeperException.NoNodeException;
+import org.apache.zookeeper.data.Stat;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.dropwizard.lifecycle.Managed;
+
+/**
+ * A sorted in-memory index of the ids of all jobs, kept up to date by watching the children of
+ * the jobs node in ZooKeeper. Lets job listings be filtered by name and paged without reading
+ * every job definition.
+ *
+ * <p>Each snapshot of the index records the revision of the jobs node it was read at. Until the
+ * index has been loaded, after it failed to refresh, and while it lags behind the revision a caller
+ * asks for, {@link #find(JobListQuery, long)} returns null and callers are expected to read the ids
+ * from ZooKeeper themselves.
+ */
+public class JobIdIndex implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(JobIdIndex.class);
+
+  private final ZooKeeperClient client;
+  private final ExecutorService executor = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat("job-id-index-%d").setDaemon(true).build());
+  private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+  private final CuratorWatcher watcher = event -> scheduleRefresh();
+
+  private final ConnectionStateListener connectionStateListener = (curator, state) -> {
+    // Watches don't survive a session expiration, and the first load fails if we start out
+    // disconnected, so reload and set them again
+    if (state == ConnectionState.CONNECTED || state == ConnectionState.RECONNECTED) {
+      scheduleRefresh();
+    }
+  };
+
+  private volatile Snapshot snapshot;
+
+  public JobIdIndex(final ZooKeeperClient client) {
+    this.client = client;
+  }
+
+  @Override
+  public void start() throws Exception {
+    client.getConnectionStateListenable().addListener(connectionStateListener);
+    scheduleRefresh();
+  }
+
+  @Override
+  public void stop() throws Exception {
+    client.getConnectionStateListenable().removeListener(connectionStateListener);
+    executor.shutdownNow();
+  }
+
+  /**
+   * Returns the ids of the jobs matching the query in order, or null if the index is not
+   * available or was read at a revision older than {@code minRevision}.
+   *
+   * @param query The query.
+   * @param minRevision The revision of the jobs node, the greater of its mzxid and pzxid, that the
+   *                    result must be at least as new as.
+   */
+  @Nullable
+  public List<JobId> find(final JobListQuery query, final long minRevision) {
+    final Snapshot current = snapshot;
+    if (current == null || current.revision < minRevision) {
+      return null;
+    }
+    return select(current.ids, query);
+  }
+
+  /**
+   * Returns the ids in {@code ids} matching the query, in order. Only the part of the set that can
+   * contain matches is scanned.
+   */
+  public static List<JobId> select(final NavigableSet<JobId> ids, final JobListQuery query) {
+    final JobId first = query.getFirstCandidate();
+    final Iterable<JobId> candidates = first == null ? ids : ids.tailSet(first, true);
+    final int limit = query.getLimit() == null ? Integer.MAX_VALUE : query.getLimit();
+
+    final ImmutableList.Builder<JobId> matches = ImmutableList.builder();
+    int count = 0;
+    for (final JobId id : candidates) {
+      if (count >= limit || query.isPast(id)) {
+        break;
+      }
+      if (query.matches(id)) {
+        matches.add(id);
+        count++;
+      }
+    }
+    return matches.build();
+  }
+
+  /**
+   * Refreshes the index on the executor. Refreshes requested while one is pending are coalesced.
+   */
+  private void scheduleRefresh() {
+    if (refreshPending.compareAndSet(false, true)) {
+      try {
+        executor.execute(this::refresh);
+      } catch (RuntimeException e) {
+        // Rejected because we're stopping
+        refreshPending.set(false);
+      }
+    }
+  }
+
+  private void refresh() {
+    refreshPending.set(false);
+    final String path = Paths.configJobs();
+    try {
+      final List<String> children;
+      final Stat stat = new Stat();
+      try {
+        children = client.getCuratorFramework().getChildren()
+            .storingStatIn(stat).usingWatcher(watcher).forPath(path);
+      } catch (NoNodeException e) {
+        // No jobs have been created yet. Get told when the node appears.
+        final CuratorFramework curator = client.getCuratorFramework();
+        if (curator.checkExists().usingWatcher(watcher).forPath(path) != null) {
+          scheduleRefresh();
+        }
+        snapshot = new Snapshot(ImmutableSortedSet.<JobId>of(), 0);
+        return;
+      }
+
+      final ImmutableSortedSet.Builder<JobId> builder = ImmutableSortedSet.naturalOrder();
+      for (final String child : children) {
+        builder.add(JobId.fromString(child));
+      }
+      final long revision = Math.max(stat.getMzxid(), stat.getPzxid());
+      snapshot = new Snapshot(builder.build(), revision);
+      log.debug("indexed {} job ids at revision {}", children.size(), revision);
+    } catch (Exception e) {
+      // Leave it to callers to read from ZooKeeper until we reconnect and get another chance
+      log.warn("refreshing job id index failed", e);
+      snapshot = null;
+    }
+  }
+
+  private static class Snapshot {
+
+    private final ImmutableSortedSet<JobId> ids;
+    private final long revision;
+
+    private Snapshot(final ImmutableSortedSet<JobId> ids, final long revision) {
+      this.ids = ids;
+      this.revision = revision;
+    }
+  }
+}
@@ -20,6 +20,7 @@ package com.spotify.helios.master;
 import com.google.common.collect.ImmutableSet;
 
 import com.spotify.helios.servicescommon.FastForwardConfig;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 
 import java.net.InetSocketAddress;
 import java.nio.file.Path;
@@ -62,6 +63,15 @@ public class MasterConfig extends Configuration {
   private FastForwardConfig fastForwardConfig;
   private Set<String> whitelistedCapabilities;
   private boolean jobHistoryReapingEnabled;
+  private long slowRequestZooKeeperOperations;
+  private long slowRequestMillis;
+  private PayloadEncoding zooKeeperPayloadEncoding;
+  private long coalescedReadWindowMillis;
+  private int maxReadCost;
+  private int maxReadCostPerUser;
+  private int maxConcurrentReadsPerEndpoint;
+  private long admissionQueueTimeoutMillis;
+  private long admissionRetryAfterSeconds;
 
   public String getDomain() {
     return domain;
@@ -305,4 +315,85 @@ public class MasterConfig extends Configuration {
     this.jobHistoryReapingEnabled = jobHistoryReapingEnabled;
     return this;
   }
+
+  public long getSlowRequestZooKeeperOperations() {
+    return slowRequestZooKeeperOperations;
+  }
+
+  public MasterConfig setSlowRequestZooKeeperOperations(final long slowRequestZooKeeperOperations) {
+    this.slowRequestZooKeeperOperations = slowRequestZooKeeperOperations;
+    return this;
+  }
+
+  public long getSlowRequestMillis() {
+    return slowRequestMillis;
+  }
+
+  public MasterConfig setSlowRequestMillis(final long slowRequestMillis) {
+    this.slowRequestMillis = slowRequestMillis;
+    return this;
+  }
+
+  public PayloadEncoding getZooKeeperPayloadEncoding() {
+    return zooKeeperPayloadEncoding;
+  }
+
+  public MasterConfig setZooKeeperPayloadEncoding(final PayloadEncoding zooKeeperPayloadEncoding) {
+    this.zooKeeperPayloadEncoding = zooKeeperPayloadEncoding;
+    return this;
+  }
+
+  public long getCoalescedReadWindowMillis() {
+    return coalescedReadWindowMillis;
+  }
+
+  public MasterConfig setCoalescedReadWindowMillis(final long coalescedReadWindowMillis) {
+    this.coalescedReadWindowMillis = coalescedReadWindowMillis;
+    return this;
+  }
+
+  public int getMaxReadCost() {
+    return maxReadCost;
+  }
+
+  public MasterConfig setMaxReadCost(final int maxReadCost) {
+    this.maxReadCost = maxReadCost;
+    return this;
+  }
+
+  public int getMaxReadCostPerUser() {
+    return maxReadCostPerUser;
+  }
+
+  public MasterConfig setMaxReadCostPerUser(final int maxReadCostPerUser) {
+    this.maxReadCostPerUser = maxReadCostPerUser;
+    return this;
+  }
+
+  public int getMaxConcurrentReadsPerEndpoint() {
+    return maxConcurrentReadsPerEndpoint;
+  }
+
+  public MasterConfig setMaxConcurrentReadsPerEndpoint(final int maxConcurrentReadsPerEndpoint) {
+    this.maxConcurrentReadsPerEndpoint = maxConcurrentReadsPerEndpoint;
+    return this;
+  }
+
+  public long getAdmissionQueueTimeoutMillis() {
+    return admissionQueueTimeoutMillis;
+  }
+
+  public MasterConfig setAdmissionQueueTimeoutMillis(final long admissionQueueTimeoutMillis) {
+    this.admissionQueueTimeoutMillis = admissionQueueTimeoutMillis;
+    return this;
+  }
+
+  public long getAdmissionRetryAfterSeconds() {
+    return admissionRetryAfterSeconds;
+  }
+
+  public MasterConfig setAdmissionRetryAfterSeconds(final long admissionRetryAfterSeconds) {
+    this.admissionRetryAfterSeconds = admissionRetryAfterSeconds;
+    return this;
+  }
 }
@@ -17,6 +17,7 @@
 
 package com.spotify.helios.master;
 
+import com.spotify.helios.common.HeliosException;
 import com.spotify.helios.common.descriptors.Deployment;
 import com.spotify.helios.common.descriptors.DeploymentGroup;
 import com.spotify.helios.common.descriptors.DeploymentGroupStatus;
@@ -26,6 +27,8 @@ import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.JobStatus;
 import com.spotify.helios.common.descriptors.RolloutOptions;
 import com.spotify.helios.common.descriptors.TaskStatusEvent;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
+import com.spotify.helios.common.protocol.JobListQuery;
 
 import java.util.List;
 import java.util.Map;
@@ -42,6 +45,12 @@ public interface MasterModel {
 
   List<String> listHosts();
 
+  /**
+   * Returns an opaque revision that changes whenever the result of {@link #listHosts()} may
+   * change, or null if there are no hosts.
+   */
+  String getHostsRevision();
+
   HostStatus getHostStatus(String host);
 
   void addJob(Job job) throws JobExistsException;
@@ -50,6 +59,26 @@ public interface MasterModel {
 
   Map<JobId, Job> getJobs();
 
+  /**
+   * Returns the ids of the jobs matching the query, in {@link JobId} order. The result reflects
+   * at least the jobs as of {@code revision}, a value previously returned by
+   * {@link #getJobsRevision()}, or null to accept any.
+   */
+  List<JobId> getJobIds(JobListQuery query, String revision);
+
+  /**
+   * Returns the jobs matching the query, in {@link JobId} order. The result reflects at least the
+   * jobs as of {@code revision}, a value previously returned by {@link #getJobsRevision()}, or null
+   * to accept any.
+   */
+  Map<JobId, Job> getJobs(JobListQuery query, String revision);
+
+  /**
+   * Returns an opaque revision that changes whenever the result of {@link #getJobs()} may change,
+   * or null if there are no jobs.
+   */
+  String getJobsRevision();
+
   JobStatus getJobStatus(JobId jobId);
 
   Job removeJob(JobId jobId)
@@ -74,6 +103,17 @@ public interface MasterModel {
              JobPortAllocationConflictException,
              TokenVerificationException;
 
+  /**
+   * Deploys a job to many hosts at once, reading the job a single time and committing the
+   * deployments in batched transactions. A failure to deploy to one host doesn't affect the others.
+   *
+   * @return The hosts the job could not be deployed to, with the reason why. Hosts missing from
+   *     the map were deployed to successfully.
+   */
+  Map<String, HeliosException> deployJob(List<String> hosts, Deployment job, String token)
+      throws JobDoesNotExistException,
+             TokenVerificationException;
+
   Deployment getDeployment(String host, JobId jobId);
 
   Deployment undeployJob(String host, JobId jobId)
@@ -85,6 +125,16 @@ public interface MasterModel {
              JobNotDeployedException,
              TokenVerificationException;
 
+  /**
+   * Undeploys a job from many hosts at once, committing the removals in batched transactions.
+   *
+   * @return The hosts the job could not be undeployed from, with the reason why. Hosts missing
+   *     from the map were undeployed from successfully.
+   */
+  Map<String, HeliosException> undeployJob(List<String> hosts, JobId jobId, String token)
+      throws JobDoesNotExistException,
+             TokenVerificationException;
+
   void updateDeployment(String host, Deployment deployment)
       throws HostNotFoundException,
              JobNotDeployedException;
@@ -100,12 +150,21 @@ public interface MasterModel {
 
   List<TaskStatusEvent> getJobHistory(JobId jobId, String host) throws JobDoesNotExistException;
 
+  List<TaskStatusEvent> getJobHistory(JobId jobId, JobHistoryQuery query)
+      throws JobDoesNotExistException;
+
   void addDeploymentGroup(DeploymentGroup deploymentGroup) throws DeploymentGroupExistsException;
 
   DeploymentGroup getDeploymentGroup(String name) throws DeploymentGroupDoesNotExistException;
 
   Map<String, DeploymentGroup> getDeploymentGroups();
 
+  /**
+   * Returns an opaque revision that changes whenever the set of deployment group names may change,
+   * or null if there are no deployment groups.
+   */
+  String getDeploymentGroupsRevision();
+
   List<String> getDeploymentGroupHosts(String name) throws DeploymentGroupDoesNotExistException;
 
   void updateDeploymentGroupHosts(String groupName, List<String> hosts)
@@ -20,6 +20,7 @@ package com.spotify.helios.master;
 import com.google.common.collect.ImmutableSet;
 
 import com.spotify.helios.servicescommon.ServiceParser;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -50,6 +51,15 @@ public class MasterParser extends ServiceParser {
   private Argument jobRetention;
   private Argument whitelistedCapabilities;
   private Argument jobHistoryReapingEnabled;
+  private Argument slowRequestZooKeeperOperations;
+  private Argument slowRequestMillis;
+  private Argument zkPayloadEncoding;
+  private Argument coalescedReadWindow;
+  private Argument maxReadCost;
+  private Argument maxReadCostPerUser;
+  private Argument maxConcurrentReadsPerEndpoint;
+  private Argument admissionQueueTimeout;
+  private Argument admissionRetryAfter;
 
   public MasterParser(final String... args) throws ArgumentParserException {
     super("helios-master", "Spotify Helios Master", args);
@@ -92,7 +102,18 @@ public class MasterParser extends ServiceParser {
         .setFfwdConfig(ffwdConfig(options))
         .setWhitelistedCapabilities(ImmutableSet.copyOf(
             options.getList(whitelistedCapabilities.getDest())))
-        .setJobHistoryReapingEnabled(options.getBoolean(jobHistoryReapingEnabled.getDest()));
+        .setJobHistoryReapingEnabled(options.getBoolean(jobHistoryReapingEnabled.getDest()))
+        .setSlowRequestZooKeeperOperations(
+            options.getLong(slowRequestZooKeeperOperations.getDest()))
+        .setSlowRequestMillis(options.getLong(slowRequestMillis.getDest()))
+        .setZooKeeperPayloadEncoding(zkPayloadEncoding(options))
+        .setCoalescedReadWindowMillis(options.getLong(coalescedReadWindow.getDest()))
+        .setMaxReadCost(options.getInt(maxReadCost.getDest()))
+        .setMaxReadCostPerUser(options.getInt(maxReadCostPerUser.getDest()))
+        .setMaxConcurrentReadsPerEndpoint(
+            options.getInt(maxConcurrentReadsPerEndpoint.getDest()))
+        .setAdmissionQueueTimeoutMillis(options.getLong(admissionQueueTimeout.getDest()))
+        .setAdmissionRetryAfterSeconds(options.getLong(admissionRetryAfter.getDest()));
 
     this.masterConfig = config;
   }
@@ -139,6 +160,71 @@ public class MasterParser extends ServiceParser {
         .action(storeTrue())
         .setDefault(false)
         .help("Enable periodic reaping of orphaned job histories.");
+
+    slowRequestZooKeeperOperations = parser.addArgument("--slow-request-zk-operations")
+        .type(Long.class)
+        .setDefault(1000L)
+        .help("Log API requests that perform more than this many ZooKeeper operations to the "
+              + "slow request log. To disable, set to 0.");
+
+    slowRequestMillis = parser.addArgument("--slow-request-millis")
+        .type(Long.class)
+        .setDefault(5000L)
+        .help("Log API requests that take longer than this many milliseconds to the slow "
+              + "request log. To disable, set to 0.");
+
+    zkPayloadEncoding = parser.addArgument("--zk-payload-encoding")
+        .choices("json", "smile")
+        .help("Set how all masters and agents in the cluster encode data they write to "
+              + "ZooKeeper. The setting is stored in ZooKeeper and left unchanged if this "
+              + "argument is omitted. Only switch to smile once every master and agent is able "
+              + "to read it.");
+
+    coalescedReadWindow = parser.addArgument("--coalesced-read-window-millis")
+        .type(Long.class)
+        .setDefault(0L)
+        .help("Concurrent identical API reads of job, host and deployment group state always "
+              + "share one read from ZooKeeper. If set, the result is also reused for reads "
+              + "arriving up to this many milliseconds later, at the cost of that much "
+              + "staleness.");
+
+    maxReadCost = parser.addArgument("--max-read-cost")
+        .type(Integer.class)
+        .setDefault(256)
+        .help("The total cost of API reads the master handles at once. Most reads cost 1, "
+              + "reads of many job, host or history statuses cost more. Reads over the limit "
+              + "are queued and eventually rejected with 429 Too Many Requests. Writes are never "
+              + "limited. To disable, set to 0.");
+
+    maxReadCostPerUser = parser.addArgument("--max-read-cost-per-user")
+        .type(Integer.class)
+        .setDefault(64)
+        .help("The total cost of API reads the master handles at once for a single user. "
+              + "Users are identified by the user query parameter that clients send, so this "
+              + "limit is advisory: it keeps well-behaved clients from crowding each other out, "
+              + "but a client can get around it by sending another name. To disable, set to 0.");
+
+    maxConcurrentReadsPerEndpoint = parser.addArgument("--max-concurrent-reads-per-endpoint")
+        .type(Integer.class)
+        .setDefault(0)
+        .help("The number of API reads of a single endpoint the master handles at once. "
+              + "To disable, set to 0.");
+
+    admissionQueueTimeout = parser.addArgument("--admission-queue-timeout-millis")
+        .type(Long.class)
+        .setDefault(2000L)
+        .help("How long an API read may wait to be admitted before it is rejected. Queued "
+              + "reads hold a request thread while they wait.");
+
+    admissionRetryAfter = parser.addArgument("--admission-retry-after-seconds")
+        .type(Long.class)
+        .setDefault(1L)
+        .help("How long clients of rejected API reads are told to wait before retrying.");
+  }
+
+  private PayloadEncoding zkPayloadEncoding(final Namespace options) {
+    final String name = options.getString(zkPayloadEncoding.getDest());
+    return name == null ? null : PayloadEncoding.parse(name);
   }
 
   public MasterConfig getMasterConfig() {
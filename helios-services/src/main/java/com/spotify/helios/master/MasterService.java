@@ -24,6 +24,7 @@ import static com.spotify.helios.servicescommon.ZooKeeperAclProviders.digest;
 import static com.spotify.helios.servicescommon.ZooKeeperAclProviders.heliosAclProvider;
 
 import com.spotify.helios.common.HeliosRuntimeException;
+import com.spotify.helios.master.http.AdmissionController;
 import com.spotify.helios.master.http.VersionResponseFilter;
 import com.spotify.helios.master.metrics.HealthCheckGauge;
 import com.spotify.helios.master.metrics.ReportingResourceMethodDispatchAdapter;
@@ -53,6 +54,7 @@ import com.spotify.helios.servicescommon.ZooKeeperRegistrarService;
 import com.spotify.helios.servicescommon.coordination.CuratorClientFactory;
 import com.spotify.helios.servicescommon.coordination.DefaultZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncodingWatcher;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperHealthChecker;
@@ -206,8 +208,14 @@ public class MasterService extends AbstractIdleService {
     // and wrap it in our KafkaSender.
     final KafkaSender kafkaSender = new KafkaSender(kafkaClientProvider.getDefaultProducer());
 
+    environment.lifecycle().manage(new PayloadEncodingWatcher(
+        zkClientProvider.get("payloadEncoding"), config.getZooKeeperPayloadEncoding()));
+
+    final JobIdIndex jobIdIndex = new JobIdIndex(zkClientProvider.get("jobIdIndex"));
+    environment.lifecycle().manage(jobIdIndex);
+
     final ZooKeeperMasterModel model =
-        new ZooKeeperMasterModel(zkClientProvider, config.getName(), kafkaSender);
+        new ZooKeeperMasterModel(zkClientProvider, config.getName(), kafkaSender, jobIdIndex);
 
     final ZooKeeperHealthChecker zooKeeperHealthChecker = new ZooKeeperHealthChecker(
         zooKeeperClient, Paths.statusMasters(), riemannFacade, TimeUnit.MINUTES, 2);
@@ -261,23 +269,33 @@ public class MasterService extends AbstractIdleService {
       this.jobHistoryReaper = Optional.empty();
     }
 
-    // Set up http server
+    // Set up http server, sharing reads among concurrent identical requests
+    final MasterModel resourceModel = new CoalescingMasterModel(
+        model, metrics.getMasterMetrics(), config.getCoalescedReadWindowMillis());
     environment.servlets()
         .addFilter("VersionResponseFilter", new VersionResponseFilter(metrics.getMasterMetrics()))
         .addMappingForUrlPatterns(EnumSet.of(DispatcherType.REQUEST), true, "/*");
+    final AdmissionController admissionController = new AdmissionController(
+        config.getMaxReadCost(), config.getMaxReadCostPerUser(),
+        config.getMaxConcurrentReadsPerEndpoint(), config.getAdmissionQueueTimeoutMillis(),
+        config.getAdmissionRetryAfterSeconds(), metrics.getMasterMetrics());
     environment.jersey().register(
-        new ReportingResourceMethodDispatchAdapter(metrics.getMasterMetrics()));
+        new ReportingResourceMethodDispatchAdapter(metrics.getMasterMetrics(),
+                                                   config.getSlowRequestZooKeeperOperations(),
+                                                   config.getSlowRequestMillis(),
+                                                   admissionController));
     environment.jersey().register(new JobsResource(
-        model, metrics.getMasterMetrics(), config.getWhitelistedCapabilities()));
-    environment.jersey().register(new HistoryResource(model, metrics.getMasterMetrics()));
-    environment.jersey().register(new HostsResource(model));
-    environment.jersey().register(new MastersResource(model));
+        resourceModel, metrics.getMasterMetrics(), config.getWhitelistedCapabilities()));
+    environment.jersey().register(new HistoryResource(resourceModel, metrics.getMasterMetrics()));
+    environment.jersey().register(new HostsResource(resourceModel));
+    environment.jersey().register(new MastersResource(resourceModel));
     environment.jersey().register(new VersionResource());
     environment.jersey().register(new UserProvider());
-    environment.jersey().register(new DeploymentGroupResource(model));
+    environment.jersey().register(new DeploymentGroupResource(resourceModel));
 
     final DefaultServerFactory serverFactory = ServiceUtil.createServerFactory(
         config.getHttpEndpoint(), config.getAdminEndpoint(), false);
+    ServiceUtil.addProfilingServlets(environment);
 
     final RequestLogFactory requestLog = new RequestLogFactory();
     requestLog.setAppenders(ImmutableList.<AppenderFactory>of());
@@ -38,9 +38,11 @@ import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import com.spotify.helios.common.HeliosException;
 import com.spotify.helios.common.HeliosRuntimeException;
 import com.spotify.helios.common.Json;
 import com.spotify.helios.common.descriptors.AgentInfo;
+import com.spotify.helios.common.descriptors.CompactTaskHistory;
 import com.spotify.helios.common.descriptors.Deployment;
 import com.spotify.helios.common.descriptors.DeploymentGroup;
 import com.spotify.helios.common.descriptors.DeploymentGroupStatus;
@@ -58,6 +60,8 @@ import com.spotify.helios.common.descriptors.Task;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.descriptors.TaskStatusEvent;
 import com.spotify.helios.common.descriptors.ThrottleState;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
+import com.spotify.helios.common.protocol.JobListQuery;
 import com.spotify.helios.rollingupdate.DeploymentGroupEventFactory;
 import com.spotify.helios.rollingupdate.RollingUndeployPlanner;
 import com.spotify.helios.rollingupdate.RollingUpdateError;
@@ -68,8 +72,10 @@ import com.spotify.helios.servicescommon.KafkaRecord;
 import com.spotify.helios.servicescommon.KafkaSender;
 import com.spotify.helios.servicescommon.VersionedValue;
 import com.spotify.helios.servicescommon.ZooKeeperRegistrarUtil;
+import com.spotify.helios.servicescommon.coordination.DeleteProgressListener;
 import com.spotify.helios.servicescommon.coordination.Node;
 import com.spotify.helios.servicescommon.coordination.Paths;
+import com.spotify.helios.servicescommon.coordination.PayloadEncoding;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperOperation;
@@ -86,10 +92,14 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Ordering;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.BadVersionException;
@@ -108,24 +118,31 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
 /**
  * The Helios Master's view into ZooKeeper.
  */
 public class ZooKeeperMasterModel implements MasterModel {
-  private static final Comparator<TaskStatusEvent> EVENT_COMPARATOR =
-      new Comparator<TaskStatusEvent>() {
+  private static final Comparator<HistoryEntry> HISTORY_ENTRY_COMPARATOR =
+      new Comparator<HistoryEntry>() {
         @Override
-        public int compare(TaskStatusEvent arg0, TaskStatusEvent arg1) {
-          if (arg1.getTimestamp() > arg0.getTimestamp()) {
-            return -1;
-          } else if (arg1.getTimestamp() == arg0.getTimestamp()) {
-            return 0;
-          } else {
-            return 1;
-          }
+        public int compare(final HistoryEntry arg0, final HistoryEntry arg1) {
+          final int byTimestamp = Long.compare(arg0.timestamp, arg1.timestamp);
+          return byTimestamp != 0 ? byTimestamp : arg0.host.compareTo(arg1.host);
+        }
+      };
+
+  private static final Comparator<PeekingIterator<HistoryEntry>> HISTORY_STREAM_COMPARATOR =
+      new Comparator<PeekingIterator<HistoryEntry>>() {
+        @Override
+        public int compare(final PeekingIterator<HistoryEntry> arg0,
+                           final PeekingIterator<HistoryEntry> arg1) {
+          return HISTORY_ENTRY_COMPARATOR.compare(arg0.peek(), arg1.peek());
         }
       };
 
@@ -149,9 +166,14 @@ public class ZooKeeperMasterModel implements MasterModel {
   private static final DeploymentGroupEventFactory DEPLOYMENT_GROUP_EVENT_FACTORY =
       new DeploymentGroupEventFactory();
 
+  // The number of hosts whose deployments are committed in a single transaction by the bulk
+  // deploy and undeploy methods. Keeps the multi request well below jute.maxbuffer.
+  private static final int BULK_TRANSACTION_HOSTS = 50;
+
   private final ZooKeeperClientProvider provider;
   private final String name;
   private final KafkaSender kafkaSender;
+  private final JobIdIndex jobIdIndex;
 
   /**
    * Constructor
@@ -162,9 +184,25 @@ public class ZooKeeperMasterModel implements MasterModel {
   public ZooKeeperMasterModel(final ZooKeeperClientProvider provider,
                               final String name,
                               final KafkaSender kafkaSender) {
+    this(provider, name, kafkaSender, null);
+  }
+
+  /**
+   * Constructor
+   * @param provider         {@link ZooKeeperClientProvider}
+   * @param name             The hostname of the machine running the {@link MasterModel}
+   * @param kafkaSender      {@link KafkaSender}
+   * @param jobIdIndex       {@link JobIdIndex} used to answer job listings, or null to always
+   *                         read the job ids from ZooKeeper
+   */
+  public ZooKeeperMasterModel(final ZooKeeperClientProvider provider,
+                              final String name,
+                              final KafkaSender kafkaSender,
+                              @Nullable final JobIdIndex jobIdIndex) {
     this.provider = Preconditions.checkNotNull(provider);
     this.name = Preconditions.checkNotNull(name);
     this.kafkaSender = Preconditions.checkNotNull(kafkaSender);
+    this.jobIdIndex = jobIdIndex;
   }
 
   /**
@@ -197,6 +235,27 @@ public class ZooKeeperMasterModel implements MasterModel {
     }
   }
 
+  @Override
+  public String getHostsRevision() {
+    return getRevision("getHostsRevision", Paths.configHosts());
+  }
+
+  /**
+   * Returns the id of the last transaction that changed a node or its set of children, which
+   * identifies the state of both. Only a single stat is needed to compute it.
+   */
+  private String getRevision(final String method, final String path) {
+    try {
+      final Stat stat = provider.get(method).stat(path);
+      if (stat == null) {
+        return null;
+      }
+      return Long.toHexString(Math.max(stat.getMzxid(), stat.getPzxid()));
+    } catch (KeeperException e) {
+      throw new HeliosRuntimeException("getting revision of " + path + " failed", e);
+    }
+  }
+
   /**
    * Returns a list of the host names of the currently running masters.
    */
@@ -268,7 +327,7 @@ public class ZooKeeperMasterModel implements MasterModel {
    */
   @Override
   public List<TaskStatusEvent> getJobHistory(final JobId jobId) throws JobDoesNotExistException {
-    return getJobHistory(jobId, null);
+    return getJobHistory(jobId, JobHistoryQuery.all());
   }
 
   /**
@@ -278,6 +337,17 @@ public class ZooKeeperMasterModel implements MasterModel {
   @Override
   public List<TaskStatusEvent> getJobHistory(final JobId jobId, final String host)
       throws JobDoesNotExistException {
+    return getJobHistory(jobId, JobHistoryQuery.newBuilder().setHost(host).build());
+  }
+
+  /**
+   * Given a jobId, returns the events in its history in the cluster that match the query, oldest
+   * first. The events of all hosts are listed concurrently and merged in order, and only the events
+   * that end up in the result are read.
+   */
+  @Override
+  public List<TaskStatusEvent> getJobHistory(final JobId jobId, final JobHistoryQuery query)
+      throws JobDoesNotExistException {
     final Job descriptor = getJob(jobId);
     if (descriptor == null) {
       throw new JobDoesNotExistException(jobId);
@@ -286,7 +356,7 @@ public class ZooKeeperMasterModel implements MasterModel {
     final List<String> hosts;
 
     try {
-      hosts = (!isNullOrEmpty(host)) ? singletonList(host) :
+      hosts = (!isNullOrEmpty(query.getHost())) ? singletonList(query.getHost()) :
               client.getChildren(Paths.historyJobHosts(jobId));
     } catch (NoNodeException e) {
       return emptyList();
@@ -294,32 +364,115 @@ public class ZooKeeperMasterModel implements MasterModel {
       throw Throwables.propagate(e);
     }
 
-    final List<TaskStatusEvent> jsEvents = Lists.newArrayList();
+    try {
+      // Start listing all hosts before waiting for any of them
+      final Map<String, ListenableFuture<Node>> rings = Maps.newHashMap();
+      final Map<String, ListenableFuture<List<String>>> listings = Maps.newHashMap();
+      for (final String h : hosts) {
+        // Agents running with compact history keep all events of the host in a single node
+        rings.put(h, client.getNodeAsync(Paths.historyJobHostRing(jobId, h)));
+        listings.put(h, client.getChildrenAsync(Paths.historyJobHostEvents(jobId, h)));
+      }
 
-    for (final String h : hosts) {
-      final List<String> events;
-      try {
-        events = client.getChildren(Paths.historyJobHostEvents(jobId, h));
-      } catch (NoNodeException e) {
-        continue;
-      } catch (KeeperException e) {
-        throw Throwables.propagate(e);
+      final PriorityQueue<PeekingIterator<HistoryEntry>> streams =
+          new PriorityQueue<>(Math.max(1, hosts.size()), HISTORY_STREAM_COMPARATOR);
+      for (final String h : hosts) {
+        final List<HistoryEntry> entries = Lists.newArrayList();
+
+        final Node ring = getIfExists(rings.get(h));
+        if (ring != null) {
+          final CompactTaskHistory history = parse(ring.getBytes(), CompactTaskHistory.class);
+          for (final TaskStatusEvent event : history.toTaskStatusEvents(descriptor, h)) {
+            if (query.matches(event.getTimestamp(), h)) {
+              entries.add(new HistoryEntry(event.getTimestamp(), h, event));
+            }
+          }
+        }
+
+        final List<String> names = getIfExists(listings.get(h));
+        if (names != null) {
+          for (final String name : names) {
+            final long timestamp = Long.valueOf(name);
+            if (query.matches(timestamp, h)) {
+              entries.add(new HistoryEntry(timestamp, h, null));
+            }
+          }
+        }
+
+        if (!entries.isEmpty()) {
+          Collections.sort(entries, HISTORY_ENTRY_COMPARATOR);
+          streams.add(Iterators.peekingIterator(entries.iterator()));
+        }
       }
 
-      for (final String event : events) {
-        try {
-          final byte[] data = client.getData(Paths.historyJobHostEventsTimestamp(
-              jobId, h, Long.valueOf(event)));
-          final TaskStatus status = Json.read(data, TaskStatus.class);
-          jsEvents.add(new TaskStatusEvent(status, Long.valueOf(event), h));
-        } catch (NoNodeException e) { // ignore, it went away before we read it
-        } catch (KeeperException | IOException e) {
-          throw Throwables.propagate(e);
+      // Merge the sorted streams of each host until we have as many events as were asked for
+      final int limit = fromNullable(query.getLimit()).or(Integer.MAX_VALUE);
+      final List<HistoryEntry> page = Lists.newArrayList();
+      while (!streams.isEmpty() && page.size() < limit) {
+        final PeekingIterator<HistoryEntry> stream = streams.poll();
+        final HistoryEntry entry = stream.next();
+        if (entry.event == null) {
+          entry.read = client.getNodeAsync(
+              Paths.historyJobHostEventsTimestamp(jobId, entry.host, entry.timestamp));
+        }
+        page.add(entry);
+        if (stream.hasNext()) {
+          streams.add(stream);
+        }
+      }
+
+      final List<TaskStatusEvent> events = Lists.newArrayListWithCapacity(page.size());
+      for (final HistoryEntry entry : page) {
+        if (entry.event != null) {
+          events.add(entry.event);
+          continue;
         }
+        final Node node = getIfExists(entry.read);
+        if (node == null) {
+          // It went away before we read it
+          continue;
+        }
+        final TaskStatus status = parse(node.getBytes(), TaskStatus.class);
+        events.add(new TaskStatusEvent(status, entry.timestamp, entry.host));
+      }
+      return events;
+    } catch (KeeperException | IOException e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  /**
+   * Waits for an asynchronous read, returning null if the node did not exist.
+   */
+  @Nullable
+  private static <T> T getIfExists(final ListenableFuture<T> future) throws KeeperException {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof NoNodeException) {
+        return null;
       }
+      Throwables.propagateIfInstanceOf(e.getCause(), KeeperException.class);
+      throw Throwables.propagate(e.getCause());
     }
+  }
+
+  /**
+   * An event in the history of a job that has either already been read or that is stored in its
+   * own node, which is read if the event is included in the result.
+   */
+  private static class HistoryEntry {
+    private final long timestamp;
+    private final String host;
+    private final TaskStatusEvent event;
+    private ListenableFuture<Node> read;
 
-    return Ordering.from(EVENT_COMPARATOR).sortedCopy(jsEvents);
+    private HistoryEntry(final long timestamp, final String host,
+                         @Nullable final TaskStatusEvent event) {
+      this.timestamp = timestamp;
+      this.host = host;
+      this.event = event;
+    }
   }
 
   /**
@@ -1175,6 +1328,11 @@ public class ZooKeeperMasterModel implements MasterModel {
     }
   }
 
+  @Override
+  public String getDeploymentGroupsRevision() {
+    return getRevision("getDeploymentGroupsRevision", Paths.configDeploymentGroups());
+  }
+
   /**
    * Returns a {@link Map} of deployment group name to {@link DeploymentGroup} objects for all of
    * the deployment groups known.
@@ -1284,6 +1442,12 @@ public class ZooKeeperMasterModel implements MasterModel {
     }
   }
 
+  @Override
+  public String getJobsRevision() {
+    // The jobs root is touched on every job change, and job descriptors are immutable
+    return getRevision("getJobsRevision", Paths.configJobs());
+  }
+
   /**
    * Returns a {@link Map} of {@link JobId} to {@link Job} objects for all of the jobs known.
    */
@@ -1318,6 +1482,55 @@ public class ZooKeeperMasterModel implements MasterModel {
     }
   }
 
+  /**
+   * Returns the ids of the jobs matching {@code query}, using the {@link JobIdIndex} when it's
+   * available and caught up with {@code revision}, and listing the jobs in ZooKeeper otherwise.
+   */
+  @Override
+  public List<JobId> getJobIds(final JobListQuery query, @Nullable final String revision) {
+    if (jobIdIndex != null) {
+      final long minRevision = revision == null ? 0 : Long.parseLong(revision, 16);
+      final List<JobId> ids = jobIdIndex.find(query, minRevision);
+      if (ids != null) {
+        return ids;
+      }
+    }
+    log.debug("listing job ids: {}", query);
+    final ZooKeeperClient client = provider.get("getJobIds");
+    try {
+      final TreeSet<JobId> ids = Sets.newTreeSet();
+      for (final String id : client.getChildren(Paths.configJobs())) {
+        ids.add(JobId.fromString(id));
+      }
+      return JobIdIndex.select(ids, query);
+    } catch (NoNodeException e) {
+      return Collections.emptyList();
+    } catch (KeeperException e) {
+      throw new HeliosRuntimeException("listing job ids failed", e);
+    }
+  }
+
+  /**
+   * Returns the jobs matching {@code query}, in {@link JobId} order. Only the descriptors of the
+   * matching jobs are read.
+   */
+  @Override
+  public Map<JobId, Job> getJobs(final JobListQuery query, @Nullable final String revision) {
+    final List<JobId> ids = getJobIds(query, revision);
+    final ZooKeeperClient client = provider.get("getJobs");
+    final Map<JobId, Job> descriptors = Maps.newLinkedHashMap();
+    for (final JobId id : ids) {
+      final Job descriptor = getJob(client, id);
+      if (descriptor == null) {
+        // Ignore, the job was deleted before we had a chance to read it.
+        log.debug("Ignoring deleted job {}", id);
+        continue;
+      }
+      descriptors.put(id, descriptor);
+    }
+    return descriptors;
+  }
+
   /**
    * Returns the current job status as a {@link JobStatus} object.
    */
@@ -1416,9 +1629,9 @@ public class ZooKeeperMasterModel implements MasterModel {
       throw new HeliosRuntimeException("removing job " + id + " failed", e);
     }
 
-    // Delete job history on a best effort basis
+    // Delete job history on a best effort basis. Whatever is left is removed by JobHistoryReaper.
     try {
-      client.deleteRecursive(Paths.historyJob(id));
+      client.deleteRecursive(Paths.historyJob(id), true, DeleteProgressListener.NONE);
     } catch (NoNodeException ignored) {
       // There's no history for this job
     } catch (KeeperException e) {
@@ -1463,6 +1676,72 @@ public class ZooKeeperMasterModel implements MasterModel {
     deployJobRetry(client, host, deployment, 0, token);
   }
 
+  @Override
+  public Map<String, HeliosException> deployJob(final List<String> hosts,
+                                                final Deployment deployment, final String token)
+      throws JobDoesNotExistException, TokenVerificationException {
+    log.info("deploying {} to {} hosts", deployment, hosts.size());
+    final ZooKeeperClient client = provider.get("deployJobs");
+
+    final JobId id = deployment.getJobId();
+    final Job job = getJob(client, id);
+    if (job == null) {
+      throw new JobDoesNotExistException(id);
+    }
+    verifyToken(token, job);
+
+    final Map<String, HeliosException> failures = Maps.newLinkedHashMap();
+    final Map<String, List<ZooKeeperOperation>> operations = Maps.newLinkedHashMap();
+    for (final String host : ImmutableSet.copyOf(hosts)) {
+      try {
+        assertHostExists(client, host);
+        operations.put(host, getDeployOperations(client, host, deployment, job));
+      } catch (HostNotFoundException | JobAlreadyDeployedException
+          | JobPortAllocationConflictException e) {
+        failures.put(host, e);
+      } catch (IllegalArgumentException e) {
+        failures.put(host, new HostNotFoundException("Could not find Helios host '" + host + "'"));
+      }
+    }
+
+    for (final List<String> chunk : Iterables.partition(operations.keySet(),
+                                                        BULK_TRANSACTION_HOSTS)) {
+      try {
+        client.transaction(concat(chunk, operations));
+        log.info("deployed {}: {}", deployment, chunk);
+      } catch (KeeperException e) {
+        // Nothing in the chunk was committed. Something changed since we computed the operations,
+        // so deploy to its hosts one at a time to find out which ones are affected.
+        log.info("deploying {} in bulk failed, retrying hosts one by one: {}",
+                 deployment, chunk, e);
+        for (final String host : chunk) {
+          try {
+            deployJobRetry(client, host, deployment, 0, token);
+          } catch (HostNotFoundException | JobAlreadyDeployedException
+              | JobPortAllocationConflictException | JobDoesNotExistException
+              | TokenVerificationException ex) {
+            failures.put(host, ex);
+          } catch (HeliosRuntimeException ex) {
+            // Earlier chunks are committed, so report this host rather than fail the request
+            log.warn("deploying {} to {} failed", deployment, host, ex);
+            failures.put(host, new HeliosException(ex));
+          }
+        }
+      }
+    }
+
+    return failures;
+  }
+
+  private static List<ZooKeeperOperation> concat(
+      final List<String> hosts, final Map<String, List<ZooKeeperOperation>> operations) {
+    final List<ZooKeeperOperation> concatenated = Lists.newArrayList();
+    for (final String host : hosts) {
+      concatenated.addAll(operations.get(host));
+    }
+    return concatenated;
+  }
+
   private void deployJobRetry(final ZooKeeperClient client, final String host,
                               final Deployment deployment, int count, final String token)
       throws JobDoesNotExistException, JobAlreadyDeployedException, HostNotFoundException,
@@ -1622,7 +1901,7 @@ public class ZooKeeperMasterModel implements MasterModel {
                                existingDeployment.getDeployerMaster(),
                                existingDeployment.getDeploymentGroupName());
     try {
-      client.setData(path, task.toJsonBytes());
+      client.setData(path, PayloadEncoding.current().encode(task));
     } catch (Exception e) {
       throw new HeliosRuntimeException("updating deployment " + deployment +
                                        " on host " + host + " failed", e);
@@ -1884,6 +2163,59 @@ public class ZooKeeperMasterModel implements MasterModel {
     return deployment;
   }
 
+  @Override
+  public Map<String, HeliosException> undeployJob(final List<String> hosts, final JobId jobId,
+                                                  final String token)
+      throws JobDoesNotExistException, TokenVerificationException {
+    log.info("undeploying {} from {} hosts", jobId, hosts.size());
+    final ZooKeeperClient client = provider.get("undeployJobs");
+
+    final Job job = getJob(client, jobId);
+    if (job == null) {
+      throw new JobDoesNotExistException(jobId);
+    }
+    verifyToken(token, job);
+
+    final Map<String, HeliosException> failures = Maps.newLinkedHashMap();
+    final Map<String, List<ZooKeeperOperation>> operations = Maps.newLinkedHashMap();
+    for (final String host : ImmutableSet.copyOf(hosts)) {
+      try {
+        assertHostExists(client, host);
+        operations.put(host, getUndeployOperations(client, host, job));
+      } catch (HostNotFoundException | JobNotDeployedException e) {
+        failures.put(host, e);
+      } catch (IllegalArgumentException e) {
+        failures.put(host, new HostNotFoundException("Could not find Helios host '" + host + "'"));
+      }
+    }
+
+    for (final List<String> chunk : Iterables.partition(operations.keySet(),
+                                                        BULK_TRANSACTION_HOSTS)) {
+      try {
+        client.transaction(concat(chunk, operations));
+        log.info("undeployed {}: {}", jobId, chunk);
+      } catch (KeeperException e) {
+        // Nothing in the chunk was committed, most likely because one of the jobs was undeployed
+        // concurrently. Undeploy from its hosts one at a time to find out which one.
+        log.info("undeploying {} in bulk failed, retrying hosts one by one: {}", jobId, chunk, e);
+        for (final String host : chunk) {
+          try {
+            undeployJob(host, jobId, token);
+          } catch (HostNotFoundException | JobNotDeployedException
+              | TokenVerificationException ex) {
+            failures.put(host, ex);
+          } catch (HeliosRuntimeException ex) {
+            // Earlier chunks are committed, so report this host rather than fail the request
+            log.warn("undeploying {} from {} failed", jobId, host, ex);
+            failures.put(host, new HeliosException(ex));
+          }
+        }
+      }
+    }
+
+    return failures;
+  }
+
   private List<ZooKeeperOperation> getUndeployOperations(final ZooKeeperClient client,
                                                          final String host,
                                                          final JobId jobId,
@@ -1898,6 +2230,14 @@ public class ZooKeeperMasterModel implements MasterModel {
 
     final Job job = getJob(client, jobId);
     verifyToken(token, job);
+    return getUndeployOperations(client, host, job);
+  }
+
+  private List<ZooKeeperOperation> getUndeployOperations(final ZooKeeperClient client,
+                                                         final String host,
+                                                         final Job job)
+      throws JobNotDeployedException {
+    final JobId jobId = job.getId();
     final String configHostJobPath = Paths.configHostJob(host, jobId);
 
     try {
@@ -1913,9 +2253,7 @@ public class ZooKeeperMasterModel implements MasterModel {
       return ImmutableList.of(delete(nodes));
 
     } catch (NoNodeException e) {
-      // This method is racy since it's possible someone undeployed the job after we called
-      // getDeployment and checked the job exists. If we now discover the job is undeployed,
-      // throw an exception and handle it the same as if we discovered this earlier.
+      // Either the job was never deployed to the host, or someone undeployed it concurrently.
       throw new JobNotDeployedException(host, jobId);
     } catch (KeeperException e) {
       throw new HeliosRuntimeException("calculating undeploy operations failed", e);
@@ -1936,7 +2274,15 @@ public class ZooKeeperMasterModel implements MasterModel {
       throw new JobDoesNotExistException(id);
     }
     verifyToken(token, job);
+    return getDeployOperations(client, host, deployment, job);
+  }
 
+  private List<ZooKeeperOperation> getDeployOperations(final ZooKeeperClient client,
+                                                       final String host,
+                                                       final Deployment deployment,
+                                                       final Job job)
+      throws JobAlreadyDeployedException, JobPortAllocationConflictException {
+    final JobId id = job.getId();
     final UUID operationId = UUID.randomUUID();
     final String jobPath = Paths.configJob(id);
     final String taskPath = Paths.configHostJob(host, id);
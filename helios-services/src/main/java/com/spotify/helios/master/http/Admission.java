@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.http;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tells the {@link AdmissionController} which lane a resource method belongs to and how expensive
+ * it is. Methods without it are in the {@link Lane#READ} lane with a cost of 1 if they are GETs,
+ * and in the {@link Lane#WRITE} lane otherwise.
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+
+  enum Lane {
+    /**
+     * Requests that only read state. They are limited so that they can't starve writes.
+     */
+    READ,
+
+    /**
+     * Requests that change state. They are never limited or queued behind reads.
+     */
+    WRITE
+  }
+
+  Lane lane();
+
+  /**
+   * How many units of the read capacity a request takes, roughly in proportion to the ZooKeeper
+   * reads it makes compared to reading a single node.
+   */
+  int cost() default 1;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.http;
+
+import com.sun.jersey.api.core.HttpContext;
+import com.sun.jersey.api.model.AbstractResourceMethod;
+import com.sun.jersey.spi.dispatch.RequestDispatcher;
+
+import java.lang.reflect.Method;
+
+/**
+ * Asks an {@link AdmissionController} for permission before dispatching a request to a resource
+ * method.
+ */
+public class AdmissionControlledDispatcher implements RequestDispatcher {
+
+  private final RequestDispatcher dispatcher;
+  private final AdmissionController controller;
+  private final String endpoint;
+  private final Admission.Lane lane;
+  private final int cost;
+
+  public AdmissionControlledDispatcher(final RequestDispatcher dispatcher,
+                                       final AdmissionController controller,
+                                       final AbstractResourceMethod resourceMethod) {
+    this.dispatcher = dispatcher;
+    this.controller = controller;
+
+    final Method method = resourceMethod.getMethod();
+    this.endpoint = method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+
+    final Admission admission = method.getAnnotation(Admission.class);
+    if (admission != null) {
+      this.lane = admission.lane();
+      this.cost = Math.max(admission.cost(), 1);
+    } else {
+      final String httpMethod = resourceMethod.getHttpMethod();
+      this.lane = "GET".equals(httpMethod) || "HEAD".equals(httpMethod)
+                  ? Admission.Lane.READ
+                  : Admission.Lane.WRITE;
+      this.cost = 1;
+    }
+  }
+
+  @Override
+  public void dispatch(final Object resource, final HttpContext context) {
+    // Claimed by the client and not authenticated, so the per-user limit is only advisory
+    final String user = context.getRequest().getQueryParameters().getFirst("user");
+    final AdmissionController.Permit permit = controller.admit(endpoint, user, lane, cost);
+    try {
+      dispatcher.dispatch(resource, context);
+    } finally {
+      permit.release();
+    }
+  }
+}
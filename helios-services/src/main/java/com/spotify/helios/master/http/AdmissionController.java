@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.http;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import com.spotify.helios.servicescommon.statistics.MasterMetrics;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.MediaType.TEXT_PLAIN;
+
+/**
+ * Limits how much read work the master takes on at once, so that a few heavy clients can't
+ * saturate its request threads and ZooKeeper connection and delay deploys, undeploys and rolling
+ * updates.
+ *
+ * <p>Requests in the {@link Admission.Lane#READ} lane take units of read capacity according to
+ * their cost: from a global pool, from a pool per user and, if configured, one of a limited number
+ * of slots per endpoint. A read that can't get its capacity right away waits for it up to the
+ * queue timeout, and is then rejected with 429 Too Many Requests and a Retry-After header.
+ * Requests in the {@link Admission.Lane#WRITE} lane are always admitted immediately.
+ *
+ * <p>Queued reads wait on the request thread that is serving them, so a full queue holds as many
+ * request threads as there are queued reads for up to the queue timeout.
+ *
+ * <p>Users are identified by what the client claims, so the per-user limit only keeps well-behaved
+ * clients from crowding each other out. The global limit is what protects the master.
+ */
+public class AdmissionController {
+
+  public static final int TOO_MANY_REQUESTS = 429;
+  public static final String RETRY_AFTER_HEADER = "Retry-After";
+
+  private static final Permit NOOP_PERMIT = new Permit() {
+    @Override
+    public void release() {}
+  };
+
+  /**
+   * Held while an admitted request runs.
+   */
+  public interface Permit {
+    void release();
+  }
+
+  private final int maxReadCost;
+  private final int maxReadCostPerUser;
+  private final int maxConcurrentPerEndpoint;
+  private final long queueTimeoutNanos;
+  private final long retryAfterSeconds;
+  private final MasterMetrics metrics;
+
+  private final Semaphore reads;
+  // Entries are removed once a user has no reads queued or running, so the map is bounded by the
+  // number of reads in flight however many user names clients make up. ConcurrentHashMap runs
+  // compute functions atomically, which the reference counting relies on.
+  private final ConcurrentHashMap<String, UserCapacity> users = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Semaphore> endpoints = Maps.newConcurrentMap();
+
+  /**
+   * @param maxReadCost              Total cost of reads allowed to run at once. Zero disables
+   *                                 admission control.
+   * @param maxReadCostPerUser       Total cost of reads allowed to run at once for a single user.
+   *                                 Zero disables the per-user limit.
+   * @param maxConcurrentPerEndpoint Number of reads of a single endpoint allowed to run at once.
+   *                                 Zero disables the per-endpoint limit.
+   * @param queueTimeoutMillis       How long a read may wait to be admitted.
+   * @param retryAfterSeconds        What rejected clients are told to wait before retrying.
+   * @param metrics                  Where to report queueing and rejections.
+   */
+  public AdmissionController(final int maxReadCost,
+                             final int maxReadCostPerUser,
+                             final int maxConcurrentPerEndpoint,
+                             final long queueTimeoutMillis,
+                             final long retryAfterSeconds,
+                             final MasterMetrics metrics) {
+    this.maxReadCost = maxReadCost;
+    this.maxReadCostPerUser = maxReadCostPerUser;
+    this.maxConcurrentPerEndpoint = maxConcurrentPerEndpoint;
+    this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(queueTimeoutMillis);
+    this.retryAfterSeconds = retryAfterSeconds;
+    this.metrics = metrics;
+    this.reads = new Semaphore(Math.max(maxReadCost, 0), true);
+  }
+
+  /**
+   * Wait until a request may run.
+   *
+   * @param endpoint The name of the endpoint requested, used for limits and metrics.
+   * @param user     The user making the request, or null if unknown. Unknown users are only
+   *                 subject to the global and per-endpoint limits.
+   * @param lane     The lane of the request.
+   * @param cost     The cost of the request.
+   * @return A permit that must be released once the request has been handled.
+   * @throws WebApplicationException With status 429 if the request could not be admitted in time.
+   */
+  public Permit admit(final String endpoint, @Nullable final String user,
+                      final Admission.Lane lane, final int cost) {
+    if (lane == Admission.Lane.WRITE || maxReadCost <= 0) {
+      return NOOP_PERMIT;
+    }
+
+    final long startTime = System.nanoTime();
+    final long deadline = startTime + queueTimeoutNanos;
+    final List<Acquired> acquired = Lists.newArrayListWithCapacity(3);
+    boolean queued = false;
+
+    if (user != null && maxReadCostPerUser > 0) {
+      final Acquired a = new Acquired(retainUser(user), Math.min(cost, maxReadCostPerUser)) {
+        @Override
+        void released() {
+          releaseUser(user);
+        }
+      };
+      acquired.add(a);
+      queued |= a.await(deadline);
+      if (!a.held) {
+        throw reject(endpoint, acquired);
+      }
+    }
+
+    if (maxConcurrentPerEndpoint > 0) {
+      final Acquired a = new Acquired(semaphore(endpoints, endpoint, maxConcurrentPerEndpoint), 1);
+      acquired.add(a);
+      queued |= a.await(deadline);
+      if (!a.held) {
+        throw reject(endpoint, acquired);
+      }
+    }
+
+    final Acquired global = new Acquired(reads, Math.min(cost, maxReadCost));
+    acquired.add(global);
+    queued |= global.await(deadline);
+    if (!global.held) {
+      throw reject(endpoint, acquired);
+    }
+
+    if (queued) {
+      metrics.admissionQueued(endpoint, System.nanoTime() - startTime);
+    }
+    return new Permit() {
+      @Override
+      public void release() {
+        AdmissionController.release(acquired);
+      }
+    };
+  }
+
+  /**
+   * Returns the semaphore of a user, creating it if needed, and counts one more read of the user.
+   */
+  private Semaphore retainUser(final String user) {
+    return users.compute(user, (name, capacity) -> {
+      final UserCapacity retained = capacity == null
+                                    ? new UserCapacity(maxReadCostPerUser)
+                                    : capacity;
+      retained.references++;
+      return retained;
+    }).semaphore;
+  }
+
+  /**
+   * Counts one less read of a user, and forgets the user once none are left.
+   */
+  private void releaseUser(final String user) {
+    users.computeIfPresent(user, (name, capacity) -> --capacity.references == 0 ? null : capacity);
+  }
+
+  /**
+   * The number of users with reads queued or running.
+   */
+  int trackedUsers() {
+    return users.size();
+  }
+
+  private static Semaphore semaphore(final ConcurrentMap<String, Semaphore> semaphores,
+                                     final String key, final int permits) {
+    final Semaphore semaphore = semaphores.get(key);
+    if (semaphore != null) {
+      return semaphore;
+    }
+    final Semaphore created = new Semaphore(permits, true);
+    final Semaphore existing = semaphores.putIfAbsent(key, created);
+    return existing == null ? created : existing;
+  }
+
+  private WebApplicationException reject(final String endpoint, final List<Acquired> acquired) {
+    release(acquired);
+    metrics.admissionRejected(endpoint);
+    return new WebApplicationException(
+        Response.status(TOO_MANY_REQUESTS)
+            .header(RETRY_AFTER_HEADER, retryAfterSeconds)
+            .type(TEXT_PLAIN)
+            .entity("The master is busy, retry in " + retryAfterSeconds + " seconds")
+            .build());
+  }
+
+  private static void release(final List<Acquired> acquired) {
+    for (final Acquired a : Lists.reverse(acquired)) {
+      a.release();
+    }
+  }
+
+  private static class UserCapacity {
+    private final Semaphore semaphore;
+    // Only read and written inside compute calls on the users map
+    private int references;
+
+    UserCapacity(final int permits) {
+      this.semaphore = new Semaphore(permits, true);
+    }
+  }
+
+  private static class Acquired {
+    private final Semaphore semaphore;
+    private final int permits;
+    private boolean held;
+    private boolean released;
+
+    Acquired(final Semaphore semaphore, final int permits) {
+      this.semaphore = semaphore;
+      this.permits = permits;
+    }
+
+    /**
+     * @return True if the permits were not immediately available.
+     */
+    boolean await(final long deadline) {
+      if (semaphore.tryAcquire(permits)) {
+        held = true;
+        return false;
+      }
+      try {
+        held = semaphore.tryAcquire(permits, deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return true;
+    }
+
+    void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      if (held) {
+        held = false;
+        semaphore.release(permits);
+      }
+      released();
+    }
+
+    /**
+     * Called once when the permits have been given back, or were never acquired.
+     */
+    void released() {
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.http;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+
+/**
+ * Utility code for answering conditional GET requests from the resource classes.
+ *
+ * <p>The revision must be read before the entity is, so that a concurrent change results in a
+ * tag older than the entity rather than the other way around.
+ */
+public class ETags {
+
+  /**
+   * Returns a 304 Not Modified response if the request's {@code If-None-Match} header matches the
+   * revision, or null if the entity should be returned.
+   */
+  public static Response notModified(final Request request, final String revision) {
+    if (request == null || revision == null) {
+      return null;
+    }
+    final EntityTag tag = new EntityTag(revision);
+    final Response.ResponseBuilder builder = request.evaluatePreconditions(tag);
+    return builder == null ? null : builder.tag(tag).build();
+  }
+
+  /**
+   * Returns a 200 OK response with the entity, tagged with the revision if there is one.
+   */
+  public static Response ok(final Object entity, final String revision) {
+    final Response.ResponseBuilder builder = Response.ok(entity);
+    if (revision != null) {
+      builder.tag(new EntityTag(revision));
+    }
+    return builder.build();
+  }
+}
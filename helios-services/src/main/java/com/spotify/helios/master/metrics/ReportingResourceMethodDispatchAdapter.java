@@ -17,20 +17,47 @@
 
 package com.spotify.helios.master.metrics;
 
+import com.spotify.helios.master.http.AdmissionController;
 import com.spotify.helios.servicescommon.statistics.MasterMetrics;
 import com.sun.jersey.spi.container.ResourceMethodDispatchAdapter;
 import com.sun.jersey.spi.container.ResourceMethodDispatchProvider;
 
+import org.jetbrains.annotations.Nullable;
+
 public class ReportingResourceMethodDispatchAdapter implements ResourceMethodDispatchAdapter {
 
   private final MasterMetrics metrics;
+  private final long slowRequestOperations;
+  private final long slowRequestMillis;
+  private final AdmissionController admissionController;
 
   public ReportingResourceMethodDispatchAdapter(final MasterMetrics metrics) {
+    this(metrics, 0, 0);
+  }
+
+  public ReportingResourceMethodDispatchAdapter(final MasterMetrics metrics,
+                                                final long slowRequestOperations,
+                                                final long slowRequestMillis) {
+    this(metrics, slowRequestOperations, slowRequestMillis, null);
+  }
+
+  /**
+   * @param admissionController Decides whether requests may run. Null admits every request.
+   */
+  public ReportingResourceMethodDispatchAdapter(
+      final MasterMetrics metrics,
+      final long slowRequestOperations,
+      final long slowRequestMillis,
+      @Nullable final AdmissionController admissionController) {
     this.metrics = metrics;
+    this.slowRequestOperations = slowRequestOperations;
+    this.slowRequestMillis = slowRequestMillis;
+    this.admissionController = admissionController;
   }
 
   @Override
   public ResourceMethodDispatchProvider adapt(final ResourceMethodDispatchProvider provider) {
-    return new ReportingResourceMethodDispatchProvider(provider, metrics);
+    return new ReportingResourceMethodDispatchProvider(provider, metrics, slowRequestOperations,
+                                                       slowRequestMillis, admissionController);
   }
 }
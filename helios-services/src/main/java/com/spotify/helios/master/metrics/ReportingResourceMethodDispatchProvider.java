@@ -17,25 +17,56 @@
 
 package com.spotify.helios.master.metrics;
 
+import com.spotify.helios.master.http.AdmissionControlledDispatcher;
+import com.spotify.helios.master.http.AdmissionController;
 import com.spotify.helios.servicescommon.statistics.MasterMetrics;
 import com.sun.jersey.api.model.AbstractResourceMethod;
 import com.sun.jersey.spi.container.ResourceMethodDispatchProvider;
 import com.sun.jersey.spi.dispatch.RequestDispatcher;
 
+import org.jetbrains.annotations.Nullable;
+
 public class ReportingResourceMethodDispatchProvider implements ResourceMethodDispatchProvider {
 
   private final ResourceMethodDispatchProvider provider;
   private final MasterMetrics metrics;
+  private final long slowRequestOperations;
+  private final long slowRequestMillis;
+  private final AdmissionController admissionController;
 
   public ReportingResourceMethodDispatchProvider(final ResourceMethodDispatchProvider provider,
                                                  final MasterMetrics metrics) {
+    this(provider, metrics, 0, 0);
+  }
+
+  public ReportingResourceMethodDispatchProvider(final ResourceMethodDispatchProvider provider,
+                                                 final MasterMetrics metrics,
+                                                 final long slowRequestOperations,
+                                                 final long slowRequestMillis) {
+    this(provider, metrics, slowRequestOperations, slowRequestMillis, null);
+  }
+
+  public ReportingResourceMethodDispatchProvider(
+      final ResourceMethodDispatchProvider provider,
+      final MasterMetrics metrics,
+      final long slowRequestOperations,
+      final long slowRequestMillis,
+      @Nullable final AdmissionController admissionController) {
     this.provider = provider;
     this.metrics = metrics;
+    this.slowRequestOperations = slowRequestOperations;
+    this.slowRequestMillis = slowRequestMillis;
+    this.admissionController = admissionController;
   }
 
   @Override
   public RequestDispatcher create(final AbstractResourceMethod abstractResourceMethod) {
-    final RequestDispatcher dispatcher = provider.create(abstractResourceMethod);
-    return new ReportingResourceMethodDispatcher(dispatcher, metrics);
+    RequestDispatcher dispatcher = provider.create(abstractResourceMethod);
+    if (admissionController != null) {
+      dispatcher = new AdmissionControlledDispatcher(dispatcher, admissionController,
+                                                     abstractResourceMethod);
+    }
+    return new ReportingResourceMethodDispatcher(dispatcher, metrics, slowRequestOperations,
+                                                 slowRequestMillis);
   }
 }
@@ -19,34 +19,77 @@ package com.spotify.helios.master.metrics;
 
 import com.google.common.collect.Maps;
 
+import com.spotify.helios.servicescommon.coordination.ZooKeeperRequestStats;
 import com.spotify.helios.servicescommon.statistics.MasterMetrics;
 import com.sun.jersey.api.core.HttpContext;
 import com.sun.jersey.api.model.AbstractResourceMethod;
 import com.sun.jersey.spi.dispatch.RequestDispatcher;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MultivaluedMap;
 
+/**
+ * Reports the outcome of each resource method invocation, along with the ZooKeeper operations it
+ * performed. Requests that exceed the configured ZooKeeper operation count or duration are
+ * written to the {@value #SLOW_REQUEST_LOGGER} logger. Clients that send the
+ * {@value #ZOOKEEPER_STATS_HEADER} header get the accounting back as response headers.
+ */
 public class ReportingResourceMethodDispatcher implements RequestDispatcher {
 
+  public static final String SLOW_REQUEST_LOGGER = "com.spotify.helios.master.SlowRequests";
+
+  public static final String ZOOKEEPER_STATS_HEADER = "Helios-ZooKeeper-Stats";
+  public static final String ZOOKEEPER_OPERATIONS_HEADER = "Helios-ZooKeeper-Operations";
+  public static final String ZOOKEEPER_BYTES_READ_HEADER = "Helios-ZooKeeper-Bytes-Read";
+  public static final String ZOOKEEPER_BYTES_WRITTEN_HEADER = "Helios-ZooKeeper-Bytes-Written";
+  public static final String ZOOKEEPER_TIME_HEADER = "Helios-ZooKeeper-Time-Millis";
+
+  private static final Logger slowRequestLog = LoggerFactory.getLogger(SLOW_REQUEST_LOGGER);
+
   private final RequestDispatcher dispatcher;
   private final MasterMetrics metrics;
+  private final long slowRequestOperations;
+  private final long slowRequestMillis;
   private final ConcurrentMap<Object, String> keys = Maps.newConcurrentMap();
 
   public ReportingResourceMethodDispatcher(final RequestDispatcher dispatcher,
                                            final MasterMetrics metrics) {
+    this(dispatcher, metrics, 0, 0);
+  }
+
+  /**
+   * @param slowRequestOperations Log requests that perform more ZooKeeper operations than this.
+   *                              Zero disables the check.
+   * @param slowRequestMillis     Log requests that take longer than this. Zero disables the check.
+   */
+  public ReportingResourceMethodDispatcher(final RequestDispatcher dispatcher,
+                                           final MasterMetrics metrics,
+                                           final long slowRequestOperations,
+                                           final long slowRequestMillis) {
     this.dispatcher = dispatcher;
     this.metrics = metrics;
+    this.slowRequestOperations = slowRequestOperations;
+    this.slowRequestMillis = slowRequestMillis;
   }
 
   @Override
   public void dispatch(final Object resource, final HttpContext context) {
     final AbstractResourceMethod resourceMethod = context.getUriInfo().getMatchedMethod();
     final String key = getKey(resourceMethod);
+    final long startTime = System.nanoTime();
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.begin();
     try {
       dispatcher.dispatch(resource, context);
       metrics.success(key);
+      if (context.getRequest().getHeaderValue(ZOOKEEPER_STATS_HEADER) != null) {
+        addStatsHeaders(context.getResponse().getHttpHeaders(), stats);
+      }
     } catch (WebApplicationException e) {
       final int status = e.getResponse().getStatus();
       if (status == 404) {
@@ -60,6 +103,35 @@ public class ReportingResourceMethodDispatcher implements RequestDispatcher {
     } catch (Exception e) {
       metrics.failure(key);
       throw e;
+    } finally {
+      stats.end();
+      report(key, context, stats, System.nanoTime() - startTime);
+    }
+  }
+
+  private void addStatsHeaders(final MultivaluedMap<String, Object> headers,
+                               final ZooKeeperRequestStats stats) {
+    headers.putSingle(ZOOKEEPER_OPERATIONS_HEADER, stats.getOperations());
+    headers.putSingle(ZOOKEEPER_BYTES_READ_HEADER, stats.getBytesRead());
+    headers.putSingle(ZOOKEEPER_BYTES_WRITTEN_HEADER, stats.getBytesWritten());
+    headers.putSingle(ZOOKEEPER_TIME_HEADER, stats.getTime(TimeUnit.MILLISECONDS));
+  }
+
+  private void report(final String key, final HttpContext context,
+                      final ZooKeeperRequestStats stats, final long durationNanos) {
+    final long operations = stats.getOperations();
+    metrics.zooKeeperUsage(key, operations, stats.getBytesRead(), stats.getBytesWritten(),
+                           stats.getTime(TimeUnit.NANOSECONDS));
+
+    final long durationMillis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    if ((slowRequestOperations > 0 && operations > slowRequestOperations) ||
+        (slowRequestMillis > 0 && durationMillis > slowRequestMillis)) {
+      slowRequestLog.warn("{} {} ({}) took {} ms: {} zookeeper operations {} in {} ms, "
+                          + "{} bytes read, {} bytes written",
+                          context.getRequest().getMethod(), context.getRequest().getRequestUri(),
+                          key, durationMillis, operations, stats.getOperationCounts(),
+                          stats.getTime(TimeUnit.MILLISECONDS), stats.getBytesRead(),
+                          stats.getBytesWritten());
     }
   }
 
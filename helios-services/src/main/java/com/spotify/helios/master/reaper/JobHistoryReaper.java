@@ -20,6 +20,7 @@ package com.spotify.helios.master.reaper;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.master.MasterModel;
+import com.spotify.helios.servicescommon.coordination.DeleteProgressListener;
 import com.spotify.helios.servicescommon.coordination.Paths;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 
@@ -97,7 +98,7 @@ public class JobHistoryReaper extends RateLimitedService<String> {
     final Job job = masterModel.getJob(id);
     if (job == null) {
       try {
-        client.deleteRecursive(Paths.historyJob(id));
+        client.deleteRecursive(Paths.historyJob(id), true, DeleteProgressListener.NONE);
         log.info("Reaped job history for job {}", jobId);
       } catch (NoNodeException ignored) {
         // Something deleted the history right before we got to it. Ignore and keep going.
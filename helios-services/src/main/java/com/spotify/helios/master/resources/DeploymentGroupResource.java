@@ -36,6 +36,8 @@ import com.spotify.helios.master.DeploymentGroupDoesNotExistException;
 import com.spotify.helios.master.DeploymentGroupExistsException;
 import com.spotify.helios.master.JobDoesNotExistException;
 import com.spotify.helios.master.MasterModel;
+import com.spotify.helios.master.http.Admission;
+import com.spotify.helios.master.http.ETags;
 
 import java.util.Collections;
 import java.util.List;
@@ -49,6 +51,8 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
@@ -129,10 +133,16 @@ public class DeploymentGroupResource {
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
-  public List<String> getDeploymentGroup() {
+  public Response getDeploymentGroup(@Context final Request request) {
+    final String revision = model.getDeploymentGroupsRevision();
+    final Response notModified = ETags.notModified(request, revision);
+    if (notModified != null) {
+      return notModified;
+    }
+
     final List<String> deploymentGroups = Lists.newArrayList(model.getDeploymentGroups().keySet());
     Collections.sort(deploymentGroups);
-    return deploymentGroups;
+    return ETags.ok(deploymentGroups, revision);
   }
 
   @POST
@@ -174,6 +184,7 @@ public class DeploymentGroupResource {
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
+  @Admission(lane = Admission.Lane.READ, cost = 5)
   public Response getDeploymentGroupStatus(@PathParam("name") @Valid final String name) {
     try {
       final DeploymentGroup deploymentGroup = model.getDeploymentGroup(name);
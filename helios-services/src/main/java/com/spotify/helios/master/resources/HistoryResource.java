@@ -22,9 +22,11 @@ import com.google.common.collect.ImmutableList;
 import com.spotify.helios.common.HeliosException;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.TaskStatusEvent;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
 import com.spotify.helios.common.protocol.TaskStatusEvents;
 import com.spotify.helios.master.JobDoesNotExistException;
 import com.spotify.helios.master.MasterModel;
+import com.spotify.helios.master.http.Admission;
 import com.spotify.helios.servicescommon.statistics.MasterMetrics;
 import com.codahale.metrics.annotation.ExceptionMetered;
 import com.codahale.metrics.annotation.Timed;
@@ -36,7 +38,9 @@ import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 
+import static com.google.common.collect.Iterables.getLast;
 import static com.spotify.helios.common.protocol.TaskStatusEvents.Status.JOB_ID_NOT_FOUND;
 import static com.spotify.helios.common.protocol.TaskStatusEvents.Status.OK;
 import static com.spotify.helios.master.http.Responses.badRequest;
@@ -53,8 +57,17 @@ public class HistoryResource {
   }
 
   /**
-   * Returns the {@link TaskStatusEvents} for the specified job.
+   * Returns the {@link TaskStatusEvents} for the specified job, oldest first.
+   *
+   * <p>The result can be narrowed down to a host and a time range, and paged through by passing a
+   * limit and the {@link TaskStatusEvents#getNextCursor()} of the previous page as cursor.
+   *
    * @param jobId The ID of the job.
+   * @param host Only return events on this host.
+   * @param since Only return events at or after this time, in milliseconds since the epoch.
+   * @param until Only return events before this time, in milliseconds since the epoch.
+   * @param limit Return at most this many events.
+   * @param cursor Only return events after the position of this cursor.
    * @return The history of the jobs.
    * @throws HeliosException If an unexpected error occurs.
    */
@@ -63,16 +76,44 @@ public class HistoryResource {
   @Path("jobs/{id}")
   @Timed
   @ExceptionMetered
-  public TaskStatusEvents jobHistory(@PathParam("id") @Valid final JobId jobId)
+  @Admission(lane = Admission.Lane.READ, cost = 5)
+  public TaskStatusEvents jobHistory(@PathParam("id") @Valid final JobId jobId,
+                                     @QueryParam("host") final String host,
+                                     @QueryParam("since") final Long since,
+                                     @QueryParam("until") final Long until,
+                                     @QueryParam("limit") final Integer limit,
+                                     @QueryParam("cursor") final String cursor)
       throws HeliosException {
     if (!jobId.isFullyQualified()) {
       throw badRequest("Invalid id");
     }
+    if (limit != null && (limit <= 0 || limit == Integer.MAX_VALUE)) {
+      throw badRequest("Invalid limit");
+    }
+
+    final JobHistoryQuery query;
+    try {
+      query = JobHistoryQuery.newBuilder()
+          .setHost(host)
+          .setSince(since)
+          .setUntil(until)
+          // Ask for one more event than the limit to tell whether there is a next page
+          .setLimit(limit == null ? null : limit + 1)
+          .setCursor(cursor)
+          .build();
+    } catch (IllegalArgumentException e) {
+      throw badRequest(e.getMessage());
+    }
+
     try {
-      final List<TaskStatusEvent> events = model.getJobHistory(jobId);
+      final List<TaskStatusEvent> events = model.getJobHistory(jobId, query);
+      if (limit != null && events.size() > limit) {
+        final List<TaskStatusEvent> page = events.subList(0, limit);
+        metrics.jobsHistoryEventSize(page.size());
+        return new TaskStatusEvents(page, OK, JobHistoryQuery.cursor(getLast(page)));
+      }
       metrics.jobsHistoryEventSize(events.size());
-      final TaskStatusEvents result = new TaskStatusEvents(events, OK);
-      return result;
+      return new TaskStatusEvents(events, OK);
     } catch (JobDoesNotExistException e) {
       return new TaskStatusEvents(ImmutableList.<TaskStatusEvent>of(), JOB_ID_NOT_FOUND);
     }
@@ -46,6 +46,8 @@ import com.spotify.helios.master.JobNotDeployedException;
 import com.spotify.helios.master.JobPortAllocationConflictException;
 import com.spotify.helios.master.MasterModel;
 import com.spotify.helios.master.TokenVerificationException;
+import com.spotify.helios.master.http.Admission;
+import com.spotify.helios.master.http.ETags;
 import com.spotify.helios.master.http.PATCH;
 import com.spotify.helios.master.HostMatcher;
 
@@ -74,6 +76,8 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 @Path("/hosts")
@@ -88,14 +92,27 @@ public class HostsResource {
 
   /**
    * Returns the list of hostnames of known hosts/agents.
+   *
+   * <p>Unless host selectors are given, the response carries an ETag, and a request with a
+   * matching {@code If-None-Match} header is answered with 304 Not Modified without listing the
+   * hosts. Selectors match on host labels, which the revision doesn't cover.
+   *
    * @return The list of hostnames.
    */
   @GET
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
-  public List<String> list(@QueryParam("namePattern") final String namePattern,
-                           @QueryParam("selector") final List<String> hostSelectors) {
+  @Admission(lane = Admission.Lane.READ, cost = 5)
+  public Response list(@QueryParam("namePattern") final String namePattern,
+                       @QueryParam("selector") final List<String> hostSelectors,
+                       @Context final Request request) {
+
+    final String revision = hostSelectors.isEmpty() ? model.getHostsRevision() : null;
+    final Response notModified = ETags.notModified(request, revision);
+    if (notModified != null) {
+      return notModified;
+    }
 
     List<String> hosts = model.listHosts();
 
@@ -132,7 +149,7 @@ public class HostsResource {
       hosts = matcher.getMatchingHosts(selectors);
     }
 
-    return hosts;
+    return ETags.ok(hosts, revision);
   }
 
   /**
@@ -217,6 +234,7 @@ public class HostsResource {
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
+  @Admission(lane = Admission.Lane.READ, cost = 10)
   public Map<String, HostStatus> hostStatuses(
       final List<String> hosts,
       @QueryParam("status") @DefaultValue("") final String statusFilter) {
@@ -26,16 +26,30 @@ import com.codahale.metrics.annotation.Timed;
 import com.spotify.helios.common.Clock;
 import com.spotify.helios.common.JobValidator;
 import com.spotify.helios.common.SystemClock;
+import com.spotify.helios.common.HeliosException;
+import com.spotify.helios.common.descriptors.Deployment;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.JobStatus;
+import com.spotify.helios.common.protocol.BulkDeployRequest;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
+import com.spotify.helios.common.protocol.BulkUndeployResponse;
 import com.spotify.helios.common.protocol.CreateJobResponse;
 import com.spotify.helios.common.protocol.JobDeleteResponse;
+import com.spotify.helios.common.protocol.JobDeployResponse;
+import com.spotify.helios.common.protocol.JobListQuery;
+import com.spotify.helios.common.protocol.JobUndeployResponse;
+import com.spotify.helios.master.HostNotFoundException;
+import com.spotify.helios.master.JobAlreadyDeployedException;
 import com.spotify.helios.master.JobDoesNotExistException;
 import com.spotify.helios.master.JobExistsException;
+import com.spotify.helios.master.JobNotDeployedException;
+import com.spotify.helios.master.JobPortAllocationConflictException;
 import com.spotify.helios.master.JobStillDeployedException;
 import com.spotify.helios.master.MasterModel;
 import com.spotify.helios.master.TokenVerificationException;
+import com.spotify.helios.master.http.Admission;
+import com.spotify.helios.master.http.ETags;
 import com.spotify.helios.servicescommon.statistics.MasterMetrics;
 import com.sun.jersey.api.core.InjectParam;
 
@@ -43,6 +57,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -51,11 +66,16 @@ import javax.ws.rs.DELETE;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
 
+import static com.spotify.helios.common.descriptors.Job.EMPTY_TOKEN;
 import static com.spotify.helios.common.protocol.CreateJobResponse.Status.INVALID_JOB_DEFINITION;
 import static com.spotify.helios.common.protocol.CreateJobResponse.Status.JOB_ALREADY_EXISTS;
 import static com.spotify.helios.master.http.Responses.badRequest;
@@ -84,36 +104,64 @@ public class JobsResource {
   /**
    * Returns a {@link Map} of job id to job definition for all jobs known.  If the query
    * parameter {@code q} is specified it will only return jobs whose job id contains the string.
+   * The listing can be narrowed to an exact job name or a name prefix, and paged by passing a
+   * {@code limit} and, for the following pages, the last job id returned as {@code cursor}.
+   * With {@code idsOnly} only a sorted list of the matching job ids is returned.
+   *
+   * <p>The response carries an ETag, and a request with a matching {@code If-None-Match}
+   * header is answered with 304 Not Modified without reading the jobs.
    *
    * @param q The query string.
-   * @return A map of Job IDs to Jobs.
+   * @param name Only return jobs with exactly this name.
+   * @param namePrefix Only return jobs whose name starts with this prefix.
+   * @param limit The maximum number of jobs to return.
+   * @param cursor Only return jobs ordered after this job id.
+   * @param idsOnly Whether to return only the job ids.
+   * @param request The request.
+   * @return A map of Job IDs to Jobs, or a list of Job IDs.
    */
   @GET
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
-  public Map<JobId, Job> list(@QueryParam("q") @DefaultValue("") final String q) {
-    final Map<JobId, Job> allJobs = model.getJobs();
+  @Admission(lane = Admission.Lane.READ, cost = 5)
+  public Response list(@QueryParam("q") @DefaultValue("") final String q,
+                       @QueryParam("name") @DefaultValue("") final String name,
+                       @QueryParam("namePrefix") @DefaultValue("") final String namePrefix,
+                       @QueryParam("limit") final Integer limit,
+                       @QueryParam("cursor") @DefaultValue("") final String cursor,
+                       @QueryParam("idsOnly") @DefaultValue("false") final boolean idsOnly,
+                       @Context final Request request) {
+    final JobListQuery query;
+    try {
+      query = JobListQuery.newBuilder()
+          .setQ(q)
+          .setName(name)
+          .setNamePrefix(namePrefix)
+          .setLimit(limit)
+          .setCursor(cursor)
+          .build();
+    } catch (IllegalArgumentException e) {
+      throw badRequest(e.getMessage());
+    }
 
-    // Return all jobs if the query string is empty
-    if (q.isEmpty()) {
-      metrics.jobsInJobList(allJobs.size());
-      return allJobs;
+    final String revision = model.getJobsRevision();
+    final Response notModified = ETags.notModified(request, revision);
+    if (notModified != null) {
+      return notModified;
     }
 
-    // Filter jobs
-    final Map<JobId, Job> filteredJobs = Maps.newHashMap();
-    for (final Map.Entry<JobId, Job> entry : allJobs.entrySet()) {
-      if (entry.getKey().toString().contains(q)) {
-        filteredJobs.put(entry.getKey(), entry.getValue());
-      }
+    if (idsOnly) {
+      final List<JobId> ids = model.getJobIds(query, revision);
+      metrics.jobsInJobList(ids.size());
+      return ETags.ok(ids, revision);
     }
 
-    metrics.jobsInJobList(filteredJobs.size());
-    return filteredJobs;
+    final Map<JobId, Job> jobs = model.getJobs(query, revision);
+    metrics.jobsInJobList(jobs.size());
+    return ETags.ok(jobs, revision);
   }
 
-
   /**
    * Returns the {@link Job} with the given id.
    *
@@ -197,6 +245,123 @@ public class JobsResource {
     }
   }
 
+  /**
+   * Deploys the job to all of the given hosts. The job is read once and the deployments are
+   * committed in batched transactions, which is a lot cheaper than deploying to each host with
+   * {@link HostsResource#jobPut}.
+   *
+   * @param id The job to deploy.
+   * @param request The deployment and the hosts to deploy it to.
+   * @param username The user deploying.
+   * @param token The authorization token for this deployment.
+   * @return The outcome for each host.
+   */
+  @Path("{id}/hosts")
+  @PUT
+  @Produces(APPLICATION_JSON)
+  @Timed
+  @ExceptionMetered
+  public BulkDeployResponse deployHosts(
+      @PathParam("id") @Valid final JobId id,
+      @Valid final BulkDeployRequest request,
+      @RequestUser final String username,
+      @QueryParam("token") @DefaultValue(EMPTY_TOKEN) final String token) {
+    if (!id.isFullyQualified()) {
+      throw badRequest(new BulkDeployResponse(JobDeployResponse.Status.INVALID_ID, id, null));
+    }
+    if (request == null || request.getDeployment() == null || request.getHosts() == null) {
+      throw badRequest("Missing deployment or hosts");
+    }
+    if (!id.equals(request.getDeployment().getJobId())) {
+      throw badRequest(new BulkDeployResponse(JobDeployResponse.Status.ID_MISMATCH, id, null));
+    }
+    final Deployment deployment = request.getDeployment().toBuilder()
+        .setDeployerUser(username)
+        .build();
+    try {
+      final Map<String, HeliosException> failures =
+          model.deployJob(request.getHosts(), deployment, token);
+      final Map<String, JobDeployResponse.Status> hosts = Maps.newLinkedHashMap();
+      for (final String host : request.getHosts()) {
+        hosts.put(host, deployStatus(failures.get(host)));
+      }
+      return new BulkDeployResponse(JobDeployResponse.Status.OK, id, hosts);
+    } catch (JobDoesNotExistException e) {
+      throw badRequest(new BulkDeployResponse(JobDeployResponse.Status.JOB_NOT_FOUND, id, null));
+    } catch (TokenVerificationException e) {
+      throw forbidden(new BulkDeployResponse(JobDeployResponse.Status.FORBIDDEN, id, null));
+    }
+  }
+
+  /**
+   * Undeploys the job from all of the given hosts, committing the removals in batched
+   * transactions. This is a POST because some HTTP clients and proxies drop DELETE bodies.
+   *
+   * @param id The job to undeploy.
+   * @param hostNames The hosts to undeploy it from.
+   * @param token The authorization token for this job.
+   * @return The outcome for each host.
+   */
+  @Path("{id}/hosts/undeploy")
+  @POST
+  @Produces(APPLICATION_JSON)
+  @Timed
+  @ExceptionMetered
+  public BulkUndeployResponse undeployHosts(
+      @PathParam("id") @Valid final JobId id,
+      final List<String> hostNames,
+      @QueryParam("token") @DefaultValue(EMPTY_TOKEN) final String token) {
+    if (!id.isFullyQualified()) {
+      throw badRequest(new BulkUndeployResponse(JobUndeployResponse.Status.INVALID_ID, id, null));
+    }
+    if (hostNames == null) {
+      throw badRequest("Missing hosts");
+    }
+    try {
+      final Map<String, HeliosException> failures = model.undeployJob(hostNames, id, token);
+      final Map<String, JobUndeployResponse.Status> hosts = Maps.newLinkedHashMap();
+      for (final String host : hostNames) {
+        hosts.put(host, undeployStatus(failures.get(host)));
+      }
+      return new BulkUndeployResponse(JobUndeployResponse.Status.OK, id, hosts);
+    } catch (JobDoesNotExistException e) {
+      throw badRequest(new BulkUndeployResponse(JobUndeployResponse.Status.JOB_NOT_FOUND, id,
+                                                null));
+    } catch (TokenVerificationException e) {
+      throw forbidden(new BulkUndeployResponse(JobUndeployResponse.Status.FORBIDDEN, id, null));
+    }
+  }
+
+  private static JobDeployResponse.Status deployStatus(final HeliosException failure) {
+    if (failure == null) {
+      return JobDeployResponse.Status.OK;
+    } else if (failure instanceof HostNotFoundException) {
+      return JobDeployResponse.Status.HOST_NOT_FOUND;
+    } else if (failure instanceof JobAlreadyDeployedException) {
+      return JobDeployResponse.Status.JOB_ALREADY_DEPLOYED;
+    } else if (failure instanceof JobPortAllocationConflictException) {
+      return JobDeployResponse.Status.PORT_CONFLICT;
+    } else if (failure instanceof JobDoesNotExistException) {
+      return JobDeployResponse.Status.JOB_NOT_FOUND;
+    } else if (failure instanceof TokenVerificationException) {
+      return JobDeployResponse.Status.FORBIDDEN;
+    }
+    return JobDeployResponse.Status.FAILED;
+  }
+
+  private static JobUndeployResponse.Status undeployStatus(final HeliosException failure) {
+    if (failure == null) {
+      return JobUndeployResponse.Status.OK;
+    } else if (failure instanceof HostNotFoundException) {
+      return JobUndeployResponse.Status.HOST_NOT_FOUND;
+    } else if (failure instanceof JobNotDeployedException) {
+      return JobUndeployResponse.Status.JOB_NOT_FOUND;
+    } else if (failure instanceof TokenVerificationException) {
+      return JobUndeployResponse.Status.FORBIDDEN;
+    }
+    return JobUndeployResponse.Status.FAILED;
+  }
+
   /**
    * Returns the job status for the given job id.  The job status includes things like where it's
    * deployed, and the status of the jobs where it's deployed, etc.
@@ -221,6 +386,7 @@ public class JobsResource {
   @Produces(APPLICATION_JSON)
   @Timed
   @ExceptionMetered
+  @Admission(lane = Admission.Lane.READ, cost = 10)
   public Map<JobId, JobStatus> jobStatuses(@Valid final Set<JobId> ids) {
     for (final JobId id : ids) {
       if (!id.isFullyQualified()) {
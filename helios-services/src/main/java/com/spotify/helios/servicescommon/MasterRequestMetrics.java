@@ -18,8 +18,12 @@
 package com.spotify.helios.servicescommon;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
@@ -36,6 +40,11 @@ public class MasterRequestMetrics {
   private final Meter failureMeter;
   private final Meter userErrorMeter;
 
+  private final Histogram zooKeeperOperations;
+  private final Histogram zooKeeperBytesRead;
+  private final Histogram zooKeeperBytesWritten;
+  private final Timer zooKeeperTimer;
+
   public MasterRequestMetrics(String group, String type, String requestName,
                               final MetricRegistry registry) {
     final String prefix = name(group, type, requestName);
@@ -47,6 +56,11 @@ public class MasterRequestMetrics {
     successMeter = registry.meter(prefix + "_meter_success");
     failureMeter = registry.meter(prefix + "_meter_failures");
     userErrorMeter = registry.meter(prefix + "_meter_usererror");
+
+    zooKeeperOperations = registry.histogram(prefix + "_zookeeper_operations");
+    zooKeeperBytesRead = registry.histogram(prefix + "_zookeeper_bytes_read");
+    zooKeeperBytesWritten = registry.histogram(prefix + "_zookeeper_bytes_written");
+    zooKeeperTimer = registry.timer(prefix + "_zookeeper_time");
   }
 
   public void success() {
@@ -64,6 +78,17 @@ public class MasterRequestMetrics {
     userErrorMeter.mark();
   }
 
+  /**
+   * Record the ZooKeeper operations a single request performed.
+   */
+  public void zooKeeperUsage(final long operations, final long bytesRead, final long bytesWritten,
+                             final long durationNanos) {
+    zooKeeperOperations.update(operations);
+    zooKeeperBytesRead.update(bytesRead);
+    zooKeeperBytesWritten.update(bytesWritten);
+    zooKeeperTimer.update(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
   public Counter getSuccessCounter() {
     return successCounter;
   }
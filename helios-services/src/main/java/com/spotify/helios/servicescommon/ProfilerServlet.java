@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon;
+
+import com.spotify.helios.common.Json;
+import com.spotify.helios.servicescommon.SamplingProfiler.Mode;
+import com.spotify.helios.servicescommon.SamplingProfiler.Profile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Admin endpoint that runs a {@link SamplingProfiler} for a bounded time and responds with the
+ * hot stacks, hot frames, allocation hotspots and json traffic it saw, as json. Takes the query
+ * parameters {@code seconds} (default 10, at most 60), {@code intervalMillis} (default 20, at
+ * least 10), {@code mode} ({@code cpu} or {@code wall}, default {@code cpu}) and {@code top}
+ * (default 20, at most 200). Only one profile runs at a time; concurrent requests get a 409.
+ */
+public class ProfilerServlet extends HttpServlet {
+
+  private static final Logger log = LoggerFactory.getLogger(ProfilerServlet.class);
+
+  private static final int DEFAULT_SECONDS = 10;
+  private static final int MAX_SECONDS = 60;
+  private static final int DEFAULT_INTERVAL_MILLIS = 20;
+  private static final int MIN_INTERVAL_MILLIS = 10;
+  private static final int DEFAULT_TOP = 20;
+  private static final int MAX_TOP = 200;
+
+  private final SamplingProfiler profiler;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  public ProfilerServlet() {
+    this(new SamplingProfiler());
+  }
+
+  public ProfilerServlet(final SamplingProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  protected void doGet(final HttpServletRequest req, final HttpServletResponse resp)
+      throws IOException {
+    final int seconds;
+    final int intervalMillis;
+    final int top;
+    final Mode mode;
+    try {
+      seconds = intParameter(req, "seconds", DEFAULT_SECONDS, 1, MAX_SECONDS);
+      intervalMillis = intParameter(req, "intervalMillis", DEFAULT_INTERVAL_MILLIS,
+                                    MIN_INTERVAL_MILLIS, seconds * 1000);
+      top = intParameter(req, "top", DEFAULT_TOP, 1, MAX_TOP);
+      final String modeParameter = req.getParameter("mode");
+      mode = modeParameter == null ? Mode.CPU : Mode.valueOf(modeParameter.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      resp.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+      return;
+    }
+
+    if (!running.compareAndSet(false, true)) {
+      resp.sendError(HttpServletResponse.SC_CONFLICT, "a profile is already running");
+      return;
+    }
+
+    final Profile profile;
+    try {
+      log.info("profiling for {}s every {}ms in {} mode", seconds, intervalMillis, mode);
+      profile = profiler.profile(TimeUnit.SECONDS.toMillis(seconds), intervalMillis,
+                                 TimeUnit.MILLISECONDS, mode, top);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      resp.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "interrupted");
+      return;
+    } finally {
+      running.set(false);
+    }
+
+    resp.setContentType("application/json");
+    resp.getOutputStream().write(Json.asPrettyStringUnchecked(profile).getBytes("UTF-8"));
+  }
+
+  private static int intParameter(final HttpServletRequest req, final String name,
+                                  final int defaultValue, final int min, final int max) {
+    final String value = req.getParameter(name);
+    if (value == null) {
+      return defaultValue;
+    }
+    final int parsed = Integer.parseInt(value);
+    if (parsed < min || parsed > max) {
+      throw new IllegalArgumentException(
+          String.format("%s must be between %d and %d", name, min, max));
+    }
+    return parsed;
+  }
+}
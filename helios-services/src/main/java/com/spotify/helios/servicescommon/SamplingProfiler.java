@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.spotify.helios.common.JsonStatistics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Samples the stacks of all threads in this JVM at a fixed interval for a bounded time, and
+ * reports the most frequently seen stacks and top frames. When the JVM can measure how many bytes
+ * each thread allocates, the bytes a thread allocated between two samples are attributed to the
+ * frame it was running at the second sample, which approximates where allocation happens.
+ *
+ * <p>Each sample is a single {@link ThreadMXBean#getThreadInfo(long[], int)} call without lock
+ * information, limited to {@link #MAX_STACK_DEPTH} frames. At most {@link #MAX_STACKS} distinct
+ * stacks are kept; samples of further stacks only count towards their top frame.
+ */
+public class SamplingProfiler {
+
+  public static final int MAX_STACK_DEPTH = 64;
+  public static final int MAX_STACKS = 10000;
+
+  /**
+   * Which threads to sample.
+   */
+  public enum Mode {
+    /** Only threads that are running, to find where CPU time goes. */
+    CPU,
+    /** All threads, including blocked and waiting ones, to find where wall clock time goes. */
+    WALL
+  }
+
+  private final ThreadMXBean threads;
+
+  public SamplingProfiler() {
+    this(ManagementFactory.getThreadMXBean());
+  }
+
+  public SamplingProfiler(final ThreadMXBean threads) {
+    this.threads = threads;
+  }
+
+  /**
+   * Sample on the calling thread until the duration has passed.
+   *
+   * @param duration How long to sample for.
+   * @param interval How long to wait between samples.
+   * @param unit The unit of {@code duration} and {@code interval}.
+   * @param mode Which threads to sample.
+   * @param top How many stacks and frames to report in each list.
+   * @return The profile.
+   * @throws InterruptedException If interrupted while waiting for the next sample.
+   */
+  public Profile profile(final long duration, final long interval, final TimeUnit unit,
+                         final Mode mode, final int top) throws InterruptedException {
+    checkArgument(duration > 0, "duration must be positive");
+    checkArgument(interval > 0, "interval must be positive");
+    checkArgument(top > 0, "top must be positive");
+
+    final Map<String, JsonStatistics.Counts> jsonBefore = JsonStatistics.snapshot();
+    final Sampler sampler = new Sampler(mode);
+    final long start = System.nanoTime();
+    final long deadline = start + unit.toNanos(duration);
+    while (System.nanoTime() < deadline) {
+      sampler.sample();
+      unit.sleep(interval);
+    }
+
+    return new Profile(mode, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                       unit.toMillis(interval), sampler.samples, sampler.droppedStacks,
+                       top(sampler.stacks, top, e -> new StackCount(e.getValue(), e.getKey())),
+                       top(sampler.frames, top, e -> new FrameCount(e.getKey(), e.getValue())),
+                       top(sampler.allocated, top, e -> new FrameCount(e.getKey(), e.getValue())),
+                       jsonSince(jsonBefore));
+  }
+
+  private static <K, T> List<T> top(final Map<K, Long> counts, final int top,
+                                    final Function<Map.Entry<K, Long>, T> f) {
+    return counts.entrySet().stream()
+        .sorted(Map.Entry.<K, Long>comparingByValue(Comparator.reverseOrder()))
+        .limit(top)
+        .map(f)
+        .collect(Collectors.toList());
+  }
+
+  private static Map<String, JsonStatistics.Counts> jsonSince(
+      final Map<String, JsonStatistics.Counts> before) {
+    final Map<String, JsonStatistics.Counts> since = Maps.newTreeMap();
+    for (final Map.Entry<String, JsonStatistics.Counts> entry
+        : JsonStatistics.snapshot().entrySet()) {
+      final JsonStatistics.Counts earlier = before.get(entry.getKey());
+      final JsonStatistics.Counts delta = earlier == null
+                                          ? entry.getValue()
+                                          : entry.getValue().minus(earlier);
+      if (delta.getParsed() > 0 || delta.getSerialized() > 0) {
+        since.put(entry.getKey(), delta);
+      }
+    }
+    return since;
+  }
+
+  private class Sampler {
+
+    private final Mode mode;
+    private final long self = Thread.currentThread().getId();
+    private final com.sun.management.ThreadMXBean allocations;
+    private final Map<List<String>, Long> stacks = Maps.newHashMap();
+    private final Map<String, Long> frames = Maps.newHashMap();
+    private final Map<String, Long> allocated = Maps.newHashMap();
+    private final Map<Long, Long> lastAllocated = Maps.newHashMap();
+    private long samples;
+    private long droppedStacks;
+
+    private Sampler(final Mode mode) {
+      this.mode = mode;
+      this.allocations = allocationsBean(threads);
+    }
+
+    private void sample() {
+      final long[] ids = threads.getAllThreadIds();
+      final ThreadInfo[] infos = threads.getThreadInfo(ids, MAX_STACK_DEPTH);
+      final long[] bytes = allocations == null ? null : allocations.getThreadAllocatedBytes(ids);
+      samples++;
+
+      for (int i = 0; i < ids.length; i++) {
+        final ThreadInfo info = infos[i];
+        if (ids[i] == self || info == null || info.getStackTrace().length == 0) {
+          continue;
+        }
+        final StackTraceElement[] trace = info.getStackTrace();
+        final String topFrame = trace[0].toString();
+
+        if (bytes != null && bytes[i] >= 0) {
+          final Long last = lastAllocated.put(ids[i], bytes[i]);
+          if (last != null && bytes[i] > last) {
+            allocated.merge(topFrame, bytes[i] - last, Long::sum);
+          }
+        }
+
+        if (mode == Mode.CPU && info.getThreadState() != Thread.State.RUNNABLE) {
+          continue;
+        }
+        frames.merge(topFrame, 1L, Long::sum);
+
+        final List<String> stack = Arrays.stream(trace)
+            .map(StackTraceElement::toString)
+            .collect(Collectors.toList());
+        if (stacks.containsKey(stack) || stacks.size() < MAX_STACKS) {
+          stacks.merge(stack, 1L, Long::sum);
+        } else {
+          droppedStacks++;
+        }
+      }
+    }
+  }
+
+  private static com.sun.management.ThreadMXBean allocationsBean(final ThreadMXBean threads) {
+    if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+    final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threads;
+    if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+      return null;
+    }
+    return bean;
+  }
+
+  /**
+   * What a profile found. Serializes to json.
+   */
+  public static class Profile {
+
+    private final Mode mode;
+    private final long durationMillis;
+    private final long intervalMillis;
+    private final long samples;
+    private final long droppedStacks;
+    private final List<StackCount> hotStacks;
+    private final List<FrameCount> hotFrames;
+    private final List<FrameCount> allocationHotspots;
+    private final Map<String, JsonStatistics.Counts> json;
+
+    public Profile(final Mode mode, final long durationMillis, final long intervalMillis,
+                   final long samples, final long droppedStacks,
+                   final List<StackCount> hotStacks, final List<FrameCount> hotFrames,
+                   final List<FrameCount> allocationHotspots,
+                   final Map<String, JsonStatistics.Counts> json) {
+      this.mode = mode;
+      this.durationMillis = durationMillis;
+      this.intervalMillis = intervalMillis;
+      this.samples = samples;
+      this.droppedStacks = droppedStacks;
+      this.hotStacks = ImmutableList.copyOf(hotStacks);
+      this.hotFrames = ImmutableList.copyOf(hotFrames);
+      this.allocationHotspots = ImmutableList.copyOf(allocationHotspots);
+      this.json = json;
+    }
+
+    public Mode getMode() {
+      return mode;
+    }
+
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    public long getIntervalMillis() {
+      return intervalMillis;
+    }
+
+    public long getSamples() {
+      return samples;
+    }
+
+    /** Samples whose stack was not counted because {@link #MAX_STACKS} were already kept. */
+    public long getDroppedStacks() {
+      return droppedStacks;
+    }
+
+    /** The most frequently sampled stacks, innermost frame first. */
+    public List<StackCount> getHotStacks() {
+      return hotStacks;
+    }
+
+    /** The most frequently sampled innermost frames. */
+    public List<FrameCount> getHotFrames() {
+      return hotFrames;
+    }
+
+    /** The frames to which the most allocated bytes were attributed. */
+    public List<FrameCount> getAllocationHotspots() {
+      return allocationHotspots;
+    }
+
+    /** Json documents and bytes parsed and serialized during the profile, by type. */
+    public Map<String, JsonStatistics.Counts> getJson() {
+      return json;
+    }
+  }
+
+  public static class StackCount {
+
+    private final long samples;
+    private final List<String> frames;
+
+    public StackCount(final long samples, final List<String> frames) {
+      this.samples = samples;
+      this.frames = frames;
+    }
+
+    public long getSamples() {
+      return samples;
+    }
+
+    public List<String> getFrames() {
+      return frames;
+    }
+  }
+
+  /**
+   * A frame and either the number of samples it was seen in or the bytes attributed to it.
+   */
+  public static class FrameCount {
+
+    private final String frame;
+    private final long count;
+
+    public FrameCount(final String frame, final long count) {
+      this.frame = frame;
+      this.count = count;
+    }
+
+    public String getFrame() {
+      return frame;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
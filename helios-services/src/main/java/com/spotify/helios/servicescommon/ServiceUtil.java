@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableList;
 import io.dropwizard.jetty.ConnectorFactory;
 import io.dropwizard.jetty.HttpConnectorFactory;
 import io.dropwizard.server.DefaultServerFactory;
+import io.dropwizard.setup.Environment;
 
 import java.net.InetSocketAddress;
 import java.util.Collections;
@@ -47,4 +48,14 @@ public class ServiceUtil {
     }
     return serverFactory;
   }
+
+  /**
+   * Serve a sampling profiler at /profile and json parse and serialize counts at
+   * /json-statistics on the admin connector.
+   */
+  public static void addProfilingServlets(final Environment environment) {
+    environment.admin().addServlet("profile", new ProfilerServlet()).addMapping("/profile");
+    environment.admin().addServlet("json-statistics", new JsonStatisticsServlet())
+        .addMapping("/json-statistics");
+  }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Shares one in-progress computation among concurrent callers asking for the same key. The first
+ * caller for a key computes the value on its own thread, and callers arriving while it does so
+ * wait for and receive the same value, or the same exception.
+ *
+ * <p>If a window is set, a successfully computed value is also handed out to callers arriving up
+ * to that long after it was computed. {@link #invalidate()} forgets all computations, in progress
+ * or finished, so that callers arriving afterwards compute afresh.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+public class SingleFlight<K, V> {
+
+  /**
+   * Computes a value, possibly throwing a checked exception.
+   */
+  @FunctionalInterface
+  public interface Loader<V, E extends Exception> {
+    V load() throws E;
+  }
+
+  /**
+   * Told whether each call was served by another caller's computation.
+   */
+  public interface Listener {
+    void hit();
+
+    void miss();
+  }
+
+  private static final Listener NOOP_LISTENER = new Listener() {
+    @Override
+    public void hit() {}
+
+    @Override
+    public void miss() {}
+  };
+
+  private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+  private final long windowNanos;
+  private final Ticker ticker;
+  private final Listener listener;
+
+  public SingleFlight() {
+    this(0, TimeUnit.MILLISECONDS, NOOP_LISTENER, Ticker.systemTicker());
+  }
+
+  public SingleFlight(final long window, final TimeUnit unit, final Listener listener) {
+    this(window, unit, listener, Ticker.systemTicker());
+  }
+
+  public SingleFlight(final long window, final TimeUnit unit, final Listener listener,
+                      final Ticker ticker) {
+    checkArgument(window >= 0, "window must not be negative");
+    this.windowNanos = unit.toNanos(window);
+    this.listener = listener;
+    this.ticker = ticker;
+  }
+
+  /**
+   * Get the value for a key, computing it with the loader unless a computation for the key is in
+   * progress or, if a window is set, finished recently enough.
+   */
+  public <E extends Exception> V get(final K key, final Loader<V, E> loader) throws E {
+    while (true) {
+      final Flight<V> existing = flights.get(key);
+      if (existing != null && isUsable(existing)) {
+        listener.hit();
+        return await(existing);
+      }
+
+      final Flight<V> flight = new Flight<>();
+      final boolean won = existing == null
+                          ? flights.putIfAbsent(key, flight) == null
+                          : flights.replace(key, existing, flight);
+      if (won) {
+        listener.miss();
+        return run(key, flight, loader);
+      }
+    }
+  }
+
+  /**
+   * Forget all computations, so that callers arriving after this returns compute afresh. Callers
+   * already waiting for a computation still receive its result.
+   */
+  public void invalidate() {
+    flights.clear();
+  }
+
+  private boolean isUsable(final Flight<V> flight) {
+    if (!flight.future.isDone()) {
+      return true;
+    }
+    return windowNanos > 0
+           && !flight.future.isCompletedExceptionally()
+           && ticker.read() - flight.completedAt < windowNanos;
+  }
+
+  private <E extends Exception> V run(final K key, final Flight<V> flight,
+                                      final Loader<V, E> loader) throws E {
+    boolean keep = false;
+    try {
+      final V value = loader.load();
+      flight.completedAt = ticker.read();
+      flight.future.complete(value);
+      keep = windowNanos > 0;
+      return value;
+    } catch (Throwable t) {
+      flight.future.completeExceptionally(t);
+      throw t;
+    } finally {
+      if (!keep) {
+        flights.remove(key, flight);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private <E extends Exception> V await(final Flight<V> flight) throws E {
+    try {
+      return Uninterruptibles.getUninterruptibly(flight.future);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      // All callers for a key pass loaders throwing the same exception type
+      throw (E) cause;
+    }
+  }
+
+  private static class Flight<V> {
+    private final CompletableFuture<V> future = new CompletableFuture<>();
+    private volatile long completedAt;
+  }
+}
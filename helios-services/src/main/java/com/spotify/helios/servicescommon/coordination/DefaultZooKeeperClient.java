@@ -17,9 +17,15 @@
 
 package com.spotify.helios.servicescommon.coordination;
 
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+
 import com.fasterxml.jackson.databind.JavaType;
 
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.BackgroundCallback;
+import org.apache.curator.framework.api.CuratorEvent;
 import org.apache.curator.framework.api.transaction.CuratorTransactionFinal;
 import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
 import org.apache.curator.framework.imps.CuratorFrameworkState;
@@ -43,8 +49,8 @@ import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
@@ -52,8 +58,8 @@ import static com.google.common.base.Strings.emptyToNull;
 import static com.google.common.base.Throwables.propagate;
 import static com.google.common.base.Throwables.propagateIfInstanceOf;
 import static com.google.common.collect.Lists.newArrayList;
-import static com.google.common.collect.Lists.newLinkedList;
 import static com.google.common.collect.Lists.reverse;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 
@@ -61,6 +67,25 @@ public class DefaultZooKeeperClient implements ZooKeeperClient {
 
   private static final Logger log = LoggerFactory.getLogger(DefaultZooKeeperClient.class);
 
+  /**
+   * How many getChildren calls a tree walk keeps in flight at once.
+   */
+  private static final int WALK_PARALLELISM = 16;
+
+  /**
+   * Bounds on the size of each multi-op of a recursive delete. ZooKeeper rejects requests larger
+   * than jute.maxbuffer, which defaults to 1 MB.
+   */
+  private static final int MAX_DELETE_BATCH_OPS = 1000;
+  private static final int MAX_DELETE_BATCH_BYTES = 512 * 1024;
+  private static final int DELETE_OP_OVERHEAD_BYTES = 32;
+
+  /**
+   * How many times a resumable recursive delete walks the subtree again after it was modified
+   * while being deleted.
+   */
+  private static final int MAX_DELETE_ATTEMPTS = 10;
+
   private final CuratorFramework client;
   private final String clusterId;
   private final AtomicBoolean clusterIdExists;
@@ -239,48 +264,190 @@ public class DefaultZooKeeperClient implements ZooKeeperClient {
     }
   }
 
+  @Override
+  public ListenableFuture<Node> getNodeAsync(final String path) {
+    final SettableFuture<Node> future = SettableFuture.create();
+    try {
+      assertClusterIdFlagTrue();
+      client.getData().inBackground(new BackgroundCallback() {
+        @Override
+        public void processResult(final CuratorFramework client, final CuratorEvent event) {
+          if (completeExceptionally(future, event)) {
+            return;
+          }
+          future.set(new Node(path, event.getData(), event.getStat()));
+        }
+      }).forPath(path);
+    } catch (Exception e) {
+      future.setException(e);
+    }
+    return future;
+  }
+
+  @Override
+  public ListenableFuture<List<String>> getChildrenAsync(final String path) {
+    final SettableFuture<List<String>> future = SettableFuture.create();
+    try {
+      assertClusterIdFlagTrue();
+      client.getChildren().inBackground(new BackgroundCallback() {
+        @Override
+        public void processResult(final CuratorFramework client, final CuratorEvent event) {
+          if (completeExceptionally(future, event)) {
+            return;
+          }
+          future.set(event.getChildren());
+        }
+      }).forPath(path);
+    } catch (Exception e) {
+      future.setException(e);
+    }
+    return future;
+  }
+
+  /**
+   * Fails the future with the {@link KeeperException} of a background operation, if it failed.
+   *
+   * @return true if the operation failed.
+   */
+  private static boolean completeExceptionally(final SettableFuture<?> future,
+                                               final CuratorEvent event) {
+    final KeeperException.Code code = KeeperException.Code.get(event.getResultCode());
+    if (code == KeeperException.Code.OK) {
+      return false;
+    }
+    future.setException(KeeperException.create(code, event.getPath()));
+    return true;
+  }
+
   @Override
   public void deleteRecursive(final String path) throws KeeperException {
+    deleteRecursive(path, false, DeleteProgressListener.NONE);
+  }
+
+  @Override
+  public void deleteRecursive(final String path, final boolean resumable,
+                              final DeleteProgressListener listener) throws KeeperException {
     assertClusterIdFlagTrue();
-    try {
-      final List<String> nodes = listRecursive(path);
-      if (nodes.isEmpty()) {
+    int attempt = 0;
+    while (true) {
+      attempt++;
+      final List<String> nodes;
+      try {
+        nodes = listRecursive(path);
+      } catch (KeeperException.NoNodeException e) {
+        if (attempt > 1) {
+          // Someone else finished the job for us
+          return;
+        }
+        throw e;
+      }
+      try {
+        deleteDeepestFirst(path, nodes, listener);
         return;
+      } catch (KeeperException.NoNodeException | KeeperException.NotEmptyException e) {
+        if (!resumable || attempt >= MAX_DELETE_ATTEMPTS) {
+          throw e;
+        }
+        log.info("{} was modified while it was being deleted, deleting what remains: {}",
+                 path, e.toString());
       }
-      final CuratorTransactionFinal t = client.inTransaction().check().forPath(path).and();
-      for (final String node : reverse(nodes))  {
-        t.delete().forPath(node).and();
+    }
+  }
+
+  /**
+   * Deletes the nodes of a subtree, as listed by {@link #listRecursive(String)}, in multi-ops of
+   * bounded size. Children are deleted before their parents, so the nodes left after a failure
+   * still form a subtree that can be deleted later.
+   */
+  private void deleteDeepestFirst(final String path, final List<String> nodes,
+                                  final DeleteProgressListener listener) throws KeeperException {
+    final List<String> deepestFirst = reverse(nodes);
+    int remaining = deepestFirst.size();
+    int i = 0;
+    while (i < deepestFirst.size()) {
+      final CuratorTransactionFinal transaction =
+          (CuratorTransactionFinal) client.inTransaction();
+      int ops = 0;
+      int bytes = 0;
+      while (i < deepestFirst.size() && ops < MAX_DELETE_BATCH_OPS) {
+        final String node = deepestFirst.get(i);
+        final int size = node.getBytes(UTF_8).length + DELETE_OP_OVERHEAD_BYTES;
+        if (ops > 0 && bytes + size > MAX_DELETE_BATCH_BYTES) {
+          break;
+        }
+        try {
+          transaction.delete().forPath(node);
+        } catch (Exception e) {
+          throw propagate(e);
+        }
+        ops++;
+        bytes += size;
+        i++;
       }
-      t.commit();
-    } catch (Exception e) {
-      propagateIfInstanceOf(e, KeeperException.class);
-      throw propagate(e);
+      try {
+        transaction.commit();
+      } catch (Exception e) {
+        propagateIfInstanceOf(e, KeeperException.class);
+        throw propagate(e);
+      }
+      remaining -= ops;
+      listener.progress(path, ops, remaining);
     }
   }
 
+  /**
+   * Lists a node and all its descendants, parents before children. Each level of the tree is
+   * read with up to {@link #WALK_PARALLELISM} concurrent getChildren calls. Descendants that are
+   * deleted while the tree is walked are left out, but the root must exist.
+   */
   @Override
   public List<String> listRecursive(final String path) throws KeeperException {
     assertClusterIdFlagTrue();
-    final Deque<String> queue = newLinkedList();
-    final List<String> tree = newArrayList();
-
-    queue.add(path);
-    tree.add(path);
-
-    while (!queue.isEmpty()) {
-      final String node = queue.pollFirst();
-      final List<String> children = getChildren(node);
-
-      for (final String child : children) {
-        final String childPath = node.replaceAll("/$", "") + "/" + child;
-        queue.add(childPath);
-        tree.add(childPath);
+    final List<String> tree = newArrayList(path);
+    List<String> level = newArrayList(path);
+
+    while (!level.isEmpty()) {
+      final List<String> nextLevel = newArrayList();
+      for (final List<String> batch : Lists.partition(level, WALK_PARALLELISM)) {
+        final List<ListenableFuture<List<String>>> futures = newArrayList();
+        for (final String node : batch) {
+          futures.add(getChildrenAsync(node));
+        }
+        for (int j = 0; j < batch.size(); j++) {
+          final String node = batch.get(j);
+          final List<String> children;
+          try {
+            children = await(futures.get(j));
+          } catch (KeeperException.NoNodeException e) {
+            if (node.equals(path)) {
+              throw e;
+            }
+            continue;
+          }
+          for (final String child : children) {
+            nextLevel.add(node.replaceAll("/$", "") + "/" + child);
+          }
+        }
       }
+      tree.addAll(nextLevel);
+      level = nextLevel;
     }
 
     return tree;
   }
 
+  private static <T> T await(final ListenableFuture<T> future) throws KeeperException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw propagate(e);
+    } catch (ExecutionException e) {
+      propagateIfInstanceOf(e.getCause(), KeeperException.class);
+      throw propagate(e.getCause());
+    }
+  }
+
   @Override
   public void delete(final String path) throws KeeperException {
     assertClusterIdFlagTrue();
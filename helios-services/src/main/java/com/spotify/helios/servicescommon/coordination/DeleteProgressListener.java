@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+/**
+ * Told how far {@link ZooKeeperClient#deleteRecursive(String, boolean, DeleteProgressListener)}
+ * has come after each multi-op it commits.
+ */
+public interface DeleteProgressListener {
+
+  DeleteProgressListener NONE = (path, deleted, remaining) -> { };
+
+  /**
+   * @param path      The root of the subtree being deleted.
+   * @param deleted   The number of nodes the multi-op deleted.
+   * @param remaining The number of nodes known to remain in the subtree.
+   */
+  void progress(String path, int deleted, int remaining);
+}
@@ -31,6 +31,7 @@ public class Paths {
   private static final String HOSTS = "hosts";
   private static final String REMOVED_HOSTS = "removed";
   private static final String EVENTS = "events";
+  private static final String RING = "ring";
   private static final String MASTERS = "masters";
   private static final String HISTORY = "history";
   private static final String HOSTINFO = "hostinfo";
@@ -41,8 +42,11 @@ public class Paths {
   private static final String ID = "id";
   private static final String DEPLOYMENT_GROUPS = "deployment-groups";
   private static final String DEPLOYMENT_GROUP_TASKS = "deployment-group-tasks";
+  private static final String PAYLOAD_ENCODING = "payload-encoding";
 
   private static final PathFactory CONFIG_ID = new PathFactory("/", CONFIG, ID);
+  private static final PathFactory CONFIG_PAYLOAD_ENCODING =
+      new PathFactory("/", CONFIG, PAYLOAD_ENCODING);
   private static final PathFactory CONFIG_JOBS = new PathFactory("/", CONFIG, JOBS);
   private static final PathFactory CONFIG_JOBREFS = new PathFactory("/", CONFIG, JOBREFS);
   private static final PathFactory CONFIG_HOSTS = new PathFactory("/", CONFIG, HOSTS);
@@ -145,6 +149,10 @@ public class Paths {
     return CONFIG_ID.path(id);
   }
 
+  public static String configPayloadEncoding() {
+    return CONFIG_PAYLOAD_ENCODING.path();
+  }
+
   public static String statusHosts() {
     return STATUS_HOSTS.path();
   }
@@ -240,6 +248,15 @@ public class Paths {
     return HISTORY_JOBS.path(jobIdString, HOSTS, host, EVENTS);
   }
 
+  /**
+   * This path stores a capped {@link com.spotify.helios.common.descriptors.CompactTaskHistory}
+   * of a job on a host, as an alternative to one node per event under
+   * {@link #historyJobHostEvents(JobId, String)}.
+   */
+  public static String historyJobHostRing(final JobId jobId, final String host) {
+    return HISTORY_JOBS.path(jobId.toString(), HOSTS, host, RING);
+  }
+
   public static String historyJobHosts(final JobId jobId) {
     return HISTORY_JOBS.path(jobId.toString(), HOSTS);
   }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+import com.spotify.helios.common.Json;
+
+import java.util.Locale;
+
+/**
+ * How payloads written to ZooKeeper are serialized. Readers accept either encoding, telling them
+ * apart with {@link Json#isSmile(byte[])}, so the encoding can be switched while agents and
+ * masters of mixed versions share a cluster as long as all of them are able to read Smile.
+ *
+ * <p>The encoding in effect is a cluster-wide setting stored at
+ * {@link Paths#configPayloadEncoding()} and tracked by {@link PayloadEncodingWatcher}. Until the
+ * setting has been read, and whenever it is absent, payloads are written as json.
+ */
+public enum PayloadEncoding {
+  JSON,
+  SMILE;
+
+  private static volatile PayloadEncoding current = JSON;
+
+  public byte[] encode(final Object value) {
+    return this == SMILE ? Json.asSmileBytesUnchecked(value) : Json.asBytesUnchecked(value);
+  }
+
+  public static PayloadEncoding current() {
+    return current;
+  }
+
+  static void setCurrent(final PayloadEncoding encoding) {
+    current = encoding;
+  }
+
+  /**
+   * @param name An encoding name, such as {@code json} or {@code smile}. Case does not matter.
+   * @return The named encoding.
+   * @throws IllegalArgumentException If there is no encoding with that name.
+   */
+  public static PayloadEncoding parse(final String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+import org.apache.curator.framework.recipes.cache.ChildData;
+import org.apache.curator.framework.recipes.cache.NodeCache;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Keeps {@link PayloadEncoding#current()} in sync with the cluster-wide setting stored at
+ * {@link Paths#configPayloadEncoding()}. When created with an encoding, that encoding is written
+ * to the cluster setting on start, which is how a master configured with
+ * {@code --zk-payload-encoding} switches the whole cluster.
+ */
+public class PayloadEncodingWatcher implements Managed {
+
+  private static final Logger log = LoggerFactory.getLogger(PayloadEncodingWatcher.class);
+
+  private final ZooKeeperClient client;
+  private final PayloadEncoding encoding;
+  private final NodeCache cache;
+
+  public PayloadEncodingWatcher(final ZooKeeperClient client) {
+    this(client, null);
+  }
+
+  /**
+   * @param client   The ZooKeeper client.
+   * @param encoding The encoding to set for the whole cluster on start, or null to only follow
+   *                 the current setting.
+   */
+  public PayloadEncodingWatcher(final ZooKeeperClient client,
+                                @Nullable final PayloadEncoding encoding) {
+    this.client = client;
+    this.encoding = encoding;
+    this.cache = new NodeCache(client.getCuratorFramework(), Paths.configPayloadEncoding());
+  }
+
+  @Override
+  public void start() throws Exception {
+    if (encoding != null) {
+      log.info("setting cluster ZooKeeper payload encoding to {}", encoding);
+      client.ensurePathAndSetData(Paths.configPayloadEncoding(),
+                                  encoding.toString().getBytes(UTF_8));
+    }
+    cache.getListenable().addListener(this::update);
+    cache.start(true);
+    update();
+  }
+
+  @Override
+  public void stop() throws Exception {
+    cache.close();
+  }
+
+  private void update() {
+    final ChildData data = cache.getCurrentData();
+    final PayloadEncoding next;
+    if (data == null || data.getData() == null || data.getData().length == 0) {
+      next = PayloadEncoding.JSON;
+    } else {
+      final String name = new String(data.getData(), UTF_8);
+      try {
+        next = PayloadEncoding.parse(name);
+      } catch (IllegalArgumentException e) {
+        log.warn("unknown ZooKeeper payload encoding '{}', still writing {}",
+                 name, PayloadEncoding.current());
+        return;
+      }
+    }
+    if (next != PayloadEncoding.current()) {
+      log.info("writing ZooKeeper payloads as {}", next);
+      PayloadEncoding.setCurrent(next);
+    }
+  }
+}
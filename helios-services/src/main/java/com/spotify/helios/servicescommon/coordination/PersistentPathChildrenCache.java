@@ -54,11 +54,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.util.concurrent.Service.State.STOPPING;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.zookeeper.Watcher.Event.EventType.NodeDataChanged;
+import static org.apache.zookeeper.Watcher.Event.EventType.None;
 
 /**
  * A view of the children of a zookeeper node, kept up to date with zookeeper using watches and
@@ -66,6 +68,11 @@ import static org.apache.zookeeper.Watcher.Event.EventType.NodeDataChanged;
  *
  * The view is persisted to disk as json and the node values must be valid json.
  *
+ * When the connection to zookeeper is reestablished within the same session, zookeeper restores
+ * our watches and fires those whose nodes changed while we were disconnected. The children are
+ * then only read again if the parent node changed since they were last read. Otherwise, e.g. after
+ * a leader election, every agent would read all its tasks at the same time.
+ *
  * @param <T> The deserialized node value type.
  */
 public class PersistentPathChildrenCache<T> extends AbstractIdleService {
@@ -74,6 +81,12 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
 
   private static final long REFRESH_INTERVAL_MILLIS = 30000;
 
+  /**
+   * The upper bound of the random delay before reading all children again after a reconnect, to
+   * spread out the load when many clients reconnect at once.
+   */
+  private static final long MAX_RESYNC_JITTER_MILLIS = 5000;
+
   private final PersistentAtomicReference<Map<String, T>> snapshot;
   private final CuratorFramework curator;
   private final String path;
@@ -87,6 +100,11 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
   private final Reactor reactor;
 
   private volatile boolean synced;
+  private volatile boolean reconnected;
+
+  // The parent node and session as of the last sync. Only accessed by the reactor thread.
+  private Stat syncedStat;
+  private long syncedSessionId;
 
   public PersistentPathChildrenCache(final CuratorFramework curator, final String path,
                                      final String clusterId, final Path snapshotFile,
@@ -149,6 +167,16 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     void nodesChanged(PersistentPathChildrenCache<?> cache);
 
     void connectionStateChanged(ConnectionState state);
+
+    /**
+     * Called when the cache has decided whether to read all children again after the connection
+     * to zookeeper was reestablished.
+     *
+     * @param resyncAvoided True if the children were not read again because the parent node was
+     *                      unchanged.
+     */
+    default void reconnected(PersistentPathChildrenCache<?> cache, boolean resyncAvoided) {
+    }
   }
 
   private class Update implements Reactor.Callback {
@@ -168,7 +196,11 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
         } catch (Exception e) {
           // If an exception is thrown we must set the synced flag to false. Otherwise the next run
           // of update might not fetch data from zookeeper because it thinks everything is synced.
-          synced = false;
+          // A connection loss after a complete sync is the exception: once reconnected, the
+          // parent node and session decide whether a resync is needed.
+          if (!(e instanceof KeeperException.ConnectionLossException) || syncedStat == null) {
+            synced = false;
+          }
           log.warn("update failed: {}", e.getMessage());
           Thread.sleep(retryScheduler.nextMillis());
         }
@@ -182,6 +214,22 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     final Map<String, T> newSnapshot;
     final Map<String, T> currentSnapshot = snapshot.get();
 
+    if (reconnected) {
+      // Keep the flag set until the check succeeds so a retry checks again
+      final boolean unchanged = synced && !changedSinceSync();
+      reconnected = false;
+      if (unchanged) {
+        log.info("reconnected, {} unchanged since last sync", path);
+        fireReconnected(true);
+      } else {
+        synced = false;
+        final long jitter = ThreadLocalRandom.current().nextLong(MAX_RESYNC_JITTER_MILLIS);
+        log.info("reconnected, resyncing {} in {} ms", path, jitter);
+        fireReconnected(false);
+        Thread.sleep(jitter);
+      }
+    }
+
     if (!synced) {
       synced = true;
       newSnapshot = sync();
@@ -202,6 +250,10 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
             .usingWatcher(dataWatcher)
             .forPath(node);
         value = Json.read(bytes, valueType);
+      } catch (KeeperException.ConnectionLossException e) {
+        // Fetch it again on the next run, which might not resync
+        changes.add(child);
+        throw e;
       } catch (KeeperException e) {
         throw e;
       } catch (Exception e) {
@@ -216,6 +268,44 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     }
   }
 
+  /**
+   * Checks whether the children might have changed without us being notified since the last sync.
+   * That's the case if our session, and with it our watches, expired or if the children of the
+   * parent node changed.
+   */
+  private boolean changedSinceSync() throws KeeperException {
+    if (syncedStat == null) {
+      return true;
+    }
+    try {
+      if (sessionId() != syncedSessionId) {
+        return true;
+      }
+      final Stat stat = curator.checkExists().forPath(path);
+      return stat == null ||
+             stat.getCversion() != syncedStat.getCversion() ||
+             stat.getPzxid() != syncedStat.getPzxid();
+    } catch (KeeperException e) {
+      throw e;
+    } catch (Exception e) {
+      throw Throwables.propagate(e);
+    }
+  }
+
+  private long sessionId() throws Exception {
+    return curator.getZookeeperClient().getZooKeeper().getSessionId();
+  }
+
+  private void fireReconnected(final boolean resyncAvoided) {
+    for (final Listener listener : listeners) {
+      try {
+        listener.reconnected(this, resyncAvoided);
+      } catch (Exception e) {
+        log.error("Listener threw exception", e);
+      }
+    }
+  }
+
   private void fireNodesChanged() {
     for (final Listener listener : listeners) {
       try {
@@ -236,7 +326,10 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
 
     // Fetch new snapshot and register watchers
     try {
-      final List<String> children = getChildren();
+      syncedStat = null;
+      final Stat childrenStat = new Stat();
+      final long sessionId = sessionId();
+      final List<String> children = getChildren(childrenStat);
       log.debug("children: {}", children);
       for (final String child : children) {
         final String node = ZKPaths.makePath(path, child);
@@ -255,6 +348,8 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
         }
         newSnapshot.put(node, value);
       }
+      syncedStat = childrenStat;
+      syncedSessionId = sessionId;
     } catch (KeeperException e) {
       throw e;
     } catch (Exception e) {
@@ -264,9 +359,7 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     return newSnapshot;
   }
 
-  private List<String> getChildren() throws Exception {
-    final Stat childrenStat = new Stat();
-
+  private List<String> getChildren(final Stat childrenStat) throws Exception {
     while (true) {
       final List<String> possibleChildren = curator.getChildren()
               .storingStatIn(childrenStat)
@@ -297,8 +390,10 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     @Override
     public void process(final WatchedEvent event) throws Exception {
       log.debug("children event: {}", event);
-      synced = false;
-      reactor.signal();
+      if (event.getType() != None) {
+        synced = false;
+        reactor.signal();
+      }
     }
   }
 
@@ -321,7 +416,7 @@ public class PersistentPathChildrenCache<T> extends AbstractIdleService {
     public void stateChanged(final CuratorFramework client, final ConnectionState newState) {
       log.debug("connection state change: {}", newState);
       if (newState == ConnectionState.RECONNECTED) {
-        synced = false;
+        reconnected = true;
         reactor.signal();
       }
       fireConnectionStateChanged(newState);
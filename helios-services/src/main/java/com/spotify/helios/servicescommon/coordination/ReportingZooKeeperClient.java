@@ -17,12 +17,18 @@
 
 package com.spotify.helios.servicescommon.coordination;
 
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
 import com.fasterxml.jackson.databind.JavaType;
+import com.spotify.helios.servicescommon.coordination.ZooKeeperModelReporter.ZooKeeperCallable;
 
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
 import org.apache.curator.framework.listen.Listenable;
 import org.apache.curator.framework.recipes.nodes.PersistentEphemeralNode;
+import org.apache.curator.framework.state.ConnectionState;
 import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
@@ -34,10 +40,14 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * This class instruments ZooKeeper calls by timing them and reporting exceptions.
- * Calls are delegated to a {@link ZooKeeperClient}.
+ * Calls are delegated to a {@link ZooKeeperClient}. If a {@link ZooKeeperRequestStats} scope is
+ * bound to the calling thread, each call is also recorded into it along with the number of bytes
+ * it read or wrote.
  */
 public class ReportingZooKeeperClient implements ZooKeeperClient {
 
@@ -55,7 +65,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void ensurePath(String path) throws KeeperException {
-    reporter.time(tag, "ensurePath", () -> {
+    time("ensurePath", () -> {
       client.ensurePath(path);
       return null;
     });
@@ -63,7 +73,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void ensurePath(String path, boolean excludingLast) throws KeeperException {
-    reporter.time(tag, "ensurePath", () -> {
+    time("ensurePath", () -> {
       client.ensurePath(path, excludingLast);
       return null;
     });
@@ -71,7 +81,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void ensurePathAndSetData(String path, byte[] data) throws KeeperException {
-    reporter.time(tag, "ensurePathAndSetData", () -> {
+    time("ensurePathAndSetData", dataSize(data), () -> {
       client.ensurePathAndSetData(path, data);
       return null;
     });
@@ -79,17 +89,30 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public byte[] getData(String path) throws KeeperException {
-    return reporter.time(tag, "getData", () -> client.getData(path));
+    return time("getData", ReportingZooKeeperClient::dataSize, 0, () -> client.getData(path));
   }
 
   @Override
   public List<String> getChildren(String path) throws KeeperException {
-    return reporter.time(tag, "getChildren", () -> client.getChildren(path));
+    return time("getChildren", ReportingZooKeeperClient::namesSize, 0,
+                () -> client.getChildren(path));
+  }
+
+  @Override
+  public ListenableFuture<Node> getNodeAsync(String path) {
+    return timeAsync("getNodeAsync", ReportingZooKeeperClient::nodeSize,
+                     () -> client.getNodeAsync(path));
+  }
+
+  @Override
+  public ListenableFuture<List<String>> getChildrenAsync(String path) {
+    return timeAsync("getChildrenAsync", ReportingZooKeeperClient::namesSize,
+                     () -> client.getChildrenAsync(path));
   }
 
   @Override
   public void delete(String path) throws KeeperException {
-    reporter.time(tag, "delete", () -> {
+    time("delete", () -> {
       client.delete(path);
       return null;
     });
@@ -97,7 +120,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void setData(String path, byte[] bytes) throws KeeperException {
-    reporter.time(tag, "setData", () -> {
+    time("setData", dataSize(bytes), () -> {
       client.setData(path, bytes);
       return null;
     });
@@ -105,7 +128,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void createAndSetData(String path, byte[] data) throws KeeperException {
-    reporter.time(tag, "createAndSetData", () -> {
+    time("createAndSetData", dataSize(data), () -> {
       client.createAndSetData(path, data);
       return null;
     });
@@ -113,7 +136,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void createWithMode(String path, CreateMode mode) throws KeeperException {
-    reporter.time(tag, "createWithMode", () -> {
+    time("createWithMode", () -> {
       client.createWithMode(path, mode);
       return null;
     });
@@ -121,25 +144,35 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public Stat stat(String path) throws KeeperException {
-    return reporter.time(tag, "stat", () -> client.stat(path));
+    return time("stat", () -> client.stat(path));
   }
 
   @Override
   public void deleteRecursive(String path) throws KeeperException {
-    reporter.time(tag, "deleteRecursive", () -> {
-      client.deleteRecursive(path);
+    deleteRecursive(path, false, DeleteProgressListener.NONE);
+  }
+
+  @Override
+  public void deleteRecursive(String path, boolean resumable, DeleteProgressListener listener)
+      throws KeeperException {
+    time("deleteRecursive", () -> {
+      client.deleteRecursive(path, resumable, (root, deleted, remaining) -> {
+        reporter.deleteProgress(deleted, remaining);
+        listener.progress(root, deleted, remaining);
+      });
       return null;
     });
   }
 
   @Override
   public List<String> listRecursive(String path) throws KeeperException {
-    return reporter.time(tag, "listRecursive", () -> client.listRecursive(path));
+    return time("listRecursive", ReportingZooKeeperClient::namesSize, 0,
+                () -> client.listRecursive(path));
   }
 
   @Override
   public void create(String path) throws KeeperException {
-    reporter.time(tag, "create", () -> {
+    time("create", () -> {
       client.create(path);
       return null;
     });
@@ -149,24 +182,41 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
   public <T> PersistentPathChildrenCache<T> pathChildrenCache(String path, Path snapshotFile,
                                                               final JavaType valueType)
       throws IOException, InterruptedException {
-    return client.pathChildrenCache(path, snapshotFile, valueType);
+    final PersistentPathChildrenCache<T> cache =
+        client.pathChildrenCache(path, snapshotFile, valueType);
+    cache.addListener(new PersistentPathChildrenCache.Listener() {
+      @Override
+      public void nodesChanged(final PersistentPathChildrenCache<?> cache) {
+      }
+
+      @Override
+      public void connectionStateChanged(final ConnectionState state) {
+      }
+
+      @Override
+      public void reconnected(final PersistentPathChildrenCache<?> cache,
+                              final boolean resyncAvoided) {
+        reporter.reconnectResync(resyncAvoided);
+      }
+    });
+    return cache;
   }
 
   @Override
   public Collection<CuratorTransactionResult> transaction(List<ZooKeeperOperation> operations)
       throws KeeperException {
-    return reporter.time(tag, "transaction", () -> client.transaction(operations));
+    return time("transaction", () -> client.transaction(operations));
   }
 
   @Override
   public Collection<CuratorTransactionResult> transaction(ZooKeeperOperation... operations)
       throws KeeperException {
-    return reporter.time(tag, "transaction", () -> client.transaction(operations));
+    return time("transaction", () -> client.transaction(operations));
   }
 
   @Override
   public void delete(String path, int version) throws KeeperException {
-    reporter.time(tag, "delete", () -> {
+    time("delete", () -> {
       client.delete(path, version);
       return null;
     });
@@ -174,12 +224,12 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public Node getNode(String path) throws KeeperException {
-    return reporter.time(tag, "getNode", () -> client.getNode(path));
+    return time("getNode", ReportingZooKeeperClient::nodeSize, 0, () -> client.getNode(path));
   }
 
   @Override
   public Stat exists(String path) throws KeeperException {
-    return reporter.time(tag, "exists", () -> client.exists(path));
+    return time("exists", () -> client.exists(path));
   }
 
   @Override
@@ -216,7 +266,7 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public void setAcl(final String path, final List<ACL> aclList) throws KeeperException {
-    reporter.time(tag, "setAcl", () -> {
+    time("setAcl", () -> {
       client.setAcl(path, aclList);
       return null;
     });
@@ -224,6 +274,73 @@ public class ReportingZooKeeperClient implements ZooKeeperClient {
 
   @Override
   public List<ACL> getAcl(final String path) throws KeeperException {
-    return reporter.time(tag, "getAcl", () -> client.getAcl(path));
+    return time("getAcl", () -> client.getAcl(path));
+  }
+
+  private <T> T time(final String name, final ZooKeeperCallable<T> callable)
+      throws KeeperException {
+    return time(name, result -> 0, 0, callable);
+  }
+
+  private <T> T time(final String name, final long bytesWritten,
+                     final ZooKeeperCallable<T> callable) throws KeeperException {
+    return time(name, result -> 0, bytesWritten, callable);
+  }
+
+  private <T> T time(final String name, final ToLongFunction<T> bytesRead,
+                     final long bytesWritten, final ZooKeeperCallable<T> callable)
+      throws KeeperException {
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.current();
+    if (stats == null) {
+      return reporter.time(tag, name, callable);
+    }
+    final long startTime = System.nanoTime();
+    T result = null;
+    try {
+      result = reporter.time(tag, name, callable);
+      return result;
+    } finally {
+      stats.record(name, System.nanoTime() - startTime,
+                   result == null ? 0 : bytesRead.applyAsLong(result), bytesWritten);
+    }
+  }
+
+  private <T> ListenableFuture<T> timeAsync(final String name, final ToLongFunction<T> bytesRead,
+                                            final Supplier<ListenableFuture<T>> supplier) {
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.current();
+    final long startTime = System.nanoTime();
+    final ListenableFuture<T> future = reporter.timeAsync(tag, name, supplier);
+    if (stats == null) {
+      return future;
+    }
+    Futures.addCallback(future, new FutureCallback<T>() {
+      @Override
+      public void onSuccess(final T result) {
+        stats.record(name, System.nanoTime() - startTime,
+                     result == null ? 0 : bytesRead.applyAsLong(result), 0);
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        stats.record(name, System.nanoTime() - startTime, 0, 0);
+      }
+    });
+    return future;
+  }
+
+  private static long dataSize(final byte[] data) {
+    return data == null ? 0 : data.length;
+  }
+
+  private static long nodeSize(final Node node) {
+    return dataSize(node.getBytes());
+  }
+
+  private static long namesSize(final List<String> names) {
+    long size = 0;
+    for (final String name : names) {
+      size += name.length();
+    }
+    return size;
   }
 }
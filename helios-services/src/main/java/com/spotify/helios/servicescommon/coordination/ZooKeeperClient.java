@@ -17,6 +17,8 @@
 
 package com.spotify.helios.servicescommon.coordination;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import com.fasterxml.jackson.databind.JavaType;
 
 import org.apache.curator.framework.CuratorFramework;
@@ -59,6 +61,18 @@ public interface ZooKeeperClient {
 
   List<String> getChildren(String path) throws KeeperException;
 
+  /**
+   * Read the data and stat of a node without blocking. The returned future fails with the
+   * {@link KeeperException} of the read, if any, e.g. {@link KeeperException.NoNodeException}.
+   */
+  ListenableFuture<Node> getNodeAsync(String path);
+
+  /**
+   * List the children of a node without blocking. The returned future fails with the
+   * {@link KeeperException} of the read, if any, e.g. {@link KeeperException.NoNodeException}.
+   */
+  ListenableFuture<List<String>> getChildrenAsync(String path);
+
   void delete(String path) throws KeeperException;
 
   void setData(String path, byte[] bytes) throws KeeperException;
@@ -69,8 +83,23 @@ public interface ZooKeeperClient {
 
   Stat stat(String path) throws KeeperException;
 
+  /**
+   * Delete a node and all its descendants. The subtree is deleted in multi-ops of bounded size,
+   * deepest nodes first, so a failure part way leaves a smaller subtree behind.
+   */
   void deleteRecursive(String path) throws KeeperException;
 
+  /**
+   * Delete a node and all its descendants like {@link #deleteRecursive(String)}.
+   *
+   * @param resumable If true, nodes created or deleted in the subtree while it is being deleted
+   *                  don't fail the deletion. Instead, what remains of the subtree is walked again
+   *                  and deleted.
+   * @param listener  Told how many nodes have been deleted after each multi-op.
+   */
+  void deleteRecursive(String path, boolean resumable, DeleteProgressListener listener)
+      throws KeeperException;
+
   List<String> listRecursive(String path) throws KeeperException;
 
   void create(String path) throws KeeperException;
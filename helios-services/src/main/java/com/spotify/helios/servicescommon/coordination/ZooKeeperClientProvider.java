@@ -29,4 +29,8 @@ public class ZooKeeperClientProvider {
   public ZooKeeperClient get(String tag) {
     return new ReportingZooKeeperClient(client, reporter, tag);
   }
+
+  public ZooKeeperModelReporter getReporter() {
+    return reporter;
+  }
 }
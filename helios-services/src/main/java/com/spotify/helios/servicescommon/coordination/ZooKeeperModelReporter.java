@@ -20,6 +20,9 @@ package com.spotify.helios.servicescommon.coordination;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import com.codahale.metrics.Clock;
 import com.spotify.helios.servicescommon.NoOpRiemannClient;
@@ -34,6 +37,7 @@ import org.apache.zookeeper.KeeperException.RuntimeInconsistencyException;
 
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -74,6 +78,18 @@ public class ZooKeeperModelReporter {
     metrics.zookeeperTransientError();
   }
 
+  public void deleteProgress(final int deleted, final int remaining) {
+    metrics.recursiveDeleteProgress(deleted, remaining);
+  }
+
+  public void reconnectResync(final boolean avoided) {
+    metrics.reconnectResync(avoided);
+  }
+
+  public void replicationLag(final long duration, final TimeUnit timeUnit) {
+    metrics.updateTimer("replication_lag", duration, timeUnit);
+  }
+
   public <T> T time(final String tag, final String name, ZooKeeperCallable<T> callable)
       throws KeeperException {
     final long startTime = clock.getTick();
@@ -89,6 +105,27 @@ public class ZooKeeperModelReporter {
     }
   }
 
+  public <T> ListenableFuture<T> timeAsync(final String tag, final String name,
+                                           final Supplier<ListenableFuture<T>> supplier) {
+    final long startTime = clock.getTick();
+    final ListenableFuture<T> future = supplier.get();
+    Futures.addCallback(future, new FutureCallback<T>() {
+      @Override
+      public void onSuccess(final T result) {
+        metrics.updateTimer(name, clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+      }
+
+      @Override
+      public void onFailure(final Throwable t) {
+        if (t instanceof Exception) {
+          checkException((Exception) t, tag, name);
+        }
+        metrics.updateTimer(name, clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+      }
+    });
+    return future;
+  }
+
   public static ZooKeeperModelReporter noop() {
     return new ZooKeeperModelReporter(new NoOpRiemannClient().facade(), new NoopZooKeeperMetrics());
   }
@@ -24,7 +24,7 @@ import java.util.Map;
 
 public class ZooKeeperOperations {
   public static ZooKeeperOperation set(final String path, Descriptor data) {
-    return new SetData(path, data.toJsonBytes());
+    return new SetData(path, PayloadEncoding.current().encode(data));
   }
 
   public static ZooKeeperOperation set(final String path, byte[] bytes) {
@@ -52,12 +52,12 @@ public class ZooKeeperOperations {
   }
 
   public static ZooKeeperOperation create(final String path, final Descriptor data) {
-    return create(path, data.toJsonBytes());
+    return create(path, PayloadEncoding.current().encode(data));
   }
 
   public static ZooKeeperOperation create(final String path, final Descriptor data,
                                           final int version) {
-    return create(path, data.toJsonBytes(), version);
+    return create(path, PayloadEncoding.current().encode(data), version);
   }
 
   public static ZooKeeperOperation create(final String path, final byte[] bytes,
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.util.concurrent.AtomicLongMap;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for the ZooKeeper operations performed on behalf of a single unit of work, typically
+ * an HTTP request. A scope is bound to the calling thread by {@link #begin()}, and every call made
+ * through a {@link ReportingZooKeeperClient} on that thread is recorded into it until
+ * {@link #end()} is called. Asynchronous calls are recorded into the scope that was current when
+ * they were issued, so instances are safe to update from any thread.
+ */
+public class ZooKeeperRequestStats {
+
+  private static final ThreadLocal<ZooKeeperRequestStats> CURRENT = new ThreadLocal<>();
+
+  private final AtomicLongMap<String> operations = AtomicLongMap.create();
+  private final AtomicLong bytesRead = new AtomicLong();
+  private final AtomicLong bytesWritten = new AtomicLong();
+  private final AtomicLong nanos = new AtomicLong();
+
+  /**
+   * Start a new scope and bind it to the calling thread, replacing any scope already bound.
+   */
+  public static ZooKeeperRequestStats begin() {
+    final ZooKeeperRequestStats stats = new ZooKeeperRequestStats();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /**
+   * @return The scope bound to the calling thread, or null if there is none.
+   */
+  public static ZooKeeperRequestStats current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Unbind this scope from the calling thread. The accumulated numbers remain readable.
+   */
+  public void end() {
+    if (CURRENT.get() == this) {
+      CURRENT.remove();
+    }
+  }
+
+  public void record(final String operation, final long durationNanos,
+                     final long bytesRead, final long bytesWritten) {
+    operations.incrementAndGet(operation);
+    nanos.addAndGet(durationNanos);
+    this.bytesRead.addAndGet(bytesRead);
+    this.bytesWritten.addAndGet(bytesWritten);
+  }
+
+  public long getOperations() {
+    return operations.sum();
+  }
+
+  public Map<String, Long> getOperationCounts() {
+    return ImmutableSortedMap.copyOf(operations.asMap());
+  }
+
+  public long getBytesRead() {
+    return bytesRead.get();
+  }
+
+  public long getBytesWritten() {
+    return bytesWritten.get();
+  }
+
+  public long getTime(final TimeUnit unit) {
+    return unit.convert(nanos.get(), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public String toString() {
+    return "ZooKeeperRequestStats{" +
+           "operations=" + getOperationCounts() +
+           ", bytesRead=" + getBytesRead() +
+           ", bytesWritten=" + getBytesWritten() +
+           ", timeMillis=" + getTime(TimeUnit.MILLISECONDS) +
+           '}';
+  }
+}
@@ -23,9 +23,11 @@ import com.google.common.base.Suppliers;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.MapDifference;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ListenableFuture;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.spotify.helios.agent.BoundedRandomExponentialBackoff;
@@ -40,6 +42,7 @@ import org.apache.curator.framework.state.ConnectionStateListener;
 import org.apache.curator.utils.ZKPaths;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.common.PathUtils;
+import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,9 +53,14 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.google.common.collect.MapDifference.ValueDifference;
+import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.util.concurrent.Service.State.STOPPING;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.zookeeper.KeeperException.ConnectionLossException;
 import static org.apache.zookeeper.KeeperException.NoNodeException;
@@ -63,6 +71,11 @@ import static org.apache.zookeeper.KeeperException.NodeExistsException;
  * ZooKeeper, retrying forever until successful. Note that ZooKeeper is only written to and never
  * read from, so this is not a distributed map. Multiple changes to the same key are folded and only
  * the last value is written to ZooKeeper.
+ *
+ * <p>Pending changes are written in multi-op transactions of bounded size. Whether a node is
+ * created or set is decided from the last known remote state, which is refreshed with a bulk read
+ * whenever a write conflicts. When the connection is reestablished, the remote state is only
+ * read again if the children of the parent node were changed by someone else in the meantime.
  */
 public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
 
@@ -71,6 +84,24 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
 
   private static final long RETRY_INTERVAL_MILLIS = 5000;
 
+  /**
+   * Bounds on the size of each multi-op. ZooKeeper rejects requests larger than jute.maxbuffer,
+   * which defaults to 1 MB.
+   */
+  private static final int MAX_BATCH_OPS = 100;
+  private static final int MAX_BATCH_BYTES = 512 * 1024;
+
+  /**
+   * How many nodes a resync reads at once.
+   */
+  private static final int SYNC_READ_PARALLELISM = 32;
+
+  /**
+   * The upper bound of the random delay before a resync after a reconnect, to spread out the load
+   * when many agents reconnect at once.
+   */
+  private static final long MAX_RESYNC_JITTER_MILLIS = 5000;
+
   private static final Map<String, byte[]> EMPTY_ENTRIES = Collections.emptyMap();
   private static final TypeReference<Map<String, byte[]>> ENTRIES_TYPE =
       new TypeReference<Map<String, byte[]>>() {};
@@ -92,11 +123,24 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
   private final String path;
   private final Reactor reactor;
   private final PersistentAtomicReference<Map<String, byte[]>> entries;
+  private final ZooKeeperModelReporter reporter;
+
+  /**
+   * The keys that have not yet been replicated, with when each was first changed and the value it
+   * was last changed to. A key is only replicated once ZooKeeper holds that last value, so writes
+   * of older values don't hide changes made while they were in flight.
+   */
+  private final ConcurrentMap<String, Change> changedSince = Maps.newConcurrentMap();
 
   private final Object lock = new Object() {};
 
   private Map<String, byte[]> remote = Maps.newHashMap();
   private volatile boolean initialized;
+  private volatile boolean reconnected;
+
+  // The cversion the parent node has if only we changed its children since the last sync. Only
+  // accessed by the reactor thread.
+  private int expectedCversion;
 
   private final ConnectionStateListener connectionStateListener = new ConnectionStateListener() {
     @Override
@@ -107,7 +151,7 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
         case SUSPENDED:
           break;
         case RECONNECTED:
-          initialized = false;
+          reconnected = true;
           reactor.signal();
           break;
         case LOST:
@@ -124,6 +168,7 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
                                                final String path)
       throws IOException, InterruptedException {
     this.provider = provider;
+    this.reporter = provider.getReporter();
     this.path = path;
     this.entries = PersistentAtomicReference.create(stateFile, ENTRIES_TYPE,
                                                     Suppliers.ofInstance(EMPTY_ENTRIES));
@@ -142,6 +187,7 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
       } catch (IOException e) {
         throw Throwables.propagate(e);
       }
+      changed(key, value);
     }
     reactor.signal();
     return prev;
@@ -166,11 +212,23 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
       } catch (IOException e) {
         throw Throwables.propagate(e);
       }
+      changed(key, null);
     }
     reactor.signal();
     return value;
   }
 
+  /**
+   * Records a change of a key. Must be called while holding the lock.
+   *
+   * @param value The new value, or null if the key was removed.
+   */
+  private void changed(final String key, final byte[] value) {
+    final Change previous = changedSince.get(key);
+    final long since = previous == null ? System.nanoTime() : previous.since;
+    changedSince.put(key, new Change(since, value));
+  }
+
   public byte[] get(final Object key) {
     return entries.get().get(key);
   }
@@ -216,12 +274,26 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
 
       while (isAlive()) {
         try {
-          if (!parentExists()) {
+          final Stat parent = client("parentExists").exists(path);
+          if (parent == null) {
             log.warn("parent does not exist: {}", path);
             return;
           }
+          if (reconnected) {
+            reconnected = false;
+            if (initialized && parent.getCversion() == expectedCversion) {
+              log.info("reconnected, {} unchanged since last sync", path);
+              reporter.reconnectResync(true);
+            } else {
+              initialized = false;
+              final long jitter = ThreadLocalRandom.current().nextLong(MAX_RESYNC_JITTER_MILLIS);
+              log.info("reconnected, resyncing {} in {} ms", path, jitter);
+              reporter.reconnectResync(false);
+              Thread.sleep(jitter);
+            }
+          }
           if (!initialized) {
-            syncChecked();
+            syncChecked(parent);
             initialized = true;
           }
           incrementalUpdate();
@@ -246,14 +318,23 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
     }
 
     private void incrementalUpdate() throws KeeperException {
-      final MapDifference<String, byte[]> difference = Maps.difference(entries.get(), remote,
+      replicate(client("write"), entries.get());
+    }
+
+    /**
+     * Writes the difference between a snapshot of the entries and the last known remote state
+     * to ZooKeeper, in multi-ops of bounded size. The remote state is updated as each multi-op
+     * commits.
+     */
+    private void replicate(final ZooKeeperClient client, final Map<String, byte[]> snapshot)
+        throws KeeperException {
+      final MapDifference<String, byte[]> difference = Maps.difference(snapshot, remote,
                                                                        BYTE_ARRAY_EQUIVALENCE);
       if (difference.areEqual()) {
+        reportReplicated(ImmutableSet.copyOf(changedSince.keySet()));
         return;
       }
 
-      final Map<String, byte[]> newRemote = Maps.newHashMap(remote);
-
       final Map<String, byte[]> create = difference.entriesOnlyOnLeft();
       final Map<String, ValueDifference<byte[]>> update = difference.entriesDiffering();
       final Map<String, byte[]> delete = difference.entriesOnlyOnRight();
@@ -262,89 +343,140 @@ public class ZooKeeperUpdatingPersistentDirectory extends AbstractIdleService {
       log.debug("update: {}", update.keySet());
       log.debug("delete: {}", delete.keySet());
 
+      final Batch batch = new Batch(client);
       for (final Map.Entry<String, byte[]> entry : create.entrySet()) {
-        write(entry.getKey(), entry.getValue());
-        newRemote.put(entry.getKey(), entry.getValue());
+        final String nodePath = ZKPaths.makePath(path, entry.getKey());
+        batch.add(entry.getKey(), entry.getValue(),
+                  ZooKeeperOperations.create(nodePath, entry.getValue()));
       }
-
       for (final Map.Entry<String, ValueDifference<byte[]>> entry : update.entrySet()) {
-        write(entry.getKey(), entry.getValue().leftValue());
-        newRemote.put(entry.getKey(), entry.getValue().leftValue());
+        final String nodePath = ZKPaths.makePath(path, entry.getKey());
+        final byte[] data = entry.getValue().leftValue();
+        batch.add(entry.getKey(), data, ZooKeeperOperations.set(nodePath, data));
       }
-
-      for (final Map.Entry<String, byte[]> entry : delete.entrySet()) {
-        delete(entry.getKey());
-        newRemote.remove(entry.getKey());
+      for (final String key : delete.keySet()) {
+        batch.add(key, null, ZooKeeperOperations.delete(ZKPaths.makePath(path, key)));
       }
+      batch.commit();
 
-      remote = newRemote;
+      // Keys that were changed and then changed back needed no write
+      reportReplicated(difference.entriesInCommon().keySet());
     }
 
-    private boolean parentExists() throws KeeperException {
-      return client("parentExists").exists(path) != null;
-      }
-
-    private void delete(final String node) throws KeeperException {
-      final ZooKeeperClient client = client("delete");
-      final String nodePath = ZKPaths.makePath(path, node);
-        if (client.stat(nodePath) != null) {
-          log.debug("deleting node: {}", nodePath);
-          client.delete(nodePath);
+    /**
+     * Reports the replication lag of those of the keys whose last change ZooKeeper now holds.
+     */
+    private void reportReplicated(final Set<String> keys) {
+      final long now = System.nanoTime();
+      for (final String key : keys) {
+        final Change change = changedSince.get(key);
+        if (change != null && Arrays.equals(change.value, remote.get(key))
+            && changedSince.remove(key, change)) {
+          reporter.replicationLag(now - change.since, NANOSECONDS);
         }
+      }
     }
 
-    private void write(final String node, final byte[] data) throws KeeperException {
-      final ZooKeeperClient client = client("write");
-      final String nodePath = ZKPaths.makePath(path, node);
-        if (client.stat(nodePath) != null) {
-          log.debug("setting node: {}", nodePath);
-          client.setData(nodePath, data);
-        } else {
-          log.debug("creating node: {}", nodePath);
-          client.createAndSetData(nodePath, data);
+    private void syncChecked(final Stat parent) throws KeeperException, InterruptedException {
+      final ZooKeeperClient client = client("sync");
+      expectedCversion = parent.getCversion();
+      final List<String> nodes = client.getChildren(path);
+
+      // Get new remote state, reading many nodes at once
+      final Map<String, byte[]> newRemote = Maps.newHashMap();
+      for (final List<String> batch : Lists.partition(nodes, SYNC_READ_PARALLELISM)) {
+        final List<ListenableFuture<Node>> futures = newArrayList();
+        for (final String node : batch) {
+          futures.add(client.getNodeAsync(ZKPaths.makePath(path, node)));
+        }
+        for (int i = 0; i < batch.size(); i++) {
+          try {
+            newRemote.put(batch.get(i), await(futures.get(i)).getBytes());
+          } catch (NoNodeException ignored) {
+            // Deleted since we listed it
+          }
         }
+      }
+      remote = newRemote;
+
+      // Create, update and remove missing, outdated and undesired nodes
+      log.debug("sync: {} remote nodes", remote.size());
+      replicate(client, entries.get());
     }
 
-    private void syncChecked() throws KeeperException {
-      final ZooKeeperClient client = client("sync");
-      final List<String> nodes = client.getChildren(path);
-      final Map<String, byte[]> snapshot = entries.get();
-
-      // Get new remote state
-      remote = Maps.newHashMap();
-      for (final String node : nodes) {
-        final String nodePath = ZKPaths.makePath(path, node);
-        final byte[] data = client.getData(nodePath);
-        remote.put(node, data);
+    /**
+     * Multi-ops being assembled for {@link #replicate(ZooKeeperClient, Map)}.
+     */
+    private class Batch {
+
+      private final ZooKeeperClient client;
+      private final List<ZooKeeperOperation> operations = newArrayList();
+      private final Map<String, byte[]> values = Maps.newHashMap();
+      private int bytes;
+
+      Batch(final ZooKeeperClient client) {
+        this.client = client;
       }
 
-      // Create and update missing and outdated nodes
-      for (final Map.Entry<String, byte[]> entry : snapshot.entrySet()) {
-        final String node = entry.getKey();
-        final byte[] remoteData = remote.get(node);
-        final byte[] localData = entry.getValue();
-        final String nodePath = ZKPaths.makePath(path, node);
-        if (remoteData == null) {
-          log.debug("sync: creating node {}", nodePath);
-          client.createAndSetData(nodePath, localData);
-          remote.put(node, localData);
-        } else if (!Arrays.equals(remoteData, localData)) {
-          log.debug("sync: updating node {}", nodePath);
-          client.setData(nodePath, localData);
-          remote.put(node, localData);
+      /**
+       * @param value The value written, or null if the node is deleted.
+       */
+      void add(final String key, final byte[] value, final ZooKeeperOperation operation)
+          throws KeeperException {
+        final int size = key.length() + (value == null ? 0 : value.length);
+        if (!operations.isEmpty() &&
+            (operations.size() >= MAX_BATCH_OPS || bytes + size > MAX_BATCH_BYTES)) {
+          commit();
         }
+        operations.add(operation);
+        values.put(key, value);
+        bytes += size;
       }
 
-      // Remove undesired nodes
-      final ImmutableSet<String> keySet = ImmutableSet.copyOf(remote.keySet());
-      for (final String node : keySet) {
-        if (!snapshot.containsKey(node)) {
-          final String nodePath = ZKPaths.makePath(path, node);
-          log.debug("sync: deleting node {}", nodePath);
-          client.delete(nodePath);
-          remote.remove(node);
+      void commit() throws KeeperException {
+        if (operations.isEmpty()) {
+          return;
         }
+        client.transaction(operations);
+        for (final Map.Entry<String, byte[]> entry : values.entrySet()) {
+          if (entry.getValue() == null) {
+            remote.remove(entry.getKey());
+            expectedCversion++;
+          } else if (remote.put(entry.getKey(), entry.getValue()) == null) {
+            expectedCversion++;
+          }
+        }
+        reportReplicated(values.keySet());
+        operations.clear();
+        values.clear();
+        bytes = 0;
       }
     }
   }
+
+  private static <T> T await(final ListenableFuture<T> future)
+      throws KeeperException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwables.propagateIfInstanceOf(e.getCause(), KeeperException.class);
+      throw Throwables.propagate(e.getCause());
+    }
+  }
+
+  private static class Change {
+
+    private final long since;
+    private final byte[] value;
+
+    /**
+     * @param since When the key was first changed since it was last replicated, as given by
+     *              {@link System#nanoTime()}.
+     * @param value The value the key was last changed to, or null if it was removed.
+     */
+    Change(final long since, final byte[] value) {
+      this.since = since;
+      this.value = value;
+    }
+  }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.statistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This interface lets us report the latency and outcome of calls to the Docker daemon.
+ */
+public interface DockerMetrics {
+
+  /**
+   * Call this when a call to the Docker daemon is issued.
+   *
+   * @param method The name of the {@link com.spotify.docker.client.DockerClient} method.
+   */
+  void callStarted(String method);
+
+  /**
+   * Call this when a call to the Docker daemon returns or fails.
+   *
+   * @param method The name of the {@link com.spotify.docker.client.DockerClient} method.
+   * @param duration Duration of the call.
+   * @param timeUnit Time unit of the duration.
+   * @param failed Whether the call threw an exception.
+   */
+  void callFinished(String method, long duration, TimeUnit timeUnit, boolean failed);
+}
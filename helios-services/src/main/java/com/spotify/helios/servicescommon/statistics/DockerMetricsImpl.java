@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.statistics;
+
+import com.google.common.collect.Maps;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a latency timer, an in-flight counter and an error meter per Docker client method,
+ * e.g. helios.docker.pull_latency, helios.docker.pull_in_flight and helios.docker.pull_errors.
+ */
+public class DockerMetricsImpl implements DockerMetrics {
+
+  private static final String TYPE = "docker";
+
+  private final String prefix;
+  private final MetricRegistry registry;
+  private final ConcurrentMap<String, MethodMetrics> methods = Maps.newConcurrentMap();
+
+  public DockerMetricsImpl(final String group, final MetricRegistry registry) {
+    this.prefix = MetricRegistry.name(group, TYPE) + ".";
+    this.registry = registry;
+  }
+
+  @Override
+  public void callStarted(final String method) {
+    metrics(method).inFlight.inc();
+  }
+
+  @Override
+  public void callFinished(final String method, final long duration, final TimeUnit timeUnit,
+                           final boolean failed) {
+    final MethodMetrics metrics = metrics(method);
+    metrics.inFlight.dec();
+    metrics.latency.update(duration, timeUnit);
+    if (failed) {
+      metrics.errors.mark();
+    }
+  }
+
+  private MethodMetrics metrics(final String method) {
+    final MethodMetrics metrics = methods.get(method);
+    if (metrics != null) {
+      return metrics;
+    }
+    methods.putIfAbsent(method, new MethodMetrics(prefix + method));
+    return methods.get(method);
+  }
+
+  private class MethodMetrics {
+    private final Timer latency;
+    private final Counter inFlight;
+    private final Meter errors;
+
+    private MethodMetrics(final String name) {
+      this.latency = registry.timer(name + "_latency");
+      this.inFlight = registry.counter(name + "_in_flight");
+      this.errors = registry.meter(name + "_errors");
+    }
+  }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.statistics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This interface lets us report the latency and outcome of job health checks.
+ */
+public interface HealthCheckMetrics {
+
+  /**
+   * Call this when a health check probe completes.
+   *
+   * @param duration Duration of the probe.
+   * @param timeUnit Time unit of the duration.
+   * @param healthy Whether the probe found the job healthy.
+   */
+  void probeFinished(long duration, TimeUnit timeUnit, boolean healthy);
+}
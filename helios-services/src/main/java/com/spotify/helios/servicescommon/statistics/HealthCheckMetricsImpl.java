@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.statistics;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records a probe latency timer and success and failure meters across all jobs on the agent,
+ * i.e. helios.health_check.probe_latency, helios.health_check.probe_success and
+ * helios.health_check.probe_failure. Metrics are not kept per job, since jobs come and go on a
+ * long-lived agent and every job would add metrics that are never removed.
+ */
+public class HealthCheckMetricsImpl implements HealthCheckMetrics {
+
+  private static final String TYPE = "health_check";
+
+  private final Timer latency;
+  private final Meter success;
+  private final Meter failure;
+
+  public HealthCheckMetricsImpl(final String group, final MetricRegistry registry) {
+    final String prefix = MetricRegistry.name(group, TYPE) + ".";
+    this.latency = registry.timer(prefix + "probe_latency");
+    this.success = registry.meter(prefix + "probe_success");
+    this.failure = registry.meter(prefix + "probe_failure");
+  }
+
+  @Override
+  public void probeFinished(final long duration, final TimeUnit timeUnit, final boolean healthy) {
+    latency.update(duration, timeUnit);
+    if (healthy) {
+      success.mark();
+    } else {
+      failure.mark();
+    }
+  }
+}
@@ -30,4 +30,15 @@ public interface MasterMetrics {
   void jobsInJobList(int count);
 
   void jobsHistoryEventSize(int count);
+
+  void zooKeeperUsage(String name, long operations, long bytesRead, long bytesWritten,
+                      long durationNanos);
+
+  void coalescedReadHit(String name);
+
+  void coalescedReadMiss(String name);
+
+  void admissionQueued(String name, long durationNanos);
+
+  void admissionRejected(String name);
 }
@@ -24,6 +24,7 @@ import com.codahale.metrics.MetricRegistry;
 import com.spotify.helios.servicescommon.MasterRequestMetrics;
 
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static com.codahale.metrics.MetricRegistry.name;
 
@@ -85,4 +86,31 @@ public class MasterMetricsImpl implements MasterMetrics {
   public void jobsHistoryEventSize(final int count) {
     eventsInJobHistoryHist.update(count);
   }
+
+  @Override
+  public void zooKeeperUsage(final String name, final long operations, final long bytesRead,
+                             final long bytesWritten, final long durationNanos) {
+    request(name).zooKeeperUsage(operations, bytesRead, bytesWritten, durationNanos);
+  }
+
+  @Override
+  public void coalescedReadHit(final String name) {
+    registry.meter(name(group, TYPE + "_coalesced_read_hit", name)).mark();
+  }
+
+  @Override
+  public void coalescedReadMiss(final String name) {
+    registry.meter(name(group, TYPE + "_coalesced_read_miss", name)).mark();
+  }
+
+  @Override
+  public void admissionQueued(final String name, final long durationNanos) {
+    registry.timer(name(group, TYPE + "_admission_queued", name))
+        .update(durationNanos, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void admissionRejected(final String name) {
+    registry.meter(name(group, TYPE + "_admission_rejected", name)).mark();
+  }
 }
@@ -29,4 +29,8 @@ public interface Metrics {
 
   ZooKeeperMetrics getZooKeeperMetrics();
 
+  DockerMetrics getDockerMetrics();
+
+  HealthCheckMetrics getHealthCheckMetrics();
+
 }
@@ -31,16 +31,25 @@ public class MetricsImpl implements Metrics {
   private final SupervisorMetrics supervisorMetrics;
   private final MasterMetrics masterMetrics;
   private final ZooKeeperMetrics zooKeeperMetrics;
+  private final DockerMetrics dockerMetrics;
+  private final HealthCheckMetrics healthCheckMetrics;
   private final JmxReporter jmxReporter;
 
   public MetricsImpl(final MetricRegistry registry, final Type type) {
-    // MasterMetrics is only for masters, and SupervisorMetrics only for agents
+    // MasterMetrics is only for masters, and SupervisorMetrics, DockerMetrics and
+    // HealthCheckMetrics only for agents
     this.masterMetrics = type == Type.MASTER ? new MasterMetricsImpl(GROUP, registry)
                                              : new NoopMasterMetrics();
 
     this.supervisorMetrics = type == Type.AGENT ? new SupervisorMetricsImpl(GROUP, registry)
                                                 : new NoopSupervisorMetrics();
 
+    this.dockerMetrics = type == Type.AGENT ? new DockerMetricsImpl(GROUP, registry)
+                                            : new NoopDockerMetrics();
+
+    this.healthCheckMetrics = type == Type.AGENT ? new HealthCheckMetricsImpl(GROUP, registry)
+                                                 : new NoopHealthCheckMetrics();
+
     this.zooKeeperMetrics = new ZooKeeperMetricsImpl(GROUP, registry);
     this.jmxReporter = JmxReporter.forRegistry(registry).build();
   }
@@ -69,4 +78,14 @@ public class MetricsImpl implements Metrics {
   public ZooKeeperMetrics getZooKeeperMetrics() {
     return zooKeeperMetrics;
   }
+
+  @Override
+  public DockerMetrics getDockerMetrics() {
+    return dockerMetrics;
+  }
+
+  @Override
+  public HealthCheckMetrics getHealthCheckMetrics() {
+    return healthCheckMetrics;
+  }
 }
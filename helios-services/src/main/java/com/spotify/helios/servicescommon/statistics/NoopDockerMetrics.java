@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.statistics;
+
+import java.util.concurrent.TimeUnit;
+
+public class NoopDockerMetrics implements DockerMetrics {
+
+  @Override
+  public void callStarted(final String method) {}
+
+  @Override
+  public void callFinished(final String method, final long duration, final TimeUnit timeUnit,
+                           final boolean failed) {}
+}
@@ -36,4 +36,20 @@ public class NoopMasterMetrics implements MasterMetrics {
 
   @Override
   public void jobsHistoryEventSize(int count) {}
+
+  @Override
+  public void zooKeeperUsage(final String name, final long operations, final long bytesRead,
+                             final long bytesWritten, final long durationNanos) {}
+
+  @Override
+  public void coalescedReadHit(final String name) {}
+
+  @Override
+  public void coalescedReadMiss(final String name) {}
+
+  @Override
+  public void admissionQueued(final String name, final long durationNanos) {}
+
+  @Override
+  public void admissionRejected(final String name) {}
 }
@@ -40,4 +40,14 @@ public class NoopMetrics implements Metrics {
     return new NoopZooKeeperMetrics();
   }
 
+  @Override
+  public DockerMetrics getDockerMetrics() {
+    return new NoopDockerMetrics();
+  }
+
+  @Override
+  public HealthCheckMetrics getHealthCheckMetrics() {
+    return new NoopHealthCheckMetrics();
+  }
+
 }
@@ -59,6 +59,18 @@ public class NoopSupervisorMetrics implements SupervisorMetrics {
   @Override
   public void supervisorRun() {}
 
+  @Override
+  public void agentRecovery(final long durationNanos, final int recoveredContainers) {}
+
+  @Override
+  public void containersReaped(final int candidates, final int reaped) {}
+
+  @Override
+  public void taskStatusPublished() {}
+
+  @Override
+  public void taskStatusCoalesced() {}
+
   @Override
   public MeterRates getDockerTimeoutRates() {
     return new MeterRates(0, 0, 0);
@@ -26,4 +26,10 @@ public class NoopZooKeeperMetrics implements ZooKeeperMetrics {
   @Override
   public void updateTimer(String name, long duration, TimeUnit timeUnit) {
   }
+
+  @Override
+  public void recursiveDeleteProgress(int deleted, int remaining) {}
+
+  @Override
+  public void reconnectResync(boolean avoided) {}
 }
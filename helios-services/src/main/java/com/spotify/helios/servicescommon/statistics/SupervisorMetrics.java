@@ -43,6 +43,14 @@ public interface SupervisorMetrics {
 
   void supervisorRun();
 
+  void agentRecovery(long durationNanos, int recoveredContainers);
+
+  void containersReaped(int candidates, int reaped);
+
+  void taskStatusPublished();
+
+  void taskStatusCoalesced();
+
   MeterRates getDockerTimeoutRates();
   MeterRates getContainersThrewExceptionRates();
   MeterRates getSupervisorRunRates();
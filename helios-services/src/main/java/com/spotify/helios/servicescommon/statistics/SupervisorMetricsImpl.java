@@ -20,6 +20,9 @@ package com.spotify.helios.servicescommon.statistics;
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 public class SupervisorMetricsImpl implements SupervisorMetrics {
   private static final String TYPE = "agent_supervisor";
@@ -31,6 +34,7 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
   private final Counter containersRunningCounter;
   private final Counter containersThrewExceptionCounter;
   private final Counter imageCacheHitCounter;
+  private final Counter imageCacheMissCounter;
   private final Counter supervisorClosedCounter;
   private final Counter supervisorStartedCounter;
   private final Counter supervisorStoppedCounter;
@@ -43,10 +47,18 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
   private final Meter containersThrewExceptionMeter;
   private final Meter dockerTimeoutMeter;
   private final Meter imageCacheHitMeter;
+  private final Meter imageCacheMissMeter;
   private final Meter supervisorClosedMeter;
   private final Meter supervisorStartedMeter;
   private final Meter supervisorStoppedMeter;
   private final Meter supervisorRunMeter;
+  private final Meter recoveredContainersMeter;
+  private final Meter reapCandidatesMeter;
+  private final Meter containersReapedMeter;
+  private final Meter taskStatusPublishedMeter;
+  private final Meter taskStatusCoalescedMeter;
+
+  private final Timer agentRecoveryTimer;
 
 
   public SupervisorMetricsImpl(final String group,
@@ -60,6 +72,7 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
     containersThrewExceptionCounter = registry.counter(
         prefix + "containers_threw_exception_counter");
     imageCacheHitCounter = registry.counter(prefix + "image_cache_hit_counter");
+    imageCacheMissCounter = registry.counter(prefix + "image_cache_miss_counter");
     supervisorClosedCounter = registry.counter(prefix + "supervisor_closed_counter");
     supervisorStartedCounter = registry.counter(prefix + "supervisors_created_counter");
     supervisorStoppedCounter = registry.counter(prefix + "supervisor_stopped_counter");
@@ -71,11 +84,19 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
     containersRunningMeter = registry.meter(prefix + "containers_running_meter");
     containersThrewExceptionMeter = registry.meter(prefix + "containers_threw_exception_meter");
     imageCacheHitMeter = registry.meter(prefix + "image_cache_hit_meter");
+    imageCacheMissMeter = registry.meter(prefix + "image_cache_miss_meter");
     supervisorClosedMeter = registry.meter(prefix + "supervisor_closed_meter");
     supervisorStartedMeter = registry.meter(prefix + "supervisors_created_meter");
     supervisorStoppedMeter = registry.meter(prefix + "supervisor_stopped_meter");
     supervisorRunMeter = registry.meter(prefix + "supervisor_run_meter");
     dockerTimeoutMeter = registry.meter(prefix + "docker_timeout_meter");
+    recoveredContainersMeter = registry.meter(prefix + "recovered_containers_meter");
+    reapCandidatesMeter = registry.meter(prefix + "reap_candidates_meter");
+    containersReapedMeter = registry.meter(prefix + "containers_reaped_meter");
+    taskStatusPublishedMeter = registry.meter(prefix + "task_status_published_meter");
+    taskStatusCoalescedMeter = registry.meter(prefix + "task_status_coalesced_meter");
+
+    agentRecoveryTimer = registry.timer(prefix + "agent_recovery_timer");
 
     imagePull = new RequestMetrics(group, TYPE, "image_pull", registry);
   }
@@ -135,7 +156,8 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
 
   @Override
   public void imageCacheMiss() {
-    // TODO (dano): implement
+    imageCacheMissCounter.inc();
+    imageCacheMissMeter.mark();
   }
 
   @Override
@@ -155,6 +177,28 @@ public class SupervisorMetricsImpl implements SupervisorMetrics {
     supervisorRunMeter.mark();
   }
 
+  @Override
+  public void agentRecovery(final long durationNanos, final int recoveredContainers) {
+    agentRecoveryTimer.update(durationNanos, NANOSECONDS);
+    recoveredContainersMeter.mark(recoveredContainers);
+  }
+
+  @Override
+  public void containersReaped(final int candidates, final int reaped) {
+    reapCandidatesMeter.mark(candidates);
+    containersReapedMeter.mark(reaped);
+  }
+
+  @Override
+  public void taskStatusPublished() {
+    taskStatusPublishedMeter.mark();
+  }
+
+  @Override
+  public void taskStatusCoalesced() {
+    taskStatusCoalescedMeter.mark();
+  }
+
   @Override
   public MeterRates getContainersThrewExceptionRates() {
     return new MeterRates(containersThrewExceptionMeter);
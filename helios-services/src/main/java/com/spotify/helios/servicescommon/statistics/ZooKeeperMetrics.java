@@ -37,4 +37,20 @@ public interface ZooKeeperMetrics {
    * @param timeUnit Time unit of the duration.
    */
   void updateTimer(String name, long duration, TimeUnit timeUnit);
+
+  /**
+   * Call this after each multi-op of a recursive delete.
+   *
+   * @param deleted   Number of nodes the multi-op deleted.
+   * @param remaining Number of nodes known to remain in the subtree being deleted.
+   */
+  void recursiveDeleteProgress(int deleted, int remaining);
+
+  /**
+   * Call this when a cache of ZooKeeper state has decided whether to read its state again after
+   * the connection to ZooKeeper was reestablished.
+   *
+   * @param avoided True if the state was known to be unchanged and was not read again.
+   */
+  void reconnectResync(boolean avoided);
 }
@@ -18,6 +18,7 @@
 package com.spotify.helios.servicescommon.statistics;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 
@@ -30,6 +31,10 @@ public class ZooKeeperMetricsImpl implements ZooKeeperMetrics {
   private final String prefix;
   private final Counter transientErrorCounter;
   private final Meter transientErrorMeter;
+  private final Meter recursiveDeleteNodesMeter;
+  private final Histogram recursiveDeleteRemainingHistogram;
+  private final Meter reconnectResyncMeter;
+  private final Meter reconnectResyncAvoidedMeter;
   private final MetricRegistry registry;
 
   public ZooKeeperMetricsImpl(final String group, final MetricRegistry registry) {
@@ -37,6 +42,10 @@ public class ZooKeeperMetricsImpl implements ZooKeeperMetrics {
     this.registry = registry;
     transientErrorCounter = registry.counter(prefix + "transient_error_count");
     transientErrorMeter = registry.meter(prefix + "transient_error_meter");
+    recursiveDeleteNodesMeter = registry.meter(prefix + "recursive_delete_nodes");
+    recursiveDeleteRemainingHistogram = registry.histogram(prefix + "recursive_delete_remaining");
+    reconnectResyncMeter = registry.meter(prefix + "reconnect_resync");
+    reconnectResyncAvoidedMeter = registry.meter(prefix + "reconnect_resync_avoided");
   }
 
   @Override
@@ -49,4 +58,19 @@ public class ZooKeeperMetricsImpl implements ZooKeeperMetrics {
   public void updateTimer(final String name, final long duration, final TimeUnit timeUnit) {
     registry.timer(prefix + name).update(duration, timeUnit);
   }
+
+  @Override
+  public void recursiveDeleteProgress(final int deleted, final int remaining) {
+    recursiveDeleteNodesMeter.mark(deleted);
+    recursiveDeleteRemainingHistogram.update(remaining);
+  }
+
+  @Override
+  public void reconnectResync(final boolean avoided) {
+    if (avoided) {
+      reconnectResyncAvoidedMeter.mark();
+    } else {
+      reconnectResyncMeter.mark();
+    }
+  }
 }
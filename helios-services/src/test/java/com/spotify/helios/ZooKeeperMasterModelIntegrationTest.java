@@ -17,6 +17,7 @@
 
 package com.spotify.helios;
 
+import static com.google.common.collect.Iterables.getLast;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
@@ -35,9 +36,13 @@ import com.spotify.helios.common.descriptors.Goal;
 import com.spotify.helios.common.descriptors.HostSelector;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.TaskStatus;
+import com.spotify.helios.common.descriptors.TaskStatusEvent;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
 import com.spotify.helios.master.DeploymentGroupDoesNotExistException;
 import com.spotify.helios.master.DeploymentGroupExistsException;
 import com.spotify.helios.master.HostNotFoundException;
+import com.spotify.helios.master.JobAlreadyDeployedException;
 import com.spotify.helios.master.JobDoesNotExistException;
 import com.spotify.helios.master.JobNotDeployedException;
 import com.spotify.helios.master.JobStillDeployedException;
@@ -50,6 +55,8 @@ import com.spotify.helios.servicescommon.coordination.ZooKeeperClientProvider;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperModelReporter;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
 
 import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
@@ -214,6 +221,37 @@ public class ZooKeeperMasterModelIntegrationTest {
     }
   }
 
+  @Test
+  public void testBulkDeploy() throws Exception {
+    final Deployment deployment =
+        Deployment.newBuilder().setGoal(Goal.START).setJobId(JOB_ID).build();
+    final List<String> hosts = ImmutableList.of("host1", "host2", "host3", "missing");
+
+    model.addJob(JOB);
+    model.registerHost("host1", "foo");
+    model.registerHost("host2", "foo");
+    model.registerHost("host3", "foo");
+    model.deployJob("host3", deployment);
+
+    final Map<String, HeliosException> deployFailures = model.deployJob(hosts, deployment, "");
+    assertEquals(ImmutableSet.of("host3", "missing"), deployFailures.keySet());
+    assertTrue(deployFailures.get("host3") instanceof JobAlreadyDeployedException);
+    assertTrue(deployFailures.get("missing") instanceof HostNotFoundException);
+    assertNotNull(model.getDeployment("host1", JOB_ID));
+    assertNotNull(model.getDeployment("host2", JOB_ID));
+
+    model.undeployJob("host2", JOB_ID);
+
+    final Map<String, HeliosException> undeployFailures = model.undeployJob(hosts, JOB_ID, "");
+    assertEquals(ImmutableSet.of("host2", "missing"), undeployFailures.keySet());
+    assertTrue(undeployFailures.get("host2") instanceof JobNotDeployedException);
+    assertTrue(undeployFailures.get("missing") instanceof HostNotFoundException);
+    assertNull(model.getDeployment("host1", JOB_ID));
+    assertNull(model.getDeployment("host3", JOB_ID));
+
+    model.removeJob(JOB_ID);
+  }
+
   @Test
   public void testHostRegistration() throws Exception {
     model.registerHost(HOST, "foo");
@@ -305,4 +343,49 @@ public class ZooKeeperMasterModelIntegrationTest {
   public void testRemoveNonExistingDeploymentGroup() throws Exception {
     model.removeDeploymentGroup(DEPLOYMENT_GROUP_NAME);
   }
+
+  @Test
+  public void testJobHistoryPaging() throws Exception {
+    model.addJob(JOB);
+    final TaskStatus status = TaskStatus.newBuilder()
+        .setJob(JOB)
+        .setGoal(Goal.START)
+        .setState(TaskStatus.State.RUNNING)
+        .build();
+    // Interleave the events of two hosts, including a timestamp both hosts share
+    for (final long timestamp : ImmutableList.of(1L, 3L, 5L)) {
+      client.ensurePathAndSetData(Paths.historyJobHostEventsTimestamp(JOB_ID, "a", timestamp),
+                                  status.toJsonBytes());
+    }
+    for (final long timestamp : ImmutableList.of(2L, 3L, 10L)) {
+      client.ensurePathAndSetData(Paths.historyJobHostEventsTimestamp(JOB_ID, "b", timestamp),
+                                  status.toJsonBytes());
+    }
+
+    final List<TaskStatusEvent> all = model.getJobHistory(JOB_ID);
+    assertEquals(ImmutableList.of("1:a", "2:b", "3:a", "3:b", "5:a", "10:b"), cursors(all));
+
+    final List<TaskStatusEvent> first = model.getJobHistory(
+        JOB_ID, JobHistoryQuery.newBuilder().setLimit(3).build());
+    assertEquals(ImmutableList.of("1:a", "2:b", "3:a"), cursors(first));
+
+    final List<TaskStatusEvent> second = model.getJobHistory(
+        JOB_ID, JobHistoryQuery.newBuilder()
+            .setLimit(3)
+            .setCursor(JobHistoryQuery.cursor(getLast(first)))
+            .build());
+    assertEquals(ImmutableList.of("3:b", "5:a", "10:b"), cursors(second));
+
+    final List<TaskStatusEvent> bounded = model.getJobHistory(
+        JOB_ID, JobHistoryQuery.newBuilder().setSince(2L).setUntil(10L).setHost("b").build());
+    assertEquals(ImmutableList.of("2:b", "3:b"), cursors(bounded));
+  }
+
+  private static List<String> cursors(final List<TaskStatusEvent> events) {
+    final List<String> cursors = Lists.newArrayList();
+    for (final TaskStatusEvent event : events) {
+      cursors.add(JobHistoryQuery.cursor(event));
+    }
+    return cursors;
+  }
 }
@@ -17,6 +17,7 @@
 
 package com.spotify.helios.agent;
 
+import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -33,12 +34,14 @@ import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.servicescommon.PersistentAtomicReference;
 import com.spotify.helios.servicescommon.Reactor;
 import com.spotify.helios.servicescommon.ReactorFactory;
+import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
@@ -58,6 +61,7 @@ import static com.spotify.helios.common.descriptors.TaskStatus.State.RUNNING;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyMap;
 import static org.mockito.Matchers.anyMapOf;
@@ -66,6 +70,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -139,11 +144,11 @@ public class AgentTest {
         .thenReturn(FOO_PORT_ALLOCATION);
     when(portAllocator.allocate(eq(BAR_JOB.getPorts()), anySet()))
         .thenReturn(BAR_PORT_ALLOCATION);
-    when(supervisorFactory.create(eq(FOO_JOB), anyString(),
+    when(supervisorFactory.create(eq(FOO_JOB), anyString(), anyBoolean(),
                                   anyMapOf(String.class, Integer.class),
                                   any(Supervisor.Listener.class)))
         .thenReturn(fooSupervisor);
-    when(supervisorFactory.create(eq(BAR_JOB), anyString(),
+    when(supervisorFactory.create(eq(BAR_JOB), anyString(), anyBoolean(),
                                   anyMapOf(String.class, Integer.class),
                                   any(Supervisor.Listener.class)))
         .thenReturn(barSupervisor);
@@ -159,7 +164,8 @@ public class AgentTest {
         return unmodifiableJobStatuses.get(jobId);
       }
     });
-    sut = new Agent(model, supervisorFactory, reactorFactory, executions, portAllocator, reaper);
+    sut = new Agent(model, supervisorFactory, reactorFactory, executions, portAllocator, reaper,
+                    new NoopSupervisorMetrics());
   }
 
   private void mockService(final Service service) {
@@ -204,6 +210,19 @@ public class AgentTest {
     verify(reactor, times(2)).signal();
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void verifyReaperRunsOnItsOwnSchedule() throws Exception {
+    startAgent();
+    verify(reaper).start(any(Supplier.class));
+
+    callback.run(false);
+    verify(reaper, never()).reap(any(Supplier.class));
+
+    sut.stopAsync().awaitTerminated();
+    verify(reaper).stop();
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void verifyAgentRecoversState() throws Exception {
@@ -240,11 +259,11 @@ public class AgentTest {
 
     verify(portAllocator, never()).allocate(anyMap(), anySet());
 
-    verify(supervisorFactory).create(eq(BAR_JOB), eq(barContainerId),
+    verify(supervisorFactory).create(eq(BAR_JOB), eq(barContainerId), anyBoolean(),
                                      eq(EMPTY_PORT_ALLOCATION),
                                      any(Supervisor.Listener.class));
 
-    verify(supervisorFactory).create(eq(FOO_JOB), eq(fooContainerId),
+    verify(supervisorFactory).create(eq(FOO_JOB), eq(fooContainerId), anyBoolean(),
                                      eq(EMPTY_PORT_ALLOCATION),
                                      any(Supervisor.Listener.class));
     callback.run(false);
@@ -266,6 +285,49 @@ public class AgentTest {
     verify(barSupervisor, atLeastOnce()).setGoal(STOP);
   }
 
+  @Test
+  public void verifyAgentRecoversRunningContainersWithSingleListing() throws Exception {
+    configure(FOO_JOB, START);
+    configure(BAR_JOB, START);
+
+    executions.setUnchecked(ImmutableMap.of(
+        BAR_JOB.getId(), Execution.of(BAR_JOB)
+            .withGoal(START)
+            .withPorts(EMPTY_PORT_ALLOCATION),
+        FOO_JOB.getId(), Execution.of(FOO_JOB)
+            .withGoal(START)
+            .withPorts(EMPTY_PORT_ALLOCATION)
+    ));
+
+    final String fooContainerId = "foo_container_id";
+    final String barContainerId = "bar_container_id";
+    jobStatuses.put(FOO_JOB.getId(), TaskStatus.newBuilder()
+        .setGoal(START)
+        .setJob(FOO_JOB)
+        .setContainerId(fooContainerId)
+        .setState(RUNNING)
+        .build());
+    jobStatuses.put(BAR_JOB.getId(), TaskStatus.newBuilder()
+        .setGoal(START)
+        .setJob(BAR_JOB)
+        .setContainerId(barContainerId)
+        .setState(RUNNING)
+        .build());
+
+    // Only foo's container is still running
+    when(reaper.runningContainers()).thenReturn(ImmutableSet.of(fooContainerId));
+
+    startAgent();
+
+    verify(reaper, times(1)).runningContainers();
+    verify(supervisorFactory).create(eq(FOO_JOB), eq(fooContainerId), eq(true),
+                                     eq(EMPTY_PORT_ALLOCATION),
+                                     any(Supervisor.Listener.class));
+    verify(supervisorFactory).create(eq(BAR_JOB), eq(barContainerId), eq(false),
+                                     eq(EMPTY_PORT_ALLOCATION),
+                                     any(Supervisor.Listener.class));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void verifyAgentRecoversStateAndStopsUndesiredSupervisors() throws Exception {
@@ -284,7 +346,7 @@ public class AgentTest {
 
     // Verify that the undesired supervisor was created
     verify(portAllocator, never()).allocate(anyMap(), anySet());
-    verify(supervisorFactory).create(eq(FOO_JOB), anyString(),
+    verify(supervisorFactory).create(eq(FOO_JOB), anyString(), anyBoolean(),
                                      eq(EMPTY_PORT_ALLOCATION), any(Supervisor.Listener.class));
 
     // ... and then stopped
@@ -306,7 +368,7 @@ public class AgentTest {
 
     start(FOO_JOB);
     verify(portAllocator).allocate(FOO_JOB.getPorts(), EMPTY_PORT_SET);
-    verify(supervisorFactory).create(eq(FOO_JOB), anyString(),
+    verify(supervisorFactory).create(eq(FOO_JOB), anyString(), anyBoolean(),
                                      eq(FOO_PORT_ALLOCATION),
                                      any(Supervisor.Listener.class));
 
@@ -315,7 +377,7 @@ public class AgentTest {
 
     start(BAR_JOB);
     verify(portAllocator).allocate(BAR_JOB.getPorts(), FOO_PORT_SET);
-    verify(supervisorFactory).create(eq(BAR_JOB), anyString(),
+    verify(supervisorFactory).create(eq(BAR_JOB), anyString(), anyBoolean(),
                                      eq(EMPTY_PORT_ALLOCATION),
                                      any(Supervisor.Listener.class));
     verify(barSupervisor).setGoal(START);
@@ -355,7 +417,7 @@ public class AgentTest {
     // Verify that a new supervisor is created after the previous one is discarded
     start(FOO_JOB);
     verify(portAllocator, times(2)).allocate(FOO_JOB.getPorts(), EMPTY_PORT_SET);
-    verify(supervisorFactory, times(2)).create(eq(FOO_JOB), anyString(),
+    verify(supervisorFactory, times(2)).create(eq(FOO_JOB), anyString(), anyBoolean(),
                                                eq(FOO_PORT_ALLOCATION),
                                                any(Supervisor.Listener.class));
     verify(fooSupervisor, atLeast(2)).setGoal(START);
@@ -371,4 +433,15 @@ public class AgentTest {
     verify(fooSupervisor).join();
     verify(fooSupervisor, never()).setGoal(STOP);
   }
+
+  @Test
+  public void verifyStopClosesSupervisorFactoryAfterSupervisors() throws Exception {
+    startAgent();
+
+    start(FOO_JOB);
+    sut.stopAsync().awaitTerminated();
+    final InOrder inOrder = inOrder(fooSupervisor, supervisorFactory);
+    inOrder.verify(fooSupervisor).join();
+    inOrder.verify(supervisorFactory).close();
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.TaskStatus;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.spotify.helios.common.descriptors.Goal.START;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.CREATING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.FAILED;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.PULLING_IMAGE;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.RUNNING;
+import static com.spotify.helios.common.descriptors.TaskStatus.State.STARTING;
+import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DefaultStatusUpdaterTest {
+
+  private static final Job JOB = Job.newBuilder()
+      .setName("foo")
+      .setVersion("17")
+      .setImage("foo:4711")
+      .setCommand(asList("foo", "bar"))
+      .build();
+
+  private static final long COALESCE_MILLIS = 100;
+
+  @Mock private AgentModel model;
+  @Mock private SupervisorMetrics metrics;
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @After
+  public void teardown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void testCoalescesStartupTransitions() throws Exception {
+    final DefaultStatusUpdater sut = new DefaultStatusUpdater(
+        model, TaskStatus.newBuilder().setJob(JOB), scheduler, COALESCE_MILLIS, metrics);
+
+    update(sut, PULLING_IMAGE);
+    update(sut, CREATING);
+    update(sut, STARTING);
+    update(sut, RUNNING);
+
+    // Give a held back status the chance to be wrongly published
+    Thread.sleep(COALESCE_MILLIS * 3);
+
+    final ArgumentCaptor<TaskStatus> captor = ArgumentCaptor.forClass(TaskStatus.class);
+    verify(model).setTaskStatus(eq(JOB.getId()), captor.capture());
+    assertEquals(RUNNING, captor.getValue().getState());
+    verify(metrics, times(3)).taskStatusCoalesced();
+    verify(metrics).taskStatusPublished();
+  }
+
+  @Test
+  public void testPublishesLatestHeldBackState() throws Exception {
+    final DefaultStatusUpdater sut = new DefaultStatusUpdater(
+        model, TaskStatus.newBuilder().setJob(JOB), scheduler, COALESCE_MILLIS, metrics);
+
+    update(sut, CREATING);
+    update(sut, STARTING);
+
+    final ArgumentCaptor<TaskStatus> captor = ArgumentCaptor.forClass(TaskStatus.class);
+    verify(model, timeout(10000)).setTaskStatus(eq(JOB.getId()), captor.capture());
+    assertEquals(STARTING, captor.getValue().getState());
+    verify(metrics).taskStatusCoalesced();
+  }
+
+  @Test
+  public void testPublishesFailureImmediately() throws Exception {
+    final DefaultStatusUpdater sut = new DefaultStatusUpdater(
+        model, TaskStatus.newBuilder().setJob(JOB), scheduler, COALESCE_MILLIS, metrics);
+
+    update(sut, FAILED);
+    update(sut, FAILED);
+
+    verify(model, times(2)).setTaskStatus(any(JobId.class), any(TaskStatus.class));
+  }
+
+  @Test
+  public void testPublishesHeldBackStatusWhenSchedulerShutsDown() throws Exception {
+    final DefaultStatusUpdater sut = new DefaultStatusUpdater(
+        model, TaskStatus.newBuilder().setJob(JOB), scheduler, COALESCE_MILLIS, metrics);
+
+    update(sut, STARTING);
+    // This is how SupervisorFactory.close() stops the scheduler
+    scheduler.shutdown();
+    assertTrue(scheduler.awaitTermination(10, SECONDS));
+
+    final ArgumentCaptor<TaskStatus> captor = ArgumentCaptor.forClass(TaskStatus.class);
+    verify(model).setTaskStatus(eq(JOB.getId()), captor.capture());
+    assertEquals(STARTING, captor.getValue().getState());
+  }
+
+  @Test
+  public void testPublishesEveryStatusWithoutScheduler() throws Exception {
+    final DefaultStatusUpdater sut = new DefaultStatusUpdater(
+        model, TaskStatus.newBuilder().setJob(JOB));
+
+    update(sut, PULLING_IMAGE);
+    update(sut, CREATING);
+
+    verify(model, times(2)).setTaskStatus(any(JobId.class), any(TaskStatus.class));
+  }
+
+  private static void update(final StatusUpdater updater, final TaskStatus.State state)
+      throws InterruptedException {
+    updater.setGoal(START);
+    updater.setState(state);
+    updater.update();
+  }
+}
@@ -37,6 +37,8 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ExecHealthCheckerTest {
@@ -101,4 +103,12 @@ public class ExecHealthCheckerTest {
     exception.expect(UnsupportedOperationException.class);
     checker.check(CONTAINER_ID);
   }
+
+  @Test
+  public void testDockerVersionIsCheckedOnce() throws Exception {
+    assertThat(checker.check(CONTAINER_ID), is(true));
+    assertThat(checker.check(CONTAINER_ID), is(true));
+
+    verify(docker, times(1)).version();
+  }
 }
@@ -42,6 +42,7 @@ import com.spotify.helios.common.descriptors.ThrottleState;
 import com.spotify.helios.serviceregistration.NopServiceRegistrationHandle;
 import com.spotify.helios.serviceregistration.ServiceRegistrar;
 import com.spotify.helios.serviceregistration.ServiceRegistration;
+import com.spotify.helios.servicescommon.statistics.NoopHealthCheckMetrics;
 import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
 
 import org.junit.After;
@@ -151,6 +152,9 @@ public class GracePeriodTest {
   @Mock public ServiceRegistrar registrar;
   @Mock public Sleeper sleeper;
 
+  private final HealthCheckScheduler healthCheckScheduler =
+      new HealthCheckScheduler(1, new NoopHealthCheckMetrics());
+
   @Captor public ArgumentCaptor<ContainerConfig> containerConfigCaptor;
   @Captor public ArgumentCaptor<String> containerNameCaptor;
   @Captor public ArgumentCaptor<TaskStatus> taskStatusCaptor;
@@ -184,6 +188,8 @@ public class GracePeriodTest {
         .registrar(registrar)
         .config(config)
         .dockerClient(docker)
+        .imageManager(new ImageManager(docker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(monitor)
         .build();
 
@@ -224,6 +230,7 @@ public class GracePeriodTest {
       sut.close();
       sut.join();
     }
+    healthCheckScheduler.stop();
   }
 
   @Test
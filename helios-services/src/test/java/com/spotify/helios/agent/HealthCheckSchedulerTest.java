@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+import com.spotify.helios.servicescommon.statistics.HealthCheckMetrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class HealthCheckSchedulerTest {
+
+  private static final String JOB = "foo:17";
+  private static final String CONTAINER_ID = "deadbeef";
+
+  @Mock private HealthChecker checker;
+  @Mock private HealthCheckScheduler.FailureHandler onFailure;
+  @Mock private HealthCheckMetrics metrics;
+
+  private HealthCheckScheduler sut;
+
+  @Before
+  public void setUp() throws Exception {
+    sut = new HealthCheckScheduler(2, metrics);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    sut.stop();
+  }
+
+  @Test
+  public void testCompletesWhenHealthy() throws Exception {
+    when(checker.check(CONTAINER_ID)).thenReturn(false, true);
+
+    final ListenableFuture<Void> future = sut.healthCheck(JOB, CONTAINER_ID, checker, onFailure);
+    future.get(30, SECONDS);
+
+    verify(checker, times(2)).check(CONTAINER_ID);
+    verify(onFailure).failed(CONTAINER_ID);
+    verify(metrics).probeFinished(anyLong(), any(TimeUnit.class), eq(false));
+    verify(metrics).probeFinished(anyLong(), any(TimeUnit.class), eq(true));
+  }
+
+  @Test
+  public void testFailureHandlerAbortsHealthChecking() throws Exception {
+    final RuntimeException exception = new RuntimeException("container exited");
+    when(checker.check(CONTAINER_ID)).thenReturn(false);
+    doThrow(exception).when(onFailure).failed(CONTAINER_ID);
+
+    final ListenableFuture<Void> future = sut.healthCheck(JOB, CONTAINER_ID, checker, onFailure);
+    try {
+      future.get(30, SECONDS);
+      fail("health check should have failed");
+    } catch (ExecutionException e) {
+      assertSame(exception, e.getCause());
+    }
+
+    verify(checker, times(1)).check(CONTAINER_ID);
+  }
+
+  @Test
+  public void testCheckerExceptionFailsHealthCheck() throws Exception {
+    final UnsupportedOperationException exception = new UnsupportedOperationException();
+    when(checker.check(CONTAINER_ID)).thenThrow(exception);
+
+    final ListenableFuture<Void> future = sut.healthCheck(JOB, CONTAINER_ID, checker, onFailure);
+    try {
+      future.get(30, SECONDS);
+      fail("health check should have failed");
+    } catch (ExecutionException e) {
+      assertEquals(exception, e.getCause());
+    }
+
+    verify(onFailure, never()).failed(CONTAINER_ID);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.DockerHost;
+import com.spotify.helios.common.descriptors.HealthCheck;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.PortMapping;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import static com.google.common.base.Charsets.US_ASCII;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class HttpHealthCheckerTest {
+
+  private static final String PORT_NAME = "http";
+
+  private ServerSocket server;
+  private Thread serverThread;
+
+  @Before
+  public void setUp() throws Exception {
+    server = new ServerSocket(0, 1, InetAddress.getByName("127.0.0.1"));
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    server.close();
+    if (serverThread != null) {
+      serverThread.join();
+    }
+  }
+
+  @Test
+  public void testResetWhileReadingBodyDoesNotFailHealthyResponse() throws Exception {
+    respond("HTTP/1.1 200 OK\r\nContent-Length: 1000\r\n\r\ntruncated", true);
+
+    assertThat(checker().check("container"), is(true));
+  }
+
+  @Test
+  public void testErrorResponseIsUnhealthy() throws Exception {
+    respond("HTTP/1.1 500 Internal Server Error\r\nContent-Length: 5\r\n\r\nerror", false);
+
+    assertThat(checker().check("container"), is(false));
+  }
+
+  private HealthChecker checker() {
+    final Job job = Job.newBuilder()
+        .setName("foo")
+        .setVersion("17")
+        .setImage("spotify:17")
+        .addPort(PORT_NAME, PortMapping.of(8080, server.getLocalPort()))
+        .setHealthCheck(HealthCheck.newHttpHealthCheck()
+                            .setPath("/health")
+                            .setPort(PORT_NAME)
+                            .build())
+        .build();
+    final TaskConfig taskConfig = TaskConfig.builder()
+        .namespace("test")
+        .host("host")
+        .job(job)
+        .build();
+    return HealthCheckerFactory.create(taskConfig, mock(DockerClient.class),
+                                       DockerHost.from("tcp://127.0.0.1:2375", null), false);
+  }
+
+  /**
+   * Answer a single request with the given raw response and close the connection, optionally
+   * resetting it once the client is reading the body.
+   */
+  private void respond(final String response, final boolean reset) {
+    serverThread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try (final Socket socket = server.accept()) {
+          // Read the request first, so that closing the socket doesn't reset the connection
+          final BufferedReader in = new BufferedReader(
+              new InputStreamReader(socket.getInputStream(), US_ASCII));
+          String line;
+          do {
+            line = in.readLine();
+          } while (line != null && !line.isEmpty());
+
+          final OutputStream out = socket.getOutputStream();
+          out.write(response.getBytes(US_ASCII));
+          out.flush();
+          if (reset) {
+            Thread.sleep(500);
+            socket.setSoLinger(true, 0);
+          }
+        } catch (InterruptedException | IOException ignored) {
+          // The test fails on the health check result instead
+        }
+      }
+    });
+    serverThread.start();
+  }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.google.common.collect.ImmutableMap;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.exceptions.ImageNotFoundException;
+import com.spotify.docker.client.messages.ImageInfo;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.Task;
+import com.spotify.helios.servicescommon.statistics.NoopMetricsContext;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ImageManagerTest {
+
+  private static final String IMAGE = "spotify:17";
+
+  @Mock private DockerClient docker;
+  @Mock private SupervisorMetrics metrics;
+  @Mock private AgentModel model;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+  private ImageManager sut;
+
+  @Before
+  public void setUp() throws Exception {
+    when(metrics.containerPull()).thenReturn(new NoopMetricsContext());
+    sut = new ImageManager(docker, metrics);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    sut.stop();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testPresentImageIsNotPulled() throws Exception {
+    when(docker.inspectImage(IMAGE)).thenReturn(new ImageInfo());
+
+    sut.pull(IMAGE);
+
+    verify(docker, never()).pull(IMAGE);
+    verify(metrics).imageCacheHit();
+  }
+
+  @Test
+  public void testMissingImageIsPulled() throws Exception {
+    when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException(IMAGE));
+
+    sut.pull(IMAGE);
+
+    verify(docker).pull(IMAGE);
+    verify(metrics).imageCacheMiss();
+    verify(metrics).containerPull();
+  }
+
+  @Test
+  public void testMutableTagIsAlwaysPulled() throws Exception {
+    when(docker.inspectImage("spotify:latest")).thenReturn(new ImageInfo());
+
+    sut.pull("spotify:latest");
+
+    verify(docker).pull("spotify:latest");
+  }
+
+  @Test
+  public void testIsMutable() throws Exception {
+    assertTrue(ImageManager.isMutable("spotify"));
+    assertTrue(ImageManager.isMutable("spotify:latest"));
+    assertTrue(ImageManager.isMutable("registry:5000/spotify"));
+    assertFalse(ImageManager.isMutable("registry:5000/spotify:17"));
+    assertFalse(ImageManager.isMutable("spotify@sha256:0123456789abcdef"));
+  }
+
+  @Test
+  public void testConcurrentPullsAreCoalesced() throws Exception {
+    when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException(IMAGE));
+
+    final CountDownLatch pullStarted = new CountDownLatch(1);
+    final CountDownLatch pullFinish = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      pullStarted.countDown();
+      pullFinish.await();
+      return null;
+    }).when(docker).pull(IMAGE);
+
+    final Future<?> first = executor.submit(() -> {
+      sut.pull(IMAGE);
+      return null;
+    });
+    assertTrue(pullStarted.await(30, SECONDS));
+
+    final AtomicReference<Thread> secondThread = new AtomicReference<>();
+    final Future<?> second = executor.submit(() -> {
+      secondThread.set(Thread.currentThread());
+      sut.pull(IMAGE);
+      return null;
+    });
+
+    // Wait for the second caller to block on the pull in progress
+    verify(metrics, timeout(30000).times(2)).imageCacheMiss();
+    while (secondThread.get().getState() != Thread.State.WAITING) {
+      Thread.sleep(10);
+    }
+
+    pullFinish.countDown();
+    first.get(30, SECONDS);
+    second.get(30, SECONDS);
+
+    verify(docker, times(1)).pull(IMAGE);
+  }
+
+  @Test
+  public void testPrefetchesImagesOfNewTasks() throws Exception {
+    final Job job = Job.newBuilder()
+        .setName("foo")
+        .setVersion("17")
+        .setImage(IMAGE)
+        .build();
+    when(model.getTasks()).thenReturn(ImmutableMap.of(
+        job.getId(), new Task(job, Goal.STOP, null, null, null)));
+    when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException(IMAGE));
+    final CountDownLatch pullFinish = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      pullFinish.await();
+      return null;
+    }).when(docker).pull(IMAGE);
+
+    sut.tasksChanged(model);
+    sut.tasksChanged(model);
+    pullFinish.countDown();
+
+    verify(docker, timeout(30000)).pull(IMAGE);
+    verify(docker, times(1)).pull(IMAGE);
+  }
+
+  @Test
+  public void testPrefetchesAgainOncePrefetchFinished() throws Exception {
+    when(docker.inspectImage(IMAGE)).thenThrow(new ImageNotFoundException(IMAGE));
+
+    sut.prefetch(IMAGE);
+    verify(docker, timeout(30000)).pull(IMAGE);
+
+    // The image may have been removed since, so a finished prefetch does not stop another one
+    for (int i = 0; i < 300; i++) {
+      sut.prefetch(IMAGE);
+      try {
+        verify(docker, timeout(100).times(2)).pull(IMAGE);
+        return;
+      } catch (AssertionError e) {
+        // The first prefetch has not finished yet
+      }
+    }
+    fail("image was not prefetched again");
+  }
+
+  @Test
+  public void testDoesNotPrefetchPresentImagesAgain() throws Exception {
+    final Job job = Job.newBuilder()
+        .setName("foo")
+        .setVersion("17")
+        .setImage(IMAGE)
+        .build();
+    final ImmutableMap<JobId, Task> tasks = ImmutableMap.of(
+        job.getId(), new Task(job, Goal.START, null, null, null));
+    when(model.getTasks()).thenReturn(tasks);
+    when(docker.inspectImage(IMAGE)).thenReturn(new ImageInfo());
+
+    sut.tasksChanged(model);
+    verify(docker, timeout(30000)).inspectImage(IMAGE);
+    // Wait for the prefetch to record the image as present
+    for (int i = 0; i < 300 && !sut.isPrefetched(IMAGE); i++) {
+      Thread.sleep(100);
+    }
+
+    sut.tasksChanged(model);
+    sut.tasksChanged(model);
+    verify(docker, times(1)).inspectImage(IMAGE);
+
+    // Once the task is gone, the image is checked again when it comes back
+    when(model.getTasks()).thenReturn(ImmutableMap.<JobId, Task>of());
+    sut.tasksChanged(model);
+    when(model.getTasks()).thenReturn(tasks);
+    sut.tasksChanged(model);
+    verify(docker, timeout(30000).times(2)).inspectImage(IMAGE);
+    verify(docker, never()).pull(IMAGE);
+  }
+
+  @Test
+  public void testDoesNotPrefetchUndeployedTasks() throws Exception {
+    final Job job = Job.newBuilder()
+        .setName("foo")
+        .setVersion("17")
+        .setImage(IMAGE)
+        .build();
+    when(model.getTasks()).thenReturn(ImmutableMap.of(
+        job.getId(), new Task(job, Goal.UNDEPLOY, null, null, null)));
+
+    sut.tasksChanged(model);
+    sut.stop();
+
+    verify(docker, never()).inspectImage(IMAGE);
+    verify(docker, never()).pull(IMAGE);
+  }
+}
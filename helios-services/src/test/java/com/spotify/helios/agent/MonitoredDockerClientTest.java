@@ -25,6 +25,9 @@ import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.exceptions.DockerTimeoutException;
 import com.spotify.helios.servicescommon.RiemannFacade;
+import com.spotify.helios.servicescommon.statistics.DockerMetricsImpl;
+
+import com.codahale.metrics.MetricRegistry;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -38,6 +41,7 @@ import org.mockito.runners.MockitoJUnitRunner;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.anyString;
@@ -56,6 +60,8 @@ public class MonitoredDockerClientTest {
 
   @Captor public ArgumentCaptor<Proto.Event> eventCaptor;
 
+  private final MetricRegistry registry = new MetricRegistry();
+
   private DockerClient sut;
 
   @Before
@@ -64,7 +70,8 @@ public class MonitoredDockerClientTest {
         .thenReturn(new Promise<Boolean>());
     when(riemannClient.event()).thenReturn(new EventDSL(riemannClient));
     final RiemannFacade riemannFacade = new RiemannFacade(riemannClient, HOST, SERVICE);
-    sut = MonitoredDockerClient.wrap(riemannFacade, client);
+    sut = MonitoredDockerClient.wrap(riemannFacade, new DockerMetricsImpl("helios", registry),
+                                     0, client);
   }
 
   @Test()
@@ -92,4 +99,21 @@ public class MonitoredDockerClientTest {
     assertThat(event.getTagsList(), contains("docker", "error", "inspectImage"));
     assertThat(event.getService(), equalTo("helios-agent/docker"));
   }
+
+  @Test
+  public void testRecordsMetrics() throws Exception {
+    when(client.inspectImage(anyString())).thenThrow(mock(DockerException.class));
+    sut.inspectContainer("foo");
+    try {
+      sut.inspectImage("bar");
+      fail();
+    } catch (DockerException ignore) {
+    }
+
+    assertEquals(1, registry.timer("helios.docker.inspectContainer_latency").getCount());
+    assertEquals(0, registry.counter("helios.docker.inspectContainer_in_flight").getCount());
+    assertEquals(0, registry.meter("helios.docker.inspectContainer_errors").getCount());
+    assertEquals(1, registry.timer("helios.docker.inspectImage_latency").getCount());
+    assertEquals(1, registry.meter("helios.docker.inspectImage_errors").getCount());
+  }
 }
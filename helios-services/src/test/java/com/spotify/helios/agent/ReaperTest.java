@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.agent;
+
+import com.google.common.base.Suppliers;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.DockerClient.ListContainersParam;
+import com.spotify.docker.client.messages.Container;
+import com.spotify.helios.servicescommon.statistics.SupervisorMetrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ReaperTest {
+
+  private static final String NAMESPACE = "test";
+
+  @Mock private DockerClient docker;
+  @Mock private SupervisorMetrics metrics;
+
+  private Reaper sut;
+
+  @Before
+  public void setup() throws Exception {
+    final List<Container> containers = ImmutableList.of(
+        container("active", "/test-active_1"),
+        container("stray1", "/test-stray1_2"),
+        container("stray2", "/test-stray2_3"),
+        container("other", "/other-test_4"));
+    when(docker.listContainers(any(ListContainersParam.class))).thenReturn(containers);
+    sut = new Reaper(docker, NAMESPACE, metrics);
+  }
+
+  @Test
+  public void testReapsUnknownContainersInNamespace() throws Exception {
+    sut.reap(Suppliers.<Set<String>>ofInstance(ImmutableSet.of("active")));
+
+    verify(docker).killContainer("stray1");
+    verify(docker).killContainer("stray2");
+    verify(docker, never()).killContainer("active");
+    verify(docker, never()).killContainer("other");
+    verify(metrics).containersReaped(2, 2);
+  }
+
+  @Test
+  public void testKillsConcurrently() throws Exception {
+    final CountDownLatch killing = new CountDownLatch(2);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(final InvocationOnMock invocation) throws Throwable {
+        killing.countDown();
+        // Both kills must be in flight at the same time for this to return true
+        assertTrue(killing.await(10, SECONDS));
+        return null;
+      }
+    }).when(docker).killContainer(anyString());
+
+    sut.reap(Suppliers.<Set<String>>ofInstance(ImmutableSet.of("active")));
+
+    verify(metrics).containersReaped(2, 2);
+  }
+
+  private static Container container(final String id, final String name) {
+    final Container container = mock(Container.class);
+    when(container.id()).thenReturn(id);
+    when(container.names()).thenReturn(ImmutableList.of(name));
+    return container;
+  }
+}
@@ -58,6 +58,7 @@ import com.spotify.helios.common.descriptors.PortMapping;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.descriptors.ThrottleState;
 import com.spotify.helios.serviceregistration.ServiceRegistrar;
+import com.spotify.helios.servicescommon.statistics.NoopHealthCheckMetrics;
 import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
 
 import com.google.common.collect.ImmutableMap;
@@ -140,6 +141,9 @@ public class SupervisorTest {
   @Mock public ServiceRegistrar registrar;
   @Mock public Sleeper sleeper;
 
+  private final HealthCheckScheduler healthCheckScheduler =
+      new HealthCheckScheduler(1, new NoopHealthCheckMetrics());
+
   @Captor public ArgumentCaptor<ContainerConfig> containerConfigCaptor;
   @Captor public ArgumentCaptor<String> containerNameCaptor;
   @Captor public ArgumentCaptor<TaskStatus> taskStatusCaptor;
@@ -160,6 +164,7 @@ public class SupervisorTest {
       sut.close();
       sut.join();
     }
+    healthCheckScheduler.stop();
   }
 
   private void mockTaskStatus(final JobId jobId) throws Exception {
@@ -441,6 +446,8 @@ public class SupervisorTest {
         .registrar(registrar)
         .config(config)
         .dockerClient(docker)
+        .imageManager(new ImageManager(docker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(monitor)
         .build();
 
@@ -18,8 +18,10 @@
 package com.spotify.helios.agent;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 
+import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.HostConfig;
 import com.spotify.helios.common.descriptors.HealthCheck;
 import com.spotify.helios.common.descriptors.Job;
@@ -121,4 +123,18 @@ public class TaskConfigTest {
     assertThat(ImmutableSet.copyOf(hostConfig.capAdd()), equalTo(CAP_ADDS));
     assertThat(ImmutableSet.copyOf(hostConfig.capDrop()), equalTo(CAP_DROPS));
   }
+
+  @Test
+  public void testContainerLabels() throws Exception {
+    final TaskConfig taskConfig = TaskConfig.builder()
+        .namespace("test")
+        .host(HOST)
+        .job(JOB)
+        .build();
+
+    final ContainerConfig containerConfig = taskConfig.containerConfig(null, Optional.absent());
+    assertEquals(ImmutableMap.of(TaskConfig.NAMESPACE_LABEL, "test",
+                                 TaskConfig.JOB_ID_LABEL, JOB.getId().toString()),
+                 containerConfig.labels());
+  }
 }
@@ -54,6 +54,8 @@ import static com.spotify.helios.Polling.await;
 import static com.spotify.helios.common.descriptors.Goal.START;
 import static org.apache.zookeeper.KeeperException.ConnectionLossException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.mockito.AdditionalAnswers.delegatesTo;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -114,7 +116,13 @@ public class TaskHistoryWriterTest {
 
   private void makeWriter(final ZooKeeperClient client)
           throws Exception {
-    writer = new TaskHistoryWriter(HOSTNAME, client, agentStateDirs.resolve("task-history.json"));
+    makeWriter(client, false);
+  }
+
+  private void makeWriter(final ZooKeeperClient client, final boolean compact)
+      throws Exception {
+    writer = new TaskHistoryWriter(HOSTNAME, client, agentStateDirs.resolve("task-history.json"),
+                                   compact);
     writer.startUp();
   }
 
@@ -220,4 +228,60 @@ public class TaskHistoryWriterTest {
         Iterables.getLast(events).getTimestamp());
     assertEquals(TIMESTAMP + 20, Iterables.get(events, 0).getTimestamp());
   }
+
+  @Test
+  public void testCompactConvertsExistingEvents() throws Exception {
+    writer.saveHistoryItem(TASK_STATUS, TIMESTAMP);
+    awaitHistoryItems();
+
+    writer.stopAsync().awaitTerminated();
+    makeWriter(client, true);
+    writer.saveHistoryItem(TASK_STATUS.asBuilder().setState(State.RUNNING).build(),
+                           TIMESTAMP + 1);
+
+    final List<TaskStatusEvent> events = Polling.await(
+        1, TimeUnit.MINUTES, new Callable<List<TaskStatusEvent>>() {
+          @Override
+          public List<TaskStatusEvent> call() throws Exception {
+            final List<TaskStatusEvent> events = masterModel.getJobHistory(JOB_ID);
+            return events.size() == 2 ? events : null;
+          }
+        });
+
+    assertNull(client.exists(Paths.historyJobHostEvents(JOB_ID, HOSTNAME)));
+    assertNotNull(client.exists(Paths.historyJobHostRing(JOB_ID, HOSTNAME)));
+    assertEquals(TIMESTAMP, events.get(0).getTimestamp());
+    assertEquals(State.CREATING, events.get(0).getStatus().getState());
+    assertEquals(TIMESTAMP + 1, events.get(1).getTimestamp());
+    assertEquals(State.RUNNING, events.get(1).getStatus().getState());
+    assertEquals(JOB, events.get(1).getStatus().getJob());
+  }
+
+  @Test
+  public void testCompactKeepsNoMoreThanMaxHistoryItems() throws Exception {
+    writer.stopAsync().awaitTerminated();
+    makeWriter(client, true);
+
+    for (int i = 0; i < TaskHistoryWriter.MAX_NUMBER_STATUS_EVENTS_TO_RETAIN + 20; i++) {
+      writer.saveHistoryItem(TASK_STATUS, TIMESTAMP + i);
+    }
+
+    final List<TaskStatusEvent> events = Polling.await(1, TimeUnit.MINUTES,
+      new Callable<List<TaskStatusEvent>>() {
+      @Override
+      public List<TaskStatusEvent> call() throws Exception {
+        if (!writer.isEmpty()) {
+          return null;
+        }
+        final List<TaskStatusEvent> events = masterModel.getJobHistory(JOB_ID);
+        if (events.size() == TaskHistoryWriter.MAX_NUMBER_STATUS_EVENTS_TO_RETAIN) {
+          return events;
+        }
+        return null;
+      }
+    });
+    assertEquals(TIMESTAMP + TaskHistoryWriter.MAX_NUMBER_STATUS_EVENTS_TO_RETAIN + 19,
+        Iterables.getLast(events).getTimestamp());
+    assertEquals(TIMESTAMP + 20, Iterables.get(events, 0).getTimestamp());
+  }
 }
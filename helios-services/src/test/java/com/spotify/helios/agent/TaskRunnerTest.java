@@ -26,6 +26,7 @@ import com.spotify.docker.client.exceptions.ImageNotFoundException;
 import com.spotify.docker.client.exceptions.ImagePullFailedException;
 import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.ContainerCreation;
+import com.spotify.docker.client.messages.ContainerExit;
 import com.spotify.docker.client.messages.ContainerInfo;
 import com.spotify.docker.client.messages.ContainerState;
 import com.spotify.docker.client.messages.ImageInfo;
@@ -33,7 +34,10 @@ import com.spotify.docker.client.messages.Version;
 import com.spotify.helios.common.Clock;
 import com.spotify.helios.common.HeliosRuntimeException;
 import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.servicescommon.statistics.NoopHealthCheckMetrics;
+import com.spotify.helios.servicescommon.statistics.NoopSupervisorMetrics;
 
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -60,6 +64,7 @@ import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -80,6 +85,14 @@ public class TaskRunnerTest {
   @Mock private Clock clock;
   @Mock private ContainerDecorator containerDecorator;
 
+  private final HealthCheckScheduler healthCheckScheduler =
+      new HealthCheckScheduler(1, new NoopHealthCheckMetrics());
+
+  @After
+  public void tearDown() throws Exception {
+    healthCheckScheduler.stop();
+  }
+
   @Test
   public void test() throws Throwable {
     final TaskRunner tr = TaskRunner.builder()
@@ -91,6 +104,8 @@ public class TaskRunnerTest {
                     .containerDecorators(ImmutableList.of(containerDecorator))
                     .build())
         .docker(mockDocker)
+        .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(new TaskRunner.NopListener())
         .build();
 
@@ -152,6 +167,8 @@ public class TaskRunnerTest {
                     .containerDecorators(ImmutableList.of(containerDecorator))
                     .build())
         .docker(mockDocker)
+        .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(new TaskRunner.NopListener())
         .build();
 
@@ -164,6 +181,8 @@ public class TaskRunnerTest {
                     .containerDecorators(ImmutableList.of(containerDecorator))
                     .build())
         .docker(mockDocker)
+        .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(new TaskRunner.NopListener())
         .build();
 
@@ -204,6 +223,8 @@ public class TaskRunnerTest {
                     .containerDecorators(ImmutableList.of(containerDecorator))
                     .build())
         .docker(mockDocker)
+        .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
         .listener(new TaskRunner.NopListener())
         .build();
 
@@ -251,6 +272,8 @@ public class TaskRunnerTest {
                     .containerDecorators(ImmutableList.of(containerDecorator))
                     .build())
             .docker(mockDocker)
+            .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+            .healthCheckScheduler(healthCheckScheduler)
             .listener(mockListener)
             .healthChecker(mockHealthChecker)
             .build();
@@ -266,4 +289,33 @@ public class TaskRunnerTest {
       verify(mockListener).failed(t.getCause(), "container is a potato");
     }
   }
+
+  @Test
+  public void testReattachesToKnownRunningContainerWithoutInspecting() throws Throwable {
+    when(mockDocker.waitContainer("existing")).thenReturn(new ContainerExit(0));
+
+    final TaskRunner.NopListener mockListener = mock(TaskRunner.NopListener.class);
+    final TaskRunner tr = TaskRunner.builder()
+        .delayMillis(0)
+        .config(TaskConfig.builder()
+                    .namespace("test")
+                    .host(HOST)
+                    .job(JOB)
+                    .containerDecorators(ImmutableList.of(containerDecorator))
+                    .build())
+        .docker(mockDocker)
+        .imageManager(new ImageManager(mockDocker, new NoopSupervisorMetrics()))
+        .healthCheckScheduler(healthCheckScheduler)
+        .existingContainerId("existing")
+        .existingContainerRunning(true)
+        .listener(mockListener)
+        .build();
+
+    tr.run();
+
+    assertEquals(0, (int) tr.resultFuture().get());
+    verify(mockListener).running();
+    verify(mockDocker, never()).inspectContainer(anyString());
+    verify(mockDocker, never()).createContainer(any(ContainerConfig.class), anyString());
+  }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.JobListQuery;
+
+import com.google.common.collect.ImmutableSortedSet;
+import org.junit.Test;
+
+import java.util.NavigableSet;
+
+public class JobIdIndexTest {
+
+  private static final JobId FO_1 = new JobId("fo", "1");
+  private static final JobId FOO_1 = new JobId("foo", "1");
+  private static final JobId FOO_2 = new JobId("foo", "2");
+  private static final JobId FOO_BAR_1 = new JobId("foo-bar", "1");
+  private static final JobId FOOBAR_1 = new JobId("foobar", "1");
+  private static final JobId FOP_1 = new JobId("fop", "1");
+
+  private final NavigableSet<JobId> ids =
+      ImmutableSortedSet.of(FO_1, FOO_1, FOO_2, FOO_BAR_1, FOOBAR_1, FOP_1);
+
+  private static JobListQuery.Builder query() {
+    return JobListQuery.newBuilder();
+  }
+
+  @Test
+  public void testAll() {
+    assertThat(JobIdIndex.select(ids, JobListQuery.all()),
+               contains(FO_1, FOO_1, FOO_2, FOO_BAR_1, FOOBAR_1, FOP_1));
+  }
+
+  @Test
+  public void testName() {
+    assertThat(JobIdIndex.select(ids, query().setName("foo").build()),
+               contains(FOO_1, FOO_2));
+    assertThat(JobIdIndex.select(ids, query().setName("bar").build()), empty());
+  }
+
+  @Test
+  public void testNamePrefix() {
+    assertThat(JobIdIndex.select(ids, query().setNamePrefix("foo").build()),
+               contains(FOO_1, FOO_2, FOO_BAR_1, FOOBAR_1));
+  }
+
+  @Test
+  public void testQuery() {
+    assertThat(JobIdIndex.select(ids, query().setQ("bar").build()),
+               contains(FOO_BAR_1, FOOBAR_1));
+  }
+
+  @Test
+  public void testPages() {
+    final JobListQuery first = query().setNamePrefix("foo").setLimit(3).build();
+    assertThat(JobIdIndex.select(ids, first), contains(FOO_1, FOO_2, FOO_BAR_1));
+
+    final JobListQuery second = first.toBuilder()
+        .setCursor(JobListQuery.cursor(FOO_BAR_1))
+        .build();
+    assertThat(JobIdIndex.select(ids, second), contains(FOOBAR_1));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCursorWithoutVersion() {
+    query().setCursor("foo").build();
+  }
+}
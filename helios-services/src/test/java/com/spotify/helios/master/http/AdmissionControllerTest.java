@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.http;
+
+import com.spotify.helios.servicescommon.statistics.MasterMetrics;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.WebApplicationException;
+
+import static com.spotify.helios.master.http.Admission.Lane.READ;
+import static com.spotify.helios.master.http.Admission.Lane.WRITE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class AdmissionControllerTest {
+
+  private final MasterMetrics metrics = mock(MasterMetrics.class);
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testRejectsReadsOverGlobalLimit() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 0, 0, 0, 3, metrics);
+    controller.admit("statuses", "alice", READ, 8);
+    try {
+      controller.admit("statuses", "bob", READ, 8);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+      assertEquals(3L, e.getResponse().getMetadata().getFirst("Retry-After"));
+    }
+    verify(metrics).admissionRejected("statuses");
+  }
+
+  @Test
+  public void testReleaseFreesCapacity() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 0, 0, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 8).release();
+    controller.admit("statuses", "bob", READ, 8).release();
+  }
+
+  @Test
+  public void testClampsCostToLimit() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 0, 0, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 100).release();
+  }
+
+  @Test
+  public void testPerUserLimit() throws Exception {
+    final AdmissionController controller = new AdmissionController(100, 5, 0, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 5);
+    controller.admit("statuses", "bob", READ, 5);
+    try {
+      controller.admit("statuses", "alice", READ, 1);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+    }
+  }
+
+  @Test
+  public void testPerEndpointLimit() throws Exception {
+    final AdmissionController controller = new AdmissionController(100, 0, 1, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 1);
+    controller.admit("history", "alice", READ, 1);
+    try {
+      controller.admit("statuses", "bob", READ, 1);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+    }
+  }
+
+  @Test
+  public void testRejectionReleasesEarlierPermits() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 5, 0, 0, 1, metrics);
+    final AdmissionController.Permit permit = controller.admit("statuses", "bob", READ, 10);
+    try {
+      controller.admit("statuses", "alice", READ, 5);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+    }
+    permit.release();
+    // alice's per-user capacity must have been returned when she was rejected
+    controller.admit("statuses", "alice", READ, 5);
+  }
+
+  @Test
+  public void testWritesAreNeverLimited() throws Exception {
+    final AdmissionController controller = new AdmissionController(1, 1, 1, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 1);
+    controller.admit("deploy", "alice", WRITE, 1);
+    controller.admit("deploy", "alice", WRITE, 1);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    final AdmissionController controller = new AdmissionController(0, 0, 0, 0, 1, metrics);
+    controller.admit("statuses", "alice", READ, 1000);
+    controller.admit("statuses", "alice", READ, 1000);
+  }
+
+  @Test
+  public void testQueuedReadIsAdmittedWhenCapacityIsReleased() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 0, 0, 10000, 1, metrics);
+    final AdmissionController.Permit permit = controller.admit("statuses", "alice", READ, 10);
+
+    final Future<AdmissionController.Permit> queued = executor.submit(
+        () -> controller.admit("statuses", "bob", READ, 10));
+    Thread.sleep(100);
+    assertFalse(queued.isDone());
+
+    permit.release();
+    queued.get(10, TimeUnit.SECONDS).release();
+    verify(metrics).admissionQueued(eq("statuses"), anyLong());
+    verify(metrics, never()).admissionRejected("statuses");
+  }
+
+  @Test
+  public void testQueuedReadIsRejectedAfterTimeout() throws Exception {
+    final AdmissionController controller = new AdmissionController(10, 0, 0, 100, 7, metrics);
+    controller.admit("statuses", "alice", READ, 10);
+
+    final long start = System.nanoTime();
+    try {
+      controller.admit("statuses", "bob", READ, 1);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+      assertEquals(7L, e.getResponse().getMetadata().getFirst("Retry-After"));
+    }
+    assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+    verify(metrics).admissionRejected("statuses");
+  }
+
+  @Test
+  public void testWritesBypassQueuedReads() throws Exception {
+    final AdmissionController controller = new AdmissionController(1, 0, 0, 10000, 1, metrics);
+    final AdmissionController.Permit permit = controller.admit("statuses", "alice", READ, 1);
+
+    final Future<AdmissionController.Permit> queued = executor.submit(
+        () -> controller.admit("statuses", "bob", READ, 1));
+    Thread.sleep(100);
+    assertFalse(queued.isDone());
+
+    // Admitted right away even though a read is waiting for capacity
+    controller.admit("deploy", "alice", WRITE, 1).release();
+    assertFalse(queued.isDone());
+
+    permit.release();
+    queued.get(10, TimeUnit.SECONDS).release();
+  }
+
+  @Test
+  public void testForgetsUsersWithoutReadsInFlight() throws Exception {
+    final AdmissionController controller = new AdmissionController(100, 5, 0, 0, 1, metrics);
+    final AdmissionController.Permit alice = controller.admit("statuses", "alice", READ, 5);
+    for (int i = 0; i < 100; i++) {
+      controller.admit("statuses", "user" + i, READ, 1).release();
+    }
+    assertEquals(1, controller.trackedUsers());
+
+    try {
+      controller.admit("statuses", "alice", READ, 1);
+      fail("Expected the read to be rejected");
+    } catch (WebApplicationException e) {
+      assertEquals(AdmissionController.TOO_MANY_REQUESTS, e.getResponse().getStatus());
+    }
+    assertEquals(1, controller.trackedUsers());
+
+    alice.release();
+    alice.release();
+    assertEquals(0, controller.trackedUsers());
+    controller.admit("statuses", "alice", READ, 5).release();
+  }
+}
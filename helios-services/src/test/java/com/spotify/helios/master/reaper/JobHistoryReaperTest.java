@@ -20,6 +20,7 @@ package com.spotify.helios.master.reaper;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.master.MasterModel;
+import com.spotify.helios.servicescommon.coordination.DeleteProgressListener;
 import com.spotify.helios.servicescommon.coordination.Paths;
 import com.spotify.helios.servicescommon.coordination.ZooKeeperClient;
 
@@ -31,7 +32,10 @@ import org.junit.Test;
 
 import java.util.List;
 
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
@@ -91,9 +95,11 @@ public class JobHistoryReaperTest {
 
     for (final Datapoint datapoint : datapoints) {
       if (datapoint.expectReap) {
-        verify(client, timeout(500)).deleteRecursive(Paths.historyJob(datapoint.getJobId()));
+        verify(client, timeout(500)).deleteRecursive(eq(Paths.historyJob(datapoint.getJobId())),
+                                                     eq(true), any(DeleteProgressListener.class));
       } else {
-        verify(client, never()).deleteRecursive(Paths.historyJob(datapoint.getJobId()));
+        verify(client, never()).deleteRecursive(eq(Paths.historyJob(datapoint.getJobId())),
+                                                anyBoolean(), any(DeleteProgressListener.class));
       }
     }
   }
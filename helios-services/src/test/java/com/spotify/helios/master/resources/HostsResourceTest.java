@@ -20,8 +20,11 @@ package com.spotify.helios.master.resources;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.spotify.helios.common.descriptors.HostStatus;
@@ -41,6 +44,8 @@ import java.util.List;
 import java.util.Map;
 
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 public class HostsResourceTest {
@@ -51,6 +56,7 @@ public class HostsResourceTest {
   public final ExpectedException exception = ExpectedException.none();
 
   private final MasterModel model = mock(MasterModel.class);
+  private final Request request = mock(Request.class);
   private final HostsResource resource = new HostsResource(model);
 
   private final ImmutableList<String> hosts = ImmutableList.of(
@@ -85,38 +91,38 @@ public class HostsResourceTest {
 
   @Test
   public void listHosts() {
-    assertThat(resource.list(null, NO_SELECTOR_ARG), equalTo(hosts));
+    assertThat(list(null, NO_SELECTOR_ARG), equalTo(hosts));
   }
 
   @Test
   public void listHostsNameFilter() {
-    assertThat(resource.list("foo.example", NO_SELECTOR_ARG), equalTo(hosts));
-    assertThat(resource.list("host1", NO_SELECTOR_ARG), contains("host1.foo.example.com"));
-    assertThat(resource.list("host5", NO_SELECTOR_ARG), empty());
+    assertThat(list("foo.example", NO_SELECTOR_ARG), equalTo(hosts));
+    assertThat(list("host1", NO_SELECTOR_ARG), contains("host1.foo.example.com"));
+    assertThat(list("host5", NO_SELECTOR_ARG), empty());
   }
 
   @Test
   public void listHostsSelectorFilter() {
-    assertThat(resource.list(null, ImmutableList.of("site=foo")), equalTo(hosts));
+    assertThat(list(null, ImmutableList.of("site=foo")), equalTo(hosts));
 
-    assertThat(resource.list(null, ImmutableList.of("site=bar")), empty());
-    assertThat(resource.list(null, ImmutableList.of("site!=foo")), empty());
+    assertThat(list(null, ImmutableList.of("site=bar")), empty());
+    assertThat(list(null, ImmutableList.of("site!=foo")), empty());
 
-    assertThat(resource.list(null, ImmutableList.of("index in (1,2)")),
+    assertThat(list(null, ImmutableList.of("index in (1,2)")),
                contains("host1.foo.example.com", "host2.foo.example.com"));
 
-    assertThat(resource.list(null, ImmutableList.of("site=foo", "index in (1,2)")),
+    assertThat(list(null, ImmutableList.of("site=foo", "index in (1,2)")),
                contains("host1.foo.example.com", "host2.foo.example.com"));
   }
 
   /** Test behavior when both a name pattern and selector list is specified */
   @Test
   public void listHostsNameAndSelectorFilter() {
-    assertThat(resource.list("foo.example.com", ImmutableList.of("site=foo")), equalTo(hosts));
+    assertThat(list("foo.example.com", ImmutableList.of("site=foo")), equalTo(hosts));
 
-    assertThat(resource.list("host3", ImmutableList.of("index =2")), empty());
+    assertThat(list("host3", ImmutableList.of("index =2")), empty());
 
-    assertThat(resource.list("host3", ImmutableList.of("index!=2")),
+    assertThat(list("host3", ImmutableList.of("index!=2")),
                contains("host3.foo.example.com"));
   }
 
@@ -125,7 +131,42 @@ public class HostsResourceTest {
     exception.expect(WebApplicationException.class);
     exception.expect(hasStatus(Response.Status.BAD_REQUEST));
 
-    resource.list(null, ImmutableList.of("foo <@> bar"));
+    list(null, ImmutableList.of("foo <@> bar"));
+  }
+
+  @Test
+  public void listHostsIsTaggedWithRevision() {
+    when(model.getHostsRevision()).thenReturn("1a2b");
+
+    final Response response = resource.list(null, NO_SELECTOR_ARG, request);
+
+    assertThat(response.getMetadata().getFirst("ETag"), equalTo(new EntityTag("1a2b")));
+    assertThat(response.getEntity(), equalTo(hosts));
+  }
+
+  @Test
+  public void listHostsNotModified() {
+    when(model.getHostsRevision()).thenReturn("1a2b");
+    when(request.evaluatePreconditions(new EntityTag("1a2b")))
+        .thenReturn(Response.notModified());
+
+    final Response response = resource.list(null, NO_SELECTOR_ARG, request);
+
+    assertThat(response.getStatus(), equalTo(Response.Status.NOT_MODIFIED.getStatusCode()));
+    verify(model, never()).listHosts();
+  }
+
+  @Test
+  public void listHostsWithSelectorIsNotTagged() {
+    final Response response = resource.list(null, ImmutableList.of("site=foo"), request);
+
+    assertThat(response.getMetadata().getFirst("ETag"), nullValue());
+    verify(model, never()).getHostsRevision();
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<String> list(final String namePattern, final List<String> hostSelectors) {
+    return (List<String>) resource.list(namePattern, hostSelectors, request).getEntity();
   }
 
   private static Matcher<WebApplicationException> hasStatus(final Response.Status status) {
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.master.resources;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.spotify.helios.common.HeliosException;
+import com.spotify.helios.common.HeliosRuntimeException;
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.Goal;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.BulkDeployRequest;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
+import com.spotify.helios.common.protocol.BulkUndeployResponse;
+import com.spotify.helios.common.protocol.JobDeployResponse;
+import com.spotify.helios.common.protocol.JobUndeployResponse;
+import com.spotify.helios.master.HostNotFoundException;
+import com.spotify.helios.master.JobAlreadyDeployedException;
+import com.spotify.helios.master.JobNotDeployedException;
+import com.spotify.helios.master.MasterModel;
+import com.spotify.helios.master.TokenVerificationException;
+import com.spotify.helios.servicescommon.statistics.MasterMetrics;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+public class JobsResourceTest {
+
+  private static final Job JOB = Job.newBuilder()
+      .setName("foo")
+      .setVersion("1")
+      .setImage("busybox:latest")
+      .build();
+  private static final JobId JOB_ID = JOB.getId();
+  private static final Deployment DEPLOYMENT = Deployment.of(JOB_ID, Goal.START);
+  private static final String TOKEN = "token";
+  private static final List<String> HOSTS = ImmutableList.of("host1", "host2", "host3", "host4");
+
+  private final MasterModel model = mock(MasterModel.class);
+  private final JobsResource resource = new JobsResource(
+      model, mock(MasterMetrics.class), ImmutableSet.<String>of());
+
+  @Test
+  public void deployHostsReportsEachHost() throws Exception {
+    when(model.deployJob(eq(HOSTS), any(Deployment.class), eq(TOKEN))).thenReturn(
+        ImmutableMap.<String, HeliosException>of(
+            "host2", new JobAlreadyDeployedException("host2", JOB_ID),
+            "host3", new TokenVerificationException(JOB_ID),
+            "host4", new HeliosException(new HeliosRuntimeException("3 failures"))));
+
+    final BulkDeployResponse response =
+        resource.deployHosts(JOB_ID, new BulkDeployRequest(DEPLOYMENT, HOSTS), "user", TOKEN);
+
+    assertThat(response.getStatus(), equalTo(JobDeployResponse.Status.OK));
+    assertThat(response.getHosts(), equalTo(ImmutableMap.of(
+        "host1", JobDeployResponse.Status.OK,
+        "host2", JobDeployResponse.Status.JOB_ALREADY_DEPLOYED,
+        "host3", JobDeployResponse.Status.FORBIDDEN,
+        "host4", JobDeployResponse.Status.FAILED)));
+  }
+
+  @Test
+  public void deployHostsForbidden() throws Exception {
+    when(model.deployJob(eq(HOSTS), any(Deployment.class), eq(TOKEN)))
+        .thenThrow(new TokenVerificationException(JOB_ID));
+
+    try {
+      resource.deployHosts(JOB_ID, new BulkDeployRequest(DEPLOYMENT, HOSTS), "user", TOKEN);
+      fail("deployment should be forbidden");
+    } catch (WebApplicationException e) {
+      assertThat(e.getResponse().getStatus(),
+                 equalTo(Response.Status.FORBIDDEN.getStatusCode()));
+      assertThat(((BulkDeployResponse) e.getResponse().getEntity()).getStatus(),
+                 equalTo(JobDeployResponse.Status.FORBIDDEN));
+    }
+  }
+
+  @Test
+  public void undeployHostsReportsEachHost() throws Exception {
+    when(model.undeployJob(HOSTS, JOB_ID, TOKEN)).thenReturn(
+        ImmutableMap.<String, HeliosException>of(
+            "host2", new HostNotFoundException("host2"),
+            "host3", new JobNotDeployedException("host3", JOB_ID),
+            "host4", new HeliosException(new HeliosRuntimeException("removing failed"))));
+
+    final BulkUndeployResponse response = resource.undeployHosts(JOB_ID, HOSTS, TOKEN);
+
+    assertThat(response.getStatus(), equalTo(JobUndeployResponse.Status.OK));
+    assertThat(response.getHosts(), equalTo(ImmutableMap.of(
+        "host1", JobUndeployResponse.Status.OK,
+        "host2", JobUndeployResponse.Status.HOST_NOT_FOUND,
+        "host3", JobUndeployResponse.Status.JOB_NOT_FOUND,
+        "host4", JobUndeployResponse.Status.FAILED)));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon;
+
+import com.spotify.helios.servicescommon.SamplingProfiler.Mode;
+import com.spotify.helios.servicescommon.SamplingProfiler.Profile;
+import com.spotify.helios.servicescommon.SamplingProfiler.StackCount;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SamplingProfilerTest {
+
+  private final CountDownLatch done = new CountDownLatch(1);
+  private volatile boolean stop;
+  private volatile double sink;
+
+  @After
+  public void tearDown() {
+    stop = true;
+    done.countDown();
+  }
+
+  @Test
+  public void testFindsBusyThread() throws Exception {
+    final Thread busy = new Thread(this::spin, "busy");
+    busy.setDaemon(true);
+    busy.start();
+
+    final Profile profile = new SamplingProfiler().profile(500, 10, MILLISECONDS, Mode.CPU, 50);
+
+    assertTrue(profile.getSamples() > 0);
+    assertTrue(sampled(profile, "spin"));
+  }
+
+  @Test
+  public void testOnlySamplesWaitingThreadsInWallMode() throws Exception {
+    final Thread waiting = new Thread(this::await, "waiting");
+    waiting.setDaemon(true);
+    waiting.start();
+
+    final SamplingProfiler profiler = new SamplingProfiler();
+    assertFalse(sampled(profiler.profile(200, 10, MILLISECONDS, Mode.CPU, 200), "await"));
+    assertTrue(sampled(profiler.profile(200, 10, MILLISECONDS, Mode.WALL, 200), "await"));
+  }
+
+  private static boolean sampled(final Profile profile, final String method) {
+    final String frame = SamplingProfilerTest.class.getName() + "." + method + "(";
+    for (final StackCount stack : profile.getHotStacks()) {
+      for (final String sampled : stack.getFrames()) {
+        if (sampled.contains(frame)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private void spin() {
+    double value = 1;
+    while (!stop) {
+      value = value * 1.0000001 + 1;
+      sink = value;
+    }
+  }
+
+  private void await() {
+    try {
+      done.await();
+    } catch (InterruptedException ignored) {
+      // exit
+    }
+  }
+}
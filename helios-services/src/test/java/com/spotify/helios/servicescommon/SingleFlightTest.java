@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon;
+
+import com.google.common.base.Ticker;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final AtomicInteger misses = new AtomicInteger();
+  private final AtomicLong now = new AtomicLong();
+
+  private final SingleFlight.Listener listener = new SingleFlight.Listener() {
+    @Override
+    public void hit() {
+      hits.incrementAndGet();
+    }
+
+    @Override
+    public void miss() {
+      misses.incrementAndGet();
+    }
+  };
+
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return now.get();
+    }
+  };
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentCallsShareOneComputation() throws Exception {
+    final SingleFlight<String, String> flight =
+        new SingleFlight<>(0, TimeUnit.MILLISECONDS, listener, ticker);
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+
+    final Future<String> leader = executor.submit(() -> flight.get("key", () -> {
+      started.countDown();
+      release.await();
+      return "value";
+    }));
+    started.await();
+
+    final Future<String> follower = executor.submit(
+        () -> flight.get("key", () -> {
+          throw new AssertionError("should have joined the computation in progress");
+        }));
+    while (hits.get() == 0) {
+      Thread.sleep(1);
+    }
+    release.countDown();
+
+    assertEquals("value", leader.get(10, SECONDS));
+    assertEquals("value", follower.get(10, SECONDS));
+    assertEquals(1, misses.get());
+    assertEquals(1, hits.get());
+
+    // Without a window, a finished computation is not reused
+    assertEquals("again", flight.get("key", () -> "again"));
+    assertEquals(2, misses.get());
+  }
+
+  @Test
+  public void testWindow() throws Exception {
+    final SingleFlight<String, String> flight =
+        new SingleFlight<>(100, TimeUnit.NANOSECONDS, listener, ticker);
+
+    assertEquals("first", flight.get("key", () -> "first"));
+    now.set(99);
+    assertEquals("first", flight.get("key", () -> "second"));
+    now.set(100);
+    assertEquals("third", flight.get("key", () -> "third"));
+    assertEquals("third", flight.get("key", () -> "fourth"));
+    assertEquals(2, misses.get());
+    assertEquals(2, hits.get());
+
+    flight.invalidate();
+    assertEquals("fifth", flight.get("key", () -> "fifth"));
+  }
+
+  @Test
+  public void testFailuresAreNotReused() throws Exception {
+    final SingleFlight<String, String> flight =
+        new SingleFlight<>(100, TimeUnit.NANOSECONDS, listener, ticker);
+    final Exception failure = new Exception("failed");
+
+    try {
+      flight.get("key", () -> {
+        throw failure;
+      });
+      fail();
+    } catch (Exception e) {
+      assertSame(failure, e);
+    }
+    assertEquals("value", flight.get("key", () -> "value"));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+import com.google.common.collect.Lists;
+
+import com.spotify.helios.ZooKeeperTestManager;
+import com.spotify.helios.ZooKeeperTestingServerManager;
+
+import org.apache.zookeeper.KeeperException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+public class DefaultZooKeeperClientTest {
+
+  private static final int PARENTS = 12;
+  private static final int CHILDREN = 100;
+
+  private ZooKeeperTestManager zk;
+  private DefaultZooKeeperClient client;
+
+  @Before
+  public void setUp() throws Exception {
+    zk = new ZooKeeperTestingServerManager();
+    client = new DefaultZooKeeperClient(zk.curatorWithSuperAuth());
+    for (int i = 0; i < PARENTS; i++) {
+      for (int j = 0; j < CHILDREN; j++) {
+        client.ensurePath("/tree/parent-" + i + "/child-" + j);
+      }
+    }
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (zk != null) {
+      zk.stop();
+    }
+  }
+
+  @Test
+  public void testListRecursive() throws Exception {
+    final List<String> nodes = client.listRecursive("/tree");
+    assertEquals(1 + PARENTS + PARENTS * CHILDREN, nodes.size());
+    assertEquals("/tree", nodes.get(0));
+    for (int i = 0; i < nodes.size(); i++) {
+      final String node = nodes.get(i);
+      if (!node.equals("/tree")) {
+        final String parent = node.substring(0, node.lastIndexOf('/'));
+        assertThat(nodes.indexOf(parent), lessThan(i));
+      }
+    }
+  }
+
+  @Test(expected = KeeperException.NoNodeException.class)
+  public void testListRecursiveMissingRoot() throws Exception {
+    client.listRecursive("/missing");
+  }
+
+  @Test
+  public void testDeleteRecursiveInBatches() throws Exception {
+    final List<Integer> batches = Lists.newArrayList();
+    final List<Integer> remaining = Lists.newArrayList();
+    client.deleteRecursive("/tree", false, (path, deleted, left) -> {
+      batches.add(deleted);
+      remaining.add(left);
+    });
+
+    assertNull(client.exists("/tree"));
+    assertThat(batches.size(), greaterThan(1));
+    int total = 0;
+    for (final int deleted : batches) {
+      total += deleted;
+    }
+    assertEquals(1 + PARENTS + PARENTS * CHILDREN, total);
+    assertEquals(0, (int) remaining.get(remaining.size() - 1));
+  }
+
+  @Test
+  public void testResumesPartialDelete() throws Exception {
+    // Leave behind what an interrupted delete would: a subtree with some leaves removed
+    for (int j = 0; j < CHILDREN; j++) {
+      client.delete("/tree/parent-0/child-" + j);
+    }
+    client.delete("/tree/parent-0");
+
+    client.deleteRecursive("/tree", true, DeleteProgressListener.NONE);
+    assertNull(client.exists("/tree"));
+  }
+
+  @Test(expected = KeeperException.NoNodeException.class)
+  public void testDeleteRecursiveMissingRoot() throws Exception {
+    client.deleteRecursive("/missing", true, DeleteProgressListener.NONE);
+  }
+}
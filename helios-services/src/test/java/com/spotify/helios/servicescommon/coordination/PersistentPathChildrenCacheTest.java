@@ -255,6 +255,44 @@ public class PersistentPathChildrenCacheTest {
     verify(listener, atLeastOnce()).nodesChanged(cache);
   }
 
+  @Test
+  public void verifyResyncAvoidedOnReconnectWhenUnchanged() throws Exception {
+    final String foo = "/foos/foo";
+    ensure(foo, new DataPojo(foo));
+
+    // Wait for the cache to pick it up
+    Polling.await(5, MINUTES, new Callable<Object>() {
+      @Override
+      public Object call() throws Exception {
+        return cache.getNodes().containsKey(foo) ? true : null;
+      }
+    });
+
+    final SettableFuture<Boolean> resyncAvoided = SettableFuture.create();
+    cache.addListener(new PersistentPathChildrenCache.Listener() {
+      @Override
+      public void nodesChanged(final PersistentPathChildrenCache<?> cache) {
+      }
+
+      @Override
+      public void connectionStateChanged(final ConnectionState state) {
+      }
+
+      @Override
+      public void reconnected(final PersistentPathChildrenCache<?> cache,
+                              final boolean avoided) {
+        resyncAvoided.set(avoided);
+      }
+    });
+
+    // Restart zk. The session survives, so nothing can have changed without a watch firing.
+    zk.stop();
+    zk.start();
+
+    assertTrue(resyncAvoided.get(5, MINUTES));
+    assertEquals(ImmutableSet.of(foo), cache.getNodes().keySet());
+  }
+
   private void startCache() throws IOException, InterruptedException {
     reset(listener);
     cache = new PersistentPathChildrenCache<>(
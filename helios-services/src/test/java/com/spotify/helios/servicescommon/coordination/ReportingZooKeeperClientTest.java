@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.servicescommon.coordination;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReportingZooKeeperClientTest {
+
+  private final ZooKeeperClient delegate = mock(ZooKeeperClient.class);
+  private final ZooKeeperClient client =
+      new ReportingZooKeeperClient(delegate, ZooKeeperModelReporter.noop(), "test");
+
+  @After
+  public void tearDown() {
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.current();
+    if (stats != null) {
+      stats.end();
+    }
+  }
+
+  @Test
+  public void testRecordsIntoCurrentScope() throws Exception {
+    when(delegate.getData("/a")).thenReturn(new byte[10]);
+    when(delegate.getChildren("/b")).thenReturn(ImmutableList.of("foo", "barbaz"));
+
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.begin();
+    client.getData("/a");
+    client.getData("/a");
+    client.getChildren("/b");
+    client.setData("/c", new byte[7]);
+    stats.end();
+
+    assertNull(ZooKeeperRequestStats.current());
+    assertEquals(4, stats.getOperations());
+    assertEquals(ImmutableMap.of("getChildren", 1L, "getData", 2L, "setData", 1L),
+                 stats.getOperationCounts());
+    assertEquals(29, stats.getBytesRead());
+    assertEquals(7, stats.getBytesWritten());
+    assertTrue(stats.getTime(TimeUnit.NANOSECONDS) >= 0);
+  }
+
+  @Test
+  public void testCallsOutsideScopeAreNotRecorded() throws Exception {
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.begin();
+    stats.end();
+    client.getData("/a");
+    client.setData("/c", new byte[7]);
+    assertEquals(0, stats.getOperations());
+    assertEquals(0, stats.getBytesWritten());
+  }
+
+  @Test
+  public void testAsyncCallsRecordedOnCompletion() throws Exception {
+    final SettableFuture<List<String>> future = SettableFuture.create();
+    when(delegate.getChildrenAsync("/b")).thenReturn(future);
+
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.begin();
+    assertSame(future, client.getChildrenAsync("/b"));
+    stats.end();
+    assertEquals(0, stats.getOperations());
+
+    future.set(ImmutableList.of("foo"));
+    assertEquals(1, stats.getOperations());
+    assertEquals(3, stats.getBytesRead());
+  }
+
+  @Test
+  public void testFailedCallsAreRecorded() throws Exception {
+    when(delegate.getNodeAsync("/n")).thenReturn(
+        Futures.<Node>immediateFailedFuture(new RuntimeException()));
+
+    final ZooKeeperRequestStats stats = ZooKeeperRequestStats.begin();
+    client.getNodeAsync("/n");
+    stats.end();
+
+    assertEquals(ImmutableMap.of("getNodeAsync", 1L), stats.getOperationCounts());
+    assertEquals(0, stats.getBytesRead());
+  }
+}
@@ -19,6 +19,8 @@ package com.spotify.helios.servicescommon.coordination;
 
 import com.spotify.helios.Parallelized;
 import com.spotify.helios.ZooKeeperTestingServerManager;
+import com.spotify.helios.servicescommon.NoOpRiemannClient;
+import com.spotify.helios.servicescommon.statistics.ZooKeeperMetrics;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.curator.utils.ZKPaths;
@@ -35,10 +37,12 @@ import java.util.Arrays;
 import java.util.concurrent.Callable;
 
 import static com.spotify.helios.Polling.await;
-import static com.spotify.helios.servicescommon.coordination.ZooKeeperModelReporter.noop;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.zookeeper.KeeperException.NodeExistsException;
 import static org.junit.Assert.assertArrayEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
 
 @RunWith(Parallelized.class)
 public class ZooKeeperUpdatingPersistentDirectoryTest {
@@ -59,6 +63,7 @@ public class ZooKeeperUpdatingPersistentDirectoryTest {
   private ZooKeeperTestingServerManager zk = new ZooKeeperTestingServerManager();
 
   private ZooKeeperUpdatingPersistentDirectory sut;
+  private ZooKeeperMetrics metrics = mock(ZooKeeperMetrics.class);
 
   @Before
   public void setUp() throws Exception {
@@ -71,7 +76,9 @@ public class ZooKeeperUpdatingPersistentDirectoryTest {
 
   private void setupDirectory() throws IOException, InterruptedException {
     final DefaultZooKeeperClient client = new DefaultZooKeeperClient(zk.curatorWithSuperAuth());
-    final ZooKeeperClientProvider provider = new ZooKeeperClientProvider(client, noop());
+    final ZooKeeperModelReporter reporter =
+        new ZooKeeperModelReporter(new NoOpRiemannClient().facade(), metrics);
+    final ZooKeeperClientProvider provider = new ZooKeeperClientProvider(client, reporter);
     sut = ZooKeeperUpdatingPersistentDirectory.create("test", provider, stateFile, PARENT_PATH);
     sut.startAsync();
   }
@@ -103,6 +110,31 @@ public class ZooKeeperUpdatingPersistentDirectoryTest {
     awaitNodeWithData(FOO_PATH, BAR1_DATA);
   }
 
+  @Test
+  public void verifyReplicatesManyChanges() throws Exception {
+    for (int i = 0; i < 250; i++) {
+      sut.put("node-" + i, ("data-" + i).getBytes());
+    }
+    for (int i = 0; i < 250; i++) {
+      awaitNodeWithData(ZKPaths.makePath(PARENT_PATH, "node-" + i), ("data-" + i).getBytes());
+    }
+    for (int i = 0; i < 250; i += 2) {
+      sut.remove("node-" + i);
+    }
+    for (int i = 0; i < 250; i += 2) {
+      awaitNoNode(ZKPaths.makePath(PARENT_PATH, "node-" + i));
+    }
+  }
+
+  @Test
+  public void verifyRecreatesExternallyDeletedNode() throws Exception {
+    sut.put(FOO_NODE, BAR1_DATA);
+    awaitNodeWithData(FOO_PATH, BAR1_DATA);
+    zk.curatorWithSuperAuth().delete().forPath(FOO_PATH);
+    sut.put(FOO_NODE, BAR2_DATA);
+    awaitNodeWithData(FOO_PATH, BAR2_DATA);
+  }
+
   @Test
   public void verifyRemovesUndesiredNode() throws Exception {
     zk.ensure(FOO_PATH);
@@ -111,6 +143,17 @@ public class ZooKeeperUpdatingPersistentDirectoryTest {
     awaitNoNode(FOO_PATH);
   }
 
+  @Test
+  public void verifyResyncAvoidedOnReconnectWhenUnchanged() throws Exception {
+    sut.put(FOO_NODE, BAR1_DATA);
+    awaitNodeWithData(FOO_PATH, BAR1_DATA);
+    zk.stop();
+    zk.start();
+    verify(metrics, timeout(60000)).reconnectResync(true);
+    sut.put(BAZ_NODE, BAR2_DATA);
+    awaitNodeWithData(BAZ_PATH, BAR2_DATA);
+  }
+
   @Test
   public void verifyRecoversFromBackupRestoreOnline() throws Exception {
     // Create backup
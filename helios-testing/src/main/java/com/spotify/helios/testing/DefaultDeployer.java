@@ -50,17 +50,27 @@ public class DefaultDeployer implements Deployer {
   private final HostPickingStrategy hostPicker;
   private final String jobDeployedMessageFormat;
   private final long deployTimeoutMillis;
+  private final JobStatusPoller poller;
 
   private boolean readyToDeploy;
 
   public DefaultDeployer(final HeliosClient client, final List<TemporaryJob> jobs,
                          final HostPickingStrategy hostPicker,
                          final String jobDeployedMessageFormat, final long deployTimeoutMillis) {
+    this(client, jobs, hostPicker, jobDeployedMessageFormat, deployTimeoutMillis,
+         new JobStatusPoller(client));
+  }
+
+  DefaultDeployer(final HeliosClient client, final List<TemporaryJob> jobs,
+                  final HostPickingStrategy hostPicker,
+                  final String jobDeployedMessageFormat, final long deployTimeoutMillis,
+                  final JobStatusPoller poller) {
     this.client = client;
     this.jobs = jobs;
     this.hostPicker = hostPicker;
     this.jobDeployedMessageFormat = jobDeployedMessageFormat;
     this.deployTimeoutMillis = deployTimeoutMillis;
+    this.poller = poller;
   }
 
   @Override
@@ -139,7 +149,7 @@ public class DefaultDeployer implements Deployer {
     log.info("Deploying {} to {}", job.getImage(), Joiner.on(", ").skipNulls().join(hosts));
     final TemporaryJob temporaryJob = new TemporaryJob(client, prober, reportWriter, job, hosts,
                                                        waitPorts, jobDeployedMessageFormat,
-                                                       deployTimeoutMillis);
+                                                       deployTimeoutMillis, poller);
     jobs.add(temporaryJob);
     temporaryJob.deploy();
     return temporaryJob;
@@ -20,6 +20,7 @@ package com.spotify.helios.testing;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.HostStatus;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.net.HostAndPort;
 import com.google.common.util.concurrent.ListenableFuture;
 import org.junit.rules.ExternalResource;
@@ -45,6 +46,12 @@ public class HeliosDeploymentResource extends ExternalResource {
 
   private static final Logger log = LoggerFactory.getLogger(HeliosDeploymentResource.class);
 
+  /**
+   * The master has no way to watch for agents registering, so check again right away. Each check
+   * is itself bounded by a short connect or request timeout.
+   */
+  private static final long READINESS_INTERVAL_MILLIS = 50;
+
   private final HeliosDeployment deployment;
 
   /**
@@ -59,18 +66,19 @@ public class HeliosDeploymentResource extends ExternalResource {
   public void before() throws Throwable {
     super.before();
 
+    final Stopwatch readiness = Stopwatch.createStarted();
+
     // wait for the helios master to be available
     Polling.awaitUnchecked(30, TimeUnit.SECONDS,
         "Could not connect to HeliosDeployment at " + deployment.address() + " after %d %s",
-        new Callable<Boolean>() {
+        READINESS_INTERVAL_MILLIS, new Callable<Boolean>() {
       @Override
       public Boolean call() throws Exception {
         final HostAndPort hap = deployment.address();
         final SocketAddress address = new InetSocketAddress(hap.getHostText(), hap.getPort());
         log.debug("attempting to connect to {}", address);
 
-        try {
-          final Socket s = new Socket();
+        try (final Socket s = new Socket()) {
           s.connect(address, 100);
           log.info("successfully connected to address {} for {}", address, deployment);
           return true;
@@ -84,10 +92,11 @@ public class HeliosDeploymentResource extends ExternalResource {
     // Ensure that at least one agent is available and UP in this HeliosDeployment.
     // This prevents continuing with the test when starting up helios-solo before the agent is
     // registered.
+    final long masterMillis = readiness.elapsed(TimeUnit.MILLISECONDS);
     final HeliosClient client = client();
     Polling.awaitUnchecked(30, TimeUnit.SECONDS,
         "No agents were available at HeliosDeployment at " + deployment.address() + " after %d %s",
-        new Callable<Boolean>() {
+        READINESS_INTERVAL_MILLIS, new Callable<Boolean>() {
       @Override
       public Boolean call() throws Exception {
         final ListenableFuture<List<String>> future = client.listHosts();
@@ -129,6 +138,10 @@ public class HeliosDeploymentResource extends ExternalResource {
         return null;
       }
     });
+
+    final long readyMillis = readiness.elapsed(TimeUnit.MILLISECONDS);
+    log.info("{} ready after {} ms: master reachable after {} ms, agent UP after {} more ms",
+             deployment, readyMillis, masterMillis, readyMillis - masterMillis);
   }
 
   @Override
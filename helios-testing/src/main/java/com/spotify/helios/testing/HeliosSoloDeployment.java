@@ -19,17 +19,21 @@ package com.spotify.helios.testing;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
 import static java.util.Collections.singletonList;
 
 import com.spotify.docker.client.DefaultDockerClient;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.DockerHost;
 import com.spotify.docker.client.exceptions.DockerCertificateException;
+import com.spotify.docker.client.exceptions.ContainerNotFoundException;
 import com.spotify.docker.client.exceptions.DockerException;
 import com.spotify.docker.client.exceptions.ImageNotFoundException;
 import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.ContainerCreation;
 import com.spotify.docker.client.messages.ContainerExit;
+import com.spotify.docker.client.messages.ContainerInfo;
 import com.spotify.docker.client.messages.HostConfig;
 import com.spotify.docker.client.messages.Info;
 import com.spotify.docker.client.messages.NetworkSettings;
@@ -44,22 +48,32 @@ import com.spotify.helios.common.protocol.JobUndeployResponse;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import com.google.common.net.HostAndPort;
 import com.google.common.util.concurrent.FutureFallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigValue;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.net.InetAddress;
+import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -68,6 +82,9 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -87,7 +104,14 @@ public class HeliosSoloDeployment implements HeliosDeployment {
   public static final String HELIOS_SOLO_PROFILE = "helios.solo.profile";
   public static final String HELIOS_SOLO_PROFILES = "helios.solo.profiles.";
   public static final int HELIOS_MASTER_PORT = 5801;
+  public static final String SHARED_NAMESPACE = "shared";
   private static final int DEFAULT_WAIT_SECONDS = 30;
+  private static final int HEALTH_CHECK_TIMEOUT_MILLIS = 1000;
+  private static final int HEALTH_CHECK_INTERVAL_MILLIS = 500;
+  private static final int SHARED_STARTUP_TIMEOUT_SECONDS = 120;
+
+  /** Serializes bring-up of shared deployments within this JVM; the lock file covers others. */
+  private static final Object SHARED_LOCK = new Object();
 
   private final DockerClient dockerClient;
   /** The DockerHost we use to communicate with docker */
@@ -96,6 +120,8 @@ public class HeliosSoloDeployment implements HeliosDeployment {
   private final DockerHost containerDockerHost;
   private final String heliosSoloImage;
   private final boolean pullBeforeCreate;
+  private final boolean pullInParallel;
+  private final boolean shared;
   private final String namespace;
   private final String agentName;
   private final List<String> env;
@@ -105,12 +131,16 @@ public class HeliosSoloDeployment implements HeliosDeployment {
   private final HeliosClient heliosClient;
   private boolean removeHeliosSoloContainerOnExit;
   private final int jobUndeployWaitSeconds;
+  private final Map<String, Long> startupPhaseMillis = Maps.newLinkedHashMap();
 
   private HeliosSoloLogService logService;
 
   HeliosSoloDeployment(final Builder builder) {
+    final Stopwatch startup = Stopwatch.createStarted();
     this.heliosSoloImage = builder.heliosSoloImage;
     this.pullBeforeCreate = builder.pullBeforeCreate;
+    this.pullInParallel = builder.pullInParallel;
+    this.shared = builder.shared;
     this.removeHeliosSoloContainerOnExit = builder.removeHeliosSoloContainerOnExit;
     this.jobUndeployWaitSeconds = builder.jobUndeployWaitSeconds;
 
@@ -129,22 +159,18 @@ public class HeliosSoloDeployment implements HeliosDeployment {
     this.containerDockerHost = Optional.fromNullable(builder.containerDockerHost)
         .or(containerDockerHost(dockerInfo));
 
-    this.namespace = Optional.fromNullable(builder.namespace).or(randomString());
+    this.namespace = Optional.fromNullable(builder.namespace)
+        .or(shared ? SHARED_NAMESPACE : randomString());
     this.agentName = this.namespace + HELIOS_NAME_SUFFIX;
     this.env = containerEnv(builder.env);
     this.binds = containerBinds();
 
-    final String heliosPort;
     try {
-      final String heliosHost = determineHeliosHost(dockerInfo);
-      this.heliosContainerId = deploySolo(heliosHost);
-      heliosPort = getHostPort(this.heliosContainerId, HELIOS_MASTER_PORT);
+      this.heliosContainerId = shared ? deploySharedSolo(dockerInfo) : deploySolo(dockerInfo);
+      this.deploymentAddress = deploymentAddress(this.heliosContainerId);
     } catch (HeliosDeploymentException e) {
       throw new AssertionError("Unable to deploy helios-solo container.", e);
     }
-
-    // Running the String host:port through HostAndPort does some validation for us.
-    this.deploymentAddress = HostAndPort.fromString(dockerHost.address() + ":" + heliosPort);
     this.heliosClient = Optional.fromNullable(builder.heliosClient).or(
         HeliosClient.newBuilder()
             .setUser(username)
@@ -155,6 +181,185 @@ public class HeliosSoloDeployment implements HeliosDeployment {
       logService = new HeliosSoloLogService(heliosClient, dockerClient, builder.logStreamFollower);
       logService.startAsync().awaitRunning();
     }
+
+    startupPhaseMillis.put("total", startup.elapsed(TimeUnit.MILLISECONDS));
+    log.info("helios-solo startup phases in milliseconds: {}", startupPhaseMillis);
+  }
+
+  /**
+   * Reuse the shared helios-solo container for this namespace if it is running with the requested
+   * image and environment, or deploy a new one. A lock file in the temporary directory keeps test
+   * classes in other JVMs from deploying the same shared container concurrently. It is held until
+   * the master answers, so the next test class never sees a container that is still booting.
+   *
+   * @return The container ID of the Helios Solo container.
+   * @throws HeliosDeploymentException if Helios Solo could not be deployed.
+   */
+  private String deploySharedSolo(final Info dockerInfo) throws HeliosDeploymentException {
+    final Path lockFile = Paths.get(System.getProperty("java.io.tmpdir"),
+                                    "helios-solo-" + namespace + ".lock");
+    final Stopwatch lockWait = Stopwatch.createStarted();
+    synchronized (SHARED_LOCK) {
+      try (final FileChannel channel = FileChannel.open(lockFile, CREATE, WRITE);
+           final FileLock ignored = channel.lock()) {
+        startupPhaseMillis.put("lock", lockWait.elapsed(TimeUnit.MILLISECONDS));
+
+        final String existing = findSharedSolo();
+        if (existing != null) {
+          log.info("reusing shared helios-solo container, containerId={}", existing);
+          return existing;
+        }
+
+        final String containerId = deploySolo(dockerInfo);
+        if (!awaitHealthy(containerId)) {
+          killContainer(containerId);
+          removeContainer(containerId);
+          throw new HeliosDeploymentException(String.format(
+              "shared helios-solo container %s did not answer within %d seconds",
+              containerId, SHARED_STARTUP_TIMEOUT_SECONDS));
+        }
+        return containerId;
+      } catch (IOException e) {
+        throw new HeliosDeploymentException("unable to lock " + lockFile, e);
+      }
+    }
+  }
+
+  /**
+   * @return The ID of the shared helios-solo container if it is running and its master answers,
+   * otherwise null. A container that is not running, or that did not answer before the startup
+   * timeout, is removed so that a new one can take its name.
+   * @throws HeliosDeploymentException if the running container was started with a different image
+   * or environment than requested.
+   */
+  private String findSharedSolo() throws HeliosDeploymentException {
+    final ContainerInfo info;
+    try {
+      info = dockerClient.inspectContainer(containerName());
+    } catch (ContainerNotFoundException e) {
+      return null;
+    } catch (DockerException | InterruptedException e) {
+      throw new HeliosDeploymentException("unable to inspect shared helios-solo container", e);
+    }
+
+    if (!Boolean.TRUE.equals(info.state().running())) {
+      log.info("removing stopped shared helios-solo container, containerId={}", info.id());
+      removeContainer(info.id());
+      return null;
+    }
+
+    final ContainerConfig config = info.config();
+    if (!heliosSoloImage.equals(config.image())
+        || config.env() == null || !config.env().containsAll(env)) {
+      // Other test classes might be using it, so leave it be
+      throw new HeliosDeploymentException(String.format(
+          "shared helios-solo container %s was started with image %s and environment %s, but "
+          + "image %s and environment %s were requested. Remove it or use another namespace.",
+          info.id(), config.image(), config.env(), heliosSoloImage, env));
+    }
+
+    if (awaitHealthy(info.id())) {
+      return info.id();
+    }
+
+    log.info("removing unresponsive shared helios-solo container, containerId={}", info.id());
+    killContainer(info.id());
+    removeContainer(info.id());
+    return null;
+  }
+
+  /**
+   * @return Whether the master in the given container answered before the shared startup timeout.
+   */
+  private boolean awaitHealthy(final String containerId) {
+    final Stopwatch wait = Stopwatch.createStarted();
+    while (!isHealthy(containerId)) {
+      if (wait.elapsed(TimeUnit.SECONDS) >= SHARED_STARTUP_TIMEOUT_SECONDS) {
+        return false;
+      }
+      try {
+        Thread.sleep(HEALTH_CHECK_INTERVAL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return Whether the master in the given container answers on its version endpoint.
+   */
+  private boolean isHealthy(final String containerId) {
+    try {
+      final URL url = new URL("http://" + deploymentAddress(containerId) + "/version");
+      final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+      connection.setConnectTimeout(HEALTH_CHECK_TIMEOUT_MILLIS);
+      connection.setReadTimeout(HEALTH_CHECK_TIMEOUT_MILLIS);
+      try {
+        return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
+      } finally {
+        connection.disconnect();
+      }
+    } catch (HeliosDeploymentException | IOException e) {
+      log.debug("shared helios-solo container {} is not healthy", containerId, e);
+      return false;
+    }
+  }
+
+  private HostAndPort deploymentAddress(final String containerId)
+      throws HeliosDeploymentException {
+    final String heliosPort = getHostPort(containerId, HELIOS_MASTER_PORT);
+    // Running the String host:port through HostAndPort does some validation for us.
+    return HostAndPort.fromString(dockerHost.address() + ":" + heliosPort);
+  }
+
+  /**
+   * @return The container ID of the Helios Solo container.
+   * @throws HeliosDeploymentException if Helios Solo could not be deployed.
+   */
+  private String deploySolo(final Info dockerInfo) throws HeliosDeploymentException {
+    final Future<?> pull = pullBeforeCreate && pullInParallel
+                           ? pullInBackground(heliosSoloImage)
+                           : null;
+    try {
+      final Stopwatch probe = Stopwatch.createStarted();
+      final String heliosHost = determineHeliosHost(dockerInfo);
+      startupPhaseMillis.put("probe", probe.elapsed(TimeUnit.MILLISECONDS));
+
+      return deploySolo(heliosHost, pull);
+    } finally {
+      if (pull != null) {
+        pull.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * Pull an image on a background thread so that it overlaps with the probe container.
+   */
+  private Future<?> pullInBackground(final String image) {
+    final ExecutorService executor = Executors.newSingleThreadExecutor(
+        new ThreadFactoryBuilder()
+            .setNameFormat("helios-solo-pull-%d")
+            .setDaemon(true)
+            .build());
+    try {
+      return executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          log.info("pulling image {} in the background", image);
+          dockerClient.pull(image);
+          return null;
+        }
+      });
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private String containerName() {
+    return HELIOS_CONTAINER_PREFIX + this.namespace;
   }
 
   /**
@@ -350,7 +555,8 @@ public class HeliosSoloDeployment implements HeliosDeployment {
    * @return The container ID of the Helios Solo container.
    * @throws HeliosDeploymentException if Helios Solo could not be deployed.
    */
-  private String deploySolo(final String heliosHost) throws HeliosDeploymentException {
+  private String deploySolo(final String heliosHost, final Future<?> pull)
+      throws HeliosDeploymentException {
     //TODO(negz): Don't make this.env immutable so early?
     final List<String> env = new ArrayList<>();
     env.addAll(this.env);
@@ -376,14 +582,20 @@ public class HeliosSoloDeployment implements HeliosDeployment {
     final ContainerCreation creation;
     try {
       if (pullBeforeCreate) {
-        dockerClient.pull(heliosSoloImage);
+        final Stopwatch pullTime = Stopwatch.createStarted();
+        if (pull != null) {
+          pull.get();
+        } else {
+          dockerClient.pull(heliosSoloImage);
+        }
+        startupPhaseMillis.put("pull", pullTime.elapsed(TimeUnit.MILLISECONDS));
       }
-      final String containerName = HELIOS_CONTAINER_PREFIX + this.namespace;
-      creation = dockerClient.createContainer(containerConfig, containerName);
-    } catch (DockerException | InterruptedException e) {
+      creation = dockerClient.createContainer(containerConfig, containerName());
+    } catch (DockerException | InterruptedException | ExecutionException e) {
       throw new HeliosDeploymentException("helios-solo container creation failed", e);
     }
 
+    final Stopwatch start = Stopwatch.createStarted();
     try {
       dockerClient.startContainer(creation.id());
     } catch (DockerException | InterruptedException e) {
@@ -391,6 +603,7 @@ public class HeliosSoloDeployment implements HeliosDeployment {
       removeContainer(creation.id());
       throw new HeliosDeploymentException("helios-solo container start failed", e);
     }
+    startupPhaseMillis.put("start", start.elapsed(TimeUnit.MILLISECONDS));
 
     log.info("helios-solo container started, containerId={}", creation.id());
 
@@ -463,9 +676,28 @@ public class HeliosSoloDeployment implements HeliosDeployment {
   }
 
   /**
-   * Undeploy (shut down) this HeliosSoloDeployment.
+   * @return How long each phase of bringing up this deployment took, in milliseconds and in the
+   * order the phases ran. Phases that were skipped, e.g. because a shared container was reused,
+   * are absent.
+   */
+  public Map<String, Long> startupPhaseMillis() {
+    return ImmutableMap.copyOf(startupPhaseMillis);
+  }
+
+  /**
+   * Undeploy (shut down) this HeliosSoloDeployment. A shared deployment is left running for the
+   * next test class, along with any jobs other test classes are still running on it.
    */
   public void close() {
+    if (shared) {
+      log.info("leaving shared helios-solo running, containerId={}", heliosContainerId);
+      if (logService != null) {
+        logService.stopAsync();
+      }
+      this.dockerClient.close();
+      return;
+    }
+
     log.info("shutting ourselves down");
 
     undeployLeftoverJobs();
@@ -620,6 +852,8 @@ public class HeliosSoloDeployment implements HeliosDeployment {
     private String heliosUsername;
     private Set<String> env;
     private boolean pullBeforeCreate = true;
+    private boolean pullInParallel = false;
+    private boolean shared = false;
     private boolean removeHeliosSoloContainerOnExit = false;
     private int jobUndeployWaitSeconds = DEFAULT_WAIT_SECONDS;
     // Intentionally picking a publicly accessible class for this log output
@@ -663,6 +897,29 @@ public class HeliosSoloDeployment implements HeliosDeployment {
       return this;
     }
 
+    /**
+     * By default the {@link #heliosSoloImage} is pulled after checking that docker can be reached
+     * from within a container. Call this method with "true" to pull it concurrently with that
+     * check instead.
+     */
+    public Builder pullImagesInParallel(boolean enabled) {
+      this.pullInParallel = enabled;
+      return this;
+    }
+
+    /**
+     * Call this method with "true" to share one helios-solo container between all test classes,
+     * including those running in other JVMs, that use the same namespace (by default
+     * {@value HeliosSoloDeployment#SHARED_NAMESPACE}). The first deployment creates the container
+     * and later ones reuse it as long as its master answers. A lock file in the temporary
+     * directory serializes this across JVMs. {@link HeliosSoloDeployment#close()} leaves a shared
+     * container running, so remove it yourself once it is no longer needed.
+     */
+    public Builder shared(boolean enabled) {
+      this.shared = enabled;
+      return this;
+    }
+
     /**
      * By default the container running helios-solo is removed when
      * {@link HeliosSoloDeployment#close()} is called. Call this method with "false" to disable this
@@ -21,25 +21,32 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.spotify.docker.client.DockerClient.LogsParam.follow;
 import static com.spotify.docker.client.DockerClient.LogsParam.stderr;
 import static com.spotify.docker.client.DockerClient.LogsParam.stdout;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.Maps;
-import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.common.util.concurrent.AbstractExecutionThreadService;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.spotify.docker.client.DockerClient;
+import com.spotify.docker.client.EventStream;
 import com.spotify.docker.client.LogStream;
 import com.spotify.docker.client.exceptions.DockerException;
+import com.spotify.docker.client.messages.Event;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.HostStatus;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -48,15 +55,41 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class HeliosSoloLogService extends AbstractScheduledService {
+/**
+ * Attaches a {@link LogStreamFollower} to the containers of every job running on a helios-solo
+ * deployment.
+ *
+ * <p>Discovery is driven by docker container start events: after a container starts we look for
+ * it in the task statuses at a short interval for a little while, since the agent reports the
+ * container id to the master asynchronously. Otherwise discovery falls back to a slow poll, which
+ * also covers docker daemons whose event stream is unavailable.
+ *
+ * <p>Logs are followed on a single executor shared by all containers and shut down along with
+ * the service. Followers pull messages straight from the docker log stream, so a slow follower
+ * slows down reading of that container's stream instead of buffering its output in memory.
+ */
+class HeliosSoloLogService extends AbstractExecutionThreadService {
 
   private static final Logger log = LoggerFactory.getLogger(HeliosSoloLogService.class);
 
+  private static final long IDLE_INTERVAL_MILLIS = 1000;
+  private static final long BURST_INTERVAL_MILLIS = 100;
+  private static final long BURST_DURATION_MILLIS = 5000;
+  private static final long EVENT_RETRY_MILLIS = 1000;
+
   private final HeliosClient heliosClient;
   private final DockerClient dockerClient;
   private final LogStreamFollower logStreamFollower;
 
-  private Map<String, Future> logFutures = Maps.newHashMap();
+  private final ExecutorService executor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder()
+          .setNameFormat("helios-solo-logs-%d")
+          .setDaemon(true)
+          .build());
+  private final ConcurrentMap<String, Future<?>> logFutures = Maps.newConcurrentMap();
+  private final Semaphore containerStarted = new Semaphore(0);
+
+  private volatile EventStream eventStream;
 
   HeliosSoloLogService(@NotNull final HeliosClient heliosClient,
                        @NotNull final DockerClient dockerClient,
@@ -73,20 +106,63 @@ class HeliosSoloLogService extends AbstractScheduledService {
   }
 
   @Override
-  protected ScheduledExecutorService executor() {
+  protected void run() throws Exception {
+    // Submitted from here rather than startUp(), as the service is only running once run() is
+    // called and the job stops as soon as it isn't
+    executor.submit(new EventWatchJob());
+
+    long burstDeadline = 0;
+    while (isRunning()) {
+      discover();
+
+      final long now = System.nanoTime();
+      final long interval = now - burstDeadline < 0 ? BURST_INTERVAL_MILLIS : IDLE_INTERVAL_MILLIS;
+      if (containerStarted.tryAcquire(interval, MILLISECONDS)) {
+        containerStarted.drainPermits();
+        burstDeadline = System.nanoTime() + MILLISECONDS.toNanos(BURST_DURATION_MILLIS);
+      }
+    }
+  }
+
+  @Override
+  protected void triggerShutdown() {
+    closeEventStream();
+    containerStarted.release();
+  }
+
+  @Override
+  protected void shutDown() throws Exception {
+    // The event stream may have been opened after triggerShutdown() closed the previous one
+    closeEventStream();
+    for (final Future<?> future : logFutures.values()) {
+      future.cancel(true);
+    }
+    executor.shutdownNow();
+  }
+
+  @Override
+  protected Executor executor() {
     final ThreadFactory threadFactory = new ThreadFactoryBuilder()
         .setNameFormat(serviceName())
         .setDaemon(true)
         .build();
-    return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    return new Executor() {
+      @Override
+      public void execute(final Runnable command) {
+        threadFactory.newThread(command).start();
+      }
+    };
   }
 
-  @Override
-  protected void runOneIteration() throws Exception {
+  private void discover() {
     try {
       // fetch all the jobs running on the solo deployment
-      for (final String host : get(heliosClient.listHosts())) {
-        final HostStatus hostStatus = get(heliosClient.hostStatus(host));
+      final List<String> hosts = get(heliosClient.listHosts());
+      if (hosts.isEmpty()) {
+        return;
+      }
+
+      for (final HostStatus hostStatus : get(heliosClient.hostStatuses(hosts)).values()) {
         if (hostStatus == null) {
           continue;
         }
@@ -96,37 +172,66 @@ class HeliosSoloLogService extends AbstractScheduledService {
         for (final TaskStatus status : statuses.values()) {
           final JobId jobId = status.getJob().getId();
           final String containerId = status.getContainerId();
-          if (isNullOrEmpty(containerId)) {
+          if (isNullOrEmpty(containerId) || logFutures.containsKey(containerId)) {
             continue;
           }
 
-          if (!logFutures.containsKey(containerId)) {
-            // for any containers we're not already tracking, attach to their stdout/stderr
-            final Future<?> future = this.executor().submit(new LogFollowJob(containerId, jobId));
-            logFutures.put(containerId, future);
-          }
+          // for any containers we're not already tracking, attach to their stdout/stderr
+          final Future<?> future = executor.submit(new LogFollowJob(containerId, jobId));
+          logFutures.put(containerId, future);
         }
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     } catch (Exception e) {
       // Ignore TimeoutException as that is to be expected sometimes
-      if (!(Throwables.getRootCause(e) instanceof TimeoutException)) {
+      if (isRunning() && !(Throwables.getRootCause(e) instanceof TimeoutException)) {
         log.warn("Caught exception, will ignore", e);
       }
     }
   }
 
-  @Override
-  protected void shutDown() throws Exception {
-    for (final Future future : logFutures.values()) {
-      future.cancel(true);
+  private void closeEventStream() {
+    final EventStream stream = this.eventStream;
+    if (stream != null) {
+      try {
+        stream.close();
+      } catch (Exception e) {
+        log.debug("failed to close docker event stream", e);
+      }
     }
-
-    super.shutDown();
   }
 
-  @Override
-  protected Scheduler scheduler() {
-    return Scheduler.newFixedDelaySchedule(0, 100, TimeUnit.MILLISECONDS);
+  /**
+   * Wakes up discovery whenever docker starts a container.
+   */
+  private class EventWatchJob implements Callable<Void> {
+
+    @Override
+    public Void call() throws InterruptedException {
+      while (isRunning()) {
+        try {
+          eventStream = dockerClient.events();
+          while (eventStream.hasNext()) {
+            final Event event = eventStream.next();
+            if ("start".equals(event.status())) {
+              containerStarted.release();
+            }
+          }
+        } catch (InterruptedException e) {
+          return null;
+        } catch (Exception e) {
+          if (!isRunning()) {
+            return null;
+          }
+          log.debug("listening for docker events failed, retrying", e);
+          Thread.sleep(EVENT_RETRY_MILLIS);
+        } finally {
+          closeEventStream();
+        }
+      }
+      return null;
+    }
   }
 
   private class LogFollowJob implements Callable<Void> {
@@ -17,31 +17,48 @@
 
 package com.spotify.helios.testing;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.spotify.docker.client.LogMessage;
 import com.spotify.helios.common.descriptors.JobId;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 /**
  * A {@link LogStreamFollower} implementation that captures all container stdout/stderr to memory.
- * Provided mostly for debugging and other limited use cases, since extended container output
- * will be kept in memory without bound.
+ * Provided mostly for debugging and other limited use cases, since unless created with
+ * {@link #create(int)} extended container output will be kept in memory without bound.
  */
 public class InMemoryLogStreamFollower implements LogStreamFollower {
 
   private final ConcurrentMap<JobId, StreamHolder> streamHolders;
+  private final int maxBytesPerStream;
 
   private InMemoryLogStreamFollower(
-      final ConcurrentMap<JobId, StreamHolder> streamHolders) {
+      final ConcurrentMap<JobId, StreamHolder> streamHolders, final int maxBytesPerStream) {
     this.streamHolders = streamHolders;
+    this.maxBytesPerStream = maxBytesPerStream;
   }
 
   public static InMemoryLogStreamFollower create() {
-    return new InMemoryLogStreamFollower(new ConcurrentHashMap<JobId, StreamHolder>());
+    return create(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Create a follower that only keeps the most recent output of each container.
+   *
+   * @param maxBytesPerStream The number of bytes of stdout and of stderr to keep per container.
+   * @return The follower.
+   */
+  public static InMemoryLogStreamFollower create(final int maxBytesPerStream) {
+    checkArgument(maxBytesPerStream > 0, "maxBytesPerStream must be positive");
+    return new InMemoryLogStreamFollower(new ConcurrentHashMap<JobId, StreamHolder>(),
+                                         maxBytesPerStream);
   }
 
   /**
@@ -68,24 +85,20 @@ public class InMemoryLogStreamFollower implements LogStreamFollower {
   public void followLog(
       final JobId jobId, final String containerId, final Iterator<LogMessage> logStream)
       throws IOException {
-    try (final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-         final ByteArrayOutputStream stderr = new ByteArrayOutputStream()) {
+    try (final ByteArrayOutputStream stdout = new TailOutputStream(maxBytesPerStream);
+         final ByteArrayOutputStream stderr = new TailOutputStream(maxBytesPerStream)) {
       streamHolders.put(jobId, new StreamHolder(stdout, stderr));
 
       while (logStream.hasNext()) {
         final LogMessage message = logStream.next();
         final ByteBuffer content = message.content();
 
-        assert content.hasArray();
-
         switch (message.stream()) {
           case STDOUT:
-            stdout.write(content.array(), content.position(), content.remaining());
-            stdout.flush();
+            write(stdout, content);
             break;
           case STDERR:
-            stderr.write(content.array(), content.position(), content.remaining());
-            stderr.flush();
+            write(stderr, content);
             break;
           case STDIN:
           default:
@@ -95,6 +108,46 @@ public class InMemoryLogStreamFollower implements LogStreamFollower {
     }
   }
 
+  /**
+   * Log message content is a read-only buffer, which doesn't expose its backing array.
+   */
+  private static void write(final ByteArrayOutputStream stream, final ByteBuffer content)
+      throws IOException {
+    final byte[] bytes = new byte[content.remaining()];
+    content.get(bytes);
+    stream.write(bytes);
+    stream.flush();
+  }
+
+  /**
+   * Keeps the last {@code maxBytes} written, compacting once twice that much has been buffered.
+   */
+  private static final class TailOutputStream extends ByteArrayOutputStream {
+
+    private final int maxBytes;
+
+    TailOutputStream(final int maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public synchronized void write(final byte[] b, final int off, final int len) {
+      super.write(b, off, len);
+      if (count - maxBytes > maxBytes) {
+        System.arraycopy(buf, count - maxBytes, buf, 0, maxBytes);
+        count = maxBytes;
+      }
+    }
+
+    @Override
+    public synchronized byte[] toByteArray() {
+      if (count <= maxBytes) {
+        return super.toByteArray();
+      }
+      return Arrays.copyOfRange(buf, count - maxBytes, count);
+    }
+  }
+
   private static final class StreamHolder {
 
     final ByteArrayOutputStream stdout;
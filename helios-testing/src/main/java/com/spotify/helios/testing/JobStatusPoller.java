@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.testing;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import com.spotify.helios.client.HeliosClient;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.JobStatus;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.spotify.helios.testing.Jobs.get;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Fetches the statuses of all jobs being waited on with a single request per interval, so that
+ * waiting on many jobs and hosts doesn't result in a status request per job, host and iteration.
+ */
+class JobStatusPoller implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(JobStatusPoller.class);
+
+  static final long POLL_INTERVAL_MILLIS = 500;
+
+  private final HeliosClient client;
+  private final ScheduledExecutorService scheduler;
+  private final Object lock = new Object();
+
+  private Map<JobId, SettableFuture<JobStatus>> waiting = Maps.newHashMap();
+
+  JobStatusPoller(final HeliosClient client) {
+    this(client, POLL_INTERVAL_MILLIS);
+  }
+
+  JobStatusPoller(final HeliosClient client, final long intervalMillis) {
+    this.client = checkNotNull(client, "client");
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(
+        new ThreadFactoryBuilder()
+            .setNameFormat("helios-test-job-status-%d")
+            .setDaemon(true)
+            .build());
+    scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        poll();
+      }
+    }, intervalMillis, intervalMillis, MILLISECONDS);
+  }
+
+  /**
+   * Get the status of a job as of the next poll.
+   * @param jobId The job.
+   * @return A future holding the status of the job, or null if the job does not exist.
+   */
+  ListenableFuture<JobStatus> nextStatus(final JobId jobId) {
+    synchronized (lock) {
+      SettableFuture<JobStatus> status = waiting.get(jobId);
+      if (status == null) {
+        status = SettableFuture.create();
+        waiting.put(jobId, status);
+      }
+      return status;
+    }
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    synchronized (lock) {
+      for (final SettableFuture<JobStatus> status : waiting.values()) {
+        status.cancel(false);
+      }
+      waiting.clear();
+    }
+  }
+
+  private void poll() {
+    final Map<JobId, SettableFuture<JobStatus>> polled;
+    synchronized (lock) {
+      if (waiting.isEmpty()) {
+        return;
+      }
+      polled = waiting;
+      waiting = Maps.newHashMap();
+    }
+
+    try {
+      final Map<JobId, JobStatus> statuses =
+          get(client.jobStatuses(ImmutableSet.copyOf(polled.keySet())));
+      for (final Map.Entry<JobId, SettableFuture<JobStatus>> entry : polled.entrySet()) {
+        entry.getValue().set(statuses == null ? null : statuses.get(entry.getKey()));
+      }
+    } catch (Exception e) {
+      log.debug("Failed to poll job statuses", e);
+      for (final SettableFuture<JobStatus> status : polled.values()) {
+        status.setException(e);
+      }
+    }
+  }
+}
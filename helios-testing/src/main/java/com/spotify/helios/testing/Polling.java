@@ -27,15 +27,24 @@ import java.util.concurrent.TimeoutException;
 
 class Polling {
 
+  private static final long DEFAULT_INTERVAL_MILLIS = 500;
+
   static <T> T await(final long timeout, final TimeUnit timeUnit,
                      final String message, final Callable<T> callable) throws Exception {
+    return await(timeout, timeUnit, message, DEFAULT_INTERVAL_MILLIS, callable);
+  }
+
+  static <T> T await(final long timeout, final TimeUnit timeUnit, final String message,
+                     final long intervalMillis, final Callable<T> callable) throws Exception {
     final long deadline = nanoTime() + timeUnit.toNanos(timeout);
     while (nanoTime() < deadline) {
       final T value = callable.call();
       if (value != null) {
         return value;
       }
-      Thread.sleep(500);
+      if (intervalMillis > 0) {
+        Thread.sleep(intervalMillis);
+      }
     }
     throw new TimeoutException(String.format(message, timeout, timeUnit.toString().toLowerCase()));
   }
@@ -43,8 +52,19 @@ class Polling {
   public static <T> T awaitUnchecked(final long timeout, final TimeUnit timeUnit,
                                      final String message, final Callable<T> callable)
       throws TimeoutException {
+    return awaitUnchecked(timeout, timeUnit, message, DEFAULT_INTERVAL_MILLIS, callable);
+  }
+
+  /**
+   * Like {@link #awaitUnchecked(long, TimeUnit, String, Callable)}, sleeping the given interval
+   * between calls. Use an interval of zero if the callable paces itself, e.g. by waiting on a
+   * {@link JobStatusPoller}.
+   */
+  static <T> T awaitUnchecked(final long timeout, final TimeUnit timeUnit, final String message,
+                              final long intervalMillis, final Callable<T> callable)
+      throws TimeoutException {
     try {
-      return await(timeout, timeUnit, message, callable);
+      return await(timeout, timeUnit, message, intervalMillis, callable);
     } catch (Throwable e) {
       propagateIfInstanceOf(e, TimeoutException.class);
       throw propagate(e);
@@ -21,6 +21,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.Maps.newHashMap;
+import static com.google.common.collect.Sets.newHashSet;
 import static com.spotify.helios.testing.Jobs.TIMEOUT_MILLIS;
 import static com.spotify.helios.testing.Jobs.get;
 import static com.spotify.helios.testing.Jobs.getJobDescription;
@@ -47,17 +48,18 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.net.HostAndPort;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import org.apache.commons.lang.text.StrSubstitutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TemporaryJob {
 
@@ -73,12 +75,15 @@ public class TemporaryJob {
   private final Set<String> waitPorts;
   private final String jobDeployedMessageFormat;
   private final long deployTimeoutMillis;
+  private final JobStatusPoller poller;
 
   TemporaryJob(final HeliosClient client, final Prober prober,
                final TemporaryJobReports.ReportWriter reportWriter, final Job job,
                final List<String> hosts, final Set<String> waitPorts,
-               final String jobDeployedMessageFormat, final long deployTimeoutMillis) {
+               final String jobDeployedMessageFormat, final long deployTimeoutMillis,
+               final JobStatusPoller poller) {
     this.client = checkNotNull(client, "client");
+    this.poller = checkNotNull(poller, "poller");
     this.prober = checkNotNull(prober, "prober");
     this.reportWriter = checkNotNull(reportWriter, "reportWriter");
     this.job = checkNotNull(job, "job");
@@ -185,21 +190,28 @@ public class TemporaryJob {
     final TemporaryJobReports.Step deployJob = reportWriter.step("deploy job")
         .tag("jobId", job.getId());
     try {
-      // Deploy job
+      // Deploy job to all hosts concurrently
       final Deployment deployment = Deployment.of(job.getId(), Goal.START);
+      final Map<String, ListenableFuture<HostStatus>> hostStatuses = newHashMap();
+      final Map<String, ListenableFuture<JobDeployResponse>> deployResponses = newHashMap();
+      for (final String host : hosts) {
+        log.info("Deploying {} to {}", getJobDescription(job), host);
+        hostStatuses.put(host, client.hostStatus(host));
+        deployResponses.put(host, client.deploy(deployment, host));
+      }
+
       for (final String host : hosts) {
         // HELIOS_HOST_ADDRESS is the IP address we should use to reach the host, instead of
         // the hostname. This is used when running a helios cluster inside a VM, and the containers
         // can be reached by IP address only, since DNS won't be able to resolve the host name of
         // the helios agent running in the VM.
-        final HostStatus hostStatus = client.hostStatus(host).get();
+        final HostStatus hostStatus = hostStatuses.get(host).get();
         final String hostAddress = hostStatus.getEnvironment().get("HELIOS_HOST_ADDRESS");
         if (hostAddress != null) {
           hostToIp.put(host, hostAddress);
         }
 
-        log.info("Deploying {} to {}", getJobDescription(job), host);
-        final JobDeployResponse deployResponse = get(client.deploy(deployment, host));
+        final JobDeployResponse deployResponse = get(deployResponses.get(host));
         if (deployResponse.getStatus() != JobDeployResponse.Status.OK) {
           fail(format("Failed to deploy job %s %s - %s",
                       job.getId(), job.toString(), deployResponse));
@@ -215,9 +227,7 @@ public class TemporaryJob {
 
     try {
       // Wait for job to come up
-      for (final String host : hosts) {
-        awaitUp(host);
-      }
+      awaitUp();
     } catch (TimeoutException e) {
       fail(format("Failed while probing job %s %s - %s", job.getId(), job.toString(), e));
     }
@@ -242,74 +252,93 @@ public class TemporaryJob {
     }
   }
 
-  private void awaitUp(final String host) throws TimeoutException {
-    final TemporaryJobReports.Step startContainer = reportWriter.step("start container")
-        .tag("jobId", job.getId())
-        .tag("host", host)
-        .tag("image", job.getImage());
+  /**
+   * Wait for the job to be running on all hosts, watching all hosts with a single status poll per
+   * iteration, and then probe its ports.
+   */
+  private void awaitUp() throws TimeoutException {
+    final Map<String, TemporaryJobReports.Step> startContainer = newHashMap();
+    for (final String host : hosts) {
+      startContainer.put(host, reportWriter.step("start container")
+          .tag("jobId", job.getId())
+          .tag("host", host)
+          .tag("image", job.getImage()));
+    }
+
+    final Set<String> pending = newHashSet(hosts);
+    final Set<String> messagePrinted = newHashSet();
     try {
-      final AtomicBoolean messagePrinted = new AtomicBoolean(false);
-      final TaskStatus status = Polling.awaitUnchecked(
-          deployTimeoutMillis, MILLISECONDS, job.getId() + " was not up within %d %s",
-          new Callable<TaskStatus>() {
+      Polling.awaitUnchecked(
+          deployTimeoutMillis, MILLISECONDS, job.getId() + " was not up within %d %s", 0,
+          new Callable<Boolean>() {
             @Override
-            public TaskStatus call() throws Exception {
-              final JobStatus status = Futures.getUnchecked(client.jobStatus(job.getId()));
+            public Boolean call() throws Exception {
+              final JobStatus status = Futures.getUnchecked(poller.nextStatus(job.getId()));
               if (status == null) {
                 log.debug("Job status not available");
                 return null;
               }
-              final TaskStatus taskStatus = status.getTaskStatuses().get(host);
-              if (taskStatus == null) {
-                log.debug("Task status not available on {}", host);
-                return null;
-              }
 
-              if (!messagePrinted.get() &&
-                  !isNullOrEmpty(jobDeployedMessageFormat) &&
-                  !isNullOrEmpty(taskStatus.getContainerId())) {
-                outputDeployedMessage(host, taskStatus.getContainerId());
-                messagePrinted.set(true);
+              final Iterator<String> it = pending.iterator();
+              while (it.hasNext()) {
+                final String host = it.next();
+                final TaskStatus taskStatus = status.getTaskStatuses().get(host);
+                if (taskStatus == null) {
+                  log.debug("Task status not available on {}", host);
+                  continue;
+                }
+
+                if (!messagePrinted.contains(host) &&
+                    !isNullOrEmpty(jobDeployedMessageFormat) &&
+                    !isNullOrEmpty(taskStatus.getContainerId())) {
+                  outputDeployedMessage(host, taskStatus.getContainerId());
+                  messagePrinted.add(host);
+                }
+
+                verifyHealthy(host, taskStatus);
+
+                final TaskStatus.State state = taskStatus.getState();
+                log.info("Job state of {} on {}: {}", job.getImage(), host, state);
+
+                if (state == TaskStatus.State.RUNNING) {
+                  statuses.put(host, taskStatus);
+                  startContainer.get(host).markSuccess().finish();
+                  it.remove();
+                }
               }
 
-              verifyHealthy(host, taskStatus);
-
-              final TaskStatus.State state = taskStatus.getState();
-              log.info("Job state of {}: {}", job.getImage(), state);
-
-              if (state == TaskStatus.State.RUNNING) {
-                return taskStatus;
-              }
-
-              return null;
+              return pending.isEmpty() ? true : null;
             }
           }
       );
-
-      statuses.put(host, status);
-
-      startContainer.markSuccess();
     } finally {
-      startContainer.finish();
+      for (final String host : pending) {
+        startContainer.get(host).finish();
+      }
     }
 
-    final TemporaryJobReports.Step probe = reportWriter.step("probe")
-        .tag("jobId", job.getId())
-        .tag("host", host);
-    try {
-      for (final String port : waitPorts) {
-        awaitPort(port, host);
-      }
+    for (final String host : hosts) {
+      final TemporaryJobReports.Step probe = reportWriter.step("probe")
+          .tag("jobId", job.getId())
+          .tag("host", host);
+      try {
+        for (final String port : waitPorts) {
+          awaitPort(port, host);
+        }
 
-      probe.markSuccess();
-    } finally {
-      probe.finish();
+        probe.markSuccess();
+      } finally {
+        probe.finish();
+      }
     }
   }
 
   void verifyHealthy() throws AssertionError {
+    verifyHealthy(Futures.getUnchecked(client.jobStatus(job.getId())));
+  }
+
+  void verifyHealthy(final JobStatus status) throws AssertionError {
     log.debug("Checking health of {}", job.getImage());
-    final JobStatus status = Futures.getUnchecked(client.jobStatus(job.getId()));
     if (status == null) {
       return;
     }
@@ -17,6 +17,7 @@
 
 package com.spotify.helios.testing;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 
 import com.fasterxml.jackson.core.JsonEncoding;
@@ -67,6 +68,9 @@ public class TemporaryJobReports {
     private final String testClassName;
     private final String testName;
 
+    // Total seconds spent in each step, guarded by this
+    private final Map<String, Double> phaseDurations = Maps.newLinkedHashMap();
+
     private ReportWriter(final Path outputDir, final String testClassName, final String testName) {
       this.testClassName = testClassName;
       this.testName = testName;
@@ -103,8 +107,21 @@ public class TemporaryJobReports {
       return new Step(this, step);
     }
 
-    private void writeEvent(final String step, final double timestamp, final double duration,
-                            final Boolean success, final Map<String, Object> tags) {
+    /**
+     * Get the total time spent in each step so far. Steps of the same name, e.g. the "start
+     * container" steps of several jobs, are added up. Note that steps can run concurrently.
+     * @return The total duration in seconds of each step.
+     */
+    public synchronized Map<String, Double> phaseDurations() {
+      return ImmutableMap.copyOf(phaseDurations);
+    }
+
+    private synchronized void writeEvent(final String step, final double timestamp,
+                                         final double duration, final Boolean success,
+                                         final Map<String, Object> tags) {
+      final Double total = phaseDurations.get(step);
+      phaseDurations.put(step, (total == null ? 0 : total) + duration);
+
       final TemporaryJobEvent event = new TemporaryJobEvent(
           timestamp,
           duration,
@@ -131,7 +148,13 @@ public class TemporaryJobReports {
     }
 
     @Override
-    public void close() throws IOException {
+    public synchronized void close() throws IOException {
+      if (!phaseDurations.isEmpty()) {
+        log.info("Time spent per phase in seconds: {}", phaseDurations);
+        writeEvent(new TemporaryJobEvent(System.currentTimeMillis() / 1000., 0, testClassName,
+                                         testName, "phases", true,
+                                         ImmutableMap.<String, Object>copyOf(phaseDurations)));
+      }
       if (jg != null) {
         jg.close();
       }
@@ -23,6 +23,9 @@ import com.google.common.base.Splitter;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -31,6 +34,7 @@ import com.spotify.helios.common.Json;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.JobStatus;
+import com.spotify.helios.common.protocol.JobListQuery;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigList;
@@ -54,15 +58,18 @@ import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeoutException;
 
 import static com.google.common.base.Charsets.UTF_8;
 import static com.google.common.base.Optional.fromNullable;
@@ -74,6 +81,7 @@ import static com.spotify.helios.testing.Jobs.undeploy;
 import static java.lang.String.format;
 import static java.lang.System.getProperty;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -89,6 +97,7 @@ public class TemporaryJobs implements TestRule {
   private static final String DEFAULT_TEST_REPORT_DIRECTORY = "target/helios-reports/test";
   private static final long JOB_HEALTH_CHECK_INTERVAL_MILLIS = SECONDS.toMillis(5);
   private static final long DEFAULT_DEPLOY_TIMEOUT_MILLIS = MINUTES.toMillis(10);
+  private static final int JOB_PARALLELISM = 8;
 
   private final HeliosClient client;
   private final Prober prober;
@@ -98,6 +107,7 @@ public class TemporaryJobs implements TestRule {
   private final Map<String, String> env;
   private final List<TemporaryJob> jobs = Lists.newCopyOnWriteArrayList();
   private final Deployer deployer;
+  private final JobStatusPoller poller;
 
   private final TemporaryJobReports reports;
   private final ThreadLocal<TemporaryJobReports.ReportWriter> reportWriter;
@@ -110,6 +120,15 @@ public class TemporaryJobs implements TestRule {
               .build()),
       0, SECONDS);
 
+  // Used to undeploy jobs concurrently
+  private final ExecutorService jobExecutor = MoreExecutors.getExitingExecutorService(
+      (ThreadPoolExecutor) Executors.newFixedThreadPool(
+          JOB_PARALLELISM, new ThreadFactoryBuilder()
+              .setNameFormat("helios-test-jobs-%d")
+              .setDaemon(true)
+              .build()),
+      0, SECONDS);
+
   TemporaryJobs(final Builder builder, final Config config) {
     this.client = checkNotNull(builder.client, "client");
     this.prober = checkNotNull(builder.prober, "prober");
@@ -118,9 +137,10 @@ public class TemporaryJobs implements TestRule {
 
     checkArgument(builder.deployTimeoutMillis >= 0, "deployTimeoutMillis");
 
+    this.poller = new JobStatusPoller(client);
     this.deployer = fromNullable(builder.deployer).or(
         new DefaultDeployer(client, jobs, builder.hostPickingStrategy,
-            builder.jobDeployedMessageFormat, builder.deployTimeoutMillis));
+            builder.jobDeployedMessageFormat, builder.deployTimeoutMillis, poller));
 
     final Path prefixDirectory = Paths.get(fromNullable(builder.prefixDirectory)
                                                .or(DEFAULT_PREFIX_DIRECTORY));
@@ -191,12 +211,43 @@ public class TemporaryJobs implements TestRule {
     } catch (InterruptedException ignore) {
     }
 
-    final List<AssertionError> errors = newArrayList();
+    final List<AssertionError> errors = Collections.synchronizedList(
+        Lists.<AssertionError>newArrayList());
 
+    // Undeploy all jobs concurrently
+    final List<Future<?>> undeploys = newArrayList();
     for (final TemporaryJob job : jobs) {
       jobIds.add(job.job().getId());
-      job.undeploy(errors);
+      final Optional<TemporaryJobReports.Step> undeployJob = writer.transform(
+          new Function<TemporaryJobReports.ReportWriter, TemporaryJobReports.Step>() {
+            @Override
+            public TemporaryJobReports.Step apply(final TemporaryJobReports.ReportWriter writer) {
+              return writer.step("undeploy job").tag("jobId", job.job().getId());
+            }
+          });
+      undeploys.add(jobExecutor.submit(new Runnable() {
+        @Override
+        public void run() {
+          final List<AssertionError> jobErrors = newArrayList();
+          job.undeploy(jobErrors);
+          errors.addAll(jobErrors);
+          for (final TemporaryJobReports.Step step : undeployJob.asSet()) {
+            if (jobErrors.isEmpty()) {
+              step.markSuccess();
+            }
+            step.finish();
+          }
+        }
+      }));
+    }
+    for (final Future<?> pending : undeploys) {
+      try {
+        pending.get();
+      } catch (InterruptedException | ExecutionException e) {
+        errors.add(new AssertionError(e));
+      }
     }
+    poller.close();
 
     for (final TemporaryJobReports.Step step : undeploy.asSet()) {
       step.tag("jobs", jobIds);
@@ -380,10 +431,15 @@ public class TemporaryJobs implements TestRule {
       }
     });
 
-    // Monitor jobs while test is running
+    // Monitor jobs while test is running, returning as soon as the test finishes
     while (!future.isDone()) {
-      Thread.sleep(JOB_HEALTH_CHECK_INTERVAL_MILLIS);
-      verifyJobsHealthy();
+      try {
+        future.get(JOB_HEALTH_CHECK_INTERVAL_MILLIS, MILLISECONDS);
+      } catch (TimeoutException e) {
+        verifyJobsHealthy();
+      } catch (ExecutionException e) {
+        break;
+      }
     }
 
     // Rethrow test failure, if any
@@ -396,8 +452,18 @@ public class TemporaryJobs implements TestRule {
   }
 
   private void verifyJobsHealthy() throws AssertionError {
+    if (jobs.isEmpty()) {
+      return;
+    }
+
+    // Fetch the statuses of all jobs with a single request
+    final Set<JobId> jobIds = Sets.newHashSet();
+    for (final TemporaryJob job : jobs) {
+      jobIds.add(job.job().getId());
+    }
+    final Map<JobId, JobStatus> statuses = Futures.getUnchecked(client.jobStatuses(jobIds));
     for (final TemporaryJob job : jobs) {
-      job.verifyHealthy();
+      job.verifyHealthy(statuses.get(job.job().getId()));
     }
   }
 
@@ -421,8 +487,6 @@ public class TemporaryJobs implements TestRule {
 
     log.info("Removing old temporary jobs");
 
-    final Map<JobId, Job> jobs = client.jobs().get();
-
     // Iterate over all files in the directory
     for (final File file : files) {
       // Skip .tmp files which are generated when JobPrefixFiles are created. Also skip
@@ -440,22 +504,44 @@ public class TemporaryJobs implements TestRule {
           continue;
         }
 
-        boolean jobRemovalFailed = false;
-        // Iterate over jobs, looking for ones with a matching prefix.
+        // Only fetch the jobs created with this prefix
+        final JobListQuery query = JobListQuery.newBuilder()
+            .setNamePrefix(prefixFile.prefix())
+            .build();
+        final Map<JobId, Job> jobs = client.jobs(query).get();
+
+        // Skip over jobs if the id doesn't start with current filename.
+        final Map<JobId, Job> matching = Maps.newHashMap();
         for (final Map.Entry<JobId, Job> entry : jobs.entrySet()) {
-          final JobId jobId = entry.getKey();
-          // Skip over job if the id doesn't start with current filename.
-          if (!jobId.getName().startsWith(prefixFile.prefix())) {
-            continue;
+          if (entry.getKey().getName().startsWith(prefixFile.prefix())) {
+            matching.put(entry.getKey(), entry.getValue());
           }
-          // Get list of all hosts where this job is deployed, and undeploy
-          final JobStatus status = client.jobStatus(entry.getKey()).get();
-          final List<String> hosts = ImmutableList.copyOf(status.getDeployments().keySet());
-          final List<AssertionError> errors =
-              undeploy(client, entry.getValue(), hosts, new ArrayList<AssertionError>());
+        }
 
+        // Get list of all hosts where these jobs are deployed with a single request, and undeploy
+        // the jobs concurrently
+        final Map<JobId, JobStatus> statuses =
+            matching.isEmpty()
+            ? Collections.<JobId, JobStatus>emptyMap()
+            : client.jobStatuses(matching.keySet()).get();
+        final List<Future<List<AssertionError>>> undeploys = newArrayList();
+        for (final Map.Entry<JobId, Job> entry : matching.entrySet()) {
+          final JobStatus status = statuses.get(entry.getKey());
+          final List<String> hosts = (status == null)
+                                     ? ImmutableList.<String>of()
+                                     : ImmutableList.copyOf(status.getDeployments().keySet());
+          undeploys.add(jobExecutor.submit(new Callable<List<AssertionError>>() {
+            @Override
+            public List<AssertionError> call() {
+              return undeploy(client, entry.getValue(), hosts, new ArrayList<AssertionError>());
+            }
+          }));
+        }
+
+        boolean jobRemovalFailed = false;
+        for (final Future<List<AssertionError>> undeploy : undeploys) {
           // Set flag indicating if any errors occur
-          if (!errors.isEmpty()) {
+          if (!undeploy.get().isEmpty()) {
             jobRemovalFailed = true;
           }
         }
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.JobListQuery;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -46,6 +47,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.experimental.results.PrintableResult.testResult;
 import static org.junit.experimental.results.ResultMatchers.isSuccessful;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
 
@@ -66,7 +68,7 @@ public class ConfigTest {
         immediateFuture((Map<JobId, Job>) new HashMap<JobId, Job>());
 
     // Return an empty job list to skip trying to remove old jobs
-    when(client.jobs()).thenReturn(future);
+    when(client.jobs(any(JobListQuery.class))).thenReturn(future);
   }
 
   public static class ProfileTest implements Deployer {
@@ -17,15 +17,21 @@
 
 package com.spotify.helios.testing;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,11 +42,13 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.spotify.docker.client.DockerClient;
 import com.spotify.docker.client.DockerHost;
 import com.spotify.docker.client.LogStream;
+import com.spotify.docker.client.exceptions.ContainerNotFoundException;
 import com.spotify.docker.client.exceptions.ImageNotFoundException;
 import com.spotify.docker.client.messages.ContainerConfig;
 import com.spotify.docker.client.messages.ContainerCreation;
 import com.spotify.docker.client.messages.ContainerExit;
 import com.spotify.docker.client.messages.ContainerInfo;
+import com.spotify.docker.client.messages.ContainerState;
 import com.spotify.docker.client.messages.ImageInfo;
 import com.spotify.docker.client.messages.Info;
 import com.spotify.docker.client.messages.NetworkSettings;
@@ -54,12 +62,19 @@ import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.protocol.JobUndeployResponse;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValueFactory;
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
@@ -102,11 +117,28 @@ public class HeliosSoloDeploymentTest {
   private HeliosClient heliosClient;
   private ArgumentCaptor<ContainerConfig> containerConfig;
 
+  // stands in for the master's version endpoint, which shared deployments wait for
+  private HttpServer master;
+  private final AtomicInteger versionRequests = new AtomicInteger();
+  private volatile int unavailableVersionRequests;
+
   @Before
   public void setup() throws Exception {
     this.dockerClient = mock(DockerClient.class);
     this.heliosClient = mock(HeliosClient.class);
 
+    this.master = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    this.master.createContext("/version", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        final int request = versionRequests.incrementAndGet();
+        exchange.sendResponseHeaders(request > unavailableVersionRequests ? 200 : 503, -1);
+        exchange.close();
+      }
+    });
+    this.master.start();
+    final int masterPort = this.master.getAddress().getPort();
+
     // the anonymous classes to override a method are to workaround the docker-client "messages"
     // having no mutators, fun
     when(this.dockerClient.info()).thenReturn(new Info() {
@@ -138,7 +170,7 @@ public class HeliosSoloDeploymentTest {
     when(this.dockerClient.inspectContainer(CONTAINER_ID)).thenReturn(new ContainerInfo() {
       @Override
       public NetworkSettings networkSettings() {
-        final PortBinding binding = PortBinding.of("192.168.1.1", 5801);
+        final PortBinding binding = PortBinding.of("192.168.1.1", masterPort);
         final Map<String, List<PortBinding>> ports =
             ImmutableMap.<String, List<PortBinding>>of("5801/tcp", ImmutableList.of(binding));
 
@@ -157,6 +189,11 @@ public class HeliosSoloDeploymentTest {
     });
   }
 
+  @After
+  public void tearDown() {
+    master.stop(0);
+  }
+
   private HeliosSoloDeployment buildHeliosSoloDeployment() {
     return buildHeliosSoloDeployment(DockerHost.from("tcp://localhost:2375", ""));
   }
@@ -239,6 +276,116 @@ public class HeliosSoloDeploymentTest {
     verify(this.dockerClient).pull(HeliosSoloDeployment.PROBE_IMAGE);
   }
 
+  @Test
+  public void testPullsImagesInParallel() throws Exception {
+    final HeliosSoloDeployment deployment = buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().heliosSoloImage("helios-test").pullImagesInParallel(true));
+
+    verify(this.dockerClient).pull("helios-test");
+    assertThat(deployment.startupPhaseMillis().keySet(),
+               contains("probe", "pull", "start", "total"));
+  }
+
+  @Test
+  public void testSharedDeploymentIsLeftRunningOnClose() throws Exception {
+    final String name = HeliosSoloDeployment.HELIOS_CONTAINER_PREFIX + "shared-test";
+    when(this.dockerClient.inspectContainer(name))
+        .thenThrow(new ContainerNotFoundException(name));
+
+    final HeliosSoloDeployment deployment = buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+    deployment.close();
+
+    verify(this.dockerClient).createContainer(any(ContainerConfig.class), eq(name));
+    verify(this.dockerClient, never()).killContainer(CONTAINER_ID);
+    // the probe container shares the mocked container id and is the only one removed
+    verify(this.dockerClient, times(1)).removeContainer(CONTAINER_ID);
+  }
+
+  @Test
+  public void testSharedDeploymentReplacesStoppedContainer() throws Exception {
+    final String name = HeliosSoloDeployment.HELIOS_CONTAINER_PREFIX + "shared-test";
+    final ContainerState state = mock(ContainerState.class);
+    when(state.running()).thenReturn(false);
+    final ContainerInfo stopped = mock(ContainerInfo.class);
+    when(stopped.id()).thenReturn("stopped");
+    when(stopped.state()).thenReturn(state);
+    when(this.dockerClient.inspectContainer(name)).thenReturn(stopped);
+
+    buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+
+    verify(this.dockerClient).removeContainer("stopped");
+    verify(this.dockerClient).createContainer(any(ContainerConfig.class), eq(name));
+  }
+
+  @Test
+  public void testSharedDeploymentWaitsForMaster() throws Exception {
+    final String name = HeliosSoloDeployment.HELIOS_CONTAINER_PREFIX + "shared-test";
+    when(this.dockerClient.inspectContainer(name))
+        .thenThrow(new ContainerNotFoundException(name));
+    unavailableVersionRequests = 2;
+
+    buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+
+    assertEquals(3, versionRequests.get());
+  }
+
+  @Test
+  public void testSharedDeploymentReusesRunningContainer() throws Exception {
+    final String name = HeliosSoloDeployment.HELIOS_CONTAINER_PREFIX + "shared-test";
+    when(this.dockerClient.inspectContainer(name))
+        .thenThrow(new ContainerNotFoundException(name));
+    buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+
+    ContainerConfig soloConfig = null;
+    for (final ContainerConfig cc : containerConfig.getAllValues()) {
+      if (cc.image().contains("helios-solo")) {
+        soloConfig = cc;
+      }
+    }
+    doReturn(runningContainer(soloConfig)).when(this.dockerClient).inspectContainer(name);
+
+    final HeliosSoloDeployment deployment = buildHeliosSoloDeployment(
+        HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+
+    assertEquals(CONTAINER_ID, deployment.heliosContainerId());
+    verify(this.dockerClient, times(1)).createContainer(any(ContainerConfig.class), eq(name));
+  }
+
+  @Test
+  public void testSharedDeploymentRejectsContainerWithOtherImage() throws Exception {
+    final String name = HeliosSoloDeployment.HELIOS_CONTAINER_PREFIX + "shared-test";
+    final ContainerInfo running = runningContainer(ContainerConfig.builder()
+        .image("spotify/helios-solo:other")
+        .env(Collections.<String>emptyList())
+        .build());
+    when(this.dockerClient.inspectContainer(name)).thenReturn(running);
+
+    try {
+      buildHeliosSoloDeployment(
+          HeliosSoloDeployment.builder().namespace("shared-test").shared(true));
+      fail("deployed against a shared helios-solo with another image");
+    } catch (AssertionError e) {
+      assertSame(HeliosDeploymentException.class, e.getCause().getClass());
+    }
+
+    verify(this.dockerClient, never()).killContainer(CONTAINER_ID);
+    verify(this.dockerClient, never()).createContainer(any(ContainerConfig.class), eq(name));
+  }
+
+  private ContainerInfo runningContainer(final ContainerConfig config) {
+    final ContainerState state = mock(ContainerState.class);
+    when(state.running()).thenReturn(true);
+    final ContainerInfo info = mock(ContainerInfo.class);
+    when(info.id()).thenReturn(CONTAINER_ID);
+    when(info.state()).thenReturn(state);
+    when(info.config()).thenReturn(config);
+    return info;
+  }
+
   @Test
   public void testUndeployLeftoverJobs() throws Exception {
     final HeliosSoloDeployment solo = buildHeliosSoloDeployment();
@@ -336,19 +483,24 @@ public class HeliosSoloDeploymentTest {
         ImmutableList.of(HOST1));
     when(heliosClient.listHosts()).thenReturn(hostsFuture);
 
-    final ListenableFuture<HostStatus> statusFuture = Futures.immediateFuture(
-        HostStatus.newBuilder()
-            .setStatus(Status.UP)
-            .setStatuses(ImmutableMap.of(JOB_ID1, TASK_STATUS1))
-            .setJobs(ImmutableMap.of(JOB_ID1, Deployment.of(JOB_ID1, Goal.START)))
-            .build());
-    when(heliosClient.hostStatus(HOST1)).thenReturn(statusFuture);
+    final HostStatus hostStatus = HostStatus.newBuilder()
+        .setStatus(Status.UP)
+        .setStatuses(ImmutableMap.of(JOB_ID1, TASK_STATUS1))
+        .setJobs(ImmutableMap.of(JOB_ID1, Deployment.of(JOB_ID1, Goal.START)))
+        .build();
+    final ListenableFuture<Map<String, HostStatus>> statusesFuture =
+        Futures.<Map<String, HostStatus>>immediateFuture(ImmutableMap.of(HOST1, hostStatus));
+    when(heliosClient.hostStatuses(ImmutableList.of(HOST1))).thenReturn(statusesFuture);
 
     when(dockerClient.logs(anyString(), Matchers.<DockerClient.LogsParam>anyVararg()))
         .thenReturn(mock(LogStream.class));
-    logService.runOneIteration();
+    logService.startAsync().awaitRunning();
 
-    verify(dockerClient, timeout(5000)).logs(eq(CONTAINER_ID),
-                                             Matchers.<DockerClient.LogsParam>anyVararg());
+    try {
+      verify(dockerClient, timeout(5000)).logs(eq(CONTAINER_ID),
+                                               Matchers.<DockerClient.LogsParam>anyVararg());
+    } finally {
+      logService.stopAsync().awaitTerminated();
+    }
   }
 }
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.testing;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.spotify.docker.client.LogMessage;
+import com.spotify.helios.common.descriptors.JobId;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+public class InMemoryLogStreamFollowerTest {
+
+  private static final JobId JOB_ID = JobId.fromString("a:b:c");
+
+  @Test
+  public void testCapturesAllOutput() throws Exception {
+    final InMemoryLogStreamFollower sut = InMemoryLogStreamFollower.create();
+    sut.followLog(JOB_ID, "d", ImmutableList.of(
+        message(LogMessage.Stream.STDOUT, "abc"),
+        message(LogMessage.Stream.STDERR, "err"),
+        message(LogMessage.Stream.STDOUT, "123")).iterator());
+
+    assertThat(string(sut.getStdout(JOB_ID)), equalTo("abc123"));
+    assertThat(string(sut.getStderr(JOB_ID)), equalTo("err"));
+  }
+
+  @Test
+  public void testKeepsMostRecentOutputWhenBounded() throws Exception {
+    final InMemoryLogStreamFollower sut = InMemoryLogStreamFollower.create(4);
+    sut.followLog(JOB_ID, "d", ImmutableList.of(
+        message(LogMessage.Stream.STDOUT, "abc"),
+        message(LogMessage.Stream.STDOUT, "def"),
+        message(LogMessage.Stream.STDOUT, "ghi"),
+        message(LogMessage.Stream.STDOUT, "jkl")).iterator());
+
+    assertThat(string(sut.getStdout(JOB_ID)), equalTo("ijkl"));
+  }
+
+  private static LogMessage message(final LogMessage.Stream stream, final String chunk) {
+    return new LogMessage(stream, ByteBuffer.wrap(chunk.getBytes(Charsets.UTF_8)));
+  }
+
+  private static String string(final byte[] bytes) {
+    return new String(bytes, Charsets.UTF_8);
+  }
+}
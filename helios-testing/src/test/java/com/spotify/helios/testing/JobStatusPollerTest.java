@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.testing;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import com.spotify.helios.client.HeliosClient;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.descriptors.JobStatus;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anySetOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobStatusPollerTest {
+
+  private static final JobId FOO = JobId.fromString("foo:1");
+  private static final JobId BAR = JobId.fromString("bar:1");
+  private static final JobId BAZ = JobId.fromString("baz:1");
+
+  private final HeliosClient client = mock(HeliosClient.class);
+  private final JobStatusPoller sut = new JobStatusPoller(client);
+
+  @After
+  public void teardown() {
+    sut.close();
+  }
+
+  @Test
+  public void testFetchesStatusesOfAllWaitingJobsWithSingleRequest() throws Exception {
+    final JobStatus fooStatus = JobStatus.newBuilder().build();
+    final JobStatus barStatus = JobStatus.newBuilder().build();
+    final Map<JobId, JobStatus> statuses = ImmutableMap.of(FOO, fooStatus, BAR, barStatus);
+    when(client.jobStatuses(anySetOf(JobId.class)))
+        .thenReturn(Futures.immediateFuture(statuses));
+
+    final ListenableFuture<JobStatus> foo = sut.nextStatus(FOO);
+    final ListenableFuture<JobStatus> bar = sut.nextStatus(BAR);
+    final ListenableFuture<JobStatus> baz = sut.nextStatus(BAZ);
+
+    assertSame(fooStatus, foo.get(10, SECONDS));
+    assertSame(barStatus, bar.get(10, SECONDS));
+    assertNull(baz.get(10, SECONDS));
+    verify(client).jobStatuses(ImmutableSet.<JobId>of(FOO, BAR, BAZ));
+  }
+
+  @Test
+  public void testSharesPendingPollForSameJob() throws Exception {
+    when(client.jobStatuses(anySetOf(JobId.class)))
+        .thenReturn(Futures.<Map<JobId, JobStatus>>immediateFuture(
+            ImmutableMap.<JobId, JobStatus>of()));
+
+    final ListenableFuture<JobStatus> first = sut.nextStatus(FOO);
+    final ListenableFuture<JobStatus> second = sut.nextStatus(FOO);
+
+    assertSame(first, second);
+    first.get(10, SECONDS);
+    verify(client).jobStatuses(ImmutableSet.<JobId>of(FOO));
+  }
+}
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.JobListQuery;
 
 import org.junit.Before;
 import org.junit.Rule;
@@ -61,7 +62,7 @@ public class JobWithConfigTest {
         immediateFuture((Map<JobId, Job>) new HashMap<JobId, Job>());
 
     // Return an empty job list to skip trying to remove old jobs
-    when(client.jobs()).thenReturn(future);
+    when(client.jobs(any(JobListQuery.class))).thenReturn(future);
   }
 
   @Test
@@ -23,6 +23,7 @@ import static ch.qos.logback.classic.Level.INFO;
 import static ch.qos.logback.classic.Level.WARN;
 import static com.google.common.collect.Iterables.get;
 import static java.util.Arrays.asList;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.slf4j.Logger.ROOT_LOGGER_NAME;
 
 import com.spotify.helios.common.LoggingConfig;
@@ -34,6 +35,8 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -46,6 +49,7 @@ public class CliMain {
   private final CliParser parser;
   private final PrintStream out;
   private final PrintStream err;
+  private final long parseNanos;
 
   @SuppressWarnings("UseOfSystemOutOrSystemErr")
   public static void main(final String... args) {
@@ -63,13 +67,16 @@ public class CliMain {
 
   public CliMain(final PrintStream out, final PrintStream err, final String... args)
       throws Exception {
+    final long start = System.nanoTime();
     this.parser = new CliParser(args);
+    this.parseNanos = System.nanoTime() - start;
     this.out = out;
     this.err = err;
     setupLogging();
   }
 
   public int run() {
+    final long start = System.nanoTime();
     try {
       final BufferedReader stdin = new BufferedReader(new InputStreamReader(System.in));
       return parser.getCommand().run(parser.getNamespace(), parser.getTargets(), out, err,
@@ -82,9 +89,24 @@ public class CliMain {
         err.println(e.getMessage());
       }
       return 1;
+    } finally {
+      if (parser.getLoggingConfig().getVerbosity() > 0) {
+        printTimings(System.nanoTime() - start);
+      }
     }
   }
 
+  /**
+   * Prints where the time of this invocation went, to make slow startup visible with -v.
+   */
+  private void printTimings(final long runNanos) {
+    final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+    final long jvmMillis = runtime.getUptime() - NANOSECONDS.toMillis(parseNanos + runNanos);
+    err.printf("timing: startup %d ms, parse %d ms, run %d ms, total %d ms%n",
+               jvmMillis, NANOSECONDS.toMillis(parseNanos), NANOSECONDS.toMillis(runNanos),
+               runtime.getUptime());
+  }
+
   private void setupLogging() {
     final LoggingConfig config = parser.getLoggingConfig();
     if (config.getNoLogSetup()) {
@@ -57,6 +57,8 @@ import com.spotify.helios.common.LoggingConfig;
 import com.spotify.helios.common.Version;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
@@ -76,6 +78,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class CliParser {
@@ -87,10 +90,49 @@ public class CliParser {
   private static final String HELP_WIKI =
       "For documentation see https://github.com/spotify/helios/tree/master/docs";
 
+  private static final Set<String> HELP_FLAGS = ImmutableSet.of("-h", "--help");
+
+  private static final Map<String, Class<? extends CliCommand>> COMMANDS =
+      ImmutableMap.<String, Class<? extends CliCommand>>builder()
+          // Job commands
+          .put("create", JobCreateCommand.class)
+          .put("remove", JobRemoveCommand.class)
+          .put("inspect", JobInspectCommand.class)
+          .put("deploy", JobDeployCommand.class)
+          .put("undeploy", JobUndeployCommand.class)
+          .put("start", JobStartCommand.class)
+          .put("stop", JobStopCommand.class)
+          .put("history", JobHistoryCommand.class)
+          .put("jobs", JobListCommand.class)
+          .put("status", JobStatusCommand.class)
+          .put("watch", JobWatchCommand.class)
+          // Host commands
+          .put("hosts", HostListCommand.class)
+          .put("register", HostRegisterCommand.class)
+          .put("deregister", HostDeregisterCommand.class)
+          // Master commands
+          .put("masters", MasterListCommand.class)
+          // Deployment group commands
+          .put("create-deployment-group", DeploymentGroupCreateCommand.class)
+          .put("remove-deployment-group", DeploymentGroupRemoveCommand.class)
+          .put("list-deployment-groups", DeploymentGroupListCommand.class)
+          .put("inspect-deployment-group", DeploymentGroupInspectCommand.class)
+          .put("deployment-group-status", DeploymentGroupStatusCommand.class)
+          .put("watch-deployment-group", DeploymentGroupWatchCommand.class)
+          .put("rolling-update", RollingUpdateCommand.class)
+          .put("stop-deployment-group", DeploymentGroupStopCommand.class)
+          // Version Command
+          .put("version", VersionCommand.class)
+          .build();
+
+  private static final Map<String, String> COMMAND_HELP = ImmutableMap.of(
+      "version", "print version of master and client");
+
   private final Namespace options;
   private final CliCommand command;
   private final LoggingConfig loggingConfig;
-  private final Subparsers commandParsers;
+  private GlobalArgs globalArgs;
+  private Subparsers commandParsers;
   private final CliConfig cliConfig;
   private final List<Target> targets;
   private final String username;
@@ -99,33 +141,38 @@ public class CliParser {
   public CliParser(final String... args)
       throws ArgumentParserException, IOException, URISyntaxException {
 
-    final ArgumentParser parser = ArgumentParsers.newArgumentParser("helios")
-        .defaultHelp(true)
-        .version(format("%s%nTested on Docker %s", NAME_AND_VERSION, TESTED_DOCKER_VERSION))
-        .description(format("%s%n%n%s%n%s", NAME_AND_VERSION, HELP_ISSUES, HELP_WIKI));
-
     cliConfig = CliConfig.fromUserConfig(System.getenv());
 
-    final GlobalArgs globalArgs = addGlobalArgs(parser, cliConfig, true);
-
-    commandParsers = parser.addSubparsers()
-        .metavar("COMMAND")
-        .title("commands");
-
-    setupCommands();
+    // Setting up every command is a noticeable part of the CLI's startup time, so only set up the
+    // one that is being run. When that fails, e.g. because the name we picked was the value of an
+    // option, fall back to setting up all of them so that errors and help are complete.
+    final Set<String> commands = requestedCommands(args);
+    ArgumentParser parser = createParser(commands);
 
     if (args.length == 0) {
       parser.printHelp();
       throw new ArgumentParserException(parser);
     }
 
-    try {
-      this.options = parser.parseArgs(args);
-    } catch (ArgumentParserException e) {
-      handleError(parser, e);
-      throw e;
+    Namespace options = null;
+    if (commands.size() < COMMANDS.size()) {
+      try {
+        options = parser.parseArgs(args);
+      } catch (ArgumentParserException e) {
+        parser = createParser(COMMANDS.keySet());
+      }
+    }
+
+    if (options == null) {
+      try {
+        options = parser.parseArgs(args);
+      } catch (ArgumentParserException e) {
+        handleError(parser, e);
+        throw e;
+      }
     }
 
+    this.options = options;
     this.command = options.get("command");
     final String username = options.getString(globalArgs.usernameArg.getDest());
     this.username = (username == null) ? cliConfig.getUsername() : username;
@@ -194,41 +241,51 @@ public class CliParser {
     return filter(asList(domainsString.split(",")), not(equalTo("")));
   }
 
-  private void setupCommands() {
-    // Job commands
-    new JobCreateCommand(p("create"));
-    new JobRemoveCommand(p("remove"));
-    new JobInspectCommand(p("inspect"));
-    new JobDeployCommand(p("deploy"));
-    new JobUndeployCommand(p("undeploy"));
-    new JobStartCommand(p("start"));
-    new JobStopCommand(p("stop"));
-    new JobHistoryCommand(p("history"));
-    new JobListCommand(p("jobs"));
-    new JobStatusCommand(p("status"));
-    new JobWatchCommand(p("watch"));
-
-    // Host commands
-    new HostListCommand(p("hosts"));
-    new HostRegisterCommand(p("register"));
-    new HostDeregisterCommand(p("deregister"));
-
-    // Master commands
-    new MasterListCommand(p("masters"));
-
-    // Deployment group commands
-    new DeploymentGroupCreateCommand(p("create-deployment-group"));
-    new DeploymentGroupRemoveCommand(p("remove-deployment-group"));
-    new DeploymentGroupListCommand(p("list-deployment-groups"));
-    new DeploymentGroupInspectCommand(p("inspect-deployment-group"));
-    new DeploymentGroupStatusCommand(p("deployment-group-status"));
-    new DeploymentGroupWatchCommand(p("watch-deployment-group"));
-    new RollingUpdateCommand(p("rolling-update"));
-    new DeploymentGroupStopCommand(p("stop-deployment-group"));
-
-    // Version Command
-    final Subparser version = p("version").help("print version of master and client");
-    new VersionCommand(version);
+  private ArgumentParser createParser(final Set<String> commands) {
+    final ArgumentParser parser = ArgumentParsers.newArgumentParser("helios")
+        .defaultHelp(true)
+        .version(format("%s%nTested on Docker %s", NAME_AND_VERSION, TESTED_DOCKER_VERSION))
+        .description(format("%s%n%n%s%n%s", NAME_AND_VERSION, HELP_ISSUES, HELP_WIKI));
+
+    globalArgs = addGlobalArgs(parser, cliConfig, true);
+
+    commandParsers = parser.addSubparsers()
+        .metavar("COMMAND")
+        .title("commands");
+
+    for (final String name : commands) {
+      setupCommand(name);
+    }
+
+    return parser;
+  }
+
+  /**
+   * Returns the name of the command being run, or the names of all commands if we can't tell or
+   * help was asked for.
+   */
+  private static Set<String> requestedCommands(final String... args) {
+    for (final String arg : args) {
+      if (HELP_FLAGS.contains(arg)) {
+        break;
+      }
+      if (COMMANDS.containsKey(arg)) {
+        return ImmutableSet.of(arg);
+      }
+    }
+    return COMMANDS.keySet();
+  }
+
+  private void setupCommand(final String name) {
+    final Subparser subparser = p(name);
+    if (COMMAND_HELP.containsKey(name)) {
+      subparser.help(COMMAND_HELP.get(name));
+    }
+    try {
+      COMMANDS.get(name).getConstructor(Subparser.class).newInstance(subparser);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to set up command " + name, e);
+    }
   }
 
   /**
@@ -310,6 +367,11 @@ public class CliParser {
           .action(storeTrue())
           .help(SUPPRESS);
 
+      addArgument("--no-cache")
+          .action(storeTrue())
+          .help("Always ask the master, instead of reusing host and job lists fetched in the last "
+                + "few seconds.");
+
       // note: because of the way the HeliosClient is constructed, these next arguments are
       // read indirectly in cli/Utils.java:
 
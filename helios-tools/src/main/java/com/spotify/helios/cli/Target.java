@@ -17,6 +17,8 @@
 
 package com.spotify.helios.cli;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import com.spotify.helios.common.Resolver;
 
 import com.google.common.base.Supplier;
@@ -31,6 +33,8 @@ import java.util.List;
  * com.spotify.helios.client.HeliosClient}.
  */
 public abstract class Target {
+  private static final long RESOLVE_TTL_SECONDS = 60;
+
   private final String name;
 
   Target(final String name) {
@@ -46,11 +50,15 @@ public abstract class Target {
   private static class SrvTarget extends Target {
     private final String srv;
     private final String domain;
+    private final Supplier<List<URI>> endpointSupplier;
 
     private SrvTarget(final String srv, final String domain) {
       super(domain);
       this.srv = srv;
       this.domain = domain;
+      // Callers ask for the endpoints more than once per command, don't look them up every time
+      this.endpointSupplier = Suppliers.memoizeWithExpiration(
+          Resolver.supplier(srv, domain), RESOLVE_TTL_SECONDS, SECONDS);
     }
 
     public String getSrv() {
@@ -63,7 +71,7 @@ public abstract class Target {
 
     @Override
     public Supplier<List<URI>> getEndpointSupplier() {
-      return Resolver.supplier(srv, domain);
+      return endpointSupplier;
     }
 
     @Override
@@ -39,6 +39,8 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -47,6 +49,8 @@ import java.util.concurrent.TimeUnit;
 
 public class Utils {
 
+  private static final long CACHE_TTL_SECONDS = 5;
+
   public static <K, V> Map<K, V> allAsMap(final Map<K, ListenableFuture<V>> map)
       throws ExecutionException, InterruptedException {
     final Map<K, V> result = Maps.newHashMap();
@@ -70,14 +74,28 @@ public class Utils {
       return null;
     }
 
-    return HeliosClient.newBuilder()
+    final HeliosClient.Builder builder = HeliosClient.newBuilder()
         .setEndpointSupplier(Endpoints.of(target.getEndpointSupplier()))
         //argparse4j converts names like "--http-timeout" to dests of "http_timeout"
         .setHttpTimeout(options.getInt("http_timeout"), TimeUnit.SECONDS)
         .setRetryTimeout(options.getInt("retry_timeout"), TimeUnit.SECONDS)
         .setSslHostnameVerification(!options.getBoolean("insecure"))
-        .setUser(username)
-        .build();
+        .setUser(username);
+
+    if (!Boolean.TRUE.equals(options.getBoolean("no_cache"))) {
+      builder.setCacheDirectory(cacheDirectory(target), CACHE_TTL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Returns the directory that responses from the masters of a target are cached in,
+   * ~/.helios/cache/[target].
+   */
+  private static Path cacheDirectory(final Target target) {
+    final String name = target.toString().replaceAll("[^A-Za-z0-9._-]+", "_");
+    return Paths.get(System.getProperty("user.home"), CliConfig.getConfigDirName(), "cache", name);
   }
 
   public static boolean userConfirmed(final PrintStream out, final BufferedReader stdin)
@@ -23,6 +23,7 @@ import com.google.common.collect.Lists;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.Deployment;
 import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
 import com.spotify.helios.common.protocol.JobDeployResponse;
 
 import net.sourceforge.argparse4j.inf.Argument;
@@ -86,19 +87,35 @@ public class JobDeployCommand extends WildcardJobCommand {
       out.printf("Deploying %s on %s%n", job, hosts);
     }
 
-    int code = 0;
-
     final HostResolver resolver = HostResolver.create(client);
 
     final List<String> resolvedHosts = Lists.newArrayList();
     for (final String candidateHost : hosts) {
-      final String host = resolver.resolveName(candidateHost);
-      resolvedHosts.add(host);
+      resolvedHosts.add(resolver.resolveName(candidateHost));
+    }
+
+    final String token = options.getString(tokenArg.getDest());
+
+    // Deploy to all hosts with a single request when there's more than one, unless the master
+    // is too old to support that
+    final BulkDeployResponse bulk = resolvedHosts.size() > 1
+                                    ? client.deploy(job, resolvedHosts, token).get()
+                                    : null;
+
+    int code = 0;
+
+    for (final String host : resolvedHosts) {
       if (!json) {
         out.printf("%s: ", host);
       }
-      final String token = options.getString(tokenArg.getDest());
-      final JobDeployResponse result = client.deploy(job, host, token).get();
+      final JobDeployResponse result;
+      if (bulk == null) {
+        result = client.deploy(job, host, token).get();
+      } else if (bulk.getStatus() != JobDeployResponse.Status.OK) {
+        result = new JobDeployResponse(bulk.getStatus(), host, jobId);
+      } else {
+        result = new JobDeployResponse(bulk.getHosts().get(host), host, jobId);
+      }
       if (result.getStatus() == JobDeployResponse.Status.OK) {
         if (!json) {
           out.printf("done%n");
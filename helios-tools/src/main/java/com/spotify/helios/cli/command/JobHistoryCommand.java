@@ -25,6 +25,7 @@ import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.TaskStatus;
 import com.spotify.helios.common.descriptors.TaskStatus.State;
 import com.spotify.helios.common.descriptors.TaskStatusEvent;
+import com.spotify.helios.common.protocol.JobHistoryQuery;
 import com.spotify.helios.common.protocol.TaskStatusEvents;
 
 import net.sourceforge.argparse4j.inf.Argument;
@@ -47,6 +48,11 @@ import static com.spotify.helios.cli.Output.table;
 public class JobHistoryCommand extends ControlCommand {
 
   private final Argument jobIdArg;
+  private final Argument hostArg;
+  private final Argument sinceArg;
+  private final Argument untilArg;
+  private final Argument limitArg;
+  private final Argument cursorArg;
 
   public JobHistoryCommand(Subparser parser) {
     super(parser);
@@ -55,6 +61,24 @@ public class JobHistoryCommand extends ControlCommand {
 
     jobIdArg = parser.addArgument("jobid")
          .help("Job id");
+
+    hostArg = parser.addArgument("--host")
+        .help("Only show events on this host");
+
+    sinceArg = parser.addArgument("--since")
+        .type(Long.class)
+        .help("Only show events at or after this time (milliseconds since the epoch)");
+
+    untilArg = parser.addArgument("--until")
+        .type(Long.class)
+        .help("Only show events before this time (milliseconds since the epoch)");
+
+    limitArg = parser.addArgument("--limit")
+        .type(Integer.class)
+        .help("Show at most this many events");
+
+    cursorArg = parser.addArgument("--cursor")
+        .help("Continue a limited listing from the cursor it printed");
   }
 
   @Override
@@ -76,7 +100,15 @@ public class JobHistoryCommand extends ControlCommand {
 
     final JobId jobId = getLast(jobs.keySet());
 
-    final TaskStatusEvents result = client.jobHistory(jobId).get();
+    final JobHistoryQuery query = JobHistoryQuery.newBuilder()
+        .setHost(options.getString(hostArg.getDest()))
+        .setSince(options.getLong(sinceArg.getDest()))
+        .setUntil(options.getLong(untilArg.getDest()))
+        .setLimit(options.getInt(limitArg.getDest()))
+        .setCursor(options.getString(cursorArg.getDest()))
+        .build();
+
+    final TaskStatusEvents result = client.jobHistory(jobId, query).get();
 
     if (json) {
       out.println(Json.asPrettyStringUnchecked(result));
@@ -99,6 +131,10 @@ public class JobHistoryCommand extends ControlCommand {
       table.row(host, format.print(timestamp), state, status.getThrottled(), containerId);
     }
     table.print();
+
+    if (result.getNextCursor() != null) {
+      out.printf("%nMore events available, continue with --cursor %s%n", result.getNextCursor());
+    }
     return 0;
   }
 }
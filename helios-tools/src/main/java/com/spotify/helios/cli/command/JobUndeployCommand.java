@@ -18,11 +18,13 @@
 package com.spotify.helios.cli.command;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 
 import com.spotify.helios.cli.Utils;
 import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.descriptors.JobStatus;
+import com.spotify.helios.common.protocol.BulkUndeployResponse;
 import com.spotify.helios.common.protocol.JobUndeployResponse;
 
 import net.sourceforge.argparse4j.inf.Argument;
@@ -121,18 +123,36 @@ public class JobUndeployCommand extends WildcardJobCommand {
       out.printf("Undeploying %s from %s%n", jobId, hosts);
     }
 
-    int code = 0;
     final HostResolver resolver = HostResolver.create(client);
 
+    final List<String> resolvedHosts = Lists.newArrayList();
     for (final String candidateHost : hosts) {
-      final String host = resolver.resolveName(candidateHost);
+      resolvedHosts.add(resolver.resolveName(candidateHost));
+    }
+
+    final String token = options.getString(tokenArg.getDest());
+
+    // Undeploy from all hosts with a single request when there's more than one, unless the
+    // master is too old to support that
+    final BulkUndeployResponse bulk = resolvedHosts.size() > 1
+                                      ? client.undeploy(jobId, resolvedHosts, token).get()
+                                      : null;
 
+    int code = 0;
+
+    for (final String host : resolvedHosts) {
       if (!json) {
         out.printf("%s: ", host);
       }
 
-      final String token = options.getString(tokenArg.getDest());
-      final JobUndeployResponse response = client.undeploy(jobId, host, token).get();
+      final JobUndeployResponse response;
+      if (bulk == null) {
+        response = client.undeploy(jobId, host, token).get();
+      } else if (bulk.getStatus() != JobUndeployResponse.Status.OK) {
+        response = new JobUndeployResponse(bulk.getStatus(), host, jobId);
+      } else {
+        response = new JobUndeployResponse(bulk.getHosts().get(host), host, jobId);
+      }
       if (response.getStatus() == JobUndeployResponse.Status.OK) {
         if (!json) {
           out.println("done");
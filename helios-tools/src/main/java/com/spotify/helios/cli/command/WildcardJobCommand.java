@@ -20,9 +20,9 @@ package com.spotify.helios.cli.command;
 import com.google.common.collect.Iterables;
 
 import com.spotify.helios.client.HeliosClient;
-import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
 import com.spotify.helios.common.protocol.JobDeployResponse;
+import com.spotify.helios.common.protocol.JobListQuery;
 
 import net.sourceforge.argparse4j.inf.Argument;
 import net.sourceforge.argparse4j.inf.Namespace;
@@ -31,7 +31,7 @@ import net.sourceforge.argparse4j.inf.Subparser;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.util.Map;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 
 abstract class WildcardJobCommand extends ControlCommand {
@@ -55,7 +55,9 @@ abstract class WildcardJobCommand extends ControlCommand {
       throws ExecutionException, InterruptedException, IOException {
 
     final String jobIdString = options.getString(jobArg.getDest());
-    final Map<JobId, Job> jobs = client.jobs(jobIdString).get();
+    // Two ids are enough to tell an ambiguous reference, and the job definitions aren't needed
+    final JobListQuery query = JobListQuery.newBuilder().setQ(jobIdString).setLimit(2).build();
+    final List<JobId> jobs = client.jobIds(query).get();
 
     if (jobs.size() == 0) {
       if (!json) {
@@ -77,7 +79,7 @@ abstract class WildcardJobCommand extends ControlCommand {
       return 1;
     }
 
-    final JobId jobId = Iterables.getOnlyElement(jobs.keySet());
+    final JobId jobId = Iterables.getOnlyElement(jobs);
 
     return runWithJobId(options, client, out, json, jobId, stdin);
   }
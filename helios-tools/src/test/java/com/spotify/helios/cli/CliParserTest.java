@@ -21,6 +21,8 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import com.spotify.helios.cli.command.HostListCommand;
+
 import com.google.common.base.Charsets;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
@@ -191,4 +193,14 @@ public class CliParserTest {
 
     assertTrue(parser.getNamespace().getBoolean("insecure"));
   }
+
+  @Test
+  public void testCommandNameAsOptionValue() throws Exception {
+    // "jobs" is picked as the command first, parsing fails, and all commands are set up
+    final String[] args = {"-u", SUBCOMMAND, "hosts", "--master", ENDPOINTS[0]};
+    final CliParser parser = new CliParser(args);
+
+    assertEquals(SUBCOMMAND, parser.getUsername());
+    assertTrue(parser.getCommand() instanceof HostListCommand);
+  }
 }
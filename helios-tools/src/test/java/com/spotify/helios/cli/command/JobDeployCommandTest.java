@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2016 Spotify AB.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package com.spotify.helios.cli.command;
+
+import com.spotify.helios.client.HeliosClient;
+import com.spotify.helios.common.descriptors.Deployment;
+import com.spotify.helios.common.descriptors.Job;
+import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.BulkDeployResponse;
+import com.spotify.helios.common.protocol.JobDeployResponse;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.Futures;
+
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JobDeployCommandTest {
+
+  private static final JobId JOB_ID = Job.newBuilder()
+      .setName("foo")
+      .setVersion("1")
+      .setImage("busybox:latest")
+      .build()
+      .getId();
+  private static final List<String> HOSTS = ImmutableList.of("host1", "host2");
+
+  private final Namespace options = mock(Namespace.class);
+  private final HeliosClient client = mock(HeliosClient.class);
+  private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+  private final PrintStream out = new PrintStream(baos);
+
+  private JobDeployCommand command;
+
+  @Before
+  public void setUp() {
+    // use a real, dummy Subparser impl to avoid having to mock out every single call
+    final ArgumentParser parser = ArgumentParsers.newArgumentParser("test");
+    final Subparser subparser = parser.addSubparsers().addParser("deploy");
+    command = new JobDeployCommand(subparser);
+
+    when(options.getList("hosts")).thenReturn((List) HOSTS);
+    when(options.getString("token")).thenReturn("");
+    when(options.getBoolean("no_start")).thenReturn(false);
+    when(options.getBoolean("watch")).thenReturn(false);
+    when(client.listHosts()).thenReturn(Futures.immediateFuture(HOSTS));
+  }
+
+  @Test
+  public void testBulkDeployReportsFailedHosts() throws Exception {
+    when(client.deploy(any(Deployment.class), eq(HOSTS), anyString())).thenReturn(
+        Futures.immediateFuture(new BulkDeployResponse(
+            JobDeployResponse.Status.OK, JOB_ID, ImmutableMap.of(
+                "host1", JobDeployResponse.Status.OK,
+                "host2", JobDeployResponse.Status.FAILED))));
+
+    final int ret = command.runWithJobId(options, client, out, false, JOB_ID, null);
+
+    assertThat(ret, equalTo(1));
+    assertThat(baos.toString(), containsString("host1: done"));
+    assertThat(baos.toString(), containsString("host2: failed"));
+    verify(client, never()).deploy(any(Deployment.class), anyString(), anyString());
+  }
+
+  @Test
+  public void testFallsBackToSingleHostDeploys() throws Exception {
+    when(client.deploy(any(Deployment.class), eq(HOSTS), anyString()))
+        .thenReturn(Futures.<BulkDeployResponse>immediateFuture(null));
+    when(client.deploy(any(Deployment.class), anyString(), anyString())).thenReturn(
+        Futures.immediateFuture(new JobDeployResponse(JobDeployResponse.Status.OK, null, JOB_ID)));
+
+    final int ret = command.runWithJobId(options, client, out, false, JOB_ID, null);
+
+    assertThat(ret, equalTo(0));
+    verify(client).deploy(any(Deployment.class), eq("host1"), anyString());
+    verify(client).deploy(any(Deployment.class), eq("host2"), anyString());
+  }
+}
@@ -17,6 +17,7 @@
 
 package com.spotify.helios.cli.command;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.Futures;
@@ -25,6 +26,7 @@ import com.spotify.helios.client.HeliosClient;
 import com.spotify.helios.common.Json;
 import com.spotify.helios.common.descriptors.Job;
 import com.spotify.helios.common.descriptors.JobId;
+import com.spotify.helios.common.protocol.JobListQuery;
 
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -37,12 +39,14 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -80,6 +84,8 @@ public class JobInspectCommandTest {
     final Subparser subparser = parser.addSubparsers().addParser("inspect");
     command = new JobInspectCommand(subparser, TimeZone.getTimeZone("UTC"));
 
+    when(client.jobIds(any(JobListQuery.class)))
+        .thenReturn(Futures.immediateFuture((List<JobId>) ImmutableList.copyOf(jobs.keySet())));
     when(client.jobs(JOB_NAME_VERSION)).thenReturn(Futures.immediateFuture(jobs));
   }
 